@@ -0,0 +1,39 @@
+package com.ensam.library.analytics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Encodage par dictionnaire d'une colonne texte : chaque valeur distincte reçoit un code
+ * entier dense, utilisable directement comme indice de tableau d'agrégation. Les codes ne sont
+ * jamais libérés : réservé aux colonnes de faible cardinalité (genres, auteurs).
+ */
+public final class Dictionary {
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    public int encode(String value) {
+        return codes.computeIfAbsent(value, v -> {
+            values.add(v);
+            return values.size() - 1;
+        });
+    }
+
+    /**
+     * Code de {@code value}, ou -1 si la valeur n'a jamais été encodée.
+     */
+    public int find(String value) {
+        return codes.getOrDefault(value, -1);
+    }
+
+    public String decode(int code) {
+        return values.get(code);
+    }
+
+    public int size() {
+        return values.size();
+    }
+}
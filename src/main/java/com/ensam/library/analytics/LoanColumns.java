@@ -0,0 +1,210 @@
+package com.ensam.library.analytics;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Historique des prêts en colonnes de types primitifs : dates en jours depuis l'époque, genre et
+ * auteur encodés par dictionnaire. Instantané immuable, reconstruit périodiquement.
+ * <p>
+ * Chaque requête est un parcours de colonnes découpé en tranches par fork/join : chaque
+ * tranche remplit son propre tableau d'agrégats, les tableaux sont additionnés en remontant.
+ * Les boucles internes ne portent que sur des {@code int[]}, sans objet ni indirection.
+ */
+public final class LoanColumns {
+
+    static final int NOT_RETURNED = Integer.MIN_VALUE;
+    static final int LEAF_ROWS = 16_384;
+
+    private final int size;
+    private final int[] loanDay;
+    private final int[] loanMonth;
+    private final int[] returnDay;
+    private final int[] genre;
+    private final int[] author;
+    private final Dictionary genres;
+    private final Dictionary authors;
+
+    private LoanColumns(Builder builder) {
+        this.size = builder.size;
+        this.loanDay = Arrays.copyOf(builder.loanDay, size);
+        this.loanMonth = Arrays.copyOf(builder.loanMonth, size);
+        this.returnDay = Arrays.copyOf(builder.returnDay, size);
+        this.genre = Arrays.copyOf(builder.genre, size);
+        this.author = Arrays.copyOf(builder.author, size);
+        this.genres = builder.genres;
+        this.authors = builder.authors;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int genreCount() {
+        return genres.size();
+    }
+
+    public String genre(int code) {
+        return genres.decode(code);
+    }
+
+    public int authorCount() {
+        return authors.size();
+    }
+
+    public String author(int code) {
+        return authors.decode(code);
+    }
+
+    /**
+     * Prêts par mois et par genre entre deux dates incluses. Résultat indexé par
+     * {@code (mois - premierMois) * genreCount() + genre}, où les mois sont comptés par
+     * {@link #month(LocalDate)}.
+     */
+    public long[] countByMonthAndGenre(LocalDate from, LocalDate to) {
+        int fromDay = (int) from.toEpochDay();
+        int toDay = (int) to.toEpochDay();
+        int firstMonth = month(from);
+        int genreCount = genres.size();
+        int width = Math.max(0, (month(to) - firstMonth + 1) * genreCount);
+        return aggregate(width, (start, end, result) -> {
+            for (int i = start; i < end; i++) {
+                int day = loanDay[i];
+                if (day >= fromDay && day <= toDay) {
+                    result[(loanMonth[i] - firstMonth) * genreCount + genre[i]]++;
+                }
+            }
+        });
+    }
+
+    /**
+     * Pour chaque auteur, somme des durées (en jours) puis nombre de prêts rendus :
+     * {@code result[2 * auteur]} et {@code result[2 * auteur + 1]}.
+     */
+    public long[] loanDurationByAuthor() {
+        return aggregate(authors.size() * 2, (start, end, result) -> {
+            for (int i = start; i < end; i++) {
+                int returned = returnDay[i];
+                if (returned != NOT_RETURNED) {
+                    int slot = author[i] << 1;
+                    result[slot] += returned - loanDay[i];
+                    result[slot + 1]++;
+                }
+            }
+        });
+    }
+
+    /**
+     * Distribution des délais de retour en {@code buckets} tranches de {@code bucketDays} jours ;
+     * la dernière tranche regroupe tous les délais plus longs.
+     */
+    public long[] returnLatencyHistogram(int bucketDays, int buckets) {
+        int last = buckets - 1;
+        return aggregate(buckets, (start, end, result) -> {
+            for (int i = start; i < end; i++) {
+                int returned = returnDay[i];
+                if (returned != NOT_RETURNED) {
+                    int latency = Math.max(0, returned - loanDay[i]);
+                    result[Math.min(latency / bucketDays, last)]++;
+                }
+            }
+        });
+    }
+
+    // Mois compté depuis l'an 0 : deux dates du même mois ont la même valeur
+    public static int month(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    public static LocalDate monthStart(int month) {
+        return LocalDate.of(Math.floorDiv(month, 12), Math.floorMod(month, 12) + 1, 1);
+    }
+
+    private long[] aggregate(int width, RangeAggregator aggregator) {
+        if (size <= LEAF_ROWS) {
+            long[] result = new long[width];
+            aggregator.accumulate(0, size, result);
+            return result;
+        }
+        return ForkJoinPool.commonPool().invoke(new AggregateTask(aggregator, width, 0, size));
+    }
+
+    @FunctionalInterface
+    private interface RangeAggregator {
+        void accumulate(int start, int end, long[] result);
+    }
+
+    private static final class AggregateTask extends RecursiveTask<long[]> {
+        private final RangeAggregator aggregator;
+        private final int width;
+        private final int start;
+        private final int end;
+
+        private AggregateTask(RangeAggregator aggregator, int width, int start, int end) {
+            this.aggregator = aggregator;
+            this.width = width;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (end - start <= LEAF_ROWS) {
+                long[] result = new long[width];
+                aggregator.accumulate(start, end, result);
+                return result;
+            }
+            int middle = (start + end) >>> 1;
+            AggregateTask left = new AggregateTask(aggregator, width, start, middle);
+            left.fork();
+            long[] result = new AggregateTask(aggregator, width, middle, end).compute();
+            long[] other = left.join();
+            for (int i = 0; i < width; i++) {
+                result[i] += other[i];
+            }
+            return result;
+        }
+    }
+
+    public static final class Builder {
+        private int size;
+        private int[] loanDay = new int[1024];
+        private int[] loanMonth = new int[1024];
+        private int[] returnDay = new int[1024];
+        private int[] genre = new int[1024];
+        private int[] author = new int[1024];
+        private final Dictionary genres = new Dictionary();
+        private final Dictionary authors = new Dictionary();
+
+        private Builder() {
+        }
+
+        public Builder add(LocalDate loanDate, LocalDate returnDate, String genreName, String authorName) {
+            if (size == loanDay.length) {
+                int capacity = size * 2;
+                loanDay = Arrays.copyOf(loanDay, capacity);
+                loanMonth = Arrays.copyOf(loanMonth, capacity);
+                returnDay = Arrays.copyOf(returnDay, capacity);
+                genre = Arrays.copyOf(genre, capacity);
+                author = Arrays.copyOf(author, capacity);
+            }
+            loanDay[size] = (int) loanDate.toEpochDay();
+            loanMonth[size] = month(loanDate);
+            returnDay[size] = returnDate != null ? (int) returnDate.toEpochDay() : NOT_RETURNED;
+            genre[size] = genres.encode(genreName);
+            author[size] = authors.encode(authorName);
+            size++;
+            return this;
+        }
+
+        public LoanColumns build() {
+            return new LoanColumns(this);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.ensam.library.archive;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Prêt rendu déplacé vers l'archive : les identifiants seuls, le livre et le membre pouvant
+ * avoir été supprimés depuis.
+ */
+@Value
+public class ArchivedLoan {
+    long id;
+    long bookId;
+    long memberId;
+    LocalDate loanDate;
+    LocalDate returnDate;
+}
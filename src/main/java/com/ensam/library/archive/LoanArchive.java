@@ -0,0 +1,191 @@
+package com.ensam.library.archive;
+
+import com.ensam.library.snapshot.ColumnType;
+import com.ensam.library.snapshot.SnapshotReader;
+import com.ensam.library.snapshot.SnapshotTable;
+import com.ensam.library.snapshot.SnapshotWriter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+/**
+ * Archive froide des prêts rendus : une suite de segments en ajout seul, un par exécution de
+ * l'archivage, au format compressé en colonnes des instantanés ({@link SnapshotWriter}).
+ * Un segment est écrit sous un nom temporaire, forcé sur disque puis renommé : un segment
+ * présent est complet.
+ * <p>
+ * Pour chaque segment, les identifiants distincts de membres et de livres sont gardés en mémoire
+ * (tableaux triés) : une recherche ne décompresse que les segments qui contiennent l'identifiant.
+ */
+@Slf4j
+public class LoanArchive {
+
+    static final SnapshotTable TABLE = new SnapshotTable("loans",
+            List.of("id", "book_id", "member_id", "loan_date", "return_date"),
+            List.of(ColumnType.LONG, ColumnType.LONG, ColumnType.LONG, ColumnType.DATE, ColumnType.DATE));
+
+    private static final String PREFIX = "loans-";
+    private static final String SUFFIX = ".seg";
+
+    private final Path directory;
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private long lastSegment;
+
+    public LoanArchive(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Charge le résumé des segments présents ; les écritures interrompues sont supprimées.
+     */
+    public synchronized void open() throws IOException {
+        segments.clear();
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, PREFIX + "*")) {
+            for (Path entry : entries) {
+                if (entry.getFileName().toString().endsWith(SUFFIX)) {
+                    files.add(entry);
+                } else {
+                    Files.deleteIfExists(entry);
+                }
+            }
+        }
+        files.sort(null);
+        for (Path file : files) {
+            List<ArchivedLoan> loans = read(file, loan -> true);
+            segments.add(new Segment(file, loans));
+            lastSegment = Math.max(lastSegment, number(file));
+        }
+        log.info("Archive des prêts: {} segment(s), {} prêt(s)", segments.size(), size());
+    }
+
+    /**
+     * Écrit un nouveau segment ; les prêts sont conservés dans l'ordre donné.
+     */
+    public synchronized Path append(List<ArchivedLoan> loans) throws IOException {
+        Files.createDirectories(directory);
+        long number = lastSegment + 1;
+        Path file = directory.resolve(String.format("%s%010d%s", PREFIX, number, SUFFIX));
+        Path temp = directory.resolve(file.getFileName() + ".tmp");
+        try (SnapshotWriter writer = new SnapshotWriter(Files.newOutputStream(temp))) {
+            writer.beginTable(TABLE);
+            for (ArchivedLoan loan : loans) {
+                writer.row(new Object[]{loan.getId(), loan.getBookId(), loan.getMemberId(), loan.getLoanDate(),
+                        loan.getReturnDate()});
+            }
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        lastSegment = number;
+        segments.add(new Segment(file, loans));
+        return file;
+    }
+
+    public List<ArchivedLoan> findByMemberId(long memberId) throws IOException {
+        List<ArchivedLoan> loans = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (Arrays.binarySearch(segment.memberIds, memberId) >= 0) {
+                loans.addAll(read(segment.file, loan -> loan.getMemberId() == memberId));
+            }
+        }
+        return loans;
+    }
+
+    public List<ArchivedLoan> findByBookId(long bookId) throws IOException {
+        List<ArchivedLoan> loans = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (Arrays.binarySearch(segment.bookIds, bookId) >= 0) {
+                loans.addAll(read(segment.file, loan -> loan.getBookId() == bookId));
+            }
+        }
+        return loans;
+    }
+
+    /**
+     * Tous les prêts archivés, segment par segment ; un prêt écrit par une exécution interrompue
+     * puis reprise peut y figurer deux fois.
+     */
+    public List<ArchivedLoan> findAll() throws IOException {
+        List<ArchivedLoan> loans = new ArrayList<>();
+        for (Segment segment : segments) {
+            loans.addAll(read(segment.file, loan -> true));
+        }
+        return loans;
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    public long size() {
+        return segments.stream().mapToLong(segment -> segment.rows).sum();
+    }
+
+    /**
+     * Plus grand identifiant archivé, 0 si l'archive est vide : un prêt créé ensuite ne doit pas
+     * le reprendre.
+     */
+    public long maxId() {
+        return segments.stream().mapToLong(segment -> segment.maxId).max().orElse(0L);
+    }
+
+    private static List<ArchivedLoan> read(Path file, Predicate<ArchivedLoan> filter) throws IOException {
+        List<ArchivedLoan> loans = new ArrayList<>();
+        try (InputStream input = Files.newInputStream(file); SnapshotReader reader = new SnapshotReader(input)) {
+            Optional<SnapshotTable> table = reader.nextTable();
+            if (table.isEmpty() || !table.get().equals(TABLE)) {
+                throw new IOException("Segment d'archive invalide: " + file);
+            }
+            for (List<Object[]> block = reader.nextBlock(); !block.isEmpty(); block = reader.nextBlock()) {
+                for (Object[] row : block) {
+                    ArchivedLoan loan = new ArchivedLoan((Long) row[0], (Long) row[1], (Long) row[2],
+                            (LocalDate) row[3], (LocalDate) row[4]);
+                    if (filter.test(loan)) {
+                        loans.add(loan);
+                    }
+                }
+            }
+        }
+        return loans;
+    }
+
+    private static long number(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private static final class Segment {
+        private final Path file;
+        private final int rows;
+        private final long maxId;
+        private final long[] memberIds;
+        private final long[] bookIds;
+
+        private Segment(Path file, List<ArchivedLoan> loans) {
+            this.file = file;
+            this.rows = loans.size();
+            this.maxId = loans.stream().mapToLong(ArchivedLoan::getId).max().orElse(0L);
+            this.memberIds = loans.stream().mapToLong(ArchivedLoan::getMemberId).sorted().distinct().toArray();
+            this.bookIds = loans.stream().mapToLong(ArchivedLoan::getBookId).sorted().distinct().toArray();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.ensam.library.audit;
+
+import lombok.Value;
+
+/**
+ * Opération de service journalisée : lecture (échantillonnée) ou écriture (toujours capturée).
+ */
+@Value
+public class AuditEvent {
+
+    public enum Kind {
+        READ,
+        WRITE
+    }
+
+    long timestamp;
+    Kind kind;
+    String action;
+    Long entityId;
+    String detail;
+}
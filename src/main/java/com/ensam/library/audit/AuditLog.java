@@ -0,0 +1,309 @@
+package com.ensam.library.audit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Journal d'audit asynchrone des services. Le thread appelant ne fait que déposer un
+ * {@link AuditEvent} dans un {@link AuditRingBuffer} ; un unique thread d'écriture vide la file
+ * par lots, les sérialise en JSON (un objet par ligne) et les ajoute à {@code audit.log}, renommé
+ * en {@code audit.1.log} (les plus anciens décalés, au-delà de {@code maxFiles} supprimés) dès
+ * qu'il dépasse {@code maxFileBytes}.
+ * <p>
+ * Les lectures sont échantillonnées au taux {@code readSampleRate} et abandonnées si la file est
+ * pleine ; les écritures sont toutes capturées, l'appelant attendant au besoin qu'une case se
+ * libère, tant que le thread d'écriture tourne : sans lui, elles sont abandonnées et comptées.
+ * Un lot dont l'écriture échoue est perdu et compté, sans arrêter le thread ; une rotation
+ * manquée laisse le fichier courant rouvert et grossir jusqu'à la suivante. Un journal
+ * désactivé ne capture rien.
+ */
+@Slf4j
+public class AuditLog {
+
+    static final String FILE_NAME = "audit.log";
+
+    // Attente du thread d'écriture quand la file est vide ; les producteurs ne le réveillent pas
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final boolean enabled;
+    private final Path directory;
+    private final AuditRingBuffer buffer;
+    private final double readSampleRate;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final int maxBatch;
+
+    private final LongAdder captured = new LongAdder();
+    private final LongAdder sampledOut = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private volatile boolean running;
+    private Thread writer;
+    private FileChannel channel;
+    private long fileBytes;
+
+    public AuditLog(boolean enabled, Path directory, int capacity, double readSampleRate, long maxFileBytes,
+                    int maxFiles, int maxBatch) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.buffer = new AuditRingBuffer(capacity);
+        this.readSampleRate = readSampleRate;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+        this.maxBatch = maxBatch;
+    }
+
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+        openFile();
+        running = true;
+        writer = new Thread(this::writeLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Journal d'audit dans {} (file de {} événements, lectures échantillonnées à {})",
+                directory, buffer.capacity(), readSampleRate);
+    }
+
+    /**
+     * Arrête le thread d'écriture après qu'il a vidé la file.
+     */
+    public void close() throws IOException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+        channel.close();
+        log.info("Journal d'audit fermé: {} capturé(s), {} écrit(s), {} non échantillonné(s), {} abandonné(s), "
+                + "{} perdu(s) en écriture", captured.sum(), written.sum(), sampledOut.sum(), dropped.sum(), failed.sum());
+    }
+
+    public void read(String action, Long entityId) {
+        read(action, entityId, null);
+    }
+
+    public void read(String action, Long entityId, String detail) {
+        if (!enabled) {
+            return;
+        }
+        if (readSampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= readSampleRate) {
+            sampledOut.increment();
+            return;
+        }
+        if (buffer.offer(new AuditEvent(System.currentTimeMillis(), AuditEvent.Kind.READ, action, entityId, detail))) {
+            captured.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    public void write(String action, Long entityId) {
+        write(action, entityId, null);
+    }
+
+    public void write(String action, Long entityId, String detail) {
+        if (!enabled) {
+            return;
+        }
+        AuditEvent event = new AuditEvent(System.currentTimeMillis(), AuditEvent.Kind.WRITE, action, entityId, detail);
+        while (!buffer.offer(event)) {
+            // Sans thread d'écriture, attendre ne libérerait aucune case
+            if (!running) {
+                dropped.increment();
+                return;
+            }
+            LockSupport.parkNanos(FULL_PARK_NANOS);
+        }
+        captured.increment();
+    }
+
+    /**
+     * Capture l'écriture à la validation de la transaction en cours, et pas du tout si elle est
+     * annulée ; immédiatement hors transaction.
+     */
+    public void writeOnCommit(String action, Long entityId) {
+        writeOnCommit(action, entityId, null);
+    }
+
+    public void writeOnCommit(String action, Long entityId, String detail) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(action, entityId, detail);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                write(action, entityId, detail);
+            }
+        });
+    }
+
+    public long getCaptured() {
+        return captured.sum();
+    }
+
+    public long getSampledOut() {
+        return sampledOut.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getWritten() {
+        return written.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    private void writeLoop() {
+        try {
+            drainLoop();
+        } catch (Throwable e) {
+            log.error("Arrêt du thread d'écriture du journal d'audit", e);
+            throw e;
+        } finally {
+            // Les producteurs cessent d'attendre une case qu'aucun thread ne libérera
+            running = false;
+        }
+    }
+
+    private void drainLoop() {
+        List<AuditEvent> batch = new ArrayList<>(maxBatch);
+        StringBuilder lines = new StringBuilder(maxBatch * 96);
+        while (true) {
+            // Lu avant de vider la file : les événements déposés avant l'arrêt sont tous écrits
+            boolean stopping = !running;
+            if (buffer.drainTo(batch, maxBatch) == 0) {
+                if (stopping) {
+                    return;
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            try {
+                for (AuditEvent event : batch) {
+                    appendJson(lines, event);
+                }
+                append(lines.toString().getBytes(StandardCharsets.UTF_8));
+                written.add(batch.size());
+            } catch (IOException | RuntimeException e) {
+                failed.add(batch.size());
+                log.warn("Échec de l'écriture de {} événement(s) d'audit: {}", batch.size(), e.toString());
+            }
+            batch.clear();
+            lines.setLength(0);
+        }
+    }
+
+    private void append(byte[] bytes) throws IOException {
+        if (fileBytes > 0 && fileBytes + bytes.length > maxFileBytes) {
+            try {
+                roll();
+            } catch (IOException e) {
+                log.warn("Échec de la rotation du journal d'audit, écriture poursuivie dans {}: {}",
+                        FILE_NAME, e.toString());
+            }
+        }
+        if (!channel.isOpen()) {
+            openFile();
+        }
+        ByteBuffer data = ByteBuffer.wrap(bytes);
+        while (data.hasRemaining()) {
+            channel.write(data);
+        }
+        fileBytes += bytes.length;
+    }
+
+    // Le fichier est rouvert même si un renommage échoue : audit.log s'il n'a pas été déplacé
+    private void roll() throws IOException {
+        channel.close();
+        try {
+            Files.deleteIfExists(directory.resolve(rolledName(maxFiles)));
+            for (int i = maxFiles - 1; i >= 1; i--) {
+                Path rolled = directory.resolve(rolledName(i));
+                if (Files.exists(rolled)) {
+                    Files.move(rolled, directory.resolve(rolledName(i + 1)), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(directory.resolve(FILE_NAME), directory.resolve(rolledName(1)),
+                    StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            openFile();
+        }
+    }
+
+    private void openFile() throws IOException {
+        channel = FileChannel.open(directory.resolve(FILE_NAME), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        fileBytes = channel.size();
+    }
+
+    static String rolledName(int index) {
+        return "audit." + index + ".log";
+    }
+
+    static void appendJson(StringBuilder out, AuditEvent event) {
+        out.append("{\"ts\":\"").append(Instant.ofEpochMilli(event.getTimestamp()))
+                .append("\",\"kind\":\"").append(event.getKind())
+                .append("\",\"action\":");
+        appendString(out, event.getAction());
+        if (event.getEntityId() != null) {
+            out.append(",\"id\":").append(event.getEntityId());
+        }
+        if (event.getDetail() != null) {
+            out.append(",\"detail\":");
+            appendString(out, event.getDetail());
+        }
+        out.append("}\n");
+    }
+
+    private static void appendString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,23 @@
+package com.ensam.library.batch;
+
+import lombok.Value;
+
+/**
+ * Point de contrôle d'une tranche : dernier identifiant dont le lot a été validé.
+ */
+@Value
+public class Checkpoint {
+    Partition partition;
+    long lastId;
+    boolean completed;
+    long itemsRead;
+    long itemsWritten;
+
+    static Checkpoint start(Partition partition) {
+        return new Checkpoint(partition, partition.getMinId() - 1, false, 0, 0);
+    }
+
+    Checkpoint advance(long lastId, int read, int written, boolean completed) {
+        return new Checkpoint(partition, lastId, completed, itemsRead + read, itemsWritten + written);
+    }
+}
@@ -0,0 +1,14 @@
+package com.ensam.library.batch;
+
+import java.util.List;
+
+/**
+ * Persistance des points de contrôle d'une exécution, identifiée par l'étape et une clé d'exécution.
+ * {@link #save} est appelé dans la transaction du lot, avec l'écriture de ce lot.
+ */
+public interface CheckpointStore {
+
+    List<Checkpoint> load(String step, String runKey);
+
+    void save(String step, String runKey, Checkpoint checkpoint);
+}
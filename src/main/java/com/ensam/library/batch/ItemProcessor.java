@@ -0,0 +1,10 @@
+package com.ensam.library.batch;
+
+/**
+ * Transforme un élément lu ; {@code null} l'écarte du lot à écrire.
+ */
+@FunctionalInterface
+public interface ItemProcessor<I, O> {
+
+    O process(I item);
+}
@@ -0,0 +1,12 @@
+package com.ensam.library.batch;
+
+import java.util.List;
+
+/**
+ * Écrit un lot complet. Un lot peut être réécrit après une reprise : l'écriture doit être idempotente.
+ */
+@FunctionalInterface
+public interface ItemWriter<O> {
+
+    void write(List<O> items);
+}
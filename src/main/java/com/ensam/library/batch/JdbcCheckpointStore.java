@@ -0,0 +1,40 @@
+package com.ensam.library.batch;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Points de contrôle dans la table {@code batch_checkpoints}.
+ */
+public class JdbcCheckpointStore implements CheckpointStore {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcCheckpointStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<Checkpoint> load(String step, String runKey) {
+        return jdbcTemplate.query("SELECT partition_index, min_id, max_id, last_id, completed, items_read, items_written "
+                        + "FROM batch_checkpoints WHERE step_name = ? AND run_key = ? ORDER BY partition_index",
+                (resultSet, row) -> new Checkpoint(
+                        new Partition(resultSet.getInt(1), resultSet.getLong(2), resultSet.getLong(3)),
+                        resultSet.getLong(4), resultSet.getBoolean(5), resultSet.getLong(6), resultSet.getLong(7)),
+                step, runKey);
+    }
+
+    @Override
+    public void save(String step, String runKey, Checkpoint checkpoint) {
+        Partition partition = checkpoint.getPartition();
+        jdbcTemplate.update("MERGE INTO batch_checkpoints (step_name, run_key, partition_index, min_id, max_id, "
+                        + "last_id, completed, items_read, items_written, updated_at) "
+                        + "KEY (step_name, run_key, partition_index) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                step, runKey, partition.getIndex(), partition.getMinId(), partition.getMaxId(),
+                checkpoint.getLastId(), checkpoint.isCompleted(), checkpoint.getItemsRead(), checkpoint.getItemsWritten(),
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
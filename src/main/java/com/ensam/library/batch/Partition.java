@@ -0,0 +1,33 @@
+package com.ensam.library.batch;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tranche d'identifiants {@code [minId, maxId]} traitée par un seul fil.
+ */
+@Value
+public class Partition {
+    int index;
+    long minId;
+    long maxId;
+
+    /**
+     * Découpe {@code [minId, maxId]} en au plus {@code gridSize} tranches contiguës de même largeur.
+     */
+    public static List<Partition> split(long minId, long maxId, int gridSize) {
+        List<Partition> partitions = new ArrayList<>();
+        if (maxId < minId) {
+            return partitions;
+        }
+        long span = maxId - minId + 1;
+        int count = (int) Math.max(1, Math.min(gridSize, span));
+        long width = (span + count - 1) / count;
+        for (long from = minId; from <= maxId; from += width) {
+            partitions.add(new Partition(partitions.size(), from, Math.min(maxId, from + width - 1)));
+        }
+        return partitions;
+    }
+}
@@ -0,0 +1,20 @@
+package com.ensam.library.batch;
+
+import java.util.List;
+
+/**
+ * Lecture par tranches d'identifiants croissants : chaque appel reprend après le dernier
+ * identifiant lu, ce qui suffit à reprendre une tranche interrompue depuis son point de contrôle.
+ */
+public interface PartitionedReader<I> {
+
+    List<Partition> partition(int gridSize);
+
+    /**
+     * Au plus {@code chunkSize} éléments de la tranche d'identifiant supérieur à {@code afterId},
+     * par identifiant croissant.
+     */
+    List<I> read(Partition partition, long afterId, int chunkSize);
+
+    long idOf(I item);
+}
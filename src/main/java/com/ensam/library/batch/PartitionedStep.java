@@ -0,0 +1,204 @@
+package com.ensam.library.batch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Étape orientée lots, à la manière de Spring Batch : chaque tranche d'identifiants est lue,
+ * transformée et écrite par lots de {@code chunkSize}, les tranches en parallèle sur
+ * {@code gridSize} fils. Chaque lot (lecture, écriture, point de contrôle) forme une transaction.
+ * <p>
+ * Relancée avec la même clé d'exécution, l'étape reprend chaque tranche inachevée après son
+ * dernier lot validé, avec le découpage d'origine, et ignore les tranches terminées.
+ */
+@Slf4j
+public class PartitionedStep<I, O> {
+
+    private final String name;
+    private final PartitionedReader<I> reader;
+    private final ItemProcessor<I, O> processor;
+    private final ItemWriter<O> writer;
+    private final CheckpointStore checkpointStore;
+    private final TransactionOperations transactions;
+    private final int gridSize;
+    private final int chunkSize;
+
+    private PartitionedStep(Builder<I, O> builder) {
+        this.name = builder.name;
+        this.reader = builder.reader;
+        this.processor = builder.processor;
+        this.writer = builder.writer;
+        this.checkpointStore = builder.checkpointStore;
+        this.transactions = builder.transactions;
+        this.gridSize = builder.gridSize;
+        this.chunkSize = builder.chunkSize;
+    }
+
+    public static <I, O> Builder<I, O> builder(String name) {
+        return new Builder<>(name);
+    }
+
+    public StepResult execute(String runKey) {
+        long start = System.nanoTime();
+        List<Checkpoint> checkpoints = checkpointStore.load(name, runKey);
+        boolean resuming = !checkpoints.isEmpty();
+        if (!resuming) {
+            checkpoints = new ArrayList<>();
+            for (Partition partition : reader.partition(gridSize)) {
+                Checkpoint checkpoint = Checkpoint.start(partition);
+                transactions.executeWithoutResult(status -> checkpointStore.save(name, runKey, checkpoint));
+                checkpoints.add(checkpoint);
+            }
+        }
+
+        List<Checkpoint> pending = new ArrayList<>();
+        for (Checkpoint checkpoint : checkpoints) {
+            if (!checkpoint.isCompleted()) {
+                pending.add(checkpoint);
+            }
+        }
+        int resumed = resuming ? pending.size() : 0;
+        if (resuming) {
+            log.info("Reprise de l'étape {} ({}): {} tranche(s) sur {} à terminer", name, runKey, pending.size(),
+                    checkpoints.size());
+        }
+
+        AtomicLong chunks = new AtomicLong();
+        AtomicLong processed = new AtomicLong();
+        List<Checkpoint> finished = new ArrayList<>(checkpoints);
+        int failed = 0;
+        if (!pending.isEmpty()) {
+            AtomicInteger threads = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(Math.min(gridSize, pending.size()),
+                    task -> new Thread(task, "batch-" + name + "-" + threads.incrementAndGet()));
+            try {
+                List<Future<Checkpoint>> futures = new ArrayList<>();
+                for (Checkpoint checkpoint : pending) {
+                    futures.add(executor.submit(() -> run(runKey, checkpoint, chunks, processed)));
+                }
+                for (int i = 0; i < futures.size(); i++) {
+                    Checkpoint checkpoint = pending.get(i);
+                    try {
+                        finished.set(checkpoints.indexOf(checkpoint), futures.get(i).get());
+                    } catch (ExecutionException e) {
+                        failed++;
+                        log.error("Échec de la tranche {} de l'étape {} ({}), reprise possible après l'identifiant "
+                                + "du dernier lot validé", checkpoint.getPartition().getIndex(), name, runKey, e.getCause());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Étape " + name + " interrompue", e);
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        long read = finished.stream().mapToLong(Checkpoint::getItemsRead).sum();
+        long written = finished.stream().mapToLong(Checkpoint::getItemsWritten).sum();
+        double throughput = elapsedMs > 0 ? processed.get() * 1000.0 / elapsedMs : processed.get();
+        StepResult result = new StepResult(name, runKey, failed > 0 ? StepResult.Status.FAILED : StepResult.Status.COMPLETED,
+                checkpoints.size(), resumed, failed, read, written, chunks.get(), elapsedMs, throughput);
+        log.info("Étape {} ({}) {}: {} tranche(s), {} lu(s), {} écrit(s), {} lot(s) en {} ms, {} élément(s)/s",
+                name, runKey, result.getStatus(), result.getPartitions(), read, written, result.getChunks(), elapsedMs,
+                Math.round(throughput));
+        return result;
+    }
+
+    private Checkpoint run(String runKey, Checkpoint checkpoint, AtomicLong chunks, AtomicLong processed) {
+        Checkpoint current = checkpoint;
+        while (!current.isCompleted()) {
+            Checkpoint from = current;
+            current = transactions.execute(status -> chunk(runKey, from));
+            chunks.incrementAndGet();
+            processed.addAndGet(current.getItemsRead() - from.getItemsRead());
+        }
+        return current;
+    }
+
+    private Checkpoint chunk(String runKey, Checkpoint checkpoint) {
+        List<I> items = reader.read(checkpoint.getPartition(), checkpoint.getLastId(), chunkSize);
+        List<O> output = new ArrayList<>(items.size());
+        for (I item : items) {
+            O result = processor.process(item);
+            if (result != null) {
+                output.add(result);
+            }
+        }
+        if (!output.isEmpty()) {
+            writer.write(output);
+        }
+        long lastId = items.isEmpty() ? checkpoint.getLastId() : reader.idOf(items.get(items.size() - 1));
+        Checkpoint next = checkpoint.advance(lastId, items.size(), output.size(), items.size() < chunkSize);
+        checkpointStore.save(name, runKey, next);
+        return next;
+    }
+
+    public static final class Builder<I, O> {
+        private final String name;
+        private PartitionedReader<I> reader;
+        private ItemProcessor<I, O> processor;
+        private ItemWriter<O> writer;
+        private CheckpointStore checkpointStore;
+        private TransactionOperations transactions = TransactionOperations.withoutTransaction();
+        private int gridSize = 4;
+        private int chunkSize = 500;
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        public Builder<I, O> reader(PartitionedReader<I> reader) {
+            this.reader = reader;
+            return this;
+        }
+
+        public Builder<I, O> processor(ItemProcessor<I, O> processor) {
+            this.processor = processor;
+            return this;
+        }
+
+        public Builder<I, O> writer(ItemWriter<O> writer) {
+            this.writer = writer;
+            return this;
+        }
+
+        public Builder<I, O> checkpointStore(CheckpointStore checkpointStore) {
+            this.checkpointStore = checkpointStore;
+            return this;
+        }
+
+        public Builder<I, O> transactions(TransactionOperations transactions) {
+            this.transactions = transactions;
+            return this;
+        }
+
+        public Builder<I, O> gridSize(int gridSize) {
+            this.gridSize = Math.max(1, gridSize);
+            return this;
+        }
+
+        public Builder<I, O> chunkSize(int chunkSize) {
+            this.chunkSize = Math.max(1, chunkSize);
+            return this;
+        }
+
+        public PartitionedStep<I, O> build() {
+            if (reader == null || processor == null || writer == null || checkpointStore == null) {
+                throw new IllegalStateException("Étape " + name + " incomplète: lecteur, processeur, rédacteur "
+                        + "et points de contrôle requis");
+            }
+            return new PartitionedStep<>(this);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.ensam.library.batch;
+
+import lombok.Value;
+
+/**
+ * Bilan et débit d'une exécution d'étape. Les compteurs couvrent toute l'exécution, tranches
+ * reprises comprises ; le débit ne porte que sur les éléments traités lors de cet appel.
+ */
+@Value
+public class StepResult {
+
+    public enum Status {
+        COMPLETED,
+        FAILED
+    }
+
+    String step;
+    String runKey;
+    Status status;
+    int partitions;
+    int resumedPartitions;
+    int failedPartitions;
+    long itemsRead;
+    long itemsWritten;
+    long chunks;
+    long elapsedMs;
+    double itemsPerSecond;
+}
@@ -0,0 +1,270 @@
+package com.ensam.library.catalog;
+
+import com.ensam.library.model.Book;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Image du catalogue dans un fichier projeté en mémoire, partagée par les instances d'un même hôte :
+ * les pages du fichier sont communes à tous les processus qui le projettent, hors du tas.
+ * <p>
+ * Format : un en-tête, un enregistrement de largeur fixe par livre trié par identifiant, puis
+ * une réserve de chaînes UTF-8 dédupliquées (auteurs et genres répétés n'y figurent qu'une fois).
+ * Les lectures sont des accès absolus au tampon, sans copie jusqu'à la construction du
+ * {@link Book} renvoyé ; la recherche par titre compare directement les octets des titres en
+ * minuscules. Une image est immuable : une nouvelle génération est un nouveau fichier.
+ */
+public final class CatalogImage {
+
+    static final int MAGIC = 0x4C434154;
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 40;
+    static final int RECORD_BYTES = 64;
+
+    // En-tête
+    private static final int H_GENERATION = 8;
+    private static final int H_SNAPSHOT_AT = 16;
+    private static final int H_COUNT = 24;
+    private static final int H_POOL_BYTES = 28;
+    private static final int H_COMPLETE_SEQ = 32;
+    // Enregistrement : chaque chaîne est un couple (position dans la réserve, longueur)
+    private static final int R_ID = 0;
+    private static final int R_CHANGE_SEQ = 8;
+    private static final int R_TITLE = 16;
+    private static final int R_TITLE_LOWER = 24;
+    private static final int R_AUTHOR = 32;
+    private static final int R_GENRE = 40;
+    private static final int R_TOTAL_COPIES = 48;
+    private static final int R_AVAILABLE_COPIES = 52;
+    private static final int R_AVAILABLE = 56;
+
+    private final ByteBuffer buffer;
+    private final long generation;
+    private final long snapshotAt;
+    private final long completeSeq;
+    private final int count;
+    private final int poolStart;
+
+    private CatalogImage(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Fichier d'image du catalogue non reconnu");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Version d'image du catalogue non prise en charge: " + buffer.getInt(4));
+        }
+        this.generation = buffer.getLong(H_GENERATION);
+        this.snapshotAt = buffer.getLong(H_SNAPSHOT_AT);
+        this.completeSeq = buffer.getLong(H_COMPLETE_SEQ);
+        this.count = buffer.getInt(H_COUNT);
+        this.poolStart = HEADER_BYTES + count * RECORD_BYTES;
+        if ((long) poolStart + buffer.getInt(H_POOL_BYTES) != buffer.capacity()) {
+            throw new IOException("Image du catalogue tronquée");
+        }
+    }
+
+    /**
+     * Projette le fichier en lecture seule ; la projection survit à la fermeture du canal.
+     */
+    public static CatalogImage open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new CatalogImage(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    static CatalogImage wrap(ByteBuffer buffer) throws IOException {
+        return new CatalogImage(buffer);
+    }
+
+    /**
+     * Écrit l'image des livres donnés ; {@code snapshotAt} est l'instant de leur lecture en base,
+     * {@code completeSeq} le numéro de modification jusqu'auquel toutes y figurent.
+     */
+    public static void write(Path file, long generation, long snapshotAt, long completeSeq, List<Book> books)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer image = encode(generation, snapshotAt, completeSeq, books);
+            while (image.hasRemaining()) {
+                channel.write(image);
+            }
+            channel.force(true);
+        }
+    }
+
+    static ByteBuffer encode(long generation, long snapshotAt, long completeSeq, List<Book> books) {
+        List<Book> sorted = new ArrayList<>(books);
+        sorted.sort(Comparator.comparing(Book::getId));
+        StringPool pool = new StringPool();
+        ByteBuffer records = ByteBuffer.allocate(sorted.size() * RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < sorted.size(); i++) {
+            Book book = sorted.get(i);
+            int at = i * RECORD_BYTES;
+            records.putLong(at + R_ID, book.getId());
+            records.putLong(at + R_CHANGE_SEQ, book.getChangeSeq() != null ? book.getChangeSeq() : 0L);
+            pool.put(records, at + R_TITLE, book.getTitle());
+            pool.put(records, at + R_TITLE_LOWER, book.getTitle().toLowerCase(Locale.ROOT));
+            pool.put(records, at + R_AUTHOR, book.getAuthor());
+            pool.put(records, at + R_GENRE, book.getGenre());
+            records.putInt(at + R_TOTAL_COPIES, book.getTotalCopies());
+            records.putInt(at + R_AVAILABLE_COPIES, book.getAvailableCopies());
+            records.put(at + R_AVAILABLE, (byte) (Boolean.TRUE.equals(book.getAvailable()) ? 1 : 0));
+        }
+        byte[] strings = pool.bytes();
+        ByteBuffer image = ByteBuffer.allocate(HEADER_BYTES + records.capacity() + strings.length)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        image.putInt(MAGIC).putInt(VERSION).putLong(generation).putLong(snapshotAt)
+                .putInt(sorted.size()).putInt(strings.length).putLong(completeSeq);
+        image.put(records.array()).put(strings);
+        image.flip();
+        return image;
+    }
+
+    public long generation() {
+        return generation;
+    }
+
+    /**
+     * Instant (ms depuis l'époque) de la lecture en base dont l'image est issue.
+     */
+    public long snapshotAt() {
+        return snapshotAt;
+    }
+
+    /**
+     * Numéro de modification jusqu'auquel toutes les modifications validées figurent dans l'image ;
+     * une suppression de numéro supérieur peut y manquer.
+     */
+    public long completeSeq() {
+        return completeSeq;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public Optional<Book> find(long id) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = buffer.getLong(record(mid) + R_ID);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return Optional.of(book(mid));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public List<Book> available() {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (buffer.get(record(i) + R_AVAILABLE) != 0) {
+                books.add(book(i));
+            }
+        }
+        return books;
+    }
+
+    /**
+     * Livres dont le titre contient {@code text}, sans distinction de casse.
+     */
+    public List<Book> searchTitle(String text) {
+        byte[] needle = text.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int at = record(i) + R_TITLE_LOWER;
+            if (contains(poolStart + buffer.getInt(at), buffer.getInt(at + 4), needle)) {
+                books.add(book(i));
+            }
+        }
+        return books;
+    }
+
+    private boolean contains(int from, int length, byte[] needle) {
+        int last = from + length - needle.length;
+        for (int start = from; start <= last; start++) {
+            int matched = 0;
+            while (matched < needle.length && buffer.get(start + matched) == needle[matched]) {
+                matched++;
+            }
+            if (matched == needle.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int record(int index) {
+        return HEADER_BYTES + index * RECORD_BYTES;
+    }
+
+    private Book book(int index) {
+        int at = record(index);
+        Book book = new Book();
+        book.setId(buffer.getLong(at + R_ID));
+        book.setChangeSeq(buffer.getLong(at + R_CHANGE_SEQ));
+        book.setTitle(string(at + R_TITLE));
+        book.setAuthor(string(at + R_AUTHOR));
+        book.setGenre(string(at + R_GENRE));
+        book.setTotalCopies(buffer.getInt(at + R_TOTAL_COPIES));
+        book.setAvailableCopies(buffer.getInt(at + R_AVAILABLE_COPIES));
+        book.setAvailable(buffer.get(at + R_AVAILABLE) != 0);
+        return book;
+    }
+
+    private String string(int at) {
+        int offset = poolStart + buffer.getInt(at);
+        byte[] bytes = new byte[buffer.getInt(at + 4)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(offset + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Réserve de chaînes en construction, une seule copie par valeur distincte
+    private static final class StringPool {
+        private final Map<String, int[]> slots = new HashMap<>();
+        private byte[] bytes = new byte[4096];
+        private int size;
+
+        void put(ByteBuffer records, int at, String value) {
+            int[] slot = slots.computeIfAbsent(value, this::append);
+            records.putInt(at, slot[0]);
+            records.putInt(at + 4, slot[1]);
+        }
+
+        private int[] append(String value) {
+            byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            while (size + encoded.length > bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            System.arraycopy(encoded, 0, bytes, size, encoded.length);
+            int[] slot = {size, encoded.length};
+            size += encoded.length;
+            return slot;
+        }
+
+        byte[] bytes() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.ensam.library.catalog;
+
+import com.ensam.library.analytics.Dictionary;
+import com.ensam.library.model.Book;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Catalogue en mémoire sous forme compacte : une ligne par livre, rangée en colonnes de types
+ * primitifs triées par identifiant. Auteur et genre, de faible cardinalité, sont des codes de
+ * {@link Dictionary} ; la disponibilité est un bit ; les titres sont des tranches d'une réserve
+ * d'octets UTF-8 commune. Aucun objet par livre : un {@link Book} n'est construit qu'à la lecture.
+ * <p>
+ * {@link #put} ignore une version plus ancienne que celle connue (numéro de modification
+ * inférieur), ce qui rend l'ordre d'arrivée des rechargements concurrents sans importance.
+ * Un titre modifié laisse son ancienne tranche inutilisée ; la réserve est recompactée quand
+ * ces tranches en occupent plus de la moitié.
+ */
+public class CompactCatalog {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Dictionary authors = new Dictionary();
+    private final Dictionary genres = new Dictionary();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int size;
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] changeSeqs = new long[INITIAL_CAPACITY];
+    private int[] titleOffsets = new int[INITIAL_CAPACITY];
+    private int[] titleLengths = new int[INITIAL_CAPACITY];
+    private int[] authorCodes = new int[INITIAL_CAPACITY];
+    private int[] genreCodes = new int[INITIAL_CAPACITY];
+    private int[] totalCopies = new int[INITIAL_CAPACITY];
+    private int[] availableCopies = new int[INITIAL_CAPACITY];
+    private final BitSet available = new BitSet();
+    private byte[] titles = new byte[INITIAL_CAPACITY * 16];
+    private int titlesSize;
+    private int titlesWasted;
+
+    /**
+     * Ajoute ou remplace un livre ; sans effet si {@code book} est plus ancien que la version connue.
+     */
+    public void put(Book book) {
+        lock.writeLock().lock();
+        try {
+            long changeSeq = book.getChangeSeq() != null ? book.getChangeSeq() : 0L;
+            int row = Arrays.binarySearch(ids, 0, size, book.getId());
+            if (row >= 0) {
+                if (changeSeqs[row] > changeSeq) {
+                    return;
+                }
+                titlesWasted += titleLengths[row];
+            } else {
+                row = -row - 1;
+                insertRow(row);
+                ids[row] = book.getId();
+            }
+            changeSeqs[row] = changeSeq;
+            appendTitle(row, book.getTitle());
+            authorCodes[row] = authors.encode(book.getAuthor());
+            genreCodes[row] = genres.encode(book.getGenre());
+            totalCopies[row] = book.getTotalCopies();
+            availableCopies[row] = book.getAvailableCopies();
+            available.set(row, Boolean.TRUE.equals(book.getAvailable()));
+            if (titlesWasted > titlesSize / 2) {
+                compactTitles();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            int row = Arrays.binarySearch(ids, 0, size, id);
+            if (row < 0) {
+                return false;
+            }
+            titlesWasted += titleLengths[row];
+            removeRow(row);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            size = 0;
+            available.clear();
+            titlesSize = 0;
+            titlesWasted = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Identifiants présents, triés.
+     */
+    public long[] ids() {
+        lock.readLock().lock();
+        try {
+            return Arrays.copyOf(ids, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<Book> find(long id) {
+        lock.readLock().lock();
+        try {
+            int row = Arrays.binarySearch(ids, 0, size, id);
+            return row >= 0 ? Optional.of(book(row)) : Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Book> available() {
+        lock.readLock().lock();
+        try {
+            List<Book> books = new ArrayList<>();
+            for (int row = available.nextSetBit(0); row >= 0 && row < size; row = available.nextSetBit(row + 1)) {
+                books.add(book(row));
+            }
+            return books;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Book> byGenre(String genre) {
+        lock.readLock().lock();
+        try {
+            List<Book> books = new ArrayList<>();
+            int code = genres.find(genre);
+            if (code < 0) {
+                return books;
+            }
+            for (int row = 0; row < size; row++) {
+                if (genreCodes[row] == code) {
+                    books.add(book(row));
+                }
+            }
+            return books;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Octets occupés par les colonnes, la réserve de titres et les dictionnaires (capacité
+     * allouée comprise, en-têtes d'objets exclus).
+     */
+    public long footprintBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = (long) ids.length * Long.BYTES * 2
+                    + (long) titleOffsets.length * Integer.BYTES * 6
+                    + available.size() / Byte.SIZE
+                    + titles.length;
+            for (Dictionary dictionary : List.of(authors, genres)) {
+                for (int code = 0; code < dictionary.size(); code++) {
+                    bytes += dictionary.decode(code).length();
+                }
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Book book(int row) {
+        Book book = new Book();
+        book.setId(ids[row]);
+        book.setChangeSeq(changeSeqs[row]);
+        book.setTitle(new String(titles, titleOffsets[row], titleLengths[row], StandardCharsets.UTF_8));
+        book.setAuthor(authors.decode(authorCodes[row]));
+        book.setGenre(genres.decode(genreCodes[row]));
+        book.setTotalCopies(totalCopies[row]);
+        book.setAvailableCopies(availableCopies[row]);
+        book.setAvailable(available.get(row));
+        return book;
+    }
+
+    private void appendTitle(int row, String title) {
+        byte[] encoded = title.getBytes(StandardCharsets.UTF_8);
+        if (titlesSize + encoded.length > titles.length) {
+            titles = Arrays.copyOf(titles, Math.max(titles.length * 2, titlesSize + encoded.length));
+        }
+        System.arraycopy(encoded, 0, titles, titlesSize, encoded.length);
+        titleOffsets[row] = titlesSize;
+        titleLengths[row] = encoded.length;
+        titlesSize += encoded.length;
+    }
+
+    private void compactTitles() {
+        byte[] compacted = new byte[Math.max(INITIAL_CAPACITY * 16, titlesSize - titlesWasted)];
+        int next = 0;
+        for (int row = 0; row < size; row++) {
+            System.arraycopy(titles, titleOffsets[row], compacted, next, titleLengths[row]);
+            titleOffsets[row] = next;
+            next += titleLengths[row];
+        }
+        titles = compacted;
+        titlesSize = next;
+        titlesWasted = 0;
+    }
+
+    // Les identifiants croissent : l'insertion se fait presque toujours en fin de colonnes
+    private void insertRow(int row) {
+        if (size == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            changeSeqs = Arrays.copyOf(changeSeqs, capacity);
+            titleOffsets = Arrays.copyOf(titleOffsets, capacity);
+            titleLengths = Arrays.copyOf(titleLengths, capacity);
+            authorCodes = Arrays.copyOf(authorCodes, capacity);
+            genreCodes = Arrays.copyOf(genreCodes, capacity);
+            totalCopies = Arrays.copyOf(totalCopies, capacity);
+            availableCopies = Arrays.copyOf(availableCopies, capacity);
+        }
+        shift(row, row + 1, size - row);
+        for (int i = size; i > row; i--) {
+            available.set(i, available.get(i - 1));
+        }
+        size++;
+    }
+
+    private void removeRow(int row) {
+        shift(row + 1, row, size - row - 1);
+        for (int i = row; i < size - 1; i++) {
+            available.set(i, available.get(i + 1));
+        }
+        size--;
+        available.clear(size);
+    }
+
+    private void shift(int from, int to, int length) {
+        if (length <= 0) {
+            return;
+        }
+        System.arraycopy(ids, from, ids, to, length);
+        System.arraycopy(changeSeqs, from, changeSeqs, to, length);
+        System.arraycopy(titleOffsets, from, titleOffsets, to, length);
+        System.arraycopy(titleLengths, from, titleLengths, to, length);
+        System.arraycopy(authorCodes, from, authorCodes, to, length);
+        System.arraycopy(genreCodes, from, genreCodes, to, length);
+        System.arraycopy(totalCopies, from, totalCopies, to, length);
+        System.arraycopy(availableCopies, from, availableCopies, to, length);
+    }
+}
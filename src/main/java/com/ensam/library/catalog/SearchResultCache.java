@@ -0,0 +1,235 @@
+package com.ensam.library.catalog;
+
+import com.ensam.library.model.Book;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Cache des résultats de la recherche par titre, invalidé par génération : chaque modification
+ * validée du catalogue ou de la disponibilité d'un livre ouvre une nouvelle génération
+ * ({@link #invalidate()}), et tout résultat chargé dans une génération antérieure devient périmé
+ * sans qu'il faille retrouver les recherches touchées. La clé est le texte cherché en minuscules,
+ * la recherche étant insensible à la casse ; les espaces restent significatifs.
+ * <p>
+ * Un résultat périmé depuis moins de {@code maxStaleMs} est encore servi pendant qu'un thread
+ * dédié le recharge, une seule fois par clé : la latence de la recherche ne suit pas le rythme des
+ * mises à jour. Au-delà, ou sans résultat, l'appelant charge lui-même. Dans la génération courante,
+ * un résultat devient périmé après {@code ttlMs}, ce qui borne l'écart avec les écritures que la
+ * génération ne voit pas (autres instances, réplica en retard). Le résultat est partagé entre
+ * appelants, qui ne doivent pas le modifier.
+ */
+@Slf4j
+public class SearchResultCache {
+
+    private static final class Generation {
+        private final long number;
+        // Instant où la génération suivante l'a remplacée, 0 tant qu'elle est courante
+        private volatile long endedAt;
+
+        private Generation(long number) {
+            this.number = number;
+        }
+    }
+
+    private static final class Entry {
+        private final Generation generation;
+        private final long loadedAt;
+        private final List<Book> books;
+
+        private Entry(Generation generation, long loadedAt, List<Book> books) {
+            this.generation = generation;
+            this.loadedAt = loadedAt;
+            this.books = books;
+        }
+    }
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlMs;
+    private final long maxStaleMs;
+    private final Executor refresher;
+    private final LongSupplier clock;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private volatile Generation current = new Generation(0);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+
+    public SearchResultCache(boolean enabled, int maxEntries, long ttlMs, long maxStaleMs, int refreshThreads) {
+        this(enabled, maxEntries, ttlMs, maxStaleMs, refreshExecutor(refreshThreads), System::currentTimeMillis);
+    }
+
+    SearchResultCache(boolean enabled, int maxEntries, long ttlMs, long maxStaleMs, Executor refresher,
+                      LongSupplier clock) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttlMs = ttlMs;
+        this.maxStaleMs = maxStaleMs;
+        this.refresher = refresher;
+        this.clock = clock;
+    }
+
+    private static ExecutorService refreshExecutor(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "search-cache-refresh-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void close() {
+        if (refresher instanceof ExecutorService) {
+            ExecutorService executor = (ExecutorService) refresher;
+            executor.shutdown();
+            try {
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public List<Book> get(String query, Supplier<List<Book>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        String key = query.toLowerCase(Locale.ROOT);
+        Generation generation = current;
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            long now = clock.getAsLong();
+            // Une entrée peut venir d'une génération ouverte après la lecture de la courante
+            long staleSince = entry.generation.number >= generation.number
+                    ? entry.loadedAt + ttlMs
+                    : entry.generation.endedAt;
+            if (now < staleSince) {
+                hits.increment();
+                return entry.books;
+            }
+            if (now - staleSince <= maxStaleMs) {
+                staleHits.increment();
+                refresh(key, loader);
+                return entry.books;
+            }
+        }
+        misses.increment();
+        return load(key, loader);
+    }
+
+    /**
+     * Ouvre une nouvelle génération : les résultats déjà chargés deviennent périmés.
+     */
+    public synchronized void invalidate() {
+        Generation previous = current;
+        previous.endedAt = clock.getAsLong();
+        current = new Generation(previous.number + 1);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getGeneration() {
+        return current.number;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getStaleHits() {
+        return staleHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getRefreshes() {
+        return refreshes.sum();
+    }
+
+    public long getRefreshFailures() {
+        return refreshFailures.sum();
+    }
+
+    private void refresh(String key, Supplier<List<Book>> loader) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    load(key, loader);
+                    refreshes.increment();
+                } catch (RuntimeException e) {
+                    refreshFailures.increment();
+                    log.warn("Échec du rechargement de la recherche \"{}\": {}", key, e.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Cache en cours d'arrêt : l'entrée périmée reste servie jusqu'au prochain appel
+            refreshing.remove(key);
+        }
+    }
+
+    // Génération et instant relevés avant la requête : un résultat lu pendant une modification
+    // reste rattaché à l'ancienne génération
+    private List<Book> load(String key, Supplier<List<Book>> loader) {
+        Generation generation = current;
+        long loadedAt = clock.getAsLong();
+        List<Book> books = loader.get();
+        entries.merge(key, new Entry(generation, loadedAt, books), (existing, loaded) ->
+                loaded.generation.number > existing.generation.number
+                        || (loaded.generation == existing.generation && loaded.loadedAt >= existing.loadedAt)
+                        ? loaded : existing);
+        if (entries.size() > maxEntries) {
+            evict();
+        }
+        return books;
+    }
+
+    // Retire un dixième des entrées, les plus anciennes générations et chargements en premier
+    private synchronized void evict() {
+        int excess = entries.size() - maxEntries;
+        if (excess <= 0) {
+            return;
+        }
+        List<Map.Entry<String, Entry>> oldest = new ArrayList<>(entries.entrySet());
+        oldest.sort(Comparator.<Map.Entry<String, Entry>>comparingLong(e -> e.getValue().generation.number)
+                .thenComparingLong(e -> e.getValue().loadedAt));
+        int toRemove = Math.min(oldest.size(), excess + maxEntries / 10);
+        for (int i = 0; i < toRemove; i++) {
+            entries.remove(oldest.get(i).getKey(), oldest.get(i).getValue());
+        }
+    }
+}
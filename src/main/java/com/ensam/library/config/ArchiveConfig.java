@@ -0,0 +1,24 @@
+package com.ensam.library.config;
+
+import com.ensam.library.archive.LoanArchive;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+
+/**
+ * Archive froide des prêts rendus. Toujours ouverte, vide tant que l'archivage n'a pas tourné,
+ * pour que l'historique reste lisible après avoir désactivé le traitement.
+ */
+@Configuration
+public class ArchiveConfig {
+
+    @Value("${library.archive.directory:${java.io.tmpdir}/library-archive}")
+    private String directory;
+
+    @Bean(initMethod = "open")
+    public LoanArchive loanArchive() {
+        return new LoanArchive(Paths.get(directory));
+    }
+}
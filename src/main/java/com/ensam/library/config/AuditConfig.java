@@ -0,0 +1,42 @@
+package com.ensam.library.config;
+
+import com.ensam.library.audit.AuditLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+
+/**
+ * Journal d'audit des services, écrit hors du chemin des requêtes par un thread dédié.
+ */
+@Configuration
+public class AuditConfig {
+
+    @Value("${library.audit.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${library.audit.directory:${java.io.tmpdir}/library-audit}")
+    private String directory;
+
+    // Puissance de deux
+    @Value("${library.audit.buffer-size:8192}")
+    private int bufferSize = 8192;
+
+    @Value("${library.audit.read-sample-rate:0.1}")
+    private double readSampleRate = 0.1;
+
+    @Value("${library.audit.max-file-bytes:10485760}")
+    private long maxFileBytes = 10485760;
+
+    @Value("${library.audit.max-files:5}")
+    private int maxFiles = 5;
+
+    @Value("${library.audit.max-batch:512}")
+    private int maxBatch = 512;
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public AuditLog auditLog() {
+        return new AuditLog(enabled, Paths.get(directory), bufferSize, readSampleRate, maxFileBytes, maxFiles, maxBatch);
+    }
+}
@@ -0,0 +1,20 @@
+package com.ensam.library.config;
+
+import com.ensam.library.batch.CheckpointStore;
+import com.ensam.library.batch.JdbcCheckpointStore;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Traitements par lots : les points de contrôle vont dans la base H2 (table {@code batch_checkpoints}),
+ * y compris avec le profil {@code memory}, où ils ne survivent donc pas au redémarrage.
+ */
+@Configuration
+public class BatchConfig {
+
+    @Bean
+    public CheckpointStore checkpointStore(JdbcTemplate jdbcTemplate) {
+        return new JdbcCheckpointStore(jdbcTemplate);
+    }
+}
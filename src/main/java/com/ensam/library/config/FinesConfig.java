@@ -0,0 +1,41 @@
+package com.ensam.library.config;
+
+import com.ensam.library.fines.FinePolicy;
+import com.ensam.library.service.LoanService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Barème des amendes, compilé une fois au démarrage depuis {@code library.fines.*}.
+ */
+@Configuration
+public class FinesConfig {
+
+    @Value("${library.fines.grace-days:3}")
+    private int graceDays = 3;
+
+    @Value("${library.fines.tiers:1:10,8:25,29:50}")
+    private String tiers = "1:10,8:25,29:50";
+
+    @Value("${library.fines.cap-cents:2000}")
+    private long capCents = 2000;
+
+    @Value("${library.fines.genre-rates:}")
+    private String genreRates = "";
+
+    @Value("${library.fines.genre-caps:}")
+    private String genreCaps = "";
+
+    @Bean
+    public FinePolicy finePolicy() {
+        return FinePolicy.builder()
+                .loanPeriodDays(LoanService.LOAN_PERIOD_DAYS)
+                .graceDays(graceDays)
+                .tiers(tiers)
+                .capCents(capCents)
+                .genreRates(genreRates)
+                .genreCaps(genreCaps)
+                .build();
+    }
+}
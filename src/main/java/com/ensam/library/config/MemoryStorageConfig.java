@@ -0,0 +1,65 @@
+package com.ensam.library.config;
+
+import com.ensam.library.repository.BookRepository;
+import com.ensam.library.repository.HoldRepository;
+import com.ensam.library.repository.LoanRepository;
+import com.ensam.library.repository.MemberRepository;
+import com.ensam.library.repository.TombstoneRepository;
+import com.ensam.library.repository.memory.MemoryBookRepository;
+import com.ensam.library.repository.memory.MemoryHoldRepository;
+import com.ensam.library.repository.memory.MemoryLoanRepository;
+import com.ensam.library.repository.memory.MemoryMemberRepository;
+import com.ensam.library.repository.memory.MemoryStore;
+import com.ensam.library.repository.memory.MemoryTombstoneRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.nio.file.Paths;
+
+/**
+ * Profil {@code memory} : les repositories sont servis par {@link MemoryStore} au lieu de
+ * Spring Data JPA (désactivé dans {@code application-memory.properties}). Les services et
+ * contrôleurs ne changent pas.
+ */
+@Configuration
+@Profile("memory")
+public class MemoryStorageConfig {
+
+    @Value("${library.memory.directory:${java.io.tmpdir}/library-memory}")
+    private String directory;
+
+    @Value("${library.memory.fsync:true}")
+    private boolean fsync = true;
+
+    @Bean(initMethod = "open", destroyMethod = "close")
+    public MemoryStore memoryStore() {
+        return new MemoryStore(Paths.get(directory), fsync);
+    }
+
+    @Bean
+    public BookRepository bookRepository(MemoryStore memoryStore) {
+        return new MemoryBookRepository(memoryStore);
+    }
+
+    @Bean
+    public MemberRepository memberRepository(MemoryStore memoryStore) {
+        return new MemoryMemberRepository(memoryStore);
+    }
+
+    @Bean
+    public LoanRepository loanRepository(MemoryStore memoryStore) {
+        return new MemoryLoanRepository(memoryStore);
+    }
+
+    @Bean
+    public HoldRepository holdRepository(MemoryStore memoryStore) {
+        return new MemoryHoldRepository(memoryStore);
+    }
+
+    @Bean
+    public TombstoneRepository tombstoneRepository(MemoryStore memoryStore) {
+        return new MemoryTombstoneRepository(memoryStore);
+    }
+}
@@ -0,0 +1,35 @@
+package com.ensam.library.config;
+
+import com.ensam.library.outbox.FileOutboxSink;
+import com.ensam.library.outbox.ListenerOutboxSink;
+import com.ensam.library.outbox.OutboxSink;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+
+/**
+ * Destinataires de la boîte d'envoi : les écouteurs de l'instance, et un fichier JSON lignes
+ * lorsque {@code library.outbox.file.enabled} est actif.
+ */
+@Configuration
+public class OutboxConfig {
+
+    @Value("${library.outbox.file.path:${java.io.tmpdir}/library-outbox.jsonl}")
+    private String filePath;
+
+    @Bean
+    public OutboxSink listenerOutboxSink(ApplicationEventPublisher eventPublisher) {
+        return new ListenerOutboxSink(eventPublisher);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "library.outbox.file.enabled", havingValue = "true")
+    public OutboxSink fileOutboxSink(ObjectMapper objectMapper) {
+        return new FileOutboxSink(Paths.get(filePath), objectMapper);
+    }
+}
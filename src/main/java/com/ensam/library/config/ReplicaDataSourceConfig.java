@@ -0,0 +1,99 @@
+package com.ensam.library.config;
+
+import com.ensam.library.datasource.DataSourceRoute;
+import com.ensam.library.datasource.H2ReplicaSynchronizer;
+import com.ensam.library.datasource.ReadYourWritesFilter;
+import com.ensam.library.datasource.ReplicaRoutingTransactionManager;
+import com.ensam.library.datasource.ReplicationTracker;
+import com.ensam.library.datasource.RoutingDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Routage lecture/écriture : les transactions en lecture seule vont au réplica, les écritures
+ * au primaire ({@code spring.datasource.*}). Désactivé par défaut ; en local, le réplica est une
+ * seconde base H2 tenue à jour par {@link H2ReplicaSynchronizer}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "library.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Value("${library.datasource.replica.url:jdbc:h2:mem:libraryreplica;DB_CLOSE_DELAY=-1}")
+    private String replicaUrl = "jdbc:h2:mem:libraryreplica;DB_CLOSE_DELAY=-1";
+
+    @Value("${library.datasource.replica.username:sa}")
+    private String replicaUsername = "sa";
+
+    @Value("${library.datasource.replica.password:}")
+    private String replicaPassword = "";
+
+    @Value("${library.datasource.replica.max-lag:100}")
+    private long maxLag = 100;
+
+    @Bean
+    public DataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().build();
+    }
+
+    @Bean
+    public DataSource replicaDataSource(DataSourceProperties properties) {
+        return DataSourceBuilder.create()
+                .driverClassName(properties.determineDriverClassName())
+                .url(replicaUrl)
+                .username(replicaUsername)
+                .password(replicaPassword)
+                .build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(DataSourceRoute.PRIMARY, primary);
+        targets.put(DataSourceRoute.REPLICA, replica);
+
+        RoutingDataSource routingDataSource = new RoutingDataSource();
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(primary);
+        return routingDataSource;
+    }
+
+    @Bean
+    public ReplicationTracker replicationTracker() {
+        return new ReplicationTracker(maxLag);
+    }
+
+    @Bean
+    public PlatformTransactionManager transactionManager(EntityManagerFactory entityManagerFactory,
+                                                         ReplicationTracker replicationTracker) {
+        return new ReplicaRoutingTransactionManager(entityManagerFactory, replicationTracker);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter() {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(new ReadYourWritesFilter());
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+
+    @Bean(initMethod = "migrateReplica")
+    public H2ReplicaSynchronizer h2ReplicaSynchronizer(@Qualifier("primaryDataSource") DataSource primary,
+                                                       @Qualifier("replicaDataSource") DataSource replica,
+                                                       ReplicationTracker replicationTracker) {
+        return new H2ReplicaSynchronizer(primary, replica, replicationTracker);
+    }
+}
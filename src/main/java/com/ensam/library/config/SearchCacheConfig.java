@@ -0,0 +1,33 @@
+package com.ensam.library.config;
+
+import com.ensam.library.catalog.SearchResultCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Cache des résultats de recherche par titre, rechargé en arrière-plan après une modification.
+ */
+@Configuration
+public class SearchCacheConfig {
+
+    @Value("${library.search-cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${library.search-cache.max-entries:1000}")
+    private int maxEntries = 1000;
+
+    @Value("${library.search-cache.ttl-ms:60000}")
+    private long ttlMs = 60000;
+
+    @Value("${library.search-cache.max-stale-ms:10000}")
+    private long maxStaleMs = 10000;
+
+    @Value("${library.search-cache.refresh-threads:1}")
+    private int refreshThreads = 1;
+
+    @Bean(destroyMethod = "close")
+    public SearchResultCache searchResultCache() {
+        return new SearchResultCache(enabled, maxEntries, ttlMs, maxStaleMs, refreshThreads);
+    }
+}
@@ -0,0 +1,52 @@
+package com.ensam.library.controller;
+
+import com.ensam.library.dto.AuthorLoanDurationDTO;
+import com.ensam.library.dto.MonthlyGenreLoansDTO;
+import com.ensam.library.dto.ReturnLatencyBucketDTO;
+import com.ensam.library.service.LoanAnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    @Autowired
+    private LoanAnalyticsService loanAnalyticsService;
+
+    // Par défaut : les douze derniers mois, mois courant compris ; au plus MAX_MONTHS mois
+    @GetMapping("/loans-by-month-genre")
+    public ResponseEntity<List<MonthlyGenreLoansDTO>> getLoansByMonthAndGenre(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusMonths(11).withDayOfMonth(1);
+        if (start.isAfter(end)
+                || ChronoUnit.MONTHS.between(YearMonth.from(start), YearMonth.from(end)) >= LoanAnalyticsService.MAX_MONTHS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(loanAnalyticsService.getLoansByMonthAndGenre(start, end));
+    }
+
+    @GetMapping("/loan-duration-by-author")
+    public ResponseEntity<List<AuthorLoanDurationDTO>> getLoanDurationByAuthor() {
+        return ResponseEntity.ok(loanAnalyticsService.getLoanDurationByAuthor());
+    }
+
+    @GetMapping("/return-latency")
+    public ResponseEntity<List<ReturnLatencyBucketDTO>> getReturnLatency(
+            @RequestParam(defaultValue = "7") int bucketDays,
+            @RequestParam(defaultValue = "8") int buckets) {
+        return ResponseEntity.ok(loanAnalyticsService.getReturnLatency(bucketDays, buckets));
+    }
+}
@@ -0,0 +1,39 @@
+package com.ensam.library.controller;
+
+import com.ensam.library.batch.StepResult;
+import com.ensam.library.service.OverdueBatchJob;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/batch")
+public class BatchController {
+
+    @Autowired
+    private OverdueBatchJob overdueBatchJob;
+
+    // Relancé à une date déjà traitée, le traitement reprend où il s'était arrêté
+    @PostMapping("/overdue")
+    public ResponseEntity<StepResult> runOverdue(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return overdueBatchJob.run(date != null ? date : LocalDate.now())
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    @GetMapping("/overdue")
+    public ResponseEntity<StepResult> getLastOverdueRun() {
+        return overdueBatchJob.getLastResult()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
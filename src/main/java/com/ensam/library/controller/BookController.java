@@ -1,5 +1,6 @@
 package com.ensam.library.controller;
 
+import com.ensam.library.dto.BookAvailabilityDTO;
 import com.ensam.library.dto.BookDTO;
 import com.ensam.library.model.Book;
 import com.ensam.library.service.BookService;
@@ -61,6 +62,19 @@ public class BookController {
         return ResponseEntity.ok(books);
     }
 
+    @GetMapping("/genre/{genre}")
+    public ResponseEntity<List<Book>> getBooksByGenre(@PathVariable String genre) {
+        List<Book> books = bookService.getBooksByGenre(genre);
+        return ResponseEntity.ok(books);
+    }
+
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<BookAvailabilityDTO> getBookAvailability(@PathVariable Long id) {
+        return bookService.getBookAvailability(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/search")
     public ResponseEntity<List<Book>> searchBooks(@RequestParam String title) {
         List<Book> books = bookService.searchBooksByTitle(title);
@@ -0,0 +1,24 @@
+package com.ensam.library.controller;
+
+import com.ensam.library.service.AvailabilityStreamService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/books")
+public class BookStreamController {
+
+    @Autowired
+    private AvailabilityStreamService availabilityStreamService;
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAvailability(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return availabilityStreamService.subscribe(lastEventId);
+    }
+}
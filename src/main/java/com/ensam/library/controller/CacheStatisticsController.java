@@ -0,0 +1,30 @@
+package com.ensam.library.controller;
+
+import com.ensam.library.dto.CacheRegionStatsDTO;
+import com.ensam.library.dto.SearchCacheStatsDTO;
+import com.ensam.library.service.CacheStatisticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache")
+public class CacheStatisticsController {
+
+    @Autowired
+    private CacheStatisticsService cacheStatisticsService;
+
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheRegionStatsDTO>> getRegionStatistics() {
+        return ResponseEntity.ok(cacheStatisticsService.getRegionStatistics());
+    }
+
+    @GetMapping("/search/stats")
+    public ResponseEntity<SearchCacheStatsDTO> getSearchCacheStatistics() {
+        return ResponseEntity.ok(cacheStatisticsService.getSearchCacheStatistics());
+    }
+}
@@ -0,0 +1,31 @@
+package com.ensam.library.controller;
+
+import com.ensam.library.dto.CoalescingStatsDTO;
+import com.ensam.library.service.BookService;
+import com.ensam.library.service.MemberService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/coalescing")
+public class CoalescingController {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @GetMapping("/stats")
+    public ResponseEntity<List<CoalescingStatsDTO>> getStatistics() {
+        List<CoalescingStatsDTO> statistics = new ArrayList<>(bookService.getCoalescingStatistics());
+        statistics.addAll(memberService.getCoalescingStatistics());
+        return ResponseEntity.ok(statistics);
+    }
+}
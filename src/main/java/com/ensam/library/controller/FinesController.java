@@ -0,0 +1,32 @@
+package com.ensam.library.controller;
+
+import com.ensam.library.dto.FineBalancesDTO;
+import com.ensam.library.dto.MemberFinesDTO;
+import com.ensam.library.service.FinesService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api")
+public class FinesController {
+
+    @Autowired
+    private FinesService finesService;
+
+    @GetMapping("/fines/balances")
+    public ResponseEntity<FineBalancesDTO> getBalances(@RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(finesService.getBalances(limit));
+    }
+
+    @GetMapping("/members/{id}/fines")
+    public ResponseEntity<MemberFinesDTO> getMemberFines(@PathVariable Long id) {
+        return finesService.getMemberFines(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
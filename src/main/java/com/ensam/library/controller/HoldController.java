@@ -0,0 +1,47 @@
+package com.ensam.library.controller;
+
+import com.ensam.library.dto.HoldDTO;
+import com.ensam.library.model.Hold;
+import com.ensam.library.service.HoldService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/holds")
+@Validated
+public class HoldController {
+
+    @Autowired
+    private HoldService holdService;
+
+    @PostMapping
+    public ResponseEntity<Hold> placeHold(@Valid @RequestBody HoldDTO holdDTO) {
+        Hold hold = holdService.placeHold(holdDTO);
+        return ResponseEntity.status(HttpStatus.CREATED).body(hold);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancelHold(@PathVariable Long id) {
+        boolean cancelled = holdService.cancelHold(id);
+        return cancelled ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/book/{bookId}")
+    public ResponseEntity<List<Hold>> getBookHolds(@PathVariable Long bookId) {
+        List<Hold> holds = holdService.getBookHolds(bookId);
+        return ResponseEntity.ok(holds);
+    }
+
+    @GetMapping("/member/{memberId}")
+    public ResponseEntity<List<Hold>> getMemberHolds(@PathVariable Long memberId) {
+        List<Hold> holds = holdService.getMemberHolds(memberId);
+        return ResponseEntity.ok(holds);
+    }
+}
@@ -36,4 +36,17 @@ public class LoanController {
         List<Loan> loans = loanService.getActiveLoans();
         return ResponseEntity.ok(loans);
     }
+
+    // history=true : prêts archivés compris
+    @GetMapping("/member/{memberId}")
+    public ResponseEntity<List<Loan>> getMemberLoans(@PathVariable Long memberId,
+                                                     @RequestParam(defaultValue = "false") boolean history) {
+        return ResponseEntity.ok(loanService.getMemberLoans(memberId, history));
+    }
+
+    @GetMapping("/book/{bookId}")
+    public ResponseEntity<List<Loan>> getBookLoans(@PathVariable Long bookId,
+                                                   @RequestParam(defaultValue = "false") boolean history) {
+        return ResponseEntity.ok(loanService.getBookLoans(bookId, history));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.ensam.library.controller;
+
+import com.ensam.library.dto.LoanIntervalDTO;
+import com.ensam.library.dto.OutstandingLoansDTO;
+import com.ensam.library.service.LoanTimelineService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+public class LoanTimelineController {
+
+    @Autowired
+    private LoanTimelineService loanTimelineService;
+
+    // Par défaut : aujourd'hui
+    @GetMapping("/books/{id}/holders")
+    public ResponseEntity<List<LoanIntervalDTO>> getHolders(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(loanTimelineService.getHolders(id, date != null ? date : LocalDate.now()));
+    }
+
+    @GetMapping("/loans/outstanding")
+    public ResponseEntity<OutstandingLoansDTO> getOutstanding(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(loanTimelineService.getOutstanding(date != null ? date : LocalDate.now()));
+    }
+
+    @GetMapping("/loans/overlapping")
+    public ResponseEntity<List<LoanIntervalDTO>> getOverlapping(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long bookId) {
+        if (from.isAfter(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(loanTimelineService.getOverlapping(bookId, from, to));
+    }
+}
@@ -0,0 +1,25 @@
+package com.ensam.library.controller;
+
+import com.ensam.library.dto.MemberDashboardDTO;
+import com.ensam.library.service.MemberDashboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/members")
+public class MemberDashboardController {
+
+    @Autowired
+    private MemberDashboardService memberDashboardService;
+
+    @GetMapping("/{id}/dashboard")
+    public ResponseEntity<MemberDashboardDTO> getMemberDashboard(@PathVariable Long id) {
+        return memberDashboardService.getMemberDashboard(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
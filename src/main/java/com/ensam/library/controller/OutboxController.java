@@ -0,0 +1,22 @@
+package com.ensam.library.controller;
+
+import com.ensam.library.dto.OutboxStatsDTO;
+import com.ensam.library.service.OutboxService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/outbox")
+public class OutboxController {
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @GetMapping("/stats")
+    public ResponseEntity<OutboxStatsDTO> getStatistics() {
+        return ResponseEntity.ok(outboxService.getStatistics());
+    }
+}
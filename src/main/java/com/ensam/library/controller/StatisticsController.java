@@ -0,0 +1,22 @@
+package com.ensam.library.controller;
+
+import com.ensam.library.dto.CirculationStatsDTO;
+import com.ensam.library.service.CirculationStatisticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/stats")
+public class StatisticsController {
+
+    @Autowired
+    private CirculationStatisticsService circulationStatisticsService;
+
+    @GetMapping
+    public ResponseEntity<CirculationStatsDTO> getStatistics() {
+        return ResponseEntity.ok(circulationStatisticsService.getStatistics());
+    }
+}
@@ -0,0 +1,34 @@
+package com.ensam.library.controller;
+
+import com.ensam.library.dto.ChangeSetDTO;
+import com.ensam.library.model.Book;
+import com.ensam.library.model.Member;
+import com.ensam.library.service.SyncService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api")
+public class SyncController {
+
+    @Autowired
+    private SyncService syncService;
+
+    @GetMapping("/books/changes")
+    public ResponseEntity<ChangeSetDTO<Book>> getBookChanges(
+            @RequestParam(defaultValue = "" + SyncService.FULL_SYNC) long since,
+            @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(syncService.getBookChanges(since, limit));
+    }
+
+    @GetMapping("/members/changes")
+    public ResponseEntity<ChangeSetDTO<Member>> getMemberChanges(
+            @RequestParam(defaultValue = "" + SyncService.FULL_SYNC) long since,
+            @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(syncService.getMemberChanges(since, limit));
+    }
+}
@@ -0,0 +1,16 @@
+package com.ensam.library.datasource;
+
+/**
+ * Cible d'une transaction lorsque le routage lecture/écriture est actif.
+ */
+public enum DataSourceRoute {
+    PRIMARY,
+    REPLICA;
+
+    /**
+     * Étiquette de transaction ({@code @Transactional(label = ...)}) qui force la lecture sur le
+     * primaire : à poser sur les lectures qui alimentent un état en mémoire tenu à jour par
+     * événements, qu'un réplica en retard rendrait définitivement faux.
+     */
+    public static final String PRIMARY_LABEL = "datasource:primary";
+}
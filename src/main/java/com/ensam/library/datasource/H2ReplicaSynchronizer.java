@@ -0,0 +1,120 @@
+package com.ensam.library.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Réplicateur de substitution pour le développement local : H2 n'a pas de réplication, on
+ * recopie donc périodiquement toutes les tables du primaire vers le réplica.
+ * <p>
+ * La copie lit un instantané du primaire et remplace le contenu du réplica dans une seule
+ * transaction : les lecteurs du réplica voient l'ancien état complet ou le nouveau, jamais un
+ * mélange. La position enregistrée est celle relevée avant la lecture, donc jamais surestimée.
+ */
+@Slf4j
+public class H2ReplicaSynchronizer {
+
+    private static final String SCHEMA_HISTORY = "flyway_schema_history";
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicationTracker replicationTracker;
+
+    public H2ReplicaSynchronizer(DataSource primary, DataSource replica, ReplicationTracker replicationTracker) {
+        this.primary = primary;
+        this.replica = replica;
+        this.replicationTracker = replicationTracker;
+    }
+
+    public void migrateReplica() {
+        Flyway.configure().dataSource(replica).load().migrate();
+    }
+
+    @Scheduled(fixedDelayString = "${library.datasource.replica.sync-interval-ms:1000}")
+    public synchronized void synchronize() {
+        long position = replicationTracker.primaryPosition();
+        try (Connection source = primary.getConnection(); Connection target = replica.getConnection()) {
+            copyTables(source, target);
+            replicationTracker.replicaSynced(position);
+        } catch (SQLException e) {
+            log.warn("Échec de la synchronisation du réplica: {}", e.getMessage());
+        }
+    }
+
+    private void copyTables(Connection source, Connection target) throws SQLException {
+        int isolation = source.getTransactionIsolation();
+        source.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+        source.setAutoCommit(false);
+        target.setAutoCommit(false);
+        try (Statement targetStatement = target.createStatement()) {
+            targetStatement.execute("SET REFERENTIAL_INTEGRITY FALSE");
+            try {
+                for (String table : tables(source)) {
+                    targetStatement.execute("DELETE FROM " + table);
+                    copyRows(source, target, table);
+                }
+                target.commit();
+            } catch (SQLException e) {
+                target.rollback();
+                throw e;
+            } finally {
+                targetStatement.execute("SET REFERENTIAL_INTEGRITY TRUE");
+                target.setAutoCommit(true);
+            }
+        } finally {
+            source.commit();
+            source.setAutoCommit(true);
+            source.setTransactionIsolation(isolation);
+        }
+    }
+
+    private List<String> tables(Connection source) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        DatabaseMetaData metaData = source.getMetaData();
+        try (ResultSet resultSet = metaData.getTables(null, "PUBLIC", "%", new String[]{"TABLE", "BASE TABLE"})) {
+            while (resultSet.next()) {
+                String table = resultSet.getString("TABLE_NAME");
+                if (!SCHEMA_HISTORY.equalsIgnoreCase(table)) {
+                    tables.add(table);
+                }
+            }
+        }
+        return tables;
+    }
+
+    private void copyRows(Connection source, Connection target, String table) throws SQLException {
+        try (Statement select = source.createStatement();
+             ResultSet rows = select.executeQuery("SELECT * FROM " + table)) {
+            ResultSetMetaData metaData = rows.getMetaData();
+            int columns = metaData.getColumnCount();
+            StringBuilder names = new StringBuilder();
+            StringBuilder placeholders = new StringBuilder();
+            for (int i = 1; i <= columns; i++) {
+                names.append(i > 1 ? ", " : "").append(metaData.getColumnName(i));
+                placeholders.append(i > 1 ? ", ?" : "?");
+            }
+            String insert = "INSERT INTO " + table + " (" + names + ") VALUES (" + placeholders + ")";
+            try (PreparedStatement statement = target.prepareStatement(insert)) {
+                while (rows.next()) {
+                    for (int i = 1; i <= columns; i++) {
+                        statement.setObject(i, rows.getObject(i));
+                    }
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.ensam.library.datasource;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Jeton de session pour la lecture de ses propres écritures : chaque réponse à une écriture
+ * porte la position de réplication atteinte, que le client renvoie avec ses requêtes suivantes
+ * pour ne pas lire un réplica qui ne l'a pas encore reçue.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Library-Read-After";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        SessionConsistency.bind(parsePosition(request.getHeader(HEADER)), position -> {
+            if (!response.isCommitted()) {
+                response.setHeader(HEADER, Long.toString(position));
+            }
+        });
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SessionConsistency.clear();
+        }
+    }
+
+    private long parsePosition(String header) {
+        if (header == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
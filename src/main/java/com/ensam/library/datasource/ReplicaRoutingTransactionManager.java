@@ -0,0 +1,81 @@
+package com.ensam.library.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Choisit la route de chaque nouvelle transaction avant l'ouverture de sa connexion : les
+ * transactions en lecture seule vont au réplica quand il est assez à jour pour la session,
+ * tout le reste au primaire. Une transaction qui en rejoint une autre garde sa route.
+ */
+@Slf4j
+public class ReplicaRoutingTransactionManager extends JpaTransactionManager {
+
+    private final ReplicationTracker replicationTracker;
+
+    public ReplicaRoutingTransactionManager(EntityManagerFactory entityManagerFactory,
+                                            ReplicationTracker replicationTracker) {
+        super(entityManagerFactory);
+        this.replicationTracker = replicationTracker;
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        DataSourceRoute route = routeFor(definition);
+        RoutingDataSource.push(route);
+        try {
+            super.doBegin(transaction, definition);
+        } catch (RuntimeException | Error ex) {
+            RoutingDataSource.pop();
+            throw ex;
+        }
+        if (route == DataSourceRoute.REPLICA) {
+            // Les lectures du réplica peuvent être en retard : ne pas les publier dans le cache partagé
+            EntityManagerHolder holder = (EntityManagerHolder)
+                    TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+            holder.getEntityManager().unwrap(Session.class).setCacheMode(CacheMode.GET);
+        }
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+        super.doCommit(status);
+        if (!status.isReadOnly()) {
+            SessionConsistency.recordWrite(replicationTracker.recordWrite());
+        }
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        try {
+            super.doCleanupAfterCompletion(transaction);
+        } finally {
+            RoutingDataSource.pop();
+        }
+    }
+
+    DataSourceRoute routeFor(TransactionDefinition definition) {
+        if (!definition.isReadOnly()) {
+            return DataSourceRoute.PRIMARY;
+        }
+        if (definition instanceof TransactionAttribute
+                && ((TransactionAttribute) definition).getLabels().contains(DataSourceRoute.PRIMARY_LABEL)) {
+            return DataSourceRoute.PRIMARY;
+        }
+        if (replicationTracker.replicaCanServe(SessionConsistency.requiredPosition())) {
+            return DataSourceRoute.REPLICA;
+        }
+        log.debug("Réplica en retard (position {} / primaire {}), lecture sur le primaire",
+                replicationTracker.replicaPosition(), replicationTracker.primaryPosition());
+        return DataSourceRoute.PRIMARY;
+    }
+}
@@ -0,0 +1,43 @@
+package com.ensam.library.datasource;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Positions de réplication : le primaire avance d'une position à chaque transaction d'écriture
+ * validée, le réplica à chaque synchronisation terminée.
+ * <p>
+ * Une lecture peut aller au réplica si celui-ci a rattrapé la position exigée par la session
+ * (lecture de ses propres écritures) et si son retard global reste sous {@code maxLag}.
+ */
+public class ReplicationTracker {
+
+    private final AtomicLong primaryPosition = new AtomicLong();
+    // -1 : réplica jamais synchronisé, donc inutilisable
+    private final AtomicLong replicaPosition = new AtomicLong(-1);
+    private final long maxLag;
+
+    public ReplicationTracker(long maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    public long recordWrite() {
+        return primaryPosition.incrementAndGet();
+    }
+
+    public void replicaSynced(long position) {
+        replicaPosition.accumulateAndGet(position, Math::max);
+    }
+
+    public long primaryPosition() {
+        return primaryPosition.get();
+    }
+
+    public long replicaPosition() {
+        return replicaPosition.get();
+    }
+
+    public boolean replicaCanServe(long requiredPosition) {
+        long replica = replicaPosition.get();
+        return replica >= 0 && replica >= requiredPosition && primaryPosition.get() - replica <= maxLag;
+    }
+}
@@ -0,0 +1,38 @@
+package com.ensam.library.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Source de données qui délègue au primaire ou au réplica selon la route de la transaction
+ * en cours. Hors transaction (migrations, scripts d'initialisation), tout va au primaire.
+ */
+public class RoutingDataSource extends AbstractRoutingDataSource {
+
+    // Pile : une transaction REQUIRES_NEW imbriquée ne doit pas écraser la route de l'englobante
+    private static final ThreadLocal<Deque<DataSourceRoute>> ROUTES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    static void push(DataSourceRoute route) {
+        ROUTES.get().push(route);
+    }
+
+    static void pop() {
+        Deque<DataSourceRoute> routes = ROUTES.get();
+        routes.poll();
+        if (routes.isEmpty()) {
+            ROUTES.remove();
+        }
+    }
+
+    public static DataSourceRoute currentRoute() {
+        DataSourceRoute route = ROUTES.get().peek();
+        return route != null ? route : DataSourceRoute.PRIMARY;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return currentRoute();
+    }
+}
@@ -0,0 +1,49 @@
+package com.ensam.library.datasource;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Position de réplication que doivent voir les lectures du fil courant : celle transmise par le
+ * client avec sa requête, relevée par chaque écriture validée dans ce même fil.
+ */
+public final class SessionConsistency {
+
+    private static final ThreadLocal<Session> SESSION = ThreadLocal.withInitial(() -> new Session(0, null));
+
+    private SessionConsistency() {
+    }
+
+    /**
+     * Ouvre une session pour une requête ; {@code onWrite} reçoit la nouvelle position après
+     * chaque écriture validée (pour la renvoyer au client).
+     */
+    public static void bind(long requiredPosition, LongConsumer onWrite) {
+        SESSION.set(new Session(requiredPosition, onWrite));
+    }
+
+    public static void clear() {
+        SESSION.remove();
+    }
+
+    public static long requiredPosition() {
+        return SESSION.get().requiredPosition;
+    }
+
+    static void recordWrite(long position) {
+        Session session = SESSION.get();
+        session.requiredPosition = Math.max(session.requiredPosition, position);
+        if (session.onWrite != null) {
+            session.onWrite.accept(session.requiredPosition);
+        }
+    }
+
+    private static final class Session {
+        private long requiredPosition;
+        private final LongConsumer onWrite;
+
+        private Session(long requiredPosition, LongConsumer onWrite) {
+            this.requiredPosition = requiredPosition;
+            this.onWrite = onWrite;
+        }
+    }
+}
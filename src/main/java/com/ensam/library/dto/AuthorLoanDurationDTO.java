@@ -0,0 +1,14 @@
+package com.ensam.library.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorLoanDurationDTO {
+    private String author;
+    private long returnedLoans;
+    private double averageDays;
+}
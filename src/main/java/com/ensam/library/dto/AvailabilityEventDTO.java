@@ -0,0 +1,15 @@
+package com.ensam.library.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityEventDTO {
+    private Long eventId;
+    private Long bookId;
+    private String type;
+    private Long availableCopies;
+}
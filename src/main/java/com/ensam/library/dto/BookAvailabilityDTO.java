@@ -0,0 +1,13 @@
+package com.ensam.library.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookAvailabilityDTO {
+    private Long bookId;
+    private long availableCopies;
+}
@@ -4,6 +4,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Size;
 
@@ -24,4 +25,12 @@ public class BookDTO {
     @NotBlank(message = "Le genre est obligatoire")
     @Size(min = 2, max = 50, message = "Le genre doit contenir entre 2 et 50 caractères")
     private String genre;
-}
\ No newline at end of file
+
+    // Optionnel : 1 exemplaire par défaut
+    @Min(value = 1, message = "Le nombre d'exemplaires doit être au moins 1")
+    private Integer totalCopies;
+
+    public BookDTO(Long id, String title, String author, String genre) {
+        this(id, title, author, genre, null);
+    }
+}
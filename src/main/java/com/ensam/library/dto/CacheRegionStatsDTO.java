@@ -0,0 +1,17 @@
+package com.ensam.library.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheRegionStatsDTO {
+    private String region;
+    private long hitCount;
+    private long missCount;
+    private long putCount;
+    // null si le fournisseur de cache ne l'expose pas (JCache)
+    private Long elementCountInMemory;
+}
@@ -0,0 +1,18 @@
+package com.ensam.library.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeSetDTO<T> {
+    private List<T> items;
+    private List<Long> deletedIds;
+    // Valeur à renvoyer comme paramètre « since » lors de la prochaine synchronisation
+    private long nextSince;
+    private boolean hasMore;
+}
@@ -0,0 +1,29 @@
+package com.ensam.library.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CirculationStatsDTO {
+    private int windowDays;
+    private long checkouts;
+    private long activeLoans;
+    private Map<String, Long> checkoutsByGenre;
+    private Map<Long, Long> activeLoansByMember;
+    private List<TopBook> topBooks;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TopBook {
+        private Long bookId;
+        private String title;
+        private long checkouts;
+    }
+}
@@ -0,0 +1,18 @@
+package com.ensam.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoalescingStatsDTO {
+    private String name;
+    private long calls;
+    // Appels ayant réellement interrogé la base
+    private long executions;
+    private long coalesced;
+    // Part des appels servis par le chargement d'un autre, entre 0 et 1
+    private double coalescingRatio;
+}
@@ -0,0 +1,15 @@
+package com.ensam.library.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FineBalanceDTO {
+    private Long memberId;
+    // Prêts en retard, en cours ou rendus
+    private int overdueLoans;
+    private long balanceCents;
+}
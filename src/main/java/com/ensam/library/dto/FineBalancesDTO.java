@@ -0,0 +1,20 @@
+package com.ensam.library.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FineBalancesDTO {
+    private LocalDate asOf;
+    private int loansEvaluated;
+    private long loansPerSecond;
+    private int members;
+    private long totalCents;
+    // Plus gros soldes d'abord
+    private List<FineBalanceDTO> balances;
+}
@@ -0,0 +1,20 @@
+package com.ensam.library.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HoldDTO {
+    private Long id;
+
+    @NotNull(message = "Le livre est obligatoire")
+    private Long bookId;
+
+    @NotNull(message = "Le membre est obligatoire")
+    private Long memberId;
+}
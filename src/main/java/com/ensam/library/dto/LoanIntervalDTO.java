@@ -0,0 +1,17 @@
+package com.ensam.library.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanIntervalDTO {
+    private Long loanId;
+    private Long bookId;
+    private Long memberId;
+    private LocalDate loanDate;
+    private LocalDate returnDate;
+}
@@ -0,0 +1,33 @@
+package com.ensam.library.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberDashboardDTO {
+    private Long memberId;
+    private String name;
+    private String email;
+    private List<CurrentLoan> currentLoans;
+    private int activeLoanCount;
+    private int overdueCount;
+    private long totalLoans;
+    private LocalDate lastLoanDate;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CurrentLoan {
+        private Long loanId;
+        private Long bookId;
+        private String bookTitle;
+        private LocalDate loanDate;
+        private boolean overdue;
+    }
+}
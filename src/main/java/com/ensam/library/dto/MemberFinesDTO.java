@@ -0,0 +1,31 @@
+package com.ensam.library.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberFinesDTO {
+    private Long memberId;
+    private LocalDate asOf;
+    private long balanceCents;
+    private List<LoanFine> loans;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LoanFine {
+        private Long loanId;
+        private Long bookId;
+        private String bookTitle;
+        private LocalDate dueDate;
+        // null tant que le prêt est en cours ; sinon l'amende est arrêtée à cette date
+        private LocalDate returnDate;
+        private int daysOverdue;
+        private long fineCents;
+    }
+}
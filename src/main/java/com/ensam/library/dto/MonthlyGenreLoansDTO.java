@@ -0,0 +1,14 @@
+package com.ensam.library.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyGenreLoansDTO {
+    private String month;
+    private String genre;
+    private long loans;
+}
@@ -0,0 +1,24 @@
+package com.ensam.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxStatsDTO {
+    private boolean enabled;
+    private List<String> sinks;
+    private long pending;
+    // Âge du plus ancien événement en attente, 0 si la boîte est vide
+    private long oldestPendingAgeMs;
+    // Délai entre l'écriture et la livraison du plus ancien événement du dernier lot livré
+    private long lastDeliveryLagMs;
+    private long delivered;
+    private long failedBatches;
+    // Événements écartés dans loan_outbox_dead après trop d'échecs
+    private long parked;
+}
@@ -0,0 +1,19 @@
+package com.ensam.library.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OverdueNoticeDTO {
+    private Long loanId;
+    private Long memberId;
+    private Long bookId;
+    private LocalDate runDate;
+    private LocalDate dueDate;
+    private int daysOverdue;
+    private long fineCents;
+}
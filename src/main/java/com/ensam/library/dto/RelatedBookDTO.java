@@ -0,0 +1,15 @@
+package com.ensam.library.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelatedBookDTO {
+    private Long bookId;
+    private String title;
+    private String author;
+    private int coBorrowers;
+}
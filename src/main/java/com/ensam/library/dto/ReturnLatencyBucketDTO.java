@@ -0,0 +1,14 @@
+package com.ensam.library.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReturnLatencyBucketDTO {
+    private int fromDays;
+    private Integer toDays;
+    private long loans;
+}
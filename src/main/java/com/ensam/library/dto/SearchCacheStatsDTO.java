@@ -0,0 +1,21 @@
+package com.ensam.library.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchCacheStatsDTO {
+    private boolean enabled;
+    // Incrémentée à chaque modification validée du catalogue ou d'une disponibilité
+    private long generation;
+    private int entries;
+    private long hits;
+    // Résultats périmés servis pendant leur rechargement
+    private long staleHits;
+    private long misses;
+    private long refreshes;
+    private long refreshFailures;
+}
@@ -0,0 +1,21 @@
+package com.ensam.library.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Modification du catalogue publiée par {@code BookService}.
+ */
+@Value
+@AllArgsConstructor
+public class CatalogEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    Type type;
+    Long bookId;
+}
@@ -0,0 +1,20 @@
+package com.ensam.library.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Publié lorsqu'un retour est attribué directement au premier membre de la file d'attente.
+ */
+@Value
+@AllArgsConstructor
+public class HoldFulfilledEvent {
+    Long holdId;
+    Long bookId;
+    Long memberId;
+    Long loanId;
+    String bookTitle;
+    LocalDate loanDate;
+}
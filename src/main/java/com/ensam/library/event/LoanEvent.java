@@ -0,0 +1,44 @@
+package com.ensam.library.event;
+
+import com.ensam.library.model.Loan;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Événement de circulation publié par {@code LoanService} à chaque emprunt ou retour.
+ */
+@Value
+@AllArgsConstructor
+public class LoanEvent {
+
+    public enum Type {
+        CHECKED_OUT,
+        RETURNED,
+        // Boîte d'envoi seulement : prêt attribué au réservataire, à lui notifier (HoldFulfilledEvent)
+        HOLD_FULFILLED
+    }
+
+    Type type;
+    Long loanId;
+    Long bookId;
+    String bookTitle;
+    String bookGenre;
+    Long memberId;
+    LocalDate loanDate;
+    LocalDate returnDate;
+
+    public static LoanEvent checkedOut(Loan loan) {
+        return of(Type.CHECKED_OUT, loan);
+    }
+
+    public static LoanEvent returned(Loan loan) {
+        return of(Type.RETURNED, loan);
+    }
+
+    private static LoanEvent of(Type type, Loan loan) {
+        return new LoanEvent(type, loan.getId(), loan.getBook().getId(), loan.getBook().getTitle(),
+                loan.getBook().getGenre(), loan.getMember().getId(), loan.getLoanDate(), loan.getReturnDate());
+    }
+}
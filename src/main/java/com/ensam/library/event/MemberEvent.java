@@ -0,0 +1,23 @@
+package com.ensam.library.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Modification d'un membre publiée par {@code MemberService}.
+ */
+@Value
+@AllArgsConstructor
+public class MemberEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    Type type;
+    Long memberId;
+    String name;
+    String email;
+}
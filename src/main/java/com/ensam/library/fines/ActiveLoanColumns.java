@@ -0,0 +1,166 @@
+package com.ensam.library.fines;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Prêts soumis à amende en colonnes primitives, regroupés par membre : identifiant du membre,
+ * jour d'emprunt, jour de retour et règle du barème. Un prêt en cours est évalué à la date
+ * demandée ; un prêt rendu en retard garde l'amende acquise à son retour, jusqu'à son
+ * archivage. Instantané immuable, reconstruit périodiquement.
+ * <p>
+ * L'évaluation des amendes découpe les colonnes en tranches par fork/join ; chaque tranche
+ * écrit le montant de ses prêts dans un {@code long[]} partagé, à des indices disjoints, sans
+ * allocation. Les soldes par membre s'obtiennent ensuite en un parcours, les prêts d'un même
+ * membre étant contigus.
+ */
+public final class ActiveLoanColumns {
+
+    static final int LEAF_ROWS = 16_384;
+
+    private static final int NOT_RETURNED = Integer.MAX_VALUE;
+
+    private final FinePolicy policy;
+    private final int size;
+    private final long[] memberId;
+    private final int[] loanDay;
+    private final int[] returnDay;
+    private final int[] rule;
+
+    private ActiveLoanColumns(Builder builder) {
+        this.policy = builder.policy;
+        this.size = builder.size;
+        this.memberId = Arrays.copyOf(builder.memberId, size);
+        this.loanDay = Arrays.copyOf(builder.loanDay, size);
+        this.returnDay = Arrays.copyOf(builder.returnDay, size);
+        this.rule = Arrays.copyOf(builder.rule, size);
+    }
+
+    public static Builder builder(FinePolicy policy) {
+        return new Builder(policy);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public FineBalances evaluate(LocalDate asOf) {
+        long start = System.nanoTime();
+        long[] fines = new long[size];
+        int day = (int) asOf.toEpochDay();
+        if (size <= LEAF_ROWS) {
+            evaluate(day, fines, 0, size);
+        } else {
+            ForkJoinPool.commonPool().invoke(new EvaluateTask(day, fines, 0, size));
+        }
+
+        int members = 0;
+        long last = 0;
+        for (int i = 0; i < size; i++) {
+            if (fines[i] > 0 && (members == 0 || memberId[i] != last)) {
+                members++;
+                last = memberId[i];
+            }
+        }
+        long[] ids = new long[members];
+        long[] balances = new long[members];
+        int[] overdueLoans = new int[members];
+        int member = -1;
+        for (int i = 0; i < size; i++) {
+            if (fines[i] == 0) {
+                continue;
+            }
+            if (member < 0 || memberId[i] != ids[member]) {
+                ids[++member] = memberId[i];
+            }
+            balances[member] += fines[i];
+            overdueLoans[member]++;
+        }
+        return new FineBalances(asOf, ids, balances, overdueLoans, size, System.nanoTime() - start);
+    }
+
+    // Le retard d'un prêt rendu s'arrête à son jour de retour
+    private void evaluate(int day, long[] fines, int start, int end) {
+        int loanPeriodDays = policy.loanPeriodDays();
+        for (int i = start; i < end; i++) {
+            fines[i] = policy.fine(rule[i], Math.min(day, returnDay[i]) - loanDay[i] - loanPeriodDays);
+        }
+    }
+
+    private final class EvaluateTask extends RecursiveAction {
+        private final int day;
+        private final long[] fines;
+        private final int start;
+        private final int end;
+
+        private EvaluateTask(int day, long[] fines, int start, int end) {
+            this.day = day;
+            this.fines = fines;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= LEAF_ROWS) {
+                evaluate(day, fines, start, end);
+                return;
+            }
+            int middle = (start + end) >>> 1;
+            invokeAll(new EvaluateTask(day, fines, start, middle),
+                    new EvaluateTask(day, fines, middle, end));
+        }
+    }
+
+    public static final class Builder {
+        private final FinePolicy policy;
+        private int size;
+        private long[] memberId = new long[1024];
+        private int[] loanDay = new int[1024];
+        private int[] returnDay = new int[1024];
+        private int[] rule = new int[1024];
+
+        private Builder(FinePolicy policy) {
+            this.policy = policy;
+        }
+
+        /**
+         * Ajoute un prêt en cours ; les prêts doivent arriver par identifiant de membre croissant.
+         */
+        public Builder add(long member, LocalDate loanDate, String genre) {
+            return add(member, loanDate, null, genre);
+        }
+
+        /**
+         * Ajoute un prêt, en cours si {@code returnDate} est {@code null} ; un prêt rendu sans
+         * amende est ignoré. Les prêts doivent arriver par identifiant de membre croissant.
+         */
+        public Builder add(long member, LocalDate loanDate, LocalDate returnDate, String genre) {
+            if (returnDate != null && policy.fine(genre, loanDate, returnDate) == 0) {
+                return this;
+            }
+            if (size > 0 && member < memberId[size - 1]) {
+                throw new IllegalArgumentException("Prêts non triés par membre: " + member + " après " + memberId[size - 1]);
+            }
+            if (size == memberId.length) {
+                int capacity = size * 2;
+                memberId = Arrays.copyOf(memberId, capacity);
+                loanDay = Arrays.copyOf(loanDay, capacity);
+                returnDay = Arrays.copyOf(returnDay, capacity);
+                rule = Arrays.copyOf(rule, capacity);
+            }
+            memberId[size] = member;
+            loanDay[size] = (int) loanDate.toEpochDay();
+            returnDay[size] = returnDate != null ? (int) returnDate.toEpochDay() : NOT_RETURNED;
+            rule[size] = policy.rule(genre);
+            size++;
+            return this;
+        }
+
+        public ActiveLoanColumns build() {
+            return new ActiveLoanColumns(this);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.ensam.library.fines;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Soldes d'amendes par membre à une date, pour les seuls membres qui doivent quelque chose,
+ * triés par identifiant de membre. Porte aussi le volume et la durée de l'évaluation.
+ */
+public final class FineBalances {
+
+    private final LocalDate asOf;
+    private final long[] memberIds;
+    private final long[] balances;
+    private final int[] overdueLoans;
+    private final int loansEvaluated;
+    private final long elapsedNanos;
+
+    FineBalances(LocalDate asOf, long[] memberIds, long[] balances, int[] overdueLoans, int loansEvaluated,
+                 long elapsedNanos) {
+        this.asOf = asOf;
+        this.memberIds = memberIds;
+        this.balances = balances;
+        this.overdueLoans = overdueLoans;
+        this.loansEvaluated = loansEvaluated;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public LocalDate asOf() {
+        return asOf;
+    }
+
+    public int members() {
+        return memberIds.length;
+    }
+
+    public long memberId(int index) {
+        return memberIds[index];
+    }
+
+    public long balance(int index) {
+        return balances[index];
+    }
+
+    public int overdueLoans(int index) {
+        return overdueLoans[index];
+    }
+
+    /**
+     * Indice du membre, ou négatif s'il ne doit rien.
+     */
+    public int indexOf(long memberId) {
+        return Arrays.binarySearch(memberIds, memberId);
+    }
+
+    public int loansEvaluated() {
+        return loansEvaluated;
+    }
+
+    public long elapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double loansPerSecond() {
+        return elapsedNanos > 0 ? loansEvaluated * 1e9 / elapsedNanos : loansEvaluated;
+    }
+
+    public long total() {
+        long total = 0;
+        for (long balance : balances) {
+            total += balance;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,209 @@
+package com.ensam.library.fines;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Barème des amendes de retard : délai de grâce, tarifs journaliers progressifs par paliers,
+ * plafond, et pour certains genres un tarif en pourcentage du barème et un plafond propres.
+ * <p>
+ * Le barème est compilé à la construction en une table de montants cumulés par jour de
+ * retard et par règle (barème général ou genre) : {@link #fine(int, int)} n'est qu'une
+ * lecture de tableau, sans allocation, utilisable dans les boucles sur colonnes primitives.
+ */
+public final class FinePolicy {
+
+    /**
+     * Règle du barème général, appliquée aux genres sans règle propre.
+     */
+    public static final int DEFAULT_RULE = 0;
+
+    private final int loanPeriodDays;
+    private final int graceDays;
+    private final Map<String, Integer> rulesByGenre = new HashMap<>();
+    // Par règle : montant cumulé au jour d (après la grâce), puis tarif et plafond au-delà de la table
+    private final long[][] cumulative;
+    private final long[] tailRate;
+    private final long[] cap;
+
+    private FinePolicy(Builder builder) {
+        if (builder.tierStarts.isEmpty() || builder.tierStarts.get(0) != 1) {
+            throw new IllegalArgumentException("Le premier palier du barème doit commencer au jour 1");
+        }
+        this.loanPeriodDays = builder.loanPeriodDays;
+        this.graceDays = builder.graceDays;
+        List<String> genres = new ArrayList<>(builder.genreRates.keySet());
+        builder.genreCaps.keySet().stream().filter(genre -> !genres.contains(genre)).forEach(genres::add);
+        int rules = genres.size() + 1;
+        this.cumulative = new long[rules][];
+        this.tailRate = new long[rules];
+        this.cap = new long[rules];
+        compile(DEFAULT_RULE, builder, 100, builder.capCents);
+        for (int i = 0; i < genres.size(); i++) {
+            String genre = genres.get(i);
+            rulesByGenre.put(genre, i + 1);
+            compile(i + 1, builder, builder.genreRates.getOrDefault(genre, 100),
+                    builder.genreCaps.getOrDefault(genre, builder.capCents));
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int rule(String genre) {
+        return rulesByGenre.getOrDefault(genre, DEFAULT_RULE);
+    }
+
+    public int loanPeriodDays() {
+        return loanPeriodDays;
+    }
+
+    /**
+     * Amende, en centimes, d'un prêt en retard de {@code daysOverdue} jours après l'échéance.
+     */
+    public long fine(int rule, int daysOverdue) {
+        int charged = daysOverdue - graceDays;
+        if (charged <= 0) {
+            return 0;
+        }
+        long[] table = cumulative[rule];
+        if (charged < table.length) {
+            return table[charged];
+        }
+        long amount = table[table.length - 1] + (charged - table.length + 1) * tailRate[rule];
+        return cap[rule] > 0 ? Math.min(amount, cap[rule]) : amount;
+    }
+
+    public long fine(String genre, LocalDate loanDate, LocalDate asOf) {
+        return fine(rule(genre), daysOverdue(loanDate, asOf));
+    }
+
+    public int daysOverdue(LocalDate loanDate, LocalDate asOf) {
+        return (int) (asOf.toEpochDay() - loanDate.toEpochDay()) - loanPeriodDays;
+    }
+
+    private void compile(int rule, Builder builder, int ratePercent, long capCents) {
+        int lastStart = builder.tierStarts.get(builder.tierStarts.size() - 1);
+        long[] table = new long[lastStart + 1];
+        int tier = 0;
+        for (int day = 1; day <= lastStart; day++) {
+            while (tier + 1 < builder.tierStarts.size() && builder.tierStarts.get(tier + 1) <= day) {
+                tier++;
+            }
+            long amount = table[day - 1] + rate(builder.tierRates.get(tier), ratePercent);
+            table[day] = capCents > 0 ? Math.min(amount, capCents) : amount;
+        }
+        cumulative[rule] = table;
+        tailRate[rule] = rate(builder.tierRates.get(builder.tierRates.size() - 1), ratePercent);
+        cap[rule] = capCents;
+    }
+
+    private static long rate(long centsPerDay, int percent) {
+        return Math.round(centsPerDay * percent / 100.0);
+    }
+
+    public static final class Builder {
+        private int loanPeriodDays;
+        private int graceDays;
+        private long capCents;
+        private final List<Integer> tierStarts = new ArrayList<>();
+        private final List<Long> tierRates = new ArrayList<>();
+        private final Map<String, Integer> genreRates = new HashMap<>();
+        private final Map<String, Long> genreCaps = new HashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder loanPeriodDays(int loanPeriodDays) {
+            this.loanPeriodDays = loanPeriodDays;
+            return this;
+        }
+
+        public Builder graceDays(int graceDays) {
+            this.graceDays = Math.max(0, graceDays);
+            return this;
+        }
+
+        /**
+         * Tarif journalier à partir du {@code fromDay}-ième jour facturé ; paliers par jour croissant.
+         */
+        public Builder tier(int fromDay, long centsPerDay) {
+            if (!tierStarts.isEmpty() && fromDay <= tierStarts.get(tierStarts.size() - 1)) {
+                throw new IllegalArgumentException("Paliers du barème non croissants: " + fromDay);
+            }
+            tierStarts.add(fromDay);
+            tierRates.add(centsPerDay);
+            return this;
+        }
+
+        // 0 : pas de plafond
+        public Builder capCents(long capCents) {
+            this.capCents = capCents;
+            return this;
+        }
+
+        public Builder genreRate(String genre, int percent) {
+            genreRates.put(genre, percent);
+            return this;
+        }
+
+        public Builder genreCap(String genre, long capCents) {
+            genreCaps.put(genre, capCents);
+            return this;
+        }
+
+        /**
+         * Paliers au format {@code "1:10,8:25"} (jour facturé : centimes par jour).
+         */
+        public Builder tiers(String spec) {
+            for (String[] entry : parse(spec)) {
+                tier(Integer.parseInt(entry[0]), Long.parseLong(entry[1]));
+            }
+            return this;
+        }
+
+        /**
+         * Tarifs par genre, en pourcentage du barème, au format {@code "Référence:200,Jeunesse:50"}.
+         */
+        public Builder genreRates(String spec) {
+            for (String[] entry : parse(spec)) {
+                genreRate(entry[0], Integer.parseInt(entry[1]));
+            }
+            return this;
+        }
+
+        /**
+         * Plafonds par genre, en centimes, au format {@code "Référence:5000"}.
+         */
+        public Builder genreCaps(String spec) {
+            for (String[] entry : parse(spec)) {
+                genreCap(entry[0], Long.parseLong(entry[1]));
+            }
+            return this;
+        }
+
+        public FinePolicy build() {
+            return new FinePolicy(this);
+        }
+
+        // Entrées "clé:valeur" séparées par des virgules, dans l'ordre
+        private static List<String[]> parse(String spec) {
+            List<String[]> entries = new ArrayList<>();
+            if (spec == null || spec.isBlank()) {
+                return entries;
+            }
+            for (String entry : spec.split(",")) {
+                int separator = entry.lastIndexOf(':');
+                if (separator <= 0) {
+                    throw new IllegalArgumentException("Entrée de barème invalide: " + entry);
+                }
+                entries.add(new String[]{entry.substring(0, separator).trim(), entry.substring(separator + 1).trim()});
+            }
+            return entries;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.ensam.library.interval;
+
+/**
+ * Arbre de Fenwick sur les jours : ajout ponctuel et somme des jours {@code <= d} en
+ * O(log n). La plage couverte s'étend (reconstruction) quand un jour tombe hors de celle-ci.
+ * Non synchronisé.
+ */
+final class DayCounter {
+
+    private int firstDay;
+    private long[] counts = new long[0];
+    private long[] tree = new long[1];
+
+    void add(int day, long delta) {
+        ensureCovers(day);
+        int index = day - firstDay;
+        counts[index] += delta;
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    long countUpTo(int day) {
+        if (counts.length == 0 || day < firstDay) {
+            return 0;
+        }
+        int index = Math.min(day - firstDay, counts.length - 1);
+        long sum = 0;
+        for (int i = index + 1; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    private void ensureCovers(int day) {
+        if (counts.length > 0 && day >= firstDay && day < firstDay + counts.length) {
+            return;
+        }
+        int from = counts.length == 0 ? day : Math.min(firstDay, day);
+        int to = counts.length == 0 ? day : Math.max(firstDay + counts.length - 1, day);
+        // Marge d'un an de chaque côté pour amortir les reconstructions
+        int newFirst = from - 366;
+        long[] resized = new long[to - newFirst + 1 + 366];
+        if (counts.length > 0) {
+            System.arraycopy(counts, 0, resized, firstDay - newFirst, counts.length);
+        }
+        firstDay = newFirst;
+        counts = resized;
+        tree = new long[resized.length + 1];
+        for (int i = 0; i < resized.length; i++) {
+            int node = i + 1;
+            tree[node] += resized[i];
+            int parent = node + (node & -node);
+            if (parent < tree.length) {
+                tree[parent] += tree[node];
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.ensam.library.interval;
+
+import java.util.List;
+
+/**
+ * Arbre d'intervalles : arbre AVL trié par début (puis identifiant de prêt), chaque nœud
+ * portant la plus grande fin de son sous-arbre. Insertion et suppression en O(log n) ;
+ * les requêtes élaguent tout sous-arbre dont la fin maximale précède la période cherchée,
+ * d'où O(log n + k) pour k résultats. Non synchronisé.
+ */
+final class IntervalTree {
+
+    private Node root;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    void insert(LoanInterval interval) {
+        root = insert(root, interval);
+        size++;
+    }
+
+    void remove(LoanInterval interval) {
+        root = remove(root, interval);
+        size--;
+    }
+
+    /**
+     * Intervalles qui chevauchent {@code [fromDay, toDay)}.
+     */
+    void overlapping(int fromDay, int toDay, List<LoanInterval> result) {
+        collect(root, fromDay, toDay, result);
+    }
+
+    private void collect(Node node, int fromDay, int toDay, List<LoanInterval> result) {
+        if (node == null || node.maxEnd <= fromDay) {
+            return;
+        }
+        collect(node.left, fromDay, toDay, result);
+        if (node.interval.getStartDay() < toDay) {
+            if (node.interval.getEndDay() > fromDay) {
+                result.add(node.interval);
+            }
+            // Le sous-arbre droit ne commence pas avant ce nœud
+            collect(node.right, fromDay, toDay, result);
+        }
+    }
+
+    private static int compare(LoanInterval a, LoanInterval b) {
+        int byStart = Integer.compare(a.getStartDay(), b.getStartDay());
+        return byStart != 0 ? byStart : Long.compare(a.getLoanId(), b.getLoanId());
+    }
+
+    private static Node insert(Node node, LoanInterval interval) {
+        if (node == null) {
+            return new Node(interval);
+        }
+        if (compare(interval, node.interval) < 0) {
+            node.left = insert(node.left, interval);
+        } else {
+            node.right = insert(node.right, interval);
+        }
+        return balance(node);
+    }
+
+    private static Node remove(Node node, LoanInterval interval) {
+        if (node == null) {
+            throw new IllegalStateException("Intervalle absent de l'index: prêt " + interval.getLoanId());
+        }
+        int comparison = compare(interval, node.interval);
+        if (comparison < 0) {
+            node.left = remove(node.left, interval);
+        } else if (comparison > 0) {
+            node.right = remove(node.right, interval);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            node.interval = successor.interval;
+            node.right = remove(node.right, successor.interval);
+        }
+        return balance(node);
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int skew = height(node.left) - height(node.right);
+        if (skew > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (skew < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        int maxEnd = node.interval.getEndDay();
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node node) {
+        return node != null ? node.height : 0;
+    }
+
+    private static final class Node {
+        private LoanInterval interval;
+        private Node left;
+        private Node right;
+        private int height = 1;
+        private int maxEnd;
+
+        private Node(LoanInterval interval) {
+            this.interval = interval;
+            this.maxEnd = interval.getEndDay();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.ensam.library.interval;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Période de détention d'un exemplaire, {@code [startDay, endDay)} en jours depuis l'époque ;
+ * {@link #OPEN} pour un prêt en cours.
+ */
+@Value
+public class LoanInterval {
+
+    public static final int OPEN = Integer.MAX_VALUE;
+
+    Long loanId;
+    Long bookId;
+    Long memberId;
+    int startDay;
+    int endDay;
+
+    public static LoanInterval of(Long loanId, Long bookId, Long memberId, LocalDate loanDate, LocalDate returnDate) {
+        return new LoanInterval(loanId, bookId, memberId, (int) loanDate.toEpochDay(),
+                returnDate != null ? (int) returnDate.toEpochDay() : OPEN);
+    }
+
+    public LocalDate loanDate() {
+        return LocalDate.ofEpochDay(startDay);
+    }
+
+    public LocalDate returnDate() {
+        return endDay == OPEN ? null : LocalDate.ofEpochDay(endDay);
+    }
+}
@@ -0,0 +1,139 @@
+package com.ensam.library.interval;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index des périodes de prêt : un arbre d'intervalles global et un par livre pour les
+ * requêtes de recouvrement, et deux compteurs par jour (débuts, fins) pour le nombre de
+ * prêts en cours à une date donnée en O(log n), sans énumérer les prêts.
+ * <p>
+ * Chaque prêt n'y figure qu'une fois : {@link #put} remplace la période déjà connue,
+ * ce qui rend la réapplication d'un même événement sans effet. Un prêt rendu ne redevient
+ * jamais ouvert : une lecture d'amorçage antérieure au retour ne l'emporte pas sur celui-ci.
+ */
+public class LoanIntervalIndex {
+
+    private static final Comparator<LoanInterval> BY_START = Comparator
+            .comparingInt(LoanInterval::getStartDay)
+            .thenComparing(LoanInterval::getLoanId);
+
+    private final Map<Long, LoanInterval> byLoan = new HashMap<>();
+    private final IntervalTree all = new IntervalTree();
+    private final Map<Long, IntervalTree> byBook = new HashMap<>();
+    private final DayCounter starts = new DayCounter();
+    private final DayCounter ends = new DayCounter();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(LoanInterval interval) {
+        lock.writeLock().lock();
+        try {
+            LoanInterval previous = byLoan.get(interval.getLoanId());
+            if (interval.equals(previous)
+                    || previous != null && previous.getEndDay() != LoanInterval.OPEN && interval.getEndDay() == LoanInterval.OPEN) {
+                return;
+            }
+            if (previous != null) {
+                unlink(previous);
+            }
+            byLoan.put(interval.getLoanId(), interval);
+            link(interval);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            new ArrayList<>(byLoan.values()).forEach(this::unlink);
+            byLoan.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byLoan.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Prêts du livre en cours le jour {@code date}.
+     */
+    public List<LoanInterval> holders(Long bookId, LocalDate date) {
+        int day = (int) date.toEpochDay();
+        return overlapping(bookId, day, day + 1);
+    }
+
+    /**
+     * Prêts, d'un livre ou de tous si {@code bookId} est nul, en cours à un moment de
+     * la période {@code [from, to]} (bornes incluses), triés par date d'emprunt.
+     */
+    public List<LoanInterval> overlapping(Long bookId, LocalDate from, LocalDate to) {
+        return overlapping(bookId, (int) from.toEpochDay(), (int) to.toEpochDay() + 1);
+    }
+
+    /**
+     * Nombre de prêts en cours le jour {@code date} : empruntés au plus tard ce jour et
+     * non encore rendus.
+     */
+    public long outstanding(LocalDate date) {
+        int day = (int) date.toEpochDay();
+        lock.readLock().lock();
+        try {
+            return starts.countUpTo(day) - ends.countUpTo(day);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<LoanInterval> overlapping(Long bookId, int fromDay, int toDay) {
+        List<LoanInterval> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            IntervalTree tree = bookId != null ? byBook.get(bookId) : all;
+            if (tree == null) {
+                return Collections.emptyList();
+            }
+            tree.overlapping(fromDay, toDay, result);
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.sort(BY_START);
+        return result;
+    }
+
+    private void link(LoanInterval interval) {
+        all.insert(interval);
+        byBook.computeIfAbsent(interval.getBookId(), id -> new IntervalTree()).insert(interval);
+        starts.add(interval.getStartDay(), 1);
+        if (interval.getEndDay() != LoanInterval.OPEN) {
+            ends.add(interval.getEndDay(), 1);
+        }
+    }
+
+    private void unlink(LoanInterval interval) {
+        all.remove(interval);
+        IntervalTree tree = byBook.get(interval.getBookId());
+        tree.remove(interval);
+        if (tree.size() == 0) {
+            byBook.remove(interval.getBookId());
+        }
+        starts.add(interval.getStartDay(), -1);
+        if (interval.getEndDay() != LoanInterval.OPEN) {
+            ends.add(interval.getEndDay(), -1);
+        }
+    }
+}
@@ -4,12 +4,19 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Size;
 
 @Entity
-@Table(name = "books")
+@Cacheable
+// Modifié à chaque emprunt : lecture-écriture, l'entrée est verrouillée pendant la mise à jour et relue en base
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "book")
+@Table(name = "books", indexes = @Index(name = "idx_books_change_seq", columnList = "change_seq"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -33,6 +40,27 @@ public class Book {
     @Column(nullable = false)
     private String genre;
 
-    @Column(nullable = false)
+    // Les colonnes d'exemplaires ne changent que par les mises à jour conditionnelles de
+    // BookRepository : l'enregistrement de l'entité écraserait un emprunt validé entre-temps
+
+    // Vrai tant qu'au moins un exemplaire est disponible
+    @Column(nullable = false, updatable = false)
     private Boolean available = true;
-}
\ No newline at end of file
+
+    @Min(value = 1, message = "Le nombre d'exemplaires doit être au moins 1")
+    @Column(nullable = false, updatable = false)
+    private Integer totalCopies = 1;
+
+    @Min(value = 0, message = "Le nombre d'exemplaires disponibles ne peut pas être négatif")
+    @Column(nullable = false, updatable = false)
+    private Integer availableCopies = 1;
+
+    // Numéro de modification croissant, utilisé par la synchronisation incrémentale
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq = 0L;
+
+    // Titre à exemplaire unique
+    public Book(Long id, String title, String author, String genre, Boolean available) {
+        this(id, title, author, genre, available, 1, Boolean.TRUE.equals(available) ? 1 : 0, 0L);
+    }
+}
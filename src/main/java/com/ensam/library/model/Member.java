@@ -4,6 +4,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
@@ -11,7 +14,10 @@ import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
 
 @Entity
-@Table(name = "members")
+@Cacheable
+// Rarement modifié : une fenêtre d'obsolescence très courte est acceptable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE, region = "member")
+@Table(name = "members", indexes = @Index(name = "idx_members_change_seq", columnList = "change_seq"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -39,4 +45,12 @@ public class Member {
     @Pattern(regexp = "^\\+?[0-9\\s\\-]{8,20}$", message = "Numéro de téléphone invalide")
     @Column(nullable = false)
     private String phoneNumber;
+
+    // Numéro de modification croissant, utilisé par la synchronisation incrémentale
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq = 0L;
+
+    public Member(Long id, String name, String address, String email, String phoneNumber) {
+        this(id, name, address, email, phoneNumber, 0L);
+    }
 }
\ No newline at end of file
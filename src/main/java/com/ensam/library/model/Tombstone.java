@@ -0,0 +1,42 @@
+package com.ensam.library.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Trace d'une suppression, pour que les clients synchronisés retirent la ligne de leur copie locale.
+ */
+@Entity
+@Table(name = "tombstones",
+        indexes = @Index(name = "idx_tombstones_type_seq", columnList = "entity_type, change_seq"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Tombstone {
+
+    public enum EntityType {
+        BOOK,
+        MEMBER
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private EntityType entityType;
+
+    @Column(nullable = false)
+    private Long entityId;
+
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,29 @@
+package com.ensam.library.outbox;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+/**
+ * Republie chaque événement livré dans le contexte Spring, pour les {@code @EventListener} de
+ * l'instance. Les écouteurs sont appelés de façon synchrone par le thread de livraison : une
+ * exception fait échouer le lot.
+ */
+public class ListenerOutboxSink implements OutboxSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ListenerOutboxSink(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public String name() {
+        return "listener";
+    }
+
+    @Override
+    public void deliver(List<OutboxEvent> batch) {
+        batch.forEach(eventPublisher::publishEvent);
+    }
+}
@@ -0,0 +1,26 @@
+package com.ensam.library.outbox;
+
+import com.ensam.library.event.LoanEvent;
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Événement de circulation tel que conservé dans la table {@code loan_outbox}. L'identifiant,
+ * attribué à l'écriture, est la clé de dédoublonnage des destinataires : un lot dont la livraison
+ * n'a pas été confirmée est livré à nouveau.
+ */
+@Value
+public class OutboxEvent {
+
+    long id;
+    LoanEvent.Type type;
+    long loanId;
+    long bookId;
+    long memberId;
+    String bookTitle;
+    LocalDate loanDate;
+    LocalDate returnDate;
+    LocalDateTime createdAt;
+}
@@ -0,0 +1,19 @@
+package com.ensam.library.outbox;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destinataire local des événements de la boîte d'envoi. Un lot arrive trié par identifiant ;
+ * il est retiré de la boîte une fois accepté par tous les destinataires, et livré à nouveau à
+ * tous si l'un d'eux échoue : la livraison doit être idempotente.
+ */
+public interface OutboxSink {
+
+    /**
+     * Nom du destinataire, repris dans les journaux.
+     */
+    String name();
+
+    void deliver(List<OutboxEvent> batch) throws IOException;
+}
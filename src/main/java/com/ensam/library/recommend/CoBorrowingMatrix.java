@@ -0,0 +1,195 @@
+package com.ensam.library.recommend;
+
+import lombok.Value;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Matrice creuse de co-emprunts livre-livre : pour chaque livre, le nombre de membres ayant
+ * aussi emprunté chacun de ses voisins. Tenue à jour à chaque emprunt, sans auto-jointure
+ * sur les prêts : le nouvel emprunt est croisé avec l'historique du seul membre concerné.
+ * <p>
+ * Chaque couple (membre, livre) ne compte qu'une fois ; enregistrer un emprunt déjà connu est
+ * sans effet, ce qui permet de rejouer tout l'historique par-dessus un instantané. Une ligne
+ * qui dépasse le double de {@code neighbors} est élaguée à ses {@code neighbors} voisins les
+ * plus fréquents : les compteurs des voisins rares sont alors perdus, ce qui est accepté
+ * pour des recommandations.
+ */
+public class CoBorrowingMatrix {
+
+    private static final int SNAPSHOT_MAGIC = 0x434F4252;
+    private static final Comparator<Neighbor> BY_COUNT = Comparator
+            .comparingInt(Neighbor::getCount).reversed()
+            .thenComparingLong(Neighbor::getBookId);
+
+    private final int neighbors;
+    private final LongObjectMap<LongIntMap> booksByMember = new LongObjectMap<>();
+    private final LongObjectMap<LongIntMap> rows = new LongObjectMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long borrowings;
+
+    public CoBorrowingMatrix(int neighbors) {
+        if (neighbors < 1) {
+            throw new IllegalArgumentException("Au moins un voisin par livre");
+        }
+        this.neighbors = neighbors;
+    }
+
+    /**
+     * Enregistre l'emprunt du livre par le membre ; renvoie {@code false} s'il était déjà connu.
+     */
+    public boolean record(long memberId, long bookId) {
+        lock.writeLock().lock();
+        try {
+            LongIntMap borrowed = booksByMember.computeIfAbsent(memberId, id -> new LongIntMap());
+            if (borrowed.containsKey(bookId)) {
+                return false;
+            }
+            LongIntMap row = rows.computeIfAbsent(bookId, id -> new LongIntMap());
+            borrowed.forEach((other, ignored) -> {
+                row.increment(other, 1);
+                LongIntMap otherRow = rows.computeIfAbsent(other, id -> new LongIntMap());
+                otherRow.increment(bookId, 1);
+                prune(other, otherRow);
+            });
+            prune(bookId, row);
+            borrowed.put(bookId, 1);
+            borrowings++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Voisins les plus fréquents du livre, au plus {@code limit}, du plus au moins co-emprunté.
+     */
+    public List<Neighbor> neighbors(long bookId, int limit) {
+        List<Neighbor> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            LongIntMap row = rows.get(bookId);
+            if (row == null) {
+                return result;
+            }
+            row.forEach((other, count) -> result.add(new Neighbor(other, count)));
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.sort(BY_COUNT);
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    public long borrowings() {
+        lock.readLock().lock();
+        try {
+            return borrowings;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int books() {
+        lock.readLock().lock();
+        try {
+            return rows.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void write(DataOutputStream out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(neighbors);
+            out.writeLong(borrowings);
+            writeMaps(out, booksByMember, false);
+            writeMaps(out, rows, true);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Relit un instantané écrit par {@link #write}, avec le nombre de voisins qu'il portait.
+     */
+    public static CoBorrowingMatrix read(DataInputStream in) throws IOException {
+        if (in.readInt() != SNAPSHOT_MAGIC) {
+            throw new IOException("Instantané de co-emprunts invalide");
+        }
+        CoBorrowingMatrix matrix = new CoBorrowingMatrix(in.readInt());
+        matrix.borrowings = in.readLong();
+        readMaps(in, matrix.booksByMember, false);
+        readMaps(in, matrix.rows, true);
+        return matrix;
+    }
+
+    private void prune(long bookId, LongIntMap row) {
+        if (row.size() <= 2 * neighbors) {
+            return;
+        }
+        int[] counts = new int[row.size()];
+        int[] next = {0};
+        row.forEach((other, count) -> counts[next[0]++] = count);
+        Arrays.sort(counts);
+        int threshold = counts[counts.length - neighbors];
+        // Égalités au seuil départagées par l'ordre de parcours
+        int[] atThreshold = {neighbors};
+        for (int i = counts.length - neighbors; i < counts.length; i++) {
+            if (counts[i] > threshold) {
+                atThreshold[0]--;
+            }
+        }
+        LongIntMap kept = new LongIntMap(neighbors);
+        row.forEach((other, count) -> {
+            if (count > threshold || count == threshold && atThreshold[0]-- > 0) {
+                kept.put(other, count);
+            }
+        });
+        rows.put(bookId, kept);
+    }
+
+    private static void writeMaps(DataOutputStream out, LongObjectMap<LongIntMap> maps, boolean withCounts)
+            throws IOException {
+        out.writeInt(maps.size());
+        maps.<IOException>forEach((key, map) -> {
+            out.writeLong(key);
+            out.writeInt(map.size());
+            map.<IOException>forEach((other, count) -> {
+                out.writeLong(other);
+                if (withCounts) {
+                    out.writeInt(count);
+                }
+            });
+        });
+    }
+
+    private static void readMaps(DataInputStream in, LongObjectMap<LongIntMap> maps, boolean withCounts)
+            throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            long key = in.readLong();
+            int size = in.readInt();
+            LongIntMap map = new LongIntMap(size);
+            for (int j = 0; j < size; j++) {
+                map.put(in.readLong(), withCounts ? in.readInt() : 1);
+            }
+            maps.put(key, map);
+        }
+    }
+
+    @Value
+    public static class Neighbor {
+        long bookId;
+        int count;
+    }
+}
@@ -0,0 +1,93 @@
+package com.ensam.library.recommend;
+
+/**
+ * Table de hachage {@code long -> int} à adressage ouvert (sondage linéaire), sans objet par
+ * entrée : deux tableaux primitifs. La clé {@code 0} est réservée aux cases libres ; les
+ * identifiants JPA commencent à 1. Pas de suppression unitaire. Non synchronisée.
+ */
+final class LongIntMap {
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    LongIntMap() {
+        this(4);
+    }
+
+    LongIntMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expected / LOAD_FACTOR)) - 1) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean containsKey(long key) {
+        return keys[slot(key)] == key;
+    }
+
+    int get(long key) {
+        int slot = slot(key);
+        return keys[slot] == key ? values[slot] : 0;
+    }
+
+    void put(long key, int value) {
+        int slot = slot(key);
+        boolean added = keys[slot] != key;
+        keys[slot] = key;
+        values[slot] = value;
+        if (added && ++size > keys.length * LOAD_FACTOR) {
+            grow();
+        }
+    }
+
+    int increment(long key, int delta) {
+        int value = get(key) + delta;
+        put(key, value);
+        return value;
+    }
+
+    <E extends Exception> void forEach(Entry<E> consumer) throws E {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    private int slot(long key) {
+        if (key == 0) {
+            throw new IllegalArgumentException("La clé 0 est réservée");
+        }
+        int mask = keys.length - 1;
+        int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface Entry<E extends Exception> {
+        void accept(long key, int value) throws E;
+    }
+}
@@ -0,0 +1,91 @@
+package com.ensam.library.recommend;
+
+import java.util.function.LongFunction;
+
+/**
+ * Table de hachage {@code long -> V} à adressage ouvert, sans boîte {@link Long} par clé.
+ * Mêmes conventions que {@link LongIntMap}. Non synchronisée.
+ */
+final class LongObjectMap<V> {
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys = new long[16];
+    private Object[] values = new Object[16];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        int slot = slot(key);
+        return keys[slot] == key ? (V) values[slot] : null;
+    }
+
+    void put(long key, V value) {
+        int slot = slot(key);
+        boolean added = keys[slot] != key;
+        keys[slot] = key;
+        values[slot] = value;
+        if (added && ++size > keys.length * LOAD_FACTOR) {
+            grow();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    V computeIfAbsent(long key, LongFunction<V> factory) {
+        int slot = slot(key);
+        if (keys[slot] == key) {
+            return (V) values[slot];
+        }
+        V value = factory.apply(key);
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > keys.length * LOAD_FACTOR) {
+            grow();
+        }
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    <E extends Exception> void forEach(Entry<V, E> consumer) throws E {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                consumer.accept(keys[i], (V) values[i]);
+            }
+        }
+    }
+
+    private int slot(long key) {
+        if (key == 0) {
+            throw new IllegalArgumentException("La clé 0 est réservée");
+        }
+        int mask = keys.length - 1;
+        int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new Object[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface Entry<V, E extends Exception> {
+        void accept(long key, V value) throws E;
+    }
+}
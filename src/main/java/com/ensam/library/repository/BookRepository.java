@@ -1,15 +1,73 @@
 package com.ensam.library.repository;
 
+import com.ensam.library.datasource.DataSourceRoute;
 import com.ensam.library.model.Book;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
 import java.util.List;
+import java.util.Optional;
+
+import static org.hibernate.annotations.QueryHints.CACHEABLE;
+import static org.hibernate.annotations.QueryHints.CACHE_REGION;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, BookRepositoryCustom {
     List<Book> findByAuthor(String author);
+
+    @QueryHints({
+            @QueryHint(name = CACHEABLE, value = "true"),
+            @QueryHint(name = CACHE_REGION, value = "query.booksByGenre")
+    })
     List<Book> findByGenre(String genre);
+
+    @QueryHints({
+            @QueryHint(name = CACHEABLE, value = "true"),
+            @QueryHint(name = CACHE_REGION, value = "query.availableBooks")
+    })
     List<Book> findByAvailableTrue();
+
     List<Book> findByTitleContainingIgnoreCase(String title);
-}
\ No newline at end of file
+    List<Book> findByChangeSeqBetweenOrderByChangeSeqAsc(Long from, Long to, Pageable pageable);
+
+    // Lectures qui initialisent un état en mémoire (ChangeTracker, compteurs) : toujours sur le primaire
+    @Transactional(readOnly = true, label = DataSourceRoute.PRIMARY_LABEL)
+    @Query("SELECT COALESCE(MAX(b.changeSeq), 0) FROM Book b")
+    long findMaxChangeSeq();
+
+    @Transactional(readOnly = true, label = DataSourceRoute.PRIMARY_LABEL)
+    @Query("SELECT b.availableCopies FROM Book b WHERE b.id = :id")
+    Optional<Integer> findAvailableCopiesById(@Param("id") Long id);
+
+    // Décrément conditionnel : 0 ligne modifiée si plus aucun exemplaire n'est disponible
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Book b SET b.availableCopies = b.availableCopies - 1, "
+            + "b.available = CASE WHEN b.availableCopies > 1 THEN true ELSE false END, "
+            + "b.changeSeq = :changeSeq "
+            + "WHERE b.id = :id AND b.availableCopies > 0")
+    int checkoutCopy(@Param("id") Long id, @Param("changeSeq") long changeSeq);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Book b SET b.availableCopies = b.availableCopies + 1, b.available = true, "
+            + "b.changeSeq = :changeSeq "
+            + "WHERE b.id = :id AND b.availableCopies < b.totalCopies")
+    int returnCopy(@Param("id") Long id, @Param("changeSeq") long changeSeq);
+
+    // L'écart de stock est reporté sur les exemplaires disponibles ; 0 ligne modifiée si le
+    // nouveau stock est inférieur au nombre de prêts en cours
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Book b SET b.totalCopies = :totalCopies, "
+            + "b.availableCopies = b.availableCopies + :totalCopies - b.totalCopies, "
+            + "b.available = CASE WHEN b.availableCopies + :totalCopies - b.totalCopies > 0 THEN true ELSE false END, "
+            + "b.changeSeq = :changeSeq "
+            + "WHERE b.id = :id AND b.totalCopies - b.availableCopies <= :totalCopies")
+    int updateTotalCopies(@Param("id") Long id, @Param("totalCopies") int totalCopies,
+                          @Param("changeSeq") long changeSeq);
+}
@@ -0,0 +1,11 @@
+package com.ensam.library.repository;
+
+public interface BookRepositoryCustom {
+
+    /**
+     * Retire un livre du cache de second niveau. À appeler après une mise à jour en masse
+     * sur ce livre : Hibernate n'invalide la région qu'à la validation de la transaction,
+     * et une relecture dans la même transaction renverrait sinon l'ancien état.
+     */
+    void evictFromCache(Long id);
+}
@@ -0,0 +1,17 @@
+package com.ensam.library.repository;
+
+import com.ensam.library.model.Book;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+public class BookRepositoryCustomImpl implements BookRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void evictFromCache(Long id) {
+        entityManager.getEntityManagerFactory().getCache().evict(Book.class, id);
+    }
+}
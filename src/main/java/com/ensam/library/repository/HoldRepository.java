@@ -0,0 +1,41 @@
+package com.ensam.library.repository;
+
+import com.ensam.library.datasource.DataSourceRoute;
+import com.ensam.library.model.Hold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface HoldRepository extends JpaRepository<Hold, Long> {
+    // Requêtes explicites sur la clé étrangère (voir LoanRepository) ;
+    // la file d'attente en mémoire se charge depuis le primaire
+    @Transactional(readOnly = true, label = DataSourceRoute.PRIMARY_LABEL)
+    @Query("SELECT h FROM Hold h WHERE h.book.id = :bookId AND h.status = :status ORDER BY h.id ASC")
+    List<Hold> findByBookIdAndStatusOrderByIdAsc(@Param("bookId") Long bookId, @Param("status") Hold.Status status);
+
+    @Query("SELECT h FROM Hold h WHERE h.member.id = :memberId")
+    List<Hold> findByMemberId(@Param("memberId") Long memberId);
+
+    @Query("SELECT CASE WHEN COUNT(h) > 0 THEN true ELSE false END FROM Hold h "
+            + "WHERE h.book.id = :bookId AND h.member.id = :memberId AND h.status = :status")
+    boolean existsByBookIdAndMemberIdAndStatus(@Param("bookId") Long bookId, @Param("memberId") Long memberId,
+                                               @Param("status") Hold.Status status);
+
+    // Transitions conditionnelles : 0 ligne modifiée si la réservation n'est plus en attente
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Hold h SET h.status = com.ensam.library.model.Hold$Status.FULFILLED, h.fulfilledAt = :date "
+            + "WHERE h.id = :id AND h.status = com.ensam.library.model.Hold$Status.WAITING")
+    int fulfill(@Param("id") Long id, @Param("date") LocalDate date);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Hold h SET h.status = com.ensam.library.model.Hold$Status.CANCELLED "
+            + "WHERE h.id = :id AND h.status = com.ensam.library.model.Hold$Status.WAITING")
+    int cancel(@Param("id") Long id);
+}
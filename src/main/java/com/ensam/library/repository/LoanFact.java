@@ -0,0 +1,24 @@
+package com.ensam.library.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Projection d'un prêt réduite aux colonnes des rapports et des index en mémoire, sans
+ * charger d'entité.
+ */
+public interface LoanFact {
+
+    Long getLoanId();
+
+    Long getBookId();
+
+    Long getMemberId();
+
+    LocalDate getLoanDate();
+
+    LocalDate getReturnDate();
+
+    String getGenre();
+
+    String getAuthor();
+}
@@ -1,19 +1,68 @@
 package com.ensam.library.repository;
 
 import com.ensam.library.model.Loan;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface LoanRepository extends JpaRepository<Loan, Long> {
-    List<Loan> findByMemberId(Long memberId);
-    List<Loan> findByBookId(Long bookId);
+    // Requêtes explicites sur la clé étrangère : la requête dérivée ferait une jointure externe
+    // sur le parent et ne pourrait pas utiliser les index de loans
+    @Query("SELECT l FROM Loan l WHERE l.member.id = :memberId")
+    List<Loan> findByMemberId(@Param("memberId") Long memberId);
+
+    @Query("SELECT l FROM Loan l WHERE l.book.id = :bookId")
+    List<Loan> findByBookId(@Param("bookId") Long bookId);
+
     List<Loan> findByReturnDateIsNull();
     List<Loan> findByReturnDateIsNullAndLoanDateBefore(LocalDate date);
-    Optional<Loan> findByBookIdAndReturnDateIsNull(Long bookId);
+
+    @Query("SELECT CASE WHEN COUNT(l) > 0 THEN true ELSE false END FROM Loan l "
+            + "WHERE l.book.id = :bookId AND l.member.id = :memberId AND l.returnDate IS NULL")
+    boolean existsByBookIdAndMemberIdAndReturnDateIsNull(@Param("bookId") Long bookId,
+                                                          @Param("memberId") Long memberId);
+
     List<Loan> findByLoanDateBetween(LocalDate startDate, LocalDate endDate);
-}
\ No newline at end of file
+
+    // Historique complet lu en flux (dans une transaction), sans instancier les entités
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT l.id AS loanId, b.id AS bookId, l.member.id AS memberId, l.loanDate AS loanDate, "
+            + "l.returnDate AS returnDate, b.genre AS genre, b.author AS author FROM Loan l JOIN l.book b")
+    Stream<LoanFact> streamLoanFacts();
+
+    // Prêts de la table, en cours ou rendus, regroupés par membre (amendes)
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT l.id AS loanId, b.id AS bookId, l.member.id AS memberId, l.loanDate AS loanDate, "
+            + "l.returnDate AS returnDate, b.genre AS genre, b.author AS author FROM Loan l JOIN l.book b "
+            + "ORDER BY l.member.id")
+    Stream<LoanFact> streamLoanFactsByMember();
+
+    // Bornes et lots des prêts en cours, par identifiant croissant, pour les traitements par tranches
+    @Query("SELECT MIN(l.id) FROM Loan l WHERE l.returnDate IS NULL")
+    Long findMinActiveLoanId();
+
+    @Query("SELECT MAX(l.id) FROM Loan l WHERE l.returnDate IS NULL")
+    Long findMaxActiveLoanId();
+
+    @Query("SELECT l FROM Loan l JOIN FETCH l.book JOIN FETCH l.member WHERE l.returnDate IS NULL "
+            + "AND l.loanDate < :before AND l.id > :afterId AND l.id <= :maxId ORDER BY l.id")
+    List<Loan> findOverdueChunk(@Param("before") LocalDate before, @Param("afterId") Long afterId,
+                                @Param("maxId") Long maxId, Pageable pageable);
+
+    // Prêts rendus avant une date, par lots d'identifiants croissants, pour l'archivage
+    @Query("SELECT l FROM Loan l JOIN FETCH l.book JOIN FETCH l.member WHERE l.returnDate < :before "
+            + "AND l.id > :afterId ORDER BY l.id")
+    List<Loan> findReturnedChunk(@Param("before") LocalDate before, @Param("afterId") Long afterId,
+                                 Pageable pageable);
+}
@@ -1,13 +1,23 @@
 package com.ensam.library.repository;
 
+import com.ensam.library.datasource.DataSourceRoute;
 import com.ensam.library.model.Member;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface MemberRepository extends JpaRepository<Member, Long> {
     Optional<Member> findByEmail(String email);
     Optional<Member> findByPhoneNumber(String phoneNumber);
+    List<Member> findByChangeSeqBetweenOrderByChangeSeqAsc(Long from, Long to, Pageable pageable);
+
+    @Transactional(readOnly = true, label = DataSourceRoute.PRIMARY_LABEL)
+    @Query("SELECT COALESCE(MAX(m.changeSeq), 0) FROM Member m")
+    long findMaxChangeSeq();
 }
\ No newline at end of file
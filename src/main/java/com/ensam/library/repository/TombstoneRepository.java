@@ -0,0 +1,24 @@
+package com.ensam.library.repository;
+
+import com.ensam.library.datasource.DataSourceRoute;
+import com.ensam.library.model.Tombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+    List<Tombstone> findByEntityTypeAndChangeSeqBetweenOrderByChangeSeqAsc(
+            Tombstone.EntityType entityType, Long from, Long to, Pageable pageable);
+
+    @Transactional(readOnly = true, label = DataSourceRoute.PRIMARY_LABEL)
+    List<Tombstone> findByEntityTypeAndChangeSeqGreaterThan(Tombstone.EntityType entityType, Long changeSeq);
+
+    @Transactional(readOnly = true, label = DataSourceRoute.PRIMARY_LABEL)
+    @Query("SELECT COALESCE(MAX(t.changeSeq), 0) FROM Tombstone t")
+    long findMaxChangeSeq();
+}
@@ -0,0 +1,457 @@
+package com.ensam.library.repository.memory;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.NullValueInNestedPathException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.data.support.ExampleMatcherAccessor;
+
+import javax.persistence.EntityNotFoundException;
+import java.beans.PropertyDescriptor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Socle des repositories du profil {@code memory} : les opérations génériques de
+ * {@link JpaRepository} au-dessus d'une {@link MemoryTable}. Les requêtes par exemple parcourent
+ * la table entière en appliquant l'{@link ExampleMatcher} propriété par propriété.
+ */
+abstract class AbstractMemoryRepository<T> implements JpaRepository<T, Long> {
+
+    private static final ProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+    protected final MemoryStore store;
+    protected final MemoryTable<T> table;
+
+    protected AbstractMemoryRepository(MemoryStore store, MemoryTable<T> table) {
+        this.store = store;
+        this.table = table;
+    }
+
+    // Copie exposée d'une ligne stockée
+    protected T read(T row) {
+        return table.codec().copy(row);
+    }
+
+    protected List<T> read(Collection<T> rows) {
+        return rows.stream()
+                .sorted(Comparator.comparing(row -> table.codec().id(row)))
+                .map(this::read)
+                .collect(Collectors.toList());
+    }
+
+    protected Optional<T> single(Collection<T> rows) {
+        if (rows.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1, rows.size());
+        }
+        return rows.stream().findFirst().map(this::read);
+    }
+
+    protected List<T> page(Stream<T> rows, Pageable pageable) {
+        if (pageable.isPaged()) {
+            rows = rows.skip(pageable.getOffset()).limit(pageable.getPageSize());
+        }
+        return rows.map(this::read).collect(Collectors.toList());
+    }
+
+    @Override
+    public <S extends T> S save(S entity) {
+        return store.save(table, entity);
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(entity -> saved.add(save(entity)));
+        return saved;
+    }
+
+    @Override
+    public <S extends T> S saveAndFlush(S entity) {
+        return save(entity);
+    }
+
+    @Override
+    public <S extends T> List<S> saveAllAndFlush(Iterable<S> entities) {
+        return saveAll(entities);
+    }
+
+    @Override
+    public void flush() {
+        // Écritures appliquées immédiatement : rien à vider
+    }
+
+    @Override
+    public Optional<T> findById(Long id) {
+        return Optional.ofNullable(table.get(id)).map(this::read);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return table.get(id) != null;
+    }
+
+    @Override
+    public List<T> findAll() {
+        return read(table.rows());
+    }
+
+    @Override
+    public List<T> findAll(Sort sort) {
+        List<T> all = findAll();
+        all.sort(comparator(sort));
+        return all;
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        List<T> all = findAll(pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(all);
+        }
+        int from = (int) Math.min(pageable.getOffset(), all.size());
+        int to = Math.min(from + pageable.getPageSize(), all.size());
+        return new PageImpl<>(all.subList(from, to), pageable, all.size());
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<Long> ids) {
+        return StreamSupport.stream(ids.spliterator(), false)
+                .map(table::get)
+                .filter(row -> row != null)
+                .map(this::read)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public long count() {
+        return table.size();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        if (!store.delete(table, id)) {
+            throw new EmptyResultDataAccessException(
+                    String.format("Aucune ligne %d dans la table %s", id, table.name()), 1);
+        }
+    }
+
+    @Override
+    public void delete(T entity) {
+        Long id = table.codec().id(entity);
+        if (id != null) {
+            store.delete(table, id);
+        }
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        findAll().forEach(this::delete);
+    }
+
+    @Override
+    @Deprecated
+    public void deleteInBatch(Iterable<T> entities) {
+        deleteAllInBatch(entities);
+    }
+
+    @Override
+    public void deleteAllInBatch(Iterable<T> entities) {
+        deleteAll(entities);
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        ids.forEach(id -> store.delete(table, id));
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        deleteAll();
+    }
+
+    @Override
+    @Deprecated
+    public T getOne(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    @Deprecated
+    public T getById(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    public T getReferenceById(Long id) {
+        return findById(id).orElseThrow(() -> new EntityNotFoundException(
+                String.format("Aucune ligne %d dans la table %s", id, table.name())));
+    }
+
+    @Override
+    public <S extends T> Optional<S> findOne(Example<S> example) {
+        List<S> rows = findAll(example);
+        if (rows.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1, rows.size());
+        }
+        return rows.stream().findFirst();
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example) {
+        return findAll(example, Sort.unsorted());
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example, Sort sort) {
+        List<S> rows = matching(example).map(row -> probeType(example).cast(row)).collect(Collectors.toList());
+        rows.sort(comparator(sort));
+        return rows;
+    }
+
+    @Override
+    public <S extends T> Page<S> findAll(Example<S> example, Pageable pageable) {
+        List<S> all = findAll(example, pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(all);
+        }
+        int from = (int) Math.min(pageable.getOffset(), all.size());
+        int to = Math.min(from + pageable.getPageSize(), all.size());
+        return new PageImpl<>(all.subList(from, to), pageable, all.size());
+    }
+
+    @Override
+    public <S extends T> long count(Example<S> example) {
+        return matching(example).count();
+    }
+
+    @Override
+    public <S extends T> boolean exists(Example<S> example) {
+        return matching(example).findAny().isPresent();
+    }
+
+    @Override
+    public <S extends T, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        return queryFunction.apply(new MemoryFluentQuery<>(example, Sort.unsorted(), probeType(example)));
+    }
+
+    // Copies des lignes correspondant à l'exemple, par identifiant croissant : les associations y
+    // sont résolues, la sonde peut porter sur leurs propriétés
+    private <S extends T> Stream<T> matching(Example<S> example) {
+        ExampleMatcherAccessor accessor = new ExampleMatcherAccessor(example.getMatcher());
+        List<PropertyCondition> conditions = new ArrayList<>();
+        collectConditions(new BeanWrapperImpl(example.getProbe()), "", accessor, conditions);
+        boolean all = example.getMatcher().isAllMatching();
+        Class<S> type = probeType(example);
+        return table.rows().stream()
+                .sorted(Comparator.comparing(row -> table.codec().id(row)))
+                .map(this::read)
+                .filter(type::isInstance)
+                .filter(row -> {
+                    BeanWrapperImpl candidate = new BeanWrapperImpl(row);
+                    return all
+                            ? conditions.stream().allMatch(condition -> condition.test(candidate))
+                            : conditions.isEmpty() || conditions.stream().anyMatch(condition -> condition.test(candidate));
+                });
+    }
+
+    // Une condition par propriété renseignée de la sonde ; les associations sont parcourues
+    // comme en JPA, propriété par propriété
+    private void collectConditions(BeanWrapperImpl probe, String prefix, ExampleMatcherAccessor accessor,
+                                   List<PropertyCondition> conditions) {
+        for (PropertyDescriptor descriptor : probe.getPropertyDescriptors()) {
+            String path = prefix + descriptor.getName();
+            if (descriptor.getReadMethod() == null || descriptor.getWriteMethod() == null
+                    || accessor.isIgnoredPath(path)) {
+                continue;
+            }
+            Object value = accessor.getValueTransformerForPath(path)
+                    .apply(Optional.ofNullable(probe.getPropertyValue(descriptor.getName())))
+                    .orElse(null);
+            if (value == null) {
+                if (accessor.getNullHandler() == ExampleMatcher.NullHandler.INCLUDE) {
+                    conditions.add(new PropertyCondition(path, null, accessor));
+                }
+            } else if (BeanUtils.isSimpleValueType(value.getClass())) {
+                conditions.add(new PropertyCondition(path, value, accessor));
+            } else {
+                collectConditions(new BeanWrapperImpl(value), path + ".", accessor, conditions);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <S extends T> Class<S> probeType(Example<S> example) {
+        return (Class<S>) example.getProbeType();
+    }
+
+    private static final class PropertyCondition {
+        private final String path;
+        private final Object expected;
+        private final ExampleMatcher.StringMatcher stringMatcher;
+        private final boolean ignoreCase;
+
+        private PropertyCondition(String path, Object expected, ExampleMatcherAccessor accessor) {
+            this.path = path;
+            this.expected = expected;
+            this.stringMatcher = accessor.getStringMatcherForPath(path);
+            this.ignoreCase = accessor.isIgnoreCaseForPath(path);
+        }
+
+        private boolean test(BeanWrapperImpl candidate) {
+            Object actual;
+            try {
+                actual = candidate.getPropertyValue(path);
+            } catch (NullValueInNestedPathException e) {
+                actual = null;
+            }
+            if (expected == null || actual == null) {
+                return expected == actual;
+            }
+            if (!(expected instanceof String)) {
+                return expected.equals(actual);
+            }
+            String wanted = ignoreCase ? ((String) expected).toLowerCase(Locale.ROOT) : (String) expected;
+            String value = ignoreCase ? actual.toString().toLowerCase(Locale.ROOT) : actual.toString();
+            switch (stringMatcher) {
+                case STARTING:
+                    return value.startsWith(wanted);
+                case ENDING:
+                    return value.endsWith(wanted);
+                case CONTAINING:
+                    return value.contains(wanted);
+                case REGEX:
+                    return Pattern.compile((String) expected, ignoreCase ? Pattern.CASE_INSENSITIVE : 0)
+                            .matcher(actual.toString()).matches();
+                default:
+                    return value.equals(wanted);
+            }
+        }
+    }
+
+    /**
+     * Requête fluide par exemple : tri et projection appliqués aux lignes correspondantes. La liste
+     * de propriétés de {@link #project} n'est qu'une indication, ignorée ici.
+     */
+    private final class MemoryFluentQuery<S extends T, R> implements FluentQuery.FetchableFluentQuery<R> {
+
+        private final Example<S> example;
+        private final Sort sort;
+        private final Class<R> resultType;
+
+        private MemoryFluentQuery(Example<S> example, Sort sort, Class<R> resultType) {
+            this.example = example;
+            this.sort = sort;
+            this.resultType = resultType;
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<R> sortBy(Sort sort) {
+            return new MemoryFluentQuery<>(example, this.sort.and(sort), resultType);
+        }
+
+        @Override
+        public <P> FluentQuery.FetchableFluentQuery<P> as(Class<P> resultType) {
+            if (!resultType.isInterface() && !resultType.isAssignableFrom(probeType(example))) {
+                throw new UnsupportedOperationException(String.format(
+                        "Projection %s non prise en charge par le stockage en mémoire", resultType.getName()));
+            }
+            return new MemoryFluentQuery<>(example, sort, resultType);
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<R> project(Collection<String> properties) {
+            return this;
+        }
+
+        @Override
+        public R oneValue() {
+            List<R> rows = all();
+            if (rows.size() > 1) {
+                throw new IncorrectResultSizeDataAccessException(1, rows.size());
+            }
+            return rows.isEmpty() ? null : rows.get(0);
+        }
+
+        @Override
+        public R firstValue() {
+            List<R> rows = all();
+            return rows.isEmpty() ? null : rows.get(0);
+        }
+
+        @Override
+        public List<R> all() {
+            return stream().collect(Collectors.toList());
+        }
+
+        @Override
+        public Page<R> page(Pageable pageable) {
+            Page<S> rows = findAll(example, pageable.isPaged()
+                    ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort.and(pageable.getSort()))
+                    : Pageable.unpaged());
+            return rows.map(this::project);
+        }
+
+        @Override
+        public Stream<R> stream() {
+            return findAll(example, sort).stream().map(this::project);
+        }
+
+        @Override
+        public long count() {
+            return AbstractMemoryRepository.this.count(example);
+        }
+
+        @Override
+        public boolean exists() {
+            return AbstractMemoryRepository.this.exists(example);
+        }
+
+        private R project(S row) {
+            return resultType.isInstance(row) ? resultType.cast(row) : PROJECTIONS.createProjection(resultType, row);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Comparator<T> comparator(Sort sort) {
+        Comparator<T> comparator = (left, right) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<T> byProperty = Comparator.comparing(
+                    entity -> (Comparable) new BeanWrapperImpl(entity).getPropertyValue(order.getProperty()),
+                    Comparator.nullsFirst(Comparator.naturalOrder()));
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator;
+    }
+}
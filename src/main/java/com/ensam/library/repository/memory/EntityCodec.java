@@ -0,0 +1,23 @@
+package com.ensam.library.repository.memory;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Accès à l'identifiant, copie défensive et encodage binaire (journal d'écriture) d'une entité
+ * du stockage en mémoire.
+ */
+interface EntityCodec<T> {
+
+    Long id(T entity);
+
+    void setId(T entity, Long id);
+
+    // Les lignes stockées ne sont jamais exposées : lectures et écritures passent par une copie
+    T copy(T entity);
+
+    void write(T entity, DataOutput out) throws IOException;
+
+    T read(DataInput in) throws IOException;
+}
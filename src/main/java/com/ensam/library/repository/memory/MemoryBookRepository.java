@@ -0,0 +1,138 @@
+package com.ensam.library.repository.memory;
+
+import com.ensam.library.model.Book;
+import com.ensam.library.repository.BookRepository;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+public class MemoryBookRepository extends AbstractMemoryRepository<Book> implements BookRepository {
+
+    public MemoryBookRepository(MemoryStore store) {
+        super(store, store.books);
+    }
+
+    @Override
+    public List<Book> findByAuthor(String author) {
+        return read(table.rows(store.booksByAuthor.get(author)));
+    }
+
+    @Override
+    public List<Book> findByGenre(String genre) {
+        return read(table.rows(store.booksByGenre.get(genre)));
+    }
+
+    @Override
+    public List<Book> findByAvailableTrue() {
+        return read(table.rows(store.availableBooks.get(Boolean.TRUE)));
+    }
+
+    @Override
+    public List<Book> findByTitleContainingIgnoreCase(String title) {
+        String needle = title.toLowerCase(Locale.ROOT);
+        return read(table.rows().stream()
+                .filter(book -> book.getTitle() != null && book.getTitle().toLowerCase(Locale.ROOT).contains(needle))
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public List<Book> findByChangeSeqBetweenOrderByChangeSeqAsc(Long from, Long to, Pageable pageable) {
+        return page(table.rows().stream()
+                .filter(book -> book.getChangeSeq() >= from && book.getChangeSeq() <= to)
+                .sorted(Comparator.comparing(Book::getChangeSeq).thenComparing(Book::getId)), pageable);
+    }
+
+    @Override
+    public long findMaxChangeSeq() {
+        return table.rows().stream().mapToLong(Book::getChangeSeq).max().orElse(0L);
+    }
+
+    @Override
+    public Optional<Integer> findAvailableCopiesById(Long id) {
+        return Optional.ofNullable(table.get(id)).map(Book::getAvailableCopies);
+    }
+
+    @Override
+    public int checkoutCopy(Long id, long changeSeq) {
+        return store.update(table, id, book -> book.getAvailableCopies() > 0, book -> {
+            book.setAvailableCopies(book.getAvailableCopies() - 1);
+            book.setAvailable(book.getAvailableCopies() > 0);
+            book.setChangeSeq(changeSeq);
+            return book;
+        }, book -> {
+            book.setAvailableCopies(book.getAvailableCopies() + 1);
+            book.setAvailable(true);
+            return book;
+        }) ? 1 : 0;
+    }
+
+    @Override
+    public int returnCopy(Long id, long changeSeq) {
+        return store.update(table, id, book -> book.getAvailableCopies() < book.getTotalCopies(), book -> {
+            book.setAvailableCopies(book.getAvailableCopies() + 1);
+            book.setAvailable(true);
+            book.setChangeSeq(changeSeq);
+            return book;
+        }, book -> {
+            book.setAvailableCopies(book.getAvailableCopies() - 1);
+            book.setAvailable(book.getAvailableCopies() > 0);
+            return book;
+        }) ? 1 : 0;
+    }
+
+    @Override
+    public int updateTotalCopies(Long id, int totalCopies, long changeSeq) {
+        int[] delta = new int[1];
+        return store.update(table, id, book -> book.getTotalCopies() - book.getAvailableCopies() <= totalCopies, book -> {
+            delta[0] = totalCopies - book.getTotalCopies();
+            book.setTotalCopies(totalCopies);
+            book.setAvailableCopies(book.getAvailableCopies() + delta[0]);
+            book.setAvailable(book.getAvailableCopies() > 0);
+            book.setChangeSeq(changeSeq);
+            return book;
+        }, book -> {
+            book.setTotalCopies(book.getTotalCopies() - delta[0]);
+            book.setAvailableCopies(book.getAvailableCopies() - delta[0]);
+            book.setAvailable(book.getAvailableCopies() > 0);
+            return book;
+        }) ? 1 : 0;
+    }
+
+    // Comme les colonnes non modifiables de l'entité : un livre existant garde ses exemplaires
+    @Override
+    public <S extends Book> S save(S entity) {
+        Book current = entity.getId() != null ? table.get(entity.getId()) : null;
+        if (current == null) {
+            return super.save(entity);
+        }
+        Book[] previous = new Book[1];
+        store.update(table, entity.getId(), book -> true, book -> {
+            previous[0] = new Book(null, book.getTitle(), book.getAuthor(), book.getGenre(), null, null, null,
+                    book.getChangeSeq());
+            book.setTitle(entity.getTitle());
+            book.setAuthor(entity.getAuthor());
+            book.setGenre(entity.getGenre());
+            book.setChangeSeq(entity.getChangeSeq());
+            entity.setTotalCopies(book.getTotalCopies());
+            entity.setAvailableCopies(book.getAvailableCopies());
+            entity.setAvailable(book.getAvailable());
+            return book;
+        }, book -> {
+            book.setTitle(previous[0].getTitle());
+            book.setAuthor(previous[0].getAuthor());
+            book.setGenre(previous[0].getGenre());
+            book.setChangeSeq(previous[0].getChangeSeq());
+            return book;
+        });
+        return entity;
+    }
+
+    @Override
+    public void evictFromCache(Long id) {
+        // Pas de cache de second niveau : les lectures servent directement la table
+    }
+}
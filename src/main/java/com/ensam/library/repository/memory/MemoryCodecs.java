@@ -0,0 +1,230 @@
+package com.ensam.library.repository.memory;
+
+import com.ensam.library.model.Book;
+import com.ensam.library.model.Hold;
+import com.ensam.library.model.Loan;
+import com.ensam.library.model.Member;
+import com.ensam.library.model.Tombstone;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Codecs des entités du stockage en mémoire. Les prêts et réservations ne conservent que
+ * l'identifiant du livre et du membre ; le repository les réassocie à la lecture.
+ */
+final class MemoryCodecs {
+
+    static final EntityCodec<Book> BOOK = new EntityCodec<>() {
+        @Override
+        public Long id(Book book) {
+            return book.getId();
+        }
+
+        @Override
+        public void setId(Book book, Long id) {
+            book.setId(id);
+        }
+
+        @Override
+        public Book copy(Book book) {
+            return new Book(book.getId(), book.getTitle(), book.getAuthor(), book.getGenre(), book.getAvailable(),
+                    book.getTotalCopies(), book.getAvailableCopies(), book.getChangeSeq());
+        }
+
+        @Override
+        public void write(Book book, DataOutput out) throws IOException {
+            out.writeLong(book.getId());
+            writeString(out, book.getTitle());
+            writeString(out, book.getAuthor());
+            writeString(out, book.getGenre());
+            out.writeBoolean(Boolean.TRUE.equals(book.getAvailable()));
+            out.writeInt(book.getTotalCopies());
+            out.writeInt(book.getAvailableCopies());
+            out.writeLong(book.getChangeSeq());
+        }
+
+        @Override
+        public Book read(DataInput in) throws IOException {
+            return new Book(in.readLong(), readString(in), readString(in), readString(in), in.readBoolean(),
+                    in.readInt(), in.readInt(), in.readLong());
+        }
+    };
+
+    static final EntityCodec<Member> MEMBER = new EntityCodec<>() {
+        @Override
+        public Long id(Member member) {
+            return member.getId();
+        }
+
+        @Override
+        public void setId(Member member, Long id) {
+            member.setId(id);
+        }
+
+        @Override
+        public Member copy(Member member) {
+            return new Member(member.getId(), member.getName(), member.getAddress(), member.getEmail(),
+                    member.getPhoneNumber(), member.getChangeSeq());
+        }
+
+        @Override
+        public void write(Member member, DataOutput out) throws IOException {
+            out.writeLong(member.getId());
+            writeString(out, member.getName());
+            writeString(out, member.getAddress());
+            writeString(out, member.getEmail());
+            writeString(out, member.getPhoneNumber());
+            out.writeLong(member.getChangeSeq());
+        }
+
+        @Override
+        public Member read(DataInput in) throws IOException {
+            return new Member(in.readLong(), readString(in), readString(in), readString(in), readString(in),
+                    in.readLong());
+        }
+    };
+
+    static final EntityCodec<Loan> LOAN = new EntityCodec<>() {
+        @Override
+        public Long id(Loan loan) {
+            return loan.getId();
+        }
+
+        @Override
+        public void setId(Loan loan, Long id) {
+            loan.setId(id);
+        }
+
+        @Override
+        public Loan copy(Loan loan) {
+            return new Loan(loan.getId(), loan.getLoanDate(), loan.getReturnDate(),
+                    bookRef(loan.getBook().getId()), memberRef(loan.getMember().getId()));
+        }
+
+        @Override
+        public void write(Loan loan, DataOutput out) throws IOException {
+            out.writeLong(loan.getId());
+            writeDate(out, loan.getLoanDate());
+            writeDate(out, loan.getReturnDate());
+            out.writeLong(loan.getBook().getId());
+            out.writeLong(loan.getMember().getId());
+        }
+
+        @Override
+        public Loan read(DataInput in) throws IOException {
+            return new Loan(in.readLong(), readDate(in), readDate(in), bookRef(in.readLong()), memberRef(in.readLong()));
+        }
+    };
+
+    static final EntityCodec<Hold> HOLD = new EntityCodec<>() {
+        @Override
+        public Long id(Hold hold) {
+            return hold.getId();
+        }
+
+        @Override
+        public void setId(Hold hold, Long id) {
+            hold.setId(id);
+        }
+
+        @Override
+        public Hold copy(Hold hold) {
+            return new Hold(hold.getId(), bookRef(hold.getBook().getId()), memberRef(hold.getMember().getId()),
+                    hold.getCreatedAt(), hold.getStatus(), hold.getFulfilledAt());
+        }
+
+        @Override
+        public void write(Hold hold, DataOutput out) throws IOException {
+            out.writeLong(hold.getId());
+            out.writeLong(hold.getBook().getId());
+            out.writeLong(hold.getMember().getId());
+            writeString(out, hold.getCreatedAt() != null ? hold.getCreatedAt().toString() : null);
+            writeString(out, hold.getStatus().name());
+            writeDate(out, hold.getFulfilledAt());
+        }
+
+        @Override
+        public Hold read(DataInput in) throws IOException {
+            Long id = in.readLong();
+            Book book = bookRef(in.readLong());
+            Member member = memberRef(in.readLong());
+            String createdAt = readString(in);
+            return new Hold(id, book, member, createdAt != null ? LocalDateTime.parse(createdAt) : null,
+                    Hold.Status.valueOf(readString(in)), readDate(in));
+        }
+    };
+
+    static final EntityCodec<Tombstone> TOMBSTONE = new EntityCodec<>() {
+        @Override
+        public Long id(Tombstone tombstone) {
+            return tombstone.getId();
+        }
+
+        @Override
+        public void setId(Tombstone tombstone, Long id) {
+            tombstone.setId(id);
+        }
+
+        @Override
+        public Tombstone copy(Tombstone tombstone) {
+            return new Tombstone(tombstone.getId(), tombstone.getEntityType(), tombstone.getEntityId(),
+                    tombstone.getChangeSeq(), tombstone.getDeletedAt());
+        }
+
+        @Override
+        public void write(Tombstone tombstone, DataOutput out) throws IOException {
+            out.writeLong(tombstone.getId());
+            writeString(out, tombstone.getEntityType().name());
+            out.writeLong(tombstone.getEntityId());
+            out.writeLong(tombstone.getChangeSeq());
+            writeString(out, tombstone.getDeletedAt().toString());
+        }
+
+        @Override
+        public Tombstone read(DataInput in) throws IOException {
+            return new Tombstone(in.readLong(), Tombstone.EntityType.valueOf(readString(in)), in.readLong(),
+                    in.readLong(), LocalDateTime.parse(readString(in)));
+        }
+    };
+
+    private MemoryCodecs() {
+    }
+
+    static Book bookRef(Long id) {
+        Book book = new Book();
+        book.setId(id);
+        return book;
+    }
+
+    static Member memberRef(Long id) {
+        Member member = new Member();
+        member.setId(id);
+        return member;
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeDate(DataOutput out, LocalDate date) throws IOException {
+        out.writeBoolean(date != null);
+        if (date != null) {
+            out.writeLong(date.toEpochDay());
+        }
+    }
+
+    private static LocalDate readDate(DataInput in) throws IOException {
+        return in.readBoolean() ? LocalDate.ofEpochDay(in.readLong()) : null;
+    }
+}
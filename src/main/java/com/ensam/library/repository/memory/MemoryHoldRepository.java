@@ -0,0 +1,63 @@
+package com.ensam.library.repository.memory;
+
+import com.ensam.library.model.Hold;
+import com.ensam.library.repository.HoldRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class MemoryHoldRepository extends AbstractMemoryRepository<Hold> implements HoldRepository {
+
+    public MemoryHoldRepository(MemoryStore store) {
+        super(store, store.holds);
+    }
+
+    @Override
+    protected Hold read(Hold row) {
+        return new Hold(row.getId(), store.book(row.getBook().getId()), store.member(row.getMember().getId()),
+                row.getCreatedAt(), row.getStatus(), row.getFulfilledAt());
+    }
+
+    // Comme un merge JPA : le résultat porte l'état courant du livre et du membre
+    @Override
+    @SuppressWarnings("unchecked")
+    public <S extends Hold> S save(S entity) {
+        return (S) read(table.get(table.codec().id(super.save(entity))));
+    }
+
+    @Override
+    public List<Hold> findByBookIdAndStatusOrderByIdAsc(Long bookId, Hold.Status status) {
+        return read(table.rows(store.holdsByBook.get(bookId)).stream()
+                .filter(hold -> hold.getStatus() == status)
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public List<Hold> findByMemberId(Long memberId) {
+        return read(table.rows(store.holdsByMember.get(memberId)));
+    }
+
+    @Override
+    public boolean existsByBookIdAndMemberIdAndStatus(Long bookId, Long memberId, Hold.Status status) {
+        return table.rows(store.holdsByBook.get(bookId)).stream()
+                .anyMatch(hold -> hold.getMember().getId().equals(memberId) && hold.getStatus() == status);
+    }
+
+    @Override
+    public int fulfill(Long id, LocalDate date) {
+        return store.update(table, id, hold -> hold.getStatus() == Hold.Status.WAITING, hold -> {
+            hold.setStatus(Hold.Status.FULFILLED);
+            hold.setFulfilledAt(date);
+            return hold;
+        }, null) ? 1 : 0;
+    }
+
+    @Override
+    public int cancel(Long id) {
+        return store.update(table, id, hold -> hold.getStatus() == Hold.Status.WAITING, hold -> {
+            hold.setStatus(Hold.Status.CANCELLED);
+            return hold;
+        }, null) ? 1 : 0;
+    }
+}
@@ -0,0 +1,64 @@
+package com.ensam.library.repository.memory;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Index secondaire : valeur de clé vers identifiants des lignes. Une clé {@code null} exclut la
+ * ligne de l'index, ce qui permet des index partiels (prêts en cours uniquement, par exemple).
+ * Mis à jour sous le verrou de la table ; lu sans verrou.
+ */
+final class MemoryIndex<T, K> {
+
+    private final Function<T, K> key;
+    private final boolean unique;
+    private final Map<K, Set<Long>> entries = new ConcurrentHashMap<>();
+
+    MemoryIndex(Function<T, K> key, boolean unique) {
+        this.key = key;
+        this.unique = unique;
+    }
+
+    Set<Long> get(K value) {
+        Set<Long> ids = entries.get(value);
+        return ids != null ? Collections.unmodifiableSet(ids) : Collections.emptySet();
+    }
+
+    boolean unique() {
+        return unique;
+    }
+
+    // Vrai si une autre ligne que {@code id} porte déjà la clé de {@code row}
+    boolean conflicts(T row, Long id) {
+        K value = key.apply(row);
+        if (value == null) {
+            return false;
+        }
+        Set<Long> ids = entries.get(value);
+        return ids != null && ids.stream().anyMatch(other -> !other.equals(id));
+    }
+
+    void update(Long id, T previous, T current) {
+        K before = previous != null ? key.apply(previous) : null;
+        K after = current != null ? key.apply(current) : null;
+        if (before != null && before.equals(after)) {
+            return;
+        }
+        if (before != null) {
+            entries.computeIfPresent(before, (value, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+        if (after != null) {
+            entries.computeIfAbsent(after, value -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    void clear() {
+        entries.clear();
+    }
+}
@@ -0,0 +1,170 @@
+package com.ensam.library.repository.memory;
+
+import com.ensam.library.model.Book;
+import com.ensam.library.model.Loan;
+import com.ensam.library.repository.LoanFact;
+import com.ensam.library.repository.LoanRepository;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class MemoryLoanRepository extends AbstractMemoryRepository<Loan> implements LoanRepository {
+
+    public MemoryLoanRepository(MemoryStore store) {
+        super(store, store.loans);
+    }
+
+    // Le prêt stocké ne garde que les identifiants : rattacher l'état courant du livre et du membre
+    @Override
+    protected Loan read(Loan row) {
+        return new Loan(row.getId(), row.getLoanDate(), row.getReturnDate(),
+                store.book(row.getBook().getId()), store.member(row.getMember().getId()));
+    }
+
+    // Comme un merge JPA : le résultat porte l'état courant du livre et du membre
+    @Override
+    @SuppressWarnings("unchecked")
+    public <S extends Loan> S save(S entity) {
+        return (S) read(table.get(table.codec().id(super.save(entity))));
+    }
+
+    @Override
+    public List<Loan> findByMemberId(Long memberId) {
+        return read(table.rows(store.loansByMember.get(memberId)));
+    }
+
+    @Override
+    public List<Loan> findByBookId(Long bookId) {
+        return read(table.rows(store.loansByBook.get(bookId)));
+    }
+
+    @Override
+    public List<Loan> findByReturnDateIsNull() {
+        return read(table.rows(store.activeLoans.get(Boolean.TRUE)));
+    }
+
+    @Override
+    public List<Loan> findByReturnDateIsNullAndLoanDateBefore(LocalDate date) {
+        return read(table.rows(store.activeLoans.get(Boolean.TRUE)).stream()
+                .filter(loan -> loan.getLoanDate().isBefore(date))
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public boolean existsByBookIdAndMemberIdAndReturnDateIsNull(Long bookId, Long memberId) {
+        return table.rows(store.activeLoansByBook.get(bookId)).stream()
+                .anyMatch(loan -> loan.getMember().getId().equals(memberId));
+    }
+
+    @Override
+    public List<Loan> findByLoanDateBetween(LocalDate startDate, LocalDate endDate) {
+        return read(table.rows().stream()
+                .filter(loan -> !loan.getLoanDate().isBefore(startDate) && !loan.getLoanDate().isAfter(endDate))
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public Long findMinActiveLoanId() {
+        return table.rows(store.activeLoans.get(Boolean.TRUE)).stream()
+                .map(Loan::getId).min(Comparator.naturalOrder()).orElse(null);
+    }
+
+    @Override
+    public Long findMaxActiveLoanId() {
+        return table.rows(store.activeLoans.get(Boolean.TRUE)).stream()
+                .map(Loan::getId).max(Comparator.naturalOrder()).orElse(null);
+    }
+
+    @Override
+    public List<Loan> findOverdueChunk(LocalDate before, Long afterId, Long maxId, Pageable pageable) {
+        return page(table.rows(store.activeLoans.get(Boolean.TRUE)).stream()
+                .filter(loan -> loan.getLoanDate().isBefore(before) && loan.getId() > afterId && loan.getId() <= maxId)
+                .sorted(Comparator.comparing(Loan::getId)), pageable);
+    }
+
+    @Override
+    public List<Loan> findReturnedChunk(LocalDate before, Long afterId, Pageable pageable) {
+        return page(table.rows().stream()
+                .filter(loan -> loan.getReturnDate() != null && loan.getReturnDate().isBefore(before)
+                        && loan.getId() > afterId)
+                .sorted(Comparator.comparing(Loan::getId)), pageable);
+    }
+
+    @Override
+    public Stream<LoanFact> streamLoanFacts() {
+        return table.rows().stream().map(this::fact);
+    }
+
+    @Override
+    public Stream<LoanFact> streamLoanFactsByMember() {
+        return table.rows().stream()
+                .sorted(Comparator.comparing(loan -> loan.getMember().getId()))
+                .map(this::fact);
+    }
+
+    private LoanFact fact(Loan loan) {
+        Book book = store.books.get(loan.getBook().getId());
+        return new Fact(loan.getId(), book.getId(), loan.getMember().getId(), loan.getLoanDate(),
+                loan.getReturnDate(), book.getGenre(), book.getAuthor());
+    }
+
+    private static final class Fact implements LoanFact {
+        private final Long loanId;
+        private final Long bookId;
+        private final Long memberId;
+        private final LocalDate loanDate;
+        private final LocalDate returnDate;
+        private final String genre;
+        private final String author;
+
+        private Fact(Long loanId, Long bookId, Long memberId, LocalDate loanDate, LocalDate returnDate,
+                     String genre, String author) {
+            this.loanId = loanId;
+            this.bookId = bookId;
+            this.memberId = memberId;
+            this.loanDate = loanDate;
+            this.returnDate = returnDate;
+            this.genre = genre;
+            this.author = author;
+        }
+
+        @Override
+        public Long getLoanId() {
+            return loanId;
+        }
+
+        @Override
+        public Long getBookId() {
+            return bookId;
+        }
+
+        @Override
+        public Long getMemberId() {
+            return memberId;
+        }
+
+        @Override
+        public LocalDate getLoanDate() {
+            return loanDate;
+        }
+
+        @Override
+        public LocalDate getReturnDate() {
+            return returnDate;
+        }
+
+        @Override
+        public String getGenre() {
+            return genre;
+        }
+
+        @Override
+        public String getAuthor() {
+            return author;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.ensam.library.repository.memory;
+
+import com.ensam.library.model.Member;
+import com.ensam.library.repository.MemberRepository;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+public class MemoryMemberRepository extends AbstractMemoryRepository<Member> implements MemberRepository {
+
+    public MemoryMemberRepository(MemoryStore store) {
+        super(store, store.members);
+    }
+
+    @Override
+    public Optional<Member> findByEmail(String email) {
+        return single(table.rows(store.membersByEmail.get(email)));
+    }
+
+    @Override
+    public Optional<Member> findByPhoneNumber(String phoneNumber) {
+        return single(table.rows(store.membersByPhone.get(phoneNumber)));
+    }
+
+    @Override
+    public List<Member> findByChangeSeqBetweenOrderByChangeSeqAsc(Long from, Long to, Pageable pageable) {
+        return page(table.rows().stream()
+                .filter(member -> member.getChangeSeq() >= from && member.getChangeSeq() <= to)
+                .sorted(Comparator.comparing(Member::getChangeSeq).thenComparing(Member::getId)), pageable);
+    }
+
+    @Override
+    public long findMaxChangeSeq() {
+        return table.rows().stream().mapToLong(Member::getChangeSeq).max().orElse(0L);
+    }
+}
@@ -0,0 +1,314 @@
+package com.ensam.library.repository.memory;
+
+import com.ensam.library.model.Book;
+import com.ensam.library.model.Hold;
+import com.ensam.library.model.Loan;
+import com.ensam.library.model.Member;
+import com.ensam.library.model.Tombstone;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Moteur de stockage en mémoire du profil {@code memory} : tables et index secondaires,
+ * rendus durables par un journal d'écriture sur disque rejoué au démarrage.
+ * <p>
+ * Les écritures sont appliquées immédiatement (visibles des autres transactions avant leur
+ * validation) et annulées en cas de rollback. À la validation, l'image courante de chaque
+ * ligne touchée est ajoutée au journal ; l'ordre du journal suit donc l'ordre des validations.
+ */
+@Slf4j
+public class MemoryStore {
+
+    private static final String LOG_FILE = "store.wal";
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+
+    final MemoryTable<Book> books = new MemoryTable<>("books", MemoryCodecs.BOOK);
+    final MemoryIndex<Book, String> booksByAuthor = books.index(Book::getAuthor);
+    final MemoryIndex<Book, String> booksByGenre = books.index(Book::getGenre);
+    final MemoryIndex<Book, Boolean> availableBooks = books.index(book -> flag(book.getAvailable()));
+
+    final MemoryTable<Member> members = new MemoryTable<>("members", MemoryCodecs.MEMBER);
+    final MemoryIndex<Member, String> membersByEmail = members.uniqueIndex(Member::getEmail);
+    final MemoryIndex<Member, String> membersByPhone = members.index(Member::getPhoneNumber);
+
+    final MemoryTable<Loan> loans = new MemoryTable<>("loans", MemoryCodecs.LOAN);
+    final MemoryIndex<Loan, Long> loansByBook = loans.index(loan -> loan.getBook().getId());
+    final MemoryIndex<Loan, Long> loansByMember = loans.index(loan -> loan.getMember().getId());
+    final MemoryIndex<Loan, Boolean> activeLoans = loans.index(loan -> flag(loan.getReturnDate() == null));
+    final MemoryIndex<Loan, Long> activeLoansByBook = loans.index(
+            loan -> loan.getReturnDate() == null ? loan.getBook().getId() : null);
+
+    final MemoryTable<Hold> holds = new MemoryTable<>("holds", MemoryCodecs.HOLD);
+    final MemoryIndex<Hold, Long> holdsByBook = holds.index(hold -> hold.getBook().getId());
+    final MemoryIndex<Hold, Long> holdsByMember = holds.index(hold -> hold.getMember().getId());
+
+    final MemoryTable<Tombstone> tombstones = new MemoryTable<>("tombstones", MemoryCodecs.TOMBSTONE);
+
+    // La position dans la liste est l'étiquette de table du journal : ne pas réordonner
+    private final List<MemoryTable<?>> tables = List.of(books, members, loans, holds, tombstones);
+    private final Path directory;
+    private final WriteAheadLog writeAheadLog;
+
+    public MemoryStore(Path directory, boolean fsync) {
+        this.directory = directory;
+        this.writeAheadLog = new WriteAheadLog(directory.resolve(LOG_FILE), fsync);
+
+        loans.constraint(loan -> requireReferences(loan.getBook(), loan.getMember()));
+        holds.constraint(hold -> requireReferences(hold.getBook(), hold.getMember()));
+        books.references(id -> !loansByBook.get(id).isEmpty() || !holdsByBook.get(id).isEmpty());
+        members.references(id -> !loansByMember.get(id).isEmpty() || !holdsByMember.get(id).isEmpty());
+    }
+
+    /**
+     * Rejoue le journal puis le compacte en une image par ligne vivante.
+     */
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        tables.forEach(MemoryTable::clear);
+        long replayed = writeAheadLog.replay(this::apply);
+
+        List<byte[]> images = new ArrayList<>();
+        for (MemoryTable<?> table : tables) {
+            images.addAll(images(table));
+        }
+        writeAheadLog.rewrite(images);
+        log.info("Stockage en mémoire ouvert: {} enregistrement(s) rejoué(s), {} livre(s), {} membre(s), {} prêt(s)",
+                replayed, books.size(), members.size(), loans.size());
+    }
+
+    public void close() throws IOException {
+        writeAheadLog.close();
+    }
+
+    /**
+     * Insère ou remplace une entité ; un identifiant est attribué aux nouvelles.
+     */
+    <T, S extends T> S save(MemoryTable<T> table, S entity) {
+        EntityCodec<T> codec = table.codec();
+        if (codec.id(entity) == null) {
+            codec.setId(entity, table.nextId());
+        }
+        T row = codec.copy(entity);
+        T previous = table.put(row);
+        record(table, codec.id(entity), previous, row, null);
+        return entity;
+    }
+
+    <T> boolean delete(MemoryTable<T> table, Long id) {
+        T previous = table.remove(id);
+        if (previous == null) {
+            return false;
+        }
+        record(table, id, previous, null, null);
+        return true;
+    }
+
+    /**
+     * Mise à jour conditionnelle d'une ligne, à la manière d'un {@code UPDATE ... WHERE}.
+     * {@code inverse} annule la modification si une autre écriture l'a recouverte avant un rollback.
+     */
+    <T> boolean update(MemoryTable<T> table, Long id, Predicate<T> condition, UnaryOperator<T> change,
+                       UnaryOperator<T> inverse) {
+        T previous = table.update(id, condition, change);
+        if (previous == null) {
+            return false;
+        }
+        record(table, id, previous, table.get(id), inverse);
+        return true;
+    }
+
+    Book book(Long id) {
+        Book book = books.get(id);
+        return book != null ? MemoryCodecs.BOOK.copy(book) : MemoryCodecs.bookRef(id);
+    }
+
+    Member member(Long id) {
+        Member member = members.get(id);
+        return member != null ? MemoryCodecs.MEMBER.copy(member) : MemoryCodecs.memberRef(id);
+    }
+
+    private <T> void record(MemoryTable<T> table, Long id, T previous, T written, UnaryOperator<T> inverse) {
+        Change<T> change = new Change<>(table, id, previous, written, inverse);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            logImages(List.of(change.key()));
+            return;
+        }
+        Changes changes = (Changes) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            changes = new Changes();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(changes);
+        }
+        changes.add(change);
+    }
+
+    private void logImages(Collection<Key> keys) {
+        List<byte[]> records = new ArrayList<>(keys.size());
+        synchronized (writeAheadLog) {
+            for (Key key : keys) {
+                records.add(image(key.table, key.id));
+            }
+            try {
+                writeAheadLog.append(records);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Échec de l'écriture du journal du stockage en mémoire", e);
+            }
+        }
+    }
+
+    private <T> List<byte[]> images(MemoryTable<T> table) {
+        List<byte[]> images = new ArrayList<>(table.size());
+        for (T row : table.rows()) {
+            images.add(image(table, table.codec().id(row)));
+        }
+        return images;
+    }
+
+    private <T> byte[] image(MemoryTable<T> table, Long id) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(tables.indexOf(table));
+            T row = table.get(id);
+            if (row == null) {
+                out.writeByte(DELETE);
+                out.writeLong(id);
+            } else {
+                out.writeByte(PUT);
+                out.writeLong(id);
+                table.codec().write(row, out);
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void apply(byte[] record) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(record))) {
+            MemoryTable<?> table = tables.get(in.readByte());
+            byte operation = in.readByte();
+            long id = in.readLong();
+            apply(table, id, operation == PUT ? in : null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Enregistrement du journal illisible", e);
+        }
+    }
+
+    private <T> void apply(MemoryTable<T> table, Long id, DataInputStream row) throws IOException {
+        table.restore(id, row != null ? table.codec().read(row) : null);
+    }
+
+    private void requireReferences(Book book, Member member) {
+        if (book == null || books.get(book.getId()) == null) {
+            throw new DataIntegrityViolationException("Livre référencé inexistant");
+        }
+        if (member == null || members.get(member.getId()) == null) {
+            throw new DataIntegrityViolationException("Membre référencé inexistant");
+        }
+    }
+
+    private static Boolean flag(Boolean value) {
+        return Boolean.TRUE.equals(value) ? Boolean.TRUE : null;
+    }
+
+    private static final class Key {
+        private final MemoryTable<?> table;
+        private final Long id;
+
+        private Key(MemoryTable<?> table, Long id) {
+            this.table = table;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && ((Key) other).table == table && ((Key) other).id.equals(id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(table.name(), id);
+        }
+    }
+
+    private static final class Change<T> {
+        private final MemoryTable<T> table;
+        private final Long id;
+        private final T previous;
+        private final T written;
+        private final UnaryOperator<T> inverse;
+
+        private Change(MemoryTable<T> table, Long id, T previous, T written, UnaryOperator<T> inverse) {
+            this.table = table;
+            this.id = id;
+            this.previous = previous;
+            this.written = written;
+            this.inverse = inverse;
+        }
+
+        Key key() {
+            return new Key(table, id);
+        }
+
+        void undo() {
+            if (!table.undo(id, previous, written, inverse)) {
+                log.warn("Annulation impossible pour la ligne {} de la table {}: modifiée depuis", id, table.name());
+            }
+        }
+    }
+
+    // Modifications d'une transaction : journalisées à la validation, annulées au rollback
+    private final class Changes implements TransactionSynchronization {
+        private final Deque<Change<?>> changes = new ArrayDeque<>();
+        private final Set<Key> touched = new LinkedHashSet<>();
+
+        void add(Change<?> change) {
+            changes.push(change);
+            touched.add(change.key());
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            logImages(touched);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(MemoryStore.this);
+            if (status == STATUS_COMMITTED) {
+                return;
+            }
+            changes.forEach(Change::undo);
+            try {
+                // Une autre transaction a pu journaliser ces lignes avec nos écritures non validées
+                logImages(touched);
+            } catch (UncheckedIOException e) {
+                log.error("Échec de la journalisation de l'annulation", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.ensam.library.repository.memory;
+
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Table en mémoire : lignes par identifiant et index secondaires. Les écritures sont
+ * sérialisées sur la table pour garder lignes et index cohérents ; les lectures ne prennent
+ * aucun verrou.
+ */
+final class MemoryTable<T> {
+
+    private final String name;
+    private final EntityCodec<T> codec;
+    private final Map<Long, T> rows = new ConcurrentHashMap<>();
+    private final List<MemoryIndex<T, ?>> indexes = new ArrayList<>();
+    private final AtomicLong lastId = new AtomicLong();
+    private Consumer<T> constraint = row -> { };
+    private Predicate<Long> referenced = id -> false;
+
+    MemoryTable(String name, EntityCodec<T> codec) {
+        this.name = name;
+        this.codec = codec;
+    }
+
+    String name() {
+        return name;
+    }
+
+    EntityCodec<T> codec() {
+        return codec;
+    }
+
+    <K> MemoryIndex<T, K> index(Function<T, K> key) {
+        MemoryIndex<T, K> index = new MemoryIndex<>(key, false);
+        indexes.add(index);
+        return index;
+    }
+
+    <K> MemoryIndex<T, K> uniqueIndex(Function<T, K> key) {
+        MemoryIndex<T, K> index = new MemoryIndex<>(key, true);
+        indexes.add(index);
+        return index;
+    }
+
+    // Contrôle d'intégrité (clés étrangères) appliqué à chaque écriture, hors rejeu
+    void constraint(Consumer<T> constraint) {
+        this.constraint = constraint;
+    }
+
+    // Suppression refusée tant qu'une autre table référence la ligne
+    void references(Predicate<Long> referenced) {
+        this.referenced = referenced;
+    }
+
+    T get(Long id) {
+        return id != null ? rows.get(id) : null;
+    }
+
+    Collection<T> rows() {
+        return rows.values();
+    }
+
+    int size() {
+        return rows.size();
+    }
+
+    List<T> rows(Set<Long> ids) {
+        List<T> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            T row = rows.get(id);
+            if (row != null) {
+                result.add(row);
+            }
+        }
+        return result;
+    }
+
+    long nextId() {
+        return lastId.incrementAndGet();
+    }
+
+    /**
+     * Écrit la ligne (déjà copiée par l'appelant) et renvoie la précédente, ou {@code null}.
+     */
+    synchronized T put(T row) {
+        Long id = codec.id(row);
+        constraint.accept(row);
+        for (MemoryIndex<T, ?> index : indexes) {
+            if (index.unique() && index.conflicts(row, id)) {
+                throw new DataIntegrityViolationException("Violation d'unicité sur la table " + name);
+            }
+        }
+        return store(id, row);
+    }
+
+    /**
+     * Remplace la ligne si elle existe et satisfait la condition ; renvoie la ligne précédente,
+     * ou {@code null} si rien n'a été modifié.
+     */
+    synchronized T update(Long id, Predicate<T> condition, UnaryOperator<T> change) {
+        T previous = rows.get(id);
+        if (previous == null || !condition.test(previous)) {
+            return null;
+        }
+        return store(id, change.apply(codec.copy(previous)));
+    }
+
+    synchronized T remove(Long id) {
+        if (rows.containsKey(id) && referenced.test(id)) {
+            throw new DataIntegrityViolationException("Ligne " + id + " de la table " + name + " encore référencée");
+        }
+        return unlink(id);
+    }
+
+    // Rejeu : ni contrôle ni allocation d'identifiant
+    synchronized void restore(Long id, T row) {
+        if (row == null) {
+            unlink(id);
+        } else {
+            store(id, row);
+        }
+    }
+
+    /**
+     * Annule une écriture : rétablit {@code previous} si la ligne est toujours celle écrite,
+     * sinon applique l'opération inverse à la version courante. Renvoie faux si aucune des deux
+     * n'est possible.
+     */
+    synchronized boolean undo(Long id, T previous, T written, UnaryOperator<T> inverse) {
+        T current = rows.get(id);
+        if (current == written) {
+            restore(id, previous);
+            return true;
+        }
+        if (inverse != null && current != null) {
+            store(id, inverse.apply(codec.copy(current)));
+            return true;
+        }
+        return false;
+    }
+
+    synchronized void clear() {
+        rows.clear();
+        indexes.forEach(MemoryIndex::clear);
+        lastId.set(0);
+    }
+
+    private T unlink(Long id) {
+        T previous = rows.remove(id);
+        if (previous != null) {
+            indexes.forEach(index -> index.update(id, previous, null));
+        }
+        return previous;
+    }
+
+    private T store(Long id, T row) {
+        T previous = rows.put(id, row);
+        for (MemoryIndex<T, ?> index : indexes) {
+            index.update(id, previous, row);
+        }
+        lastId.accumulateAndGet(id, Math::max);
+        return previous;
+    }
+}
@@ -0,0 +1,37 @@
+package com.ensam.library.repository.memory;
+
+import com.ensam.library.model.Tombstone;
+import com.ensam.library.repository.TombstoneRepository;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class MemoryTombstoneRepository extends AbstractMemoryRepository<Tombstone> implements TombstoneRepository {
+
+    public MemoryTombstoneRepository(MemoryStore store) {
+        super(store, store.tombstones);
+    }
+
+    @Override
+    public List<Tombstone> findByEntityTypeAndChangeSeqBetweenOrderByChangeSeqAsc(
+            Tombstone.EntityType entityType, Long from, Long to, Pageable pageable) {
+        return page(table.rows().stream()
+                .filter(tombstone -> tombstone.getEntityType() == entityType
+                        && tombstone.getChangeSeq() >= from && tombstone.getChangeSeq() <= to)
+                .sorted(Comparator.comparing(Tombstone::getChangeSeq).thenComparing(Tombstone::getId)), pageable);
+    }
+
+    @Override
+    public List<Tombstone> findByEntityTypeAndChangeSeqGreaterThan(Tombstone.EntityType entityType, Long changeSeq) {
+        return read(table.rows().stream()
+                .filter(tombstone -> tombstone.getEntityType() == entityType && tombstone.getChangeSeq() > changeSeq)
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public long findMaxChangeSeq() {
+        return table.rows().stream().mapToLong(Tombstone::getChangeSeq).max().orElse(0L);
+    }
+}
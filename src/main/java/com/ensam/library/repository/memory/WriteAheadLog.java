@@ -0,0 +1,134 @@
+package com.ensam.library.repository.memory;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Journal d'écriture du stockage en mémoire : enregistrements {@code [longueur][CRC32][contenu]}
+ * ajoutés en fin de fichier, un seul {@code force()} par lot. À la relecture, une fin déchirée
+ * (arrêt brutal pendant une écriture) est ignorée puis tronquée.
+ */
+@Slf4j
+final class WriteAheadLog implements Closeable {
+
+    private static final int HEADER_SIZE = 8;
+
+    private final Path file;
+    private final boolean fsync;
+    private FileChannel channel;
+
+    WriteAheadLog(Path file, boolean fsync) {
+        this.file = file;
+        this.fsync = fsync;
+    }
+
+    synchronized long replay(Consumer<byte[]> handler) throws IOException {
+        long valid = 0;
+        long count = 0;
+        if (Files.exists(file)) {
+            long size = Files.size(file);
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                while (true) {
+                    byte[] payload;
+                    try {
+                        int length = in.readInt();
+                        int checksum = in.readInt();
+                        if (length < 0 || length > size - valid - HEADER_SIZE) {
+                            break;
+                        }
+                        payload = new byte[length];
+                        in.readFully(payload);
+                        if (checksum(payload) != checksum) {
+                            break;
+                        }
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    handler.accept(payload);
+                    valid += HEADER_SIZE + payload.length;
+                    count++;
+                }
+            }
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (channel.size() > valid) {
+            log.warn("Fin du journal {} invalide ignorée ({} octet(s))", file.getFileName(), channel.size() - valid);
+            channel.truncate(valid);
+        }
+        channel.position(valid);
+        return count;
+    }
+
+    synchronized void append(List<byte[]> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        write(channel, frame(records));
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Remplace le journal par {@code records} (compactage) : fichier temporaire puis
+     * renommage atomique.
+     */
+    synchronized void rewrite(List<byte[]> records) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            write(out, frame(records));
+            out.force(true);
+        }
+        if (channel != null) {
+            channel.close();
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        channel = FileChannel.open(file, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.force(true);
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static ByteBuffer frame(List<byte[]> records) {
+        int size = records.stream().mapToInt(record -> HEADER_SIZE + record.length).sum();
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (byte[] record : records) {
+            buffer.putInt(record.length).putInt(checksum(record)).put(record);
+        }
+        return buffer.flip();
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,33 @@
+package com.ensam.library.service;
+
+import com.ensam.library.fines.ActiveLoanColumns;
+import com.ensam.library.fines.FinePolicy;
+import com.ensam.library.repository.LoanFact;
+import com.ensam.library.repository.LoanRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+/**
+ * Charge les prêts en cours et les prêts rendus en retard en colonnes pour le calcul des
+ * amendes. Lecture en flux dans une transaction en lecture seule, qui peut être servie par le
+ * réplica ; les prêts rendus à temps sont écartés au fil de la lecture.
+ */
+@Component
+public class ActiveLoanColumnsLoader {
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Transactional(readOnly = true)
+    public ActiveLoanColumns load(FinePolicy policy) {
+        ActiveLoanColumns.Builder builder = ActiveLoanColumns.builder(policy);
+        try (Stream<LoanFact> facts = loanRepository.streamLoanFactsByMember()) {
+            facts.forEach(fact -> builder.add(fact.getMemberId(), fact.getLoanDate(), fact.getReturnDate(),
+                    fact.getGenre()));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,336 @@
+package com.ensam.library.service;
+
+import com.ensam.library.dto.AvailabilityEventDTO;
+import com.ensam.library.event.CatalogEvent;
+import com.ensam.library.event.LoanEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Diffusion Server-Sent Events des changements de disponibilité et du catalogue.
+ * <p>
+ * Les événements sont numérotés et conservés dans un tampon de rejeu borné pour permettre la
+ * reprise via l'en-tête {@code Last-Event-ID}. La validation d'un emprunt ne fait qu'ajouter son
+ * changement à ce tampon ; la répartition vers les abonnés se fait au début de chaque envoi
+ * périodique, dans l'ordre des identifiants, depuis la position de chaque abonné dans le tampon.
+ * Chaque abonné possède un tampon borné où les changements successifs d'un même livre sont
+ * fusionnés ; l'envoi vide ces tampons depuis un pool dédié, abonné par abonné.
+ * Un abonné trop lent, ou qui reprend au-delà du tampon de rejeu, reçoit un événement
+ * {@code resync} l'invitant à recharger la liste complète.
+ */
+@Service
+@Slf4j
+public class AvailabilityStreamService {
+
+    static final String AVAILABILITY_EVENT = "availability";
+    static final String RESYNC_EVENT = "resync";
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Deque<Change> replay = new ArrayDeque<>();
+    private long sequence;
+    // Une seule répartition à la fois : chaque abonné reçoit ses changements dans l'ordre
+    private final Object dispatching = new Object();
+
+    @Autowired
+    private CopyAvailabilityCounter copyAvailabilityCounter;
+
+    @Value("${library.stream.buffer-size:256}")
+    private int bufferSize = 256;
+
+    @Value("${library.stream.replay-size:1024}")
+    private int replaySize = 1024;
+
+    @Value("${library.stream.timeout-ms:1800000}")
+    private long timeoutMs = 1_800_000L;
+
+    @Value("${library.stream.send-threads:2}")
+    private int sendThreads = 2;
+
+    // Envois SSE, créés au démarrage ; remplaçable dans les tests
+    Executor sender;
+
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        register(emitter, lastEventId);
+        return emitter;
+    }
+
+    Subscriber register(SseEmitter emitter, Long lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter, bufferSize);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        // Position fixée sous le verrou du tampon de rejeu : aucun changement n'est publié entre les deux
+        synchronized (replay) {
+            if (lastEventId == null) {
+                subscriber.position = sequence;
+            } else if (covers(lastEventId)) {
+                // Le rejeu se fait à la prochaine répartition, à partir de cette position
+                subscriber.position = lastEventId;
+            } else {
+                subscriber.requestResync();
+                subscriber.position = sequence;
+            }
+            subscribers.add(subscriber);
+        }
+        return subscriber;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener
+    public void onLoanEvent(LoanEvent event) {
+        publish(event.getBookId(), "AVAILABILITY");
+    }
+
+    @TransactionalEventListener
+    public void onCatalogEvent(CatalogEvent event) {
+        publish(event.getBookId(), event.getType().name());
+    }
+
+    void publish(Long bookId, String type) {
+        synchronized (replay) {
+            replay.addLast(new Change(++sequence, bookId, type));
+            while (replay.size() > replaySize) {
+                replay.removeFirst();
+            }
+        }
+    }
+
+    // Appelé sous le verrou du tampon : la reprise après lastEventId y est-elle encore complète ?
+    private boolean covers(long lastEventId) {
+        if (lastEventId > sequence) {
+            return false;
+        }
+        Change oldest = replay.peekFirst();
+        long firstRetained = oldest != null ? oldest.id : sequence + 1;
+        return firstRetained <= lastEventId + 1;
+    }
+
+    /**
+     * Répartit les changements publiés depuis la dernière fois dans les tampons des abonnés, par
+     * identifiant croissant. Le tampon de rejeu n'est verrouillé que le temps d'en copier le
+     * contenu ; un abonné dont la position n'y figure plus doit se resynchroniser.
+     */
+    void dispatch() {
+        synchronized (dispatching) {
+            List<Change> retained;
+            synchronized (replay) {
+                retained = new ArrayList<>(replay);
+            }
+            if (retained.isEmpty()) {
+                return;
+            }
+            long first = retained.get(0).id;
+            long last = retained.get(retained.size() - 1).id;
+            for (Subscriber subscriber : subscribers) {
+                long position = subscriber.position;
+                if (position >= last) {
+                    continue;
+                }
+                if (position + 1 < first) {
+                    subscriber.requestResync();
+                } else {
+                    // Identifiants consécutifs dans le tampon : le suivant est à l'indice position + 1 - first
+                    for (int i = (int) (position + 1 - first); i < retained.size(); i++) {
+                        subscriber.offer(retained.get(i));
+                    }
+                }
+                subscriber.position = last;
+            }
+        }
+    }
+
+    @PostConstruct
+    void startSender() {
+        AtomicInteger count = new AtomicInteger();
+        sender = Executors.newFixedThreadPool(sendThreads, task -> {
+            Thread thread = new Thread(task, "sse-send-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopSender() {
+        if (sender instanceof ExecutorService) {
+            ((ExecutorService) sender).shutdownNow();
+        }
+    }
+
+    /**
+     * Confie les envois au pool dédié, sans attendre : au plus un envoi en cours par abonné, qui
+     * emporte tout ce qui s'est accumulé dans son tampon. Un abonné lent ne retarde ni les autres
+     * ni le planificateur ; son tampon déborde et il recevra un {@code resync}.
+     */
+    @Scheduled(fixedDelayString = "${library.stream.flush-interval-ms:250}")
+    public void flush() {
+        dispatch();
+        // Une seule lecture du compteur par livre et par cycle, quel que soit le nombre d'abonnés
+        Map<Long, Long> copies = new ConcurrentHashMap<>();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.hasPending()) {
+                handOff(subscriber, copies);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${library.stream.heartbeat-interval-ms:20000}")
+    public void heartbeat() {
+        Map<Long, Long> copies = new ConcurrentHashMap<>();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.requestHeartbeat();
+            handOff(subscriber, copies);
+        }
+    }
+
+    private void handOff(Subscriber subscriber, Map<Long, Long> copies) {
+        if (!subscriber.sending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sender.execute(() -> {
+                try {
+                    send(subscriber, copies);
+                } finally {
+                    subscriber.sending.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Service en cours d'arrêt : le tampon reste en place
+            subscriber.sending.set(false);
+        }
+    }
+
+    private void send(Subscriber subscriber, Map<Long, Long> copies) {
+        Subscriber.Batch batch = subscriber.drain();
+        try {
+            if (batch.heartbeat) {
+                subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+            }
+            if (batch.resync) {
+                subscriber.emitter.send(SseEmitter.event().name(RESYNC_EVENT).data("resync"));
+            }
+            for (Change change : batch.changes) {
+                subscriber.emitter.send(SseEmitter.event()
+                        .id(String.valueOf(change.id))
+                        .name(AVAILABILITY_EVENT)
+                        .data(toDto(change, copies)));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("Abonné SSE déconnecté: {}", e.getMessage());
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    private AvailabilityEventDTO toDto(Change change, Map<Long, Long> copies) {
+        Long available = null;
+        if (!CatalogEvent.Type.DELETED.name().equals(change.type)) {
+            // -1 pour un livre inconnu : ConcurrentHashMap refuse les valeurs nulles
+            long copiesOrUnknown = copies.computeIfAbsent(change.bookId,
+                    id -> copyAvailabilityCounter.getAvailableCopies(id).orElse(-1L));
+            available = copiesOrUnknown >= 0 ? copiesOrUnknown : null;
+        }
+        return new AvailabilityEventDTO(change.id, change.bookId, change.type, available);
+    }
+
+    static final class Change {
+        final long id;
+        final Long bookId;
+        final String type;
+
+        Change(long id, Long bookId, String type) {
+            this.id = id;
+            this.bookId = bookId;
+            this.type = type;
+        }
+    }
+
+    static final class Subscriber {
+        final SseEmitter emitter;
+        final AtomicBoolean sending = new AtomicBoolean();
+        // Dernier changement réparti vers cet abonné
+        volatile long position;
+        private final int capacity;
+        private Map<Long, Change> pending = new LinkedHashMap<>();
+        private boolean resync;
+        private boolean heartbeat;
+
+        Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.capacity = capacity;
+        }
+
+        synchronized void offer(Change change) {
+            if (resync) {
+                return;
+            }
+            Change previous = pending.remove(change.bookId);
+            pending.put(change.bookId, previous != null && previous.id > change.id ? previous : change);
+            if (pending.size() > capacity) {
+                requestResync();
+            }
+        }
+
+        synchronized void requestResync() {
+            pending.clear();
+            resync = true;
+        }
+
+        synchronized void requestHeartbeat() {
+            heartbeat = true;
+        }
+
+        synchronized boolean hasPending() {
+            return resync || heartbeat || !pending.isEmpty();
+        }
+
+        synchronized Batch drain() {
+            Batch batch = new Batch(pending.values(), resync, heartbeat);
+            pending = new LinkedHashMap<>();
+            resync = false;
+            heartbeat = false;
+            return batch;
+        }
+
+        static final class Batch {
+            final Collection<Change> changes;
+            final boolean resync;
+            final boolean heartbeat;
+
+            Batch(Collection<Change> changes, boolean resync, boolean heartbeat) {
+                this.changes = changes;
+                this.resync = resync;
+                this.heartbeat = heartbeat;
+            }
+        }
+    }
+}
@@ -1,72 +1,222 @@
 package com.ensam.library.service;
 
+import com.ensam.library.audit.AuditLog;
+import com.ensam.library.catalog.CompactCatalog;
+import com.ensam.library.catalog.SearchResultCache;
+import com.ensam.library.concurrent.SingleFlight;
+import com.ensam.library.datasource.SessionConsistency;
+import com.ensam.library.dto.BookAvailabilityDTO;
 import com.ensam.library.dto.BookDTO;
+import com.ensam.library.dto.CoalescingStatsDTO;
+import com.ensam.library.event.CatalogEvent;
+import com.ensam.library.event.LoanEvent;
 import com.ensam.library.model.Book;
+import com.ensam.library.model.Tombstone;
 import com.ensam.library.repository.BookRepository;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @Service
-@Slf4j
 public class BookService {
 
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private CopyAvailabilityCounter copyAvailabilityCounter;
+
+    @Autowired
+    private ChangeTracker changeTracker;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SharedCatalogService sharedCatalogService;
+
+    @Autowired
+    private CompactCatalogService compactCatalogService;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    @Value("${library.coalescing.enabled:true}")
+    private boolean coalescing = true;
+
+    private final SingleFlight<Map.Entry<Long, Long>, Optional<Book>> bookByIdFlight = new SingleFlight<>("book-by-id");
+    private final SingleFlight<Map.Entry<String, Long>, List<Book>> titleSearchFlight =
+            new SingleFlight<>("book-title-search");
+
+    @Transactional(readOnly = true)
     public List<Book> getAllBooks() {
-        log.info("Récupération de tous les livres");
+        auditLog.read("book.list", null);
         return bookRepository.findAll();
     }
 
     public Optional<Book> getBookById(Long id) {
-        log.info("Récupération du livre avec ID: {}", id);
-        return bookRepository.findById(id);
+        auditLog.read("book.get", id);
+        return ReadCoalescing.read(bookByIdFlight, coalescing, id, () -> {
+            // Un livre créé après la génération projetée n'y figure pas encore : repli sur la base
+            Optional<Book> shared = sharedCatalogService.find(id);
+            if (shared.isPresent()) {
+                return shared;
+            }
+            return compactCatalogService.current().isPresent()
+                    ? compactCatalogService.find(id)
+                    : ReadCoalescing.inReadTransaction(transactionManager, () -> bookRepository.findById(id));
+        });
     }
 
     @Transactional
     public Book createBook(BookDTO bookDTO) {
-        log.info("Création d'un nouveau livre: {}", bookDTO.getTitle());
         Book book = new Book();
         book.setTitle(bookDTO.getTitle());
         book.setAuthor(bookDTO.getAuthor());
         book.setGenre(bookDTO.getGenre());
+        int copies = bookDTO.getTotalCopies() != null ? bookDTO.getTotalCopies() : 1;
+        book.setTotalCopies(copies);
+        book.setAvailableCopies(copies);
         book.setAvailable(true);
-        return bookRepository.save(book);
+        book.setChangeSeq(changeTracker.next());
+        Book savedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(new CatalogEvent(CatalogEvent.Type.CREATED, savedBook.getId()));
+        auditLog.writeOnCommit("book.create", savedBook.getId(), savedBook.getTitle());
+        return savedBook;
     }
 
     @Transactional
     public Optional<Book> updateBook(Long id, BookDTO bookDTO) {
-        log.info("Mise à jour du livre avec ID: {}", id);
         return bookRepository.findById(id).map(existingBook -> {
+            Integer totalCopies = bookDTO.getTotalCopies();
+            if (totalCopies != null && totalCopies < existingBook.getTotalCopies() - existingBook.getAvailableCopies()) {
+                throw new IllegalArgumentException(
+                        "Le nombre d'exemplaires ne peut pas être inférieur au nombre de prêts en cours");
+            }
+            long changeSeq = changeTracker.next();
             existingBook.setTitle(bookDTO.getTitle());
             existingBook.setAuthor(bookDTO.getAuthor());
             existingBook.setGenre(bookDTO.getGenre());
-            return bookRepository.save(existingBook);
+            existingBook.setChangeSeq(changeSeq);
+            // Colonnes d'exemplaires exclues de l'entité : un emprunt validé entre-temps est conservé
+            Book savedBook = bookRepository.save(existingBook);
+            if (totalCopies != null) {
+                // Contrôle répété par la base, contre les emprunts validés depuis la lecture
+                if (bookRepository.updateTotalCopies(id, totalCopies, changeSeq) == 0) {
+                    throw new IllegalArgumentException(
+                            "Le nombre d'exemplaires ne peut pas être inférieur au nombre de prêts en cours");
+                }
+                bookRepository.evictFromCache(id);
+                savedBook = bookRepository.findById(id).orElse(savedBook);
+            }
+            evictAfterCommit(id);
+            eventPublisher.publishEvent(new CatalogEvent(CatalogEvent.Type.UPDATED, id));
+            auditLog.writeOnCommit("book.update", id);
+            return savedBook;
         });
     }
 
     @Transactional
     public boolean deleteBook(Long id) {
-        log.info("Suppression du livre avec ID: {}", id);
         if (bookRepository.existsById(id)) {
             bookRepository.deleteById(id);
+            changeTracker.recordDeletion(Tombstone.EntityType.BOOK, id);
+            evictAfterCommit(id);
+            eventPublisher.publishEvent(new CatalogEvent(CatalogEvent.Type.DELETED, id));
+            auditLog.writeOnCommit("book.delete", id);
             return true;
         }
         return false;
     }
 
+    // Avant validation, une lecture concurrente rechargerait l'ancienne ligne dans le compteur
+    // ou dans le cache ; l'état en mémoire de l'entité peut aussi y avoir été placé à la validation
+    private void evictAfterCommit(Long id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            copyAvailabilityCounter.evict(id);
+            bookRepository.evictFromCache(id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                copyAvailabilityCounter.evict(id);
+                bookRepository.evictFromCache(id);
+            }
+        });
+    }
+
+    @Transactional(readOnly = true)
     public List<Book> getAvailableBooks() {
-        log.info("Récupération des livres disponibles");
-        return bookRepository.findByAvailableTrue();
+        auditLog.read("book.available", null);
+        return sharedCatalogService.available()
+                .or(() -> compactCatalogService.current().map(CompactCatalog::available))
+                .orElseGet(bookRepository::findByAvailableTrue);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Book> getBooksByGenre(String genre) {
+        auditLog.read("book.genre", null, genre);
+        return compactCatalogService.current()
+                .map(catalog -> catalog.byGenre(genre))
+                .orElseGet(() -> bookRepository.findByGenre(genre));
     }
 
     public List<Book> searchBooksByTitle(String title) {
-        log.info("Recherche de livres par titre: {}", title);
-        return bookRepository.findByTitleContainingIgnoreCase(title);
+        auditLog.read("book.search", null, title);
+        Supplier<List<Book>> search = () -> ReadCoalescing.read(titleSearchFlight, coalescing, title,
+                () -> sharedCatalogService.searchTitle(title)
+                        .orElseGet(() -> ReadCoalescing.inReadTransaction(transactionManager,
+                                () -> bookRepository.findByTitleContainingIgnoreCase(title))));
+        // Une transaction d'écriture doit voir ses modifications non validées, et une session qui
+        // exige ses propres écritures ne doit pas recevoir un résultat antérieur
+        if (title == null || SessionConsistency.requiredPosition() > 0
+                || (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly())) {
+            return search.get();
+        }
+        return searchResultCache.get(title, search);
+    }
+
+    public Optional<BookAvailabilityDTO> getBookAvailability(Long id) {
+        auditLog.read("book.availability", id);
+        return copyAvailabilityCounter.getAvailableCopies(id)
+                .map(copies -> new BookAvailabilityDTO(id, copies));
+    }
+
+    public List<CoalescingStatsDTO> getCoalescingStatistics() {
+        return List.of(ReadCoalescing.statistics(bookByIdFlight), ReadCoalescing.statistics(titleSearchFlight));
+    }
+
+    // Une fois la modification validée, les lectures suivantes ne rejoignent plus un chargement commencé avant
+    @TransactionalEventListener
+    public void onCatalogEvent(CatalogEvent event) {
+        bookByIdFlight.forgetAll();
+        titleSearchFlight.forgetAll();
+        searchResultCache.invalidate();
+    }
+
+    @TransactionalEventListener
+    public void onLoanEvent(LoanEvent event) {
+        bookByIdFlight.forgetAll();
+        titleSearchFlight.forgetAll();
+        searchResultCache.invalidate();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,65 @@
+package com.ensam.library.service;
+
+import com.ensam.library.catalog.SearchResultCache;
+import com.ensam.library.dto.CacheRegionStatsDTO;
+import com.ensam.library.dto.SearchCacheStatsDTO;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Statistiques par région du cache de second niveau Hibernate et du cache de requêtes, et du
+ * cache des résultats de recherche par titre. Les statistiques Hibernate ne sont collectées que
+ * si {@code library.cache.statistics} est activé ; sinon aucune région n'est listée.
+ */
+@Service
+public class CacheStatisticsService {
+
+    static final List<String> QUERY_REGIONS = Arrays.asList(
+            "query.availableBooks", "query.booksByGenre", "default-query-results-region");
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SearchResultCache searchResultCache;
+
+    public List<CacheRegionStatsDTO> getRegionStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<CacheRegionStatsDTO> regions = new ArrayList<>();
+        if (!statistics.isStatisticsEnabled()) {
+            return regions;
+        }
+        Set<String> names = new LinkedHashSet<>(Arrays.asList(statistics.getSecondLevelCacheRegionNames()));
+        names.addAll(QUERY_REGIONS);
+        for (String region : names) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics != null) {
+                regions.add(toDto(region, regionStatistics));
+            }
+        }
+        return regions;
+    }
+
+    public SearchCacheStatsDTO getSearchCacheStatistics() {
+        return new SearchCacheStatsDTO(searchResultCache.isEnabled(), searchResultCache.getGeneration(),
+                searchResultCache.size(), searchResultCache.getHits(), searchResultCache.getStaleHits(),
+                searchResultCache.getMisses(), searchResultCache.getRefreshes(), searchResultCache.getRefreshFailures());
+    }
+
+    // JCache ne donne pas le nombre d'entrées : Hibernate renvoie alors Long.MIN_VALUE
+    private CacheRegionStatsDTO toDto(String region, CacheRegionStatistics statistics) {
+        long elements = statistics.getElementCountInMemory();
+        return new CacheRegionStatsDTO(region, statistics.getHitCount(), statistics.getMissCount(),
+                statistics.getPutCount(), elements >= 0 ? elements : null);
+    }
+}
@@ -0,0 +1,70 @@
+package com.ensam.library.service;
+
+import com.ensam.library.model.Tombstone;
+import com.ensam.library.repository.BookRepository;
+import com.ensam.library.repository.MemberRepository;
+import com.ensam.library.repository.TombstoneRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Distribue les numéros de modification des livres et des membres.
+ * <p>
+ * Un numéro attribué reste « en vol » jusqu'à la fin de sa transaction : le filigrane sûr
+ * s'arrête juste avant le plus petit numéro en vol, pour qu'un client ne puisse pas dépasser
+ * une modification validée plus tard que ses suivantes.
+ */
+@Component
+public class ChangeTracker {
+
+    private final NavigableSet<Long> inFlight = new ConcurrentSkipListSet<>();
+    private long current = -1;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+
+    public synchronized long next() {
+        initialize();
+        long seq = ++current;
+        inFlight.add(seq);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    inFlight.remove(seq);
+                }
+            });
+        } else {
+            inFlight.remove(seq);
+        }
+        return seq;
+    }
+
+    public synchronized long safeWatermark() {
+        initialize();
+        return inFlight.isEmpty() ? current : inFlight.first() - 1;
+    }
+
+    public void recordDeletion(Tombstone.EntityType entityType, Long entityId) {
+        tombstoneRepository.save(new Tombstone(null, entityType, entityId, next(), LocalDateTime.now()));
+    }
+
+    private void initialize() {
+        if (current < 0) {
+            current = Math.max(bookRepository.findMaxChangeSeq(),
+                    Math.max(memberRepository.findMaxChangeSeq(), tombstoneRepository.findMaxChangeSeq()));
+        }
+    }
+}
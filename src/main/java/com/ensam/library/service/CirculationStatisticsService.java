@@ -0,0 +1,129 @@
+package com.ensam.library.service;
+
+import com.ensam.library.datasource.DataSourceRoute;
+import com.ensam.library.dto.CirculationStatsDTO;
+import com.ensam.library.event.LoanEvent;
+import com.ensam.library.model.Loan;
+import com.ensam.library.repository.LoanRepository;
+import com.ensam.library.stats.RollingWindow;
+import com.ensam.library.stats.SpaceSavingSketch;
+import com.ensam.library.stats.StripedCounters;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Statistiques de circulation tenues à jour à chaque emprunt et retour validés : emprunts par
+ * genre et titres les plus empruntés sur une fenêtre glissante, prêts en cours par membre.
+ * <p>
+ * La table des prêts n'est lue qu'une fois, au démarrage, pour amorcer les compteurs ;
+ * ensuite, seuls les événements de circulation les font évoluer. L'amorçage a lieu une fois les
+ * beans créés, avant l'ouverture du serveur et le lancement des tâches planifiées : aucun prêt
+ * ne peut être validé entre la lecture et le premier événement, ni donc compté deux fois. Il
+ * lit le primaire, un réplica en retard manquerait des prêts qu'aucun événement ne rejouera.
+ */
+@Service
+@Slf4j
+public class CirculationStatisticsService implements SmartInitializingSingleton {
+
+    @Value("${library.stats.window-days:30}")
+    private int windowDays = 30;
+
+    @Value("${library.stats.top-k:10}")
+    private int topK = 10;
+
+    @Value("${library.stats.sketch-capacity:100}")
+    private int sketchCapacity = 100;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    private volatile RollingWindow<StripedCounters<String>> checkoutsByGenre;
+    private volatile RollingWindow<SpaceSavingSketch<Long>> popularBooks;
+    private final StripedCounters<Long> activeByMember = new StripedCounters<>();
+    private final Map<Long, String> titles = new ConcurrentHashMap<>();
+
+    @Override
+    @Transactional(readOnly = true, label = DataSourceRoute.PRIMARY_LABEL)
+    public void afterSingletonsInstantiated() {
+        LocalDate today = LocalDate.now();
+        List<Loan> recent = loanRepository.findByLoanDateBetween(today.minusDays(windowDays - 1L), today);
+        recent.forEach(loan -> recordCheckout(loan.getBook().getId(), loan.getBook().getTitle(),
+                loan.getBook().getGenre(), loan.getLoanDate()));
+        List<Loan> active = loanRepository.findByReturnDateIsNull();
+        active.forEach(loan -> activeByMember.increment(loan.getMember().getId()));
+        log.info("Statistiques de circulation amorcées: {} emprunt(s) sur {} jour(s), {} prêt(s) en cours",
+                recent.size(), windowDays, active.size());
+    }
+
+    @TransactionalEventListener
+    public void onLoanEvent(LoanEvent event) {
+        if (event.getType() == LoanEvent.Type.CHECKED_OUT) {
+            recordCheckout(event.getBookId(), event.getBookTitle(), event.getBookGenre(), event.getLoanDate());
+            activeByMember.increment(event.getMemberId());
+        } else if (event.getType() == LoanEvent.Type.RETURNED) {
+            activeByMember.decrement(event.getMemberId());
+        }
+    }
+
+    public CirculationStatsDTO getStatistics() {
+        long today = LocalDate.now().toEpochDay();
+        Map<String, Long> byGenre = StripedCounters.sum(genreWindow().buckets(today));
+        Map<Long, Long> byMember = activeByMember.snapshot();
+        List<CirculationStatsDTO.TopBook> topBooks = SpaceSavingSketch.top(bookWindow().buckets(today), topK).stream()
+                .map(entry -> new CirculationStatsDTO.TopBook(entry.getKey(), titles.get(entry.getKey()), entry.getValue()))
+                .collect(Collectors.toList());
+        return new CirculationStatsDTO(windowDays,
+                byGenre.values().stream().mapToLong(Long::longValue).sum(),
+                byMember.values().stream().mapToLong(Long::longValue).sum(),
+                byGenre, byMember, topBooks);
+    }
+
+    private void recordCheckout(Long bookId, String title, String genre, LocalDate loanDate) {
+        long day = (loanDate != null ? loanDate : LocalDate.now()).toEpochDay();
+        if (title != null) {
+            titles.put(bookId, title);
+        }
+        StripedCounters<String> genres = genreWindow().bucket(day);
+        if (genres != null) {
+            genres.increment(genre);
+        }
+        SpaceSavingSketch<Long> books = bookWindow().bucket(day);
+        if (books != null) {
+            books.offer(bookId);
+        }
+    }
+
+    // Créées à la première utilisation : la taille de la fenêtre vient de la configuration
+    private RollingWindow<StripedCounters<String>> genreWindow() {
+        if (checkoutsByGenre == null) {
+            synchronized (this) {
+                if (checkoutsByGenre == null) {
+                    checkoutsByGenre = new RollingWindow<>(windowDays, StripedCounters::new);
+                }
+            }
+        }
+        return checkoutsByGenre;
+    }
+
+    private RollingWindow<SpaceSavingSketch<Long>> bookWindow() {
+        if (popularBooks == null) {
+            synchronized (this) {
+                if (popularBooks == null) {
+                    popularBooks = new RollingWindow<>(windowDays, () -> new SpaceSavingSketch<>(sketchCapacity));
+                }
+            }
+        }
+        return popularBooks;
+    }
+}
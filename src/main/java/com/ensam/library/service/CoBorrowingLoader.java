@@ -0,0 +1,30 @@
+package com.ensam.library.service;
+
+import com.ensam.library.datasource.DataSourceRoute;
+import com.ensam.library.recommend.CoBorrowingMatrix;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Rejoue l'historique des prêts, archive comprise, dans la matrice de co-emprunts. Lu sur le
+ * primaire : la matrice est ensuite tenue à jour par événements et ne rattraperait pas un réplica
+ * en retard.
+ */
+@Component
+public class CoBorrowingLoader {
+
+    @Autowired
+    private LoanFactSource loanFactSource;
+
+    @Transactional(readOnly = true, label = DataSourceRoute.PRIMARY_LABEL)
+    public long load(CoBorrowingMatrix matrix) {
+        long[] recorded = {0};
+        loanFactSource.forEach(fact -> {
+            if (matrix.record(fact.getMemberId(), fact.getBookId())) {
+                recorded[0]++;
+            }
+        });
+        return recorded[0];
+    }
+}
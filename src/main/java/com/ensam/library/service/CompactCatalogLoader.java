@@ -0,0 +1,61 @@
+package com.ensam.library.service;
+
+import com.ensam.library.catalog.CompactCatalog;
+import com.ensam.library.datasource.DataSourceRoute;
+import com.ensam.library.model.Book;
+import com.ensam.library.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Charge le catalogue compact depuis la base : en entier au démarrage et à chaque
+ * resynchronisation, livre par livre après une modification validée ou un livre introuvable.
+ * Lu sur le primaire : le catalogue est tenu à jour par événements et ne rattraperait pas un
+ * réplica en retard.
+ */
+@Component
+public class CompactCatalogLoader {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Transactional(readOnly = true, label = DataSourceRoute.PRIMARY_LABEL)
+    public void load(CompactCatalog catalog) {
+        bookRepository.findAll().forEach(catalog::put);
+    }
+
+    /**
+     * Relit la base entière : les livres modifiés ailleurs sont remplacés, ceux supprimés ailleurs
+     * retirés. Renvoie le nombre de livres retirés.
+     */
+    @Transactional(readOnly = true, label = DataSourceRoute.PRIMARY_LABEL)
+    public int resync(CompactCatalog catalog) {
+        Set<Long> present = new HashSet<>();
+        for (Book book : bookRepository.findAll()) {
+            catalog.put(book);
+            present.add(book.getId());
+        }
+        // Un livre créé pendant la lecture peut être retiré à tort : il sera relu au premier accès
+        int removed = 0;
+        for (long id : catalog.ids()) {
+            if (!present.contains(id) && catalog.remove(id)) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    // Appelé après validation d'une autre transaction : il en faut une nouvelle pour lire l'état validé
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true, label = DataSourceRoute.PRIMARY_LABEL)
+    public Optional<Book> reload(CompactCatalog catalog, Long bookId) {
+        Optional<Book> book = bookRepository.findById(bookId);
+        book.ifPresentOrElse(catalog::put, () -> catalog.remove(bookId));
+        return book;
+    }
+}
@@ -0,0 +1,94 @@
+package com.ensam.library.service;
+
+import com.ensam.library.catalog.CompactCatalog;
+import com.ensam.library.event.CatalogEvent;
+import com.ensam.library.event.LoanEvent;
+import com.ensam.library.model.Book;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+
+/**
+ * Catalogue en mémoire de l'instance, sous la forme compacte de {@link CompactCatalog}, pour
+ * les lectures du catalogue sans aller en base. Amorcé au démarrage, puis chaque livre touché
+ * par une modification ou un emprunt validé est relu. Les événements ne couvrent que cette
+ * instance : un livre introuvable est relu en base, et le catalogue entier est resynchronisé
+ * toutes les {@code resync-interval-ms}. Désactivé par défaut.
+ */
+@Service
+@Slf4j
+public class CompactCatalogService {
+
+    @Value("${library.catalog.compact.enabled:false}")
+    private boolean enabled;
+
+    @Autowired
+    private CompactCatalogLoader compactCatalogLoader;
+
+    private final CompactCatalog catalog = new CompactCatalog();
+    private volatile boolean ready;
+
+    /**
+     * Catalogue compact, vide tant qu'il n'est pas amorcé.
+     */
+    public Optional<CompactCatalog> current() {
+        return ready ? Optional.of(catalog) : Optional.empty();
+    }
+
+    /**
+     * Livre du catalogue ; absent, il est relu en base (créé par une autre instance, ou retiré
+     * à tort par une resynchronisation) et ajouté au catalogue s'il existe.
+     */
+    public Optional<Book> find(Long id) {
+        Optional<Book> book = catalog.find(id);
+        return book.isPresent() ? book : compactCatalogLoader.reload(catalog, id);
+    }
+
+    @Scheduled(fixedDelayString = "${library.catalog.compact.resync-interval-ms:300000}",
+            initialDelayString = "${library.catalog.compact.resync-interval-ms:300000}")
+    public void resync() {
+        if (!ready) {
+            return;
+        }
+        long start = System.nanoTime();
+        int removed = compactCatalogLoader.resync(catalog);
+        log.debug("Catalogue compact resynchronisé: {} livre(s), {} retiré(s), en {} ms",
+                catalog.size(), removed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        compactCatalogLoader.load(catalog);
+        ready = true;
+        int size = catalog.size();
+        long bytes = catalog.footprintBytes();
+        log.info("Catalogue compact amorcé: {} livre(s), {} octet(s) ({} par livre), en {} ms",
+                size, bytes, size > 0 ? bytes / size : 0, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Relu même pendant l'amorçage : une version plus ancienne chargée ensuite est ignorée
+    @TransactionalEventListener
+    public void onCatalogEvent(CatalogEvent event) {
+        if (enabled) {
+            compactCatalogLoader.reload(catalog, event.getBookId());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onLoanEvent(LoanEvent event) {
+        if (enabled) {
+            compactCatalogLoader.reload(catalog, event.getBookId());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.ensam.library.service;
+
+import com.ensam.library.event.LoanEvent;
+import com.ensam.library.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs en mémoire des exemplaires disponibles par titre.
+ * <p>
+ * Chaque compteur est un {@link LongAdder} (compteur réparti en cellules) afin que les
+ * emprunts simultanés d'un même titre ne se disputent pas une seule variable. La base
+ * reste la source de vérité : les compteurs sont chargés à la demande et ajustés
+ * uniquement après validation de la transaction. Un titre dont un emprunt ou un retour est en
+ * cours de validation n'est pas amorcé : sa valeur en base et son événement ne se recouvrent pas.
+ * <p>
+ * La base est lue hors de la table des compteurs, sans retenir son verrou. Chaque événement
+ * validé ou éviction incrémente la génération du titre : une valeur chargée pendant que la
+ * génération a changé est servie une fois mais pas conservée, l'événement ayant pu manquer le
+ * compteur.
+ */
+@Component
+public class CopyAvailabilityCounter {
+
+    private final Map<Long, LongAdder> counters = new ConcurrentHashMap<>();
+    // Titres dont un emprunt ou un retour est en cours de validation
+    private final Map<Long, Integer> committing = new ConcurrentHashMap<>();
+    // Événements validés et évictions par titre
+    private final Map<Long, Long> generations = new ConcurrentHashMap<>();
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    public Optional<Long> getAvailableCopies(Long bookId) {
+        LongAdder counter = counters.get(bookId);
+        if (counter != null) {
+            return Optional.of(Math.max(0L, counter.sum()));
+        }
+        long generation = generations.getOrDefault(bookId, 0L);
+        // La lecture a pu voir une validation dont l'événement n'est pas encore appliqué :
+        // le compteur l'appliquerait une seconde fois, la valeur n'est donc pas conservée
+        boolean keep = !committing.containsKey(bookId);
+        Optional<Integer> copies = bookRepository.findAvailableCopiesById(bookId);
+        if (copies.isEmpty()) {
+            return Optional.empty();
+        }
+        long loaded = copies.get();
+        if (!keep) {
+            return Optional.of(loaded);
+        }
+        LongAdder adder = new LongAdder();
+        adder.add(loaded);
+        LongAdder existing = counters.putIfAbsent(bookId, adder);
+        if (existing != null) {
+            return Optional.of(Math.max(0L, existing.sum()));
+        }
+        // Génération relue après la publication : un événement validé depuis la lecture a pu
+        // chercher le compteur avant qu'il n'existe
+        if (committing.containsKey(bookId) || generations.getOrDefault(bookId, 0L) != generation) {
+            counters.remove(bookId, adder);
+        }
+        return Optional.of(loaded);
+    }
+
+    public void evict(Long bookId) {
+        generations.merge(bookId, 1L, Long::sum);
+        counters.remove(bookId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onLoanEventCommitting(LoanEvent event) {
+        committing.merge(event.getBookId(), 1, Integer::sum);
+    }
+
+    @TransactionalEventListener
+    public void onLoanEvent(LoanEvent event) {
+        // Avant l'ajustement, pour qu'un chargement concurrent le voie s'il manque le compteur
+        generations.merge(event.getBookId(), 1L, Long::sum);
+        counters.computeIfPresent(event.getBookId(), (id, counter) -> {
+            if (event.getType() == LoanEvent.Type.CHECKED_OUT) {
+                counter.decrement();
+            } else if (event.getType() == LoanEvent.Type.RETURNED) {
+                counter.increment();
+            }
+            return counter;
+        });
+    }
+
+    // Après onLoanEvent en cas de validation
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void onLoanEventCompleted(LoanEvent event) {
+        committing.computeIfPresent(event.getBookId(), (id, count) -> count > 1 ? count - 1 : null);
+    }
+}
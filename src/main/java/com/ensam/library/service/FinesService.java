@@ -0,0 +1,115 @@
+package com.ensam.library.service;
+
+import com.ensam.library.audit.AuditLog;
+import com.ensam.library.dto.FineBalanceDTO;
+import com.ensam.library.dto.FineBalancesDTO;
+import com.ensam.library.dto.MemberFinesDTO;
+import com.ensam.library.fines.ActiveLoanColumns;
+import com.ensam.library.fines.FineBalances;
+import com.ensam.library.fines.FinePolicy;
+import com.ensam.library.model.Loan;
+import com.ensam.library.repository.LoanRepository;
+import com.ensam.library.repository.MemberRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Amendes de retard selon le {@link FinePolicy} : amendes acquises sur les prêts rendus en
+ * retard, arrêtées au jour du retour, plus ce que le membre devrait s'il rendait aujourd'hui
+ * ses prêts en cours. Un prêt archivé sort du solde.
+ * <p>
+ * Les soldes de tous les membres sont évalués en parallèle sur un instantané en colonnes des
+ * prêts, recalculé périodiquement. Le détail d'un membre est calculé à la demande depuis ses
+ * propres prêts, avec le même barème, et reflète donc ses derniers retours.
+ */
+@Service
+@Slf4j
+public class FinesService {
+
+    @Autowired
+    private FinePolicy finePolicy;
+
+    @Autowired
+    private ActiveLoanColumnsLoader activeLoanColumnsLoader;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    private volatile FineBalances balances;
+
+    @Scheduled(fixedDelayString = "${library.fines.refresh-interval-ms:3600000}",
+            initialDelayString = "${library.fines.refresh-interval-ms:3600000}")
+    public void refresh() {
+        long start = System.nanoTime();
+        ActiveLoanColumns columns = activeLoanColumnsLoader.load(finePolicy);
+        long loaded = System.nanoTime();
+        FineBalances evaluated = columns.evaluate(LocalDate.now());
+        balances = evaluated;
+        log.info("Amendes évaluées: {} prêt(s) en cours chargé(s) en {} ms, évalué(s) en {} ms ({} prêt(s)/s), "
+                        + "{} membre(s) redevable(s)", evaluated.loansEvaluated(), (loaded - start) / 1_000_000,
+                evaluated.elapsedNanos() / 1_000_000, Math.round(evaluated.loansPerSecond()), evaluated.members());
+    }
+
+    public FineBalancesDTO getBalances(int limit) {
+        auditLog.read("fines.balances", null);
+        FineBalances snapshot = balances();
+        List<FineBalanceDTO> rows = new ArrayList<>(snapshot.members());
+        for (int i = 0; i < snapshot.members(); i++) {
+            rows.add(new FineBalanceDTO(snapshot.memberId(i), snapshot.overdueLoans(i), snapshot.balance(i)));
+        }
+        rows.sort(Comparator.comparingLong(FineBalanceDTO::getBalanceCents).reversed()
+                .thenComparing(FineBalanceDTO::getMemberId));
+        return new FineBalancesDTO(snapshot.asOf(), snapshot.loansEvaluated(), Math.round(snapshot.loansPerSecond()),
+                snapshot.members(), snapshot.total(), rows.subList(0, Math.min(Math.max(0, limit), rows.size())));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<MemberFinesDTO> getMemberFines(Long memberId) {
+        auditLog.read("fines.member", memberId);
+        if (!memberRepository.existsById(memberId)) {
+            return Optional.empty();
+        }
+        LocalDate today = LocalDate.now();
+        List<MemberFinesDTO.LoanFine> fines = new ArrayList<>();
+        long balance = 0;
+        for (Loan loan : loanRepository.findByMemberId(memberId)) {
+            LocalDate end = loan.getReturnDate() != null && loan.getReturnDate().isBefore(today)
+                    ? loan.getReturnDate() : today;
+            long fine = finePolicy.fine(loan.getBook().getGenre(), loan.getLoanDate(), end);
+            if (fine > 0) {
+                fines.add(new MemberFinesDTO.LoanFine(loan.getId(), loan.getBook().getId(), loan.getBook().getTitle(),
+                        loan.getLoanDate().plusDays(finePolicy.loanPeriodDays()), loan.getReturnDate(),
+                        finePolicy.daysOverdue(loan.getLoanDate(), end), fine));
+                balance += fine;
+            }
+        }
+        fines.sort(Comparator.comparing(MemberFinesDTO.LoanFine::getDueDate));
+        return Optional.of(new MemberFinesDTO(memberId, today, balance, fines));
+    }
+
+    private FineBalances balances() {
+        if (balances == null) {
+            synchronized (this) {
+                if (balances == null) {
+                    refresh();
+                }
+            }
+        }
+        return balances;
+    }
+}
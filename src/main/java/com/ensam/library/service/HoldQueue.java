@@ -0,0 +1,48 @@
+package com.ensam.library.service;
+
+import com.ensam.library.model.Hold;
+import com.ensam.library.repository.HoldRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Miroir en mémoire des files d'attente de réservation, une file FIFO sans verrou par livre.
+ * <p>
+ * La table {@code holds} reste la référence : une file est rechargée depuis la base au premier
+ * accès, et chaque identifiant extrait doit encore être confirmé par
+ * {@link HoldRepository#fulfill}. Une entrée annulée ou en double est donc simplement ignorée.
+ */
+@Component
+public class HoldQueue {
+
+    private final Map<Long, Queue<Long>> queues = new ConcurrentHashMap<>();
+
+    @Autowired
+    private HoldRepository holdRepository;
+
+    public void offer(Long bookId, Long holdId) {
+        queueFor(bookId).offer(holdId);
+    }
+
+    public Long poll(Long bookId) {
+        return queueFor(bookId).poll();
+    }
+
+    public void evict(Long bookId) {
+        queues.remove(bookId);
+    }
+
+    Queue<Long> queueFor(Long bookId) {
+        return queues.computeIfAbsent(bookId, id -> {
+            Queue<Long> queue = new ConcurrentLinkedQueue<>();
+            holdRepository.findByBookIdAndStatusOrderByIdAsc(id, Hold.Status.WAITING)
+                    .forEach(hold -> queue.offer(hold.getId()));
+            return queue;
+        });
+    }
+}
@@ -0,0 +1,165 @@
+package com.ensam.library.service;
+
+import com.ensam.library.audit.AuditLog;
+import com.ensam.library.dto.HoldDTO;
+import com.ensam.library.event.HoldFulfilledEvent;
+import com.ensam.library.model.Book;
+import com.ensam.library.model.Hold;
+import com.ensam.library.model.Member;
+import com.ensam.library.repository.BookRepository;
+import com.ensam.library.repository.HoldRepository;
+import com.ensam.library.repository.LoanRepository;
+import com.ensam.library.repository.MemberRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class HoldService {
+
+    @Autowired
+    private HoldRepository holdRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private HoldQueue holdQueue;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Transactional
+    public Hold placeHold(HoldDTO holdDTO) {
+        Book book = bookRepository.findById(holdDTO.getBookId())
+                .orElseThrow(() -> new IllegalArgumentException("Livre non trouvé"));
+
+        if (book.getAvailable()) {
+            throw new IllegalStateException("Le livre est disponible, aucune réservation n'est nécessaire");
+        }
+
+        Member member = memberRepository.findById(holdDTO.getMemberId())
+                .orElseThrow(() -> new IllegalArgumentException("Membre non trouvé"));
+
+        if (holdRepository.existsByBookIdAndMemberIdAndStatus(
+                holdDTO.getBookId(), holdDTO.getMemberId(), Hold.Status.WAITING)) {
+            throw new IllegalStateException("Ce membre a déjà une réservation pour ce livre");
+        }
+
+        // Charger la file avant l'insertion pour ne pas y compter deux fois la nouvelle réservation
+        holdQueue.queueFor(book.getId());
+
+        Hold hold = new Hold();
+        hold.setBook(book);
+        hold.setMember(member);
+        hold.setCreatedAt(LocalDateTime.now());
+        hold.setStatus(Hold.Status.WAITING);
+        Hold savedHold = holdRepository.save(hold);
+
+        offerAfterCommit(book.getId(), savedHold.getId());
+        auditLog.writeOnCommit("hold.create", savedHold.getId(),
+                "book=" + book.getId() + " member=" + member.getId());
+        return savedHold;
+    }
+
+    @Transactional
+    public boolean cancelHold(Long id) {
+        // L'entrée reste dans la file en mémoire et sera ignorée à l'extraction
+        if (holdRepository.cancel(id) == 0) {
+            return false;
+        }
+        auditLog.writeOnCommit("hold.cancel", id);
+        return true;
+    }
+
+    /**
+     * Attribue la réservation la plus ancienne encore en attente pour ce livre. Une réservation
+     * dont le membre a déjà ce livre en prêt est annulée : le prêt serait refusé au guichet.
+     * Doit être appelée dans la transaction du retour.
+     */
+    @Transactional
+    public Optional<Hold> claimNextHold(Long bookId) {
+        Long holdId;
+        while ((holdId = holdQueue.poll(bookId)) != null) {
+            Optional<Hold> hold = holdRepository.findById(holdId);
+            if (hold.isEmpty()) {
+                continue;
+            }
+            if (loanRepository.existsByBookIdAndMemberIdAndReturnDateIsNull(bookId, hold.get().getMember().getId())) {
+                if (holdRepository.cancel(holdId) > 0) {
+                    evictOnRollback(bookId);
+                    auditLog.writeOnCommit("hold.cancel", holdId, "member=" + hold.get().getMember().getId()
+                            + " déjà en prêt");
+                }
+                continue;
+            }
+            if (holdRepository.fulfill(holdId, LocalDate.now()) > 0) {
+                evictOnRollback(bookId);
+                return holdRepository.findById(holdId);
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Transactional(readOnly = true)
+    public List<Hold> getBookHolds(Long bookId) {
+        auditLog.read("hold.book", bookId);
+        return holdRepository.findByBookIdAndStatusOrderByIdAsc(bookId, Hold.Status.WAITING);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Hold> getMemberHolds(Long memberId) {
+        auditLog.read("hold.member", memberId);
+        return holdRepository.findByMemberId(memberId);
+    }
+
+    @TransactionalEventListener
+    public void onHoldFulfilled(HoldFulfilledEvent event) {
+        // Trace seulement : la notification au membre part par la boîte d'envoi (OutboxService)
+        auditLog.write("hold.notify", event.getHoldId(),
+                "book=" + event.getBookId() + " member=" + event.getMemberId() + " loan=" + event.getLoanId());
+    }
+
+    // Avant validation, un retour concurrent pourrait extraire la réservation sans la voir en base
+    // et la perdre ; annulée, elle resterait dans la file sans ligne correspondante
+    private void offerAfterCommit(Long bookId, Long holdId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            holdQueue.offer(bookId, holdId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                holdQueue.offer(bookId, holdId);
+            }
+        });
+    }
+
+    // Si le retour est annulé, la réservation extraite redevient en attente en base : recharger la file
+    private void evictOnRollback(Long bookId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        holdQueue.evict(bookId);
+                    }
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.ensam.library.service;
+
+import com.ensam.library.analytics.LoanColumns;
+import com.ensam.library.audit.AuditLog;
+import com.ensam.library.dto.AuthorLoanDurationDTO;
+import com.ensam.library.dto.MonthlyGenreLoansDTO;
+import com.ensam.library.dto.ReturnLatencyBucketDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Rapports d'analyse sur l'historique des prêts, calculés sur un instantané en colonnes
+ * ({@link LoanColumns}) rechargé périodiquement plutôt que sur des entités.
+ */
+@Service
+@Slf4j
+public class LoanAnalyticsService {
+
+    static final int MAX_BUCKETS = 100;
+
+    // Borne la largeur du tableau de comptage (mois × genres) alloué par requête
+    public static final int MAX_MONTHS = 120;
+
+    @Autowired
+    private LoanColumnsLoader loanColumnsLoader;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    private volatile LoanColumns columns;
+
+    @Scheduled(fixedDelayString = "${library.analytics.refresh-interval-ms:300000}",
+            initialDelayString = "${library.analytics.refresh-interval-ms:300000}")
+    public void refresh() {
+        long start = System.nanoTime();
+        LoanColumns loaded = loanColumnsLoader.load();
+        columns = loaded;
+        log.info("Historique des prêts chargé en colonnes: {} prêt(s) en {} ms",
+                loaded.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public List<MonthlyGenreLoansDTO> getLoansByMonthAndGenre(LocalDate from, LocalDate to) {
+        auditLog.read("analytics.month-genre", null, from + ".." + to);
+        LoanColumns snapshot = columns();
+        long[] counts = snapshot.countByMonthAndGenre(from, to);
+        int genreCount = snapshot.genreCount();
+        int firstMonth = LoanColumns.month(from);
+        List<MonthlyGenreLoansDTO> rows = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                YearMonth month = YearMonth.from(LoanColumns.monthStart(firstMonth + i / genreCount));
+                rows.add(new MonthlyGenreLoansDTO(month.toString(), snapshot.genre(i % genreCount), counts[i]));
+            }
+        }
+        return rows;
+    }
+
+    public List<AuthorLoanDurationDTO> getLoanDurationByAuthor() {
+        auditLog.read("analytics.author-duration", null);
+        LoanColumns snapshot = columns();
+        long[] totals = snapshot.loanDurationByAuthor();
+        List<AuthorLoanDurationDTO> rows = new ArrayList<>();
+        for (int author = 0; author < snapshot.authorCount(); author++) {
+            long returned = totals[2 * author + 1];
+            if (returned > 0) {
+                rows.add(new AuthorLoanDurationDTO(snapshot.author(author), returned,
+                        (double) totals[2 * author] / returned));
+            }
+        }
+        rows.sort(Comparator.comparing(AuthorLoanDurationDTO::getAuthor));
+        return rows;
+    }
+
+    public List<ReturnLatencyBucketDTO> getReturnLatency(int bucketDays, int buckets) {
+        int width = Math.max(1, bucketDays);
+        int count = Math.max(1, Math.min(buckets, MAX_BUCKETS));
+        auditLog.read("analytics.return-latency", null, "bucket-days=" + width);
+        long[] histogram = columns().returnLatencyHistogram(width, count);
+        List<ReturnLatencyBucketDTO> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Integer toDays = i < count - 1 ? (i + 1) * width - 1 : null;
+            rows.add(new ReturnLatencyBucketDTO(i * width, toDays, histogram[i]));
+        }
+        return rows;
+    }
+
+    private LoanColumns columns() {
+        if (columns == null) {
+            synchronized (this) {
+                if (columns == null) {
+                    refresh();
+                }
+            }
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,197 @@
+package com.ensam.library.service;
+
+import com.ensam.library.archive.ArchivedLoan;
+import com.ensam.library.archive.LoanArchive;
+import com.ensam.library.datasource.DataSourceRoute;
+import com.ensam.library.model.Book;
+import com.ensam.library.model.Loan;
+import com.ensam.library.model.Member;
+import com.ensam.library.repository.BookRepository;
+import com.ensam.library.repository.LoanRepository;
+import com.ensam.library.repository.MemberRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.interceptor.DefaultTransactionAttribute;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Archivage des prêts rendus depuis plus de {@code library.archive.retention-months} mois : ils
+ * sont lus par lots d'identifiants croissants, écrits dans un nouveau segment de
+ * {@link LoanArchive}, puis supprimés de la table {@code loans} par lots, une fois le segment
+ * sur disque. Une exécution interrompue entre les deux laisse un prêt dans les deux niveaux ;
+ * l'historique le dédoublonne par identifiant.
+ * <p>
+ * Les lectures d'historique complètent les prêts de la table par ceux de l'archive, rattachés
+ * à l'état courant du livre et du membre (réduit à l'identifiant s'ils ont été supprimés).
+ * Désactivé par défaut.
+ */
+@Service
+@Slf4j
+public class LoanArchiveService {
+
+    @Value("${library.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${library.archive.retention-months:12}")
+    private int retentionMonths = 12;
+
+    @Value("${library.archive.chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    @Value("${library.archive.max-loans-per-run:100000}")
+    private int maxLoansPerRun = 100000;
+
+    @Autowired
+    private LoanArchive loanArchive;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Scheduled(cron = "${library.archive.cron:0 30 3 * * *}")
+    public void nightly() {
+        if (enabled) {
+            try {
+                run(LocalDate.now());
+            } catch (IOException | RuntimeException e) {
+                log.warn("Échec de l'archivage des prêts: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Archive les prêts rendus avant {@code today} moins la durée de conservation, au plus
+     * {@code max-loans-per-run} ; renvoie le nombre de prêts déplacés, 0 si une exécution est en cours.
+     */
+    public int run(LocalDate today) throws IOException {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Archivage des prêts déjà en cours");
+            return 0;
+        }
+        try {
+            long start = System.nanoTime();
+            LocalDate before = today.minusMonths(retentionMonths);
+            List<ArchivedLoan> loans = collect(before);
+            if (loans.isEmpty()) {
+                return 0;
+            }
+            loanArchive.append(loans);
+            delete(loans);
+            log.info("{} prêt(s) rendu(s) avant le {} archivé(s) en {} ms", loans.size(), before,
+                    (System.nanoTime() - start) / 1_000_000);
+            return loans.size();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Prêts du membre, ceux de la table suivis de ceux de l'archive qui n'y figurent plus.
+     */
+    public List<Loan> withArchivedForMember(Long memberId, List<Loan> loans) {
+        return merge(loans, () -> loanArchive.findByMemberId(memberId));
+    }
+
+    public List<Loan> withArchivedForBook(Long bookId, List<Loan> loans) {
+        return merge(loans, () -> loanArchive.findByBookId(bookId));
+    }
+
+    private List<ArchivedLoan> collect(LocalDate before) {
+        DefaultTransactionAttribute definition = new DefaultTransactionAttribute();
+        definition.setReadOnly(true);
+        definition.setLabels(List.of(DataSourceRoute.PRIMARY_LABEL));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager, definition);
+
+        List<ArchivedLoan> loans = new ArrayList<>();
+        long afterId = 0;
+        while (loans.size() < maxLoansPerRun) {
+            long lastId = afterId;
+            int limit = Math.min(chunkSize, maxLoansPerRun - loans.size());
+            List<Loan> chunk = transaction.execute(status ->
+                    loanRepository.findReturnedChunk(before, lastId, PageRequest.of(0, limit)));
+            for (Loan loan : chunk) {
+                loans.add(new ArchivedLoan(loan.getId(), loan.getBook().getId(), loan.getMember().getId(),
+                        loan.getLoanDate(), loan.getReturnDate()));
+            }
+            if (chunk.size() < limit) {
+                break;
+            }
+            afterId = chunk.get(chunk.size() - 1).getId();
+        }
+        return loans;
+    }
+
+    // Un prêt rendu ne change plus : les lignes relues sont exactement celles du segment
+    private void delete(List<ArchivedLoan> loans) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (int from = 0; from < loans.size(); from += chunkSize) {
+            List<Long> ids = loans.subList(from, Math.min(loans.size(), from + chunkSize)).stream()
+                    .map(ArchivedLoan::getId).collect(Collectors.toList());
+            transaction.executeWithoutResult(status -> loanRepository.deleteAllByIdInBatch(ids));
+        }
+    }
+
+    private List<Loan> merge(List<Loan> loans, ArchiveQuery query) {
+        List<ArchivedLoan> archived;
+        try {
+            archived = query.find();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Lecture de l'archive des prêts impossible", e);
+        }
+        if (archived.isEmpty()) {
+            return loans;
+        }
+        Set<Long> hot = loans.stream().map(Loan::getId).collect(Collectors.toSet());
+        Map<Long, Book> books = new HashMap<>();
+        Map<Long, Member> members = new HashMap<>();
+        List<Loan> merged = new ArrayList<>(loans);
+        for (ArchivedLoan loan : archived) {
+            if (hot.add(loan.getId())) {
+                Book book = books.computeIfAbsent(loan.getBookId(), id -> bookRepository.findById(id).orElseGet(() -> {
+                    Book deleted = new Book();
+                    deleted.setId(id);
+                    return deleted;
+                }));
+                Member member = members.computeIfAbsent(loan.getMemberId(), id -> memberRepository.findById(id)
+                        .orElseGet(() -> {
+                            Member deleted = new Member();
+                            deleted.setId(id);
+                            return deleted;
+                        }));
+                merged.add(new Loan(loan.getId(), loan.getLoanDate(), loan.getReturnDate(), book, member));
+            }
+        }
+        return merged;
+    }
+
+    @FunctionalInterface
+    private interface ArchiveQuery {
+        List<ArchivedLoan> find() throws IOException;
+    }
+}
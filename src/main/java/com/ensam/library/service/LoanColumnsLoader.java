@@ -0,0 +1,29 @@
+package com.ensam.library.service;
+
+import com.ensam.library.analytics.LoanColumns;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Charge l'historique des prêts en colonnes, archive comprise ; les prêts archivés d'un livre
+ * supprimé depuis, sans genre ni auteur, sont ignorés. La lecture en flux exige une transaction
+ * ouverte ; en lecture seule, elle peut être servie par le réplica.
+ */
+@Component
+public class LoanColumnsLoader {
+
+    @Autowired
+    private LoanFactSource loanFactSource;
+
+    @Transactional(readOnly = true)
+    public LoanColumns load() {
+        LoanColumns.Builder builder = LoanColumns.builder();
+        loanFactSource.forEach(fact -> {
+            if (fact.getGenre() != null) {
+                builder.add(fact.getLoanDate(), fact.getReturnDate(), fact.getGenre(), fact.getAuthor());
+            }
+        });
+        return builder.build();
+    }
+}
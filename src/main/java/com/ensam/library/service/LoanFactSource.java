@@ -0,0 +1,131 @@
+package com.ensam.library.service;
+
+import com.ensam.library.archive.ArchivedLoan;
+import com.ensam.library.archive.LoanArchive;
+import com.ensam.library.model.Book;
+import com.ensam.library.repository.BookRepository;
+import com.ensam.library.repository.LoanFact;
+import com.ensam.library.repository.LoanRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Historique complet des prêts pour l'amorçage des projections en mémoire : la table
+ * {@code loans} puis l'archive froide, dont les prêts ont été supprimés de la table. Un prêt
+ * présent dans les deux niveaux (archivage interrompu) n'est vu qu'une fois.
+ * <p>
+ * Les prêts archivés reprennent le genre et l'auteur actuels de leur livre, {@code null} si le
+ * livre a été supprimé depuis. Doit être appelé dans une transaction : la table est lue en flux.
+ */
+@Component
+public class LoanFactSource {
+
+    private static final int BOOK_CHUNK = 1000;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private LoanArchive loanArchive;
+
+    public void forEach(Consumer<LoanFact> action) {
+        List<ArchivedLoan> archived = archived();
+        long[] archivedIds = archived.stream().mapToLong(ArchivedLoan::getId).toArray();
+        try (Stream<LoanFact> facts = loanRepository.streamLoanFacts()) {
+            facts.filter(fact -> Arrays.binarySearch(archivedIds, fact.getLoanId()) < 0).forEach(action);
+        }
+        Map<Long, Book> books = books(archived);
+        for (ArchivedLoan loan : archived) {
+            action.accept(new ArchivedFact(loan, books.get(loan.getBookId())));
+        }
+    }
+
+    // Triés par identifiant, sans doublon
+    private List<ArchivedLoan> archived() {
+        List<ArchivedLoan> loans;
+        try {
+            loans = loanArchive.findAll();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Lecture de l'archive des prêts impossible", e);
+        }
+        loans.sort(Comparator.comparingLong(ArchivedLoan::getId));
+        List<ArchivedLoan> distinct = new ArrayList<>(loans.size());
+        for (ArchivedLoan loan : loans) {
+            if (distinct.isEmpty() || distinct.get(distinct.size() - 1).getId() != loan.getId()) {
+                distinct.add(loan);
+            }
+        }
+        return distinct;
+    }
+
+    private Map<Long, Book> books(List<ArchivedLoan> loans) {
+        List<Long> ids = loans.stream().map(ArchivedLoan::getBookId).distinct().collect(Collectors.toList());
+        Map<Long, Book> books = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += BOOK_CHUNK) {
+            bookRepository.findAllById(ids.subList(from, Math.min(ids.size(), from + BOOK_CHUNK)))
+                    .forEach(book -> books.put(book.getId(), book));
+        }
+        return books;
+    }
+
+    private static final class ArchivedFact implements LoanFact {
+        private final ArchivedLoan loan;
+        private final Book book;
+
+        private ArchivedFact(ArchivedLoan loan, Book book) {
+            this.loan = loan;
+            this.book = book;
+        }
+
+        @Override
+        public Long getLoanId() {
+            return loan.getId();
+        }
+
+        @Override
+        public Long getBookId() {
+            return loan.getBookId();
+        }
+
+        @Override
+        public Long getMemberId() {
+            return loan.getMemberId();
+        }
+
+        @Override
+        public LocalDate getLoanDate() {
+            return loan.getLoanDate();
+        }
+
+        @Override
+        public LocalDate getReturnDate() {
+            return loan.getReturnDate();
+        }
+
+        @Override
+        public String getGenre() {
+            return book != null ? book.getGenre() : null;
+        }
+
+        @Override
+        public String getAuthor() {
+            return book != null ? book.getAuthor() : null;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.ensam.library.service;
+
+import com.ensam.library.datasource.DataSourceRoute;
+import com.ensam.library.interval.LoanInterval;
+import com.ensam.library.interval.LoanIntervalIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Amorce l'index des périodes de prêt depuis l'historique complet, archive comprise. Lu sur le
+ * primaire : l'index est ensuite tenu à jour par événements et ne rattraperait pas un réplica en
+ * retard.
+ */
+@Component
+public class LoanIntervalLoader {
+
+    @Autowired
+    private LoanFactSource loanFactSource;
+
+    @Transactional(readOnly = true, label = DataSourceRoute.PRIMARY_LABEL)
+    public void load(LoanIntervalIndex index) {
+        loanFactSource.forEach(fact -> index.put(LoanInterval.of(fact.getLoanId(), fact.getBookId(),
+                fact.getMemberId(), fact.getLoanDate(), fact.getReturnDate())));
+    }
+}
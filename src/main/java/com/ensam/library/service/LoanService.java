@@ -1,14 +1,18 @@
 package com.ensam.library.service;
 
+import com.ensam.library.audit.AuditLog;
 import com.ensam.library.dto.LoanDTO;
+import com.ensam.library.event.HoldFulfilledEvent;
+import com.ensam.library.event.LoanEvent;
 import com.ensam.library.model.Book;
+import com.ensam.library.model.Hold;
 import com.ensam.library.model.Loan;
 import com.ensam.library.model.Member;
 import com.ensam.library.repository.BookRepository;
 import com.ensam.library.repository.LoanRepository;
 import com.ensam.library.repository.MemberRepository;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,9 +21,11 @@ import java.util.List;
 import java.util.Optional;
 
 @Service
-@Slf4j
 public class LoanService {
 
+    // Durée de prêt au-delà de laquelle un prêt est en retard
+    public static final int LOAN_PERIOD_DAYS = 30;
+
     @Autowired
     private LoanRepository loanRepository;
 
@@ -29,11 +35,23 @@ public class LoanService {
     @Autowired
     private MemberRepository memberRepository;
 
+    @Autowired
+    private HoldService holdService;
+
+    @Autowired
+    private ChangeTracker changeTracker;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Autowired
+    private LoanArchiveService loanArchiveService;
+
     @Transactional
     public Loan createLoan(LoanDTO loanDTO) {
-        log.info("Création d'un nouveau prêt pour le livre ID: {} et membre ID: {}",
-                loanDTO.getBookId(), loanDTO.getMemberId());
-
         // Vérifier si le livre existe et est disponible
         Book book = bookRepository.findById(loanDTO.getBookId())
                 .orElseThrow(() -> new IllegalArgumentException("Livre non trouvé"));
@@ -47,13 +65,23 @@ public class LoanService {
                 .orElseThrow(() -> new IllegalArgumentException("Membre non trouvé"));
 
         // Vérifier si le membre n'a pas déjà ce livre en prêt
-        boolean alreadyLoaned = loanRepository.findByBookIdAndReturnDateIsNull(loanDTO.getBookId())
-                .isPresent();
+        boolean alreadyLoaned = loanRepository.existsByBookIdAndMemberIdAndReturnDateIsNull(
+                loanDTO.getBookId(), loanDTO.getMemberId());
 
         if (alreadyLoaned) {
             throw new IllegalStateException("Ce livre est déjà en prêt");
         }
 
+        // Réserver un exemplaire par mise à jour conditionnelle (pas de verrou applicatif)
+        if (bookRepository.checkoutCopy(loanDTO.getBookId(), changeTracker.next()) == 0) {
+            throw new IllegalStateException("Le livre n'est pas disponible");
+        }
+        bookRepository.evictFromCache(loanDTO.getBookId());
+
+        // Recharger le titre pour refléter le nouveau nombre d'exemplaires
+        book = bookRepository.findById(loanDTO.getBookId())
+                .orElseThrow(() -> new IllegalArgumentException("Livre non trouvé"));
+
         // Créer le prêt
         Loan loan = new Loan();
         loan.setBook(book);
@@ -61,17 +89,15 @@ public class LoanService {
         loan.setLoanDate(loanDTO.getLoanDate() != null ? loanDTO.getLoanDate() : LocalDate.now());
         loan.setReturnDate(null); // Pas encore retourné
 
-        // Marquer le livre comme non disponible
-        book.setAvailable(false);
-        bookRepository.save(book);
-
-        return loanRepository.save(loan);
+        Loan savedLoan = loanRepository.save(loan);
+        eventPublisher.publishEvent(LoanEvent.checkedOut(savedLoan));
+        auditLog.writeOnCommit("loan.create", savedLoan.getId(),
+                "book=" + loanDTO.getBookId() + " member=" + loanDTO.getMemberId());
+        return savedLoan;
     }
 
     @Transactional
     public Optional<Loan> returnBook(Long loanId) {
-        log.info("Retour du livre pour le prêt ID: {}", loanId);
-
         return loanRepository.findById(loanId).map(loan -> {
             if (loan.getReturnDate() != null) {
                 throw new IllegalStateException("Ce livre a déjà été retourné");
@@ -79,38 +105,81 @@ public class LoanService {
 
             loan.setReturnDate(LocalDate.now());
 
-            // Marquer le livre comme disponible
-            Book book = loan.getBook();
-            book.setAvailable(true);
-            bookRepository.save(book);
+            // Confier l'exemplaire au premier membre en attente, sinon le remettre en circulation
+            Long bookId = loan.getBook().getId();
+            Optional<Hold> nextHold = holdService.claimNextHold(bookId);
+            if (nextHold.isEmpty()) {
+                bookRepository.returnCopy(bookId, changeTracker.next());
+                bookRepository.evictFromCache(bookId);
+            }
 
-            return loanRepository.save(loan);
+            Loan savedLoan = loanRepository.save(loan);
+            eventPublisher.publishEvent(LoanEvent.returned(savedLoan));
+            auditLog.writeOnCommit("loan.return", loanId);
+            nextHold.ifPresent(this::handOff);
+            return savedLoan;
         });
     }
 
+    // L'exemplaire passe directement au réservataire sans revenir dans le stock disponible
+    private void handOff(Hold hold) {
+        Loan loan = new Loan();
+        loan.setBook(hold.getBook());
+        loan.setMember(hold.getMember());
+        loan.setLoanDate(LocalDate.now());
+        loan.setReturnDate(null);
+
+        Loan savedLoan = loanRepository.save(loan);
+        eventPublisher.publishEvent(LoanEvent.checkedOut(savedLoan));
+        eventPublisher.publishEvent(new HoldFulfilledEvent(hold.getId(), hold.getBook().getId(),
+                hold.getMember().getId(), savedLoan.getId(), hold.getBook().getTitle(), savedLoan.getLoanDate()));
+        auditLog.writeOnCommit("loan.handoff", savedLoan.getId(),
+                "book=" + hold.getBook().getId() + " member=" + hold.getMember().getId() + " hold=" + hold.getId());
+    }
+
+    @Transactional(readOnly = true)
     public List<Loan> getActiveLoans() {
-        log.info("Récupération des prêts actifs");
+        auditLog.read("loan.active", null);
         return loanRepository.findByReturnDateIsNull();
     }
 
+    @Transactional(readOnly = true)
     public List<Loan> getMemberLoans(Long memberId) {
-        log.info("Récupération des prêts du membre ID: {}", memberId);
+        auditLog.read("loan.member", memberId);
         return loanRepository.findByMemberId(memberId);
     }
 
+    @Transactional(readOnly = true)
     public List<Loan> getBookLoans(Long bookId) {
-        log.info("Récupération de l'historique des prêts du livre ID: {}", bookId);
+        auditLog.read("loan.book", bookId);
         return loanRepository.findByBookId(bookId);
     }
 
+    /**
+     * Historique du membre ; avec {@code includeArchived}, complété par les prêts archivés.
+     */
+    @Transactional(readOnly = true)
+    public List<Loan> getMemberLoans(Long memberId, boolean includeArchived) {
+        List<Loan> loans = getMemberLoans(memberId);
+        return includeArchived ? loanArchiveService.withArchivedForMember(memberId, loans) : loans;
+    }
+
+    @Transactional(readOnly = true)
+    public List<Loan> getBookLoans(Long bookId, boolean includeArchived) {
+        List<Loan> loans = getBookLoans(bookId);
+        return includeArchived ? loanArchiveService.withArchivedForBook(bookId, loans) : loans;
+    }
+
+    @Transactional(readOnly = true)
     public Optional<Loan> getLoanById(Long id) {
-        log.info("Récupération du prêt avec ID: {}", id);
+        auditLog.read("loan.get", id);
         return loanRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
     public List<Loan> getOverdueLoans() {
-        log.info("Récupération des prêts en retard");
-        LocalDate thirtyDaysAgo = LocalDate.now().minusDays(30);
+        auditLog.read("loan.overdue", null);
+        LocalDate thirtyDaysAgo = LocalDate.now().minusDays(LOAN_PERIOD_DAYS);
         return loanRepository.findByReturnDateIsNullAndLoanDateBefore(thirtyDaysAgo);
     }
 }
\ No newline at end of file
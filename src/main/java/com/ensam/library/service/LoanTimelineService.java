@@ -0,0 +1,73 @@
+package com.ensam.library.service;
+
+import com.ensam.library.audit.AuditLog;
+import com.ensam.library.dto.LoanIntervalDTO;
+import com.ensam.library.dto.OutstandingLoansDTO;
+import com.ensam.library.event.LoanEvent;
+import com.ensam.library.interval.LoanInterval;
+import com.ensam.library.interval.LoanIntervalIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Requêtes à date sur l'historique des prêts : qui détenait un livre tel jour, combien de
+ * prêts étaient en cours, quels prêts couvrent une période. Servies par un
+ * {@link LoanIntervalIndex} amorcé au démarrage puis tenu à jour à chaque emprunt et retour
+ * validés, sans parcourir la table des prêts.
+ */
+@Service
+@Slf4j
+public class LoanTimelineService {
+
+    @Autowired
+    private LoanIntervalLoader loanIntervalLoader;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    private final LoanIntervalIndex index = new LoanIntervalIndex();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.nanoTime();
+        loanIntervalLoader.load(index);
+        log.info("Index des périodes de prêt amorcé: {} prêt(s) en {} ms",
+                index.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener
+    public void onLoanEvent(LoanEvent event) {
+        index.put(LoanInterval.of(event.getLoanId(), event.getBookId(), event.getMemberId(),
+                event.getLoanDate(), event.getType() == LoanEvent.Type.RETURNED ? event.getReturnDate() : null));
+    }
+
+    public List<LoanIntervalDTO> getHolders(Long bookId, LocalDate date) {
+        auditLog.read("loan.holders", bookId, String.valueOf(date));
+        return toDTOs(index.holders(bookId, date));
+    }
+
+    public OutstandingLoansDTO getOutstanding(LocalDate date) {
+        auditLog.read("loan.outstanding", null, String.valueOf(date));
+        return new OutstandingLoansDTO(date, index.outstanding(date));
+    }
+
+    public List<LoanIntervalDTO> getOverlapping(Long bookId, LocalDate from, LocalDate to) {
+        auditLog.read("loan.overlapping", bookId, from + ".." + to);
+        return toDTOs(index.overlapping(bookId, from, to));
+    }
+
+    private List<LoanIntervalDTO> toDTOs(List<LoanInterval> intervals) {
+        return intervals.stream()
+                .map(interval -> new LoanIntervalDTO(interval.getLoanId(), interval.getBookId(), interval.getMemberId(),
+                        interval.loanDate(), interval.returnDate()))
+                .collect(Collectors.toList());
+    }
+}
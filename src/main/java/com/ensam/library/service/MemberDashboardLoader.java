@@ -0,0 +1,74 @@
+package com.ensam.library.service;
+
+import com.ensam.library.archive.ArchivedLoan;
+import com.ensam.library.archive.LoanArchive;
+import com.ensam.library.datasource.DataSourceRoute;
+import com.ensam.library.model.Loan;
+import com.ensam.library.model.Member;
+import com.ensam.library.repository.LoanRepository;
+import com.ensam.library.repository.MemberRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Construit la projection d'un membre depuis la base et l'archive des prêts. Transaction en lecture seule :
+ * Hibernate ne garde pas d'instantané des entités et ne fait aucune vérification de modification.
+ * Lue sur le primaire : la projection est ensuite tenue à jour par événements et ne rattraperait
+ * pas un état chargé depuis un réplica en retard.
+ */
+@Component
+public class MemberDashboardLoader {
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private LoanArchive loanArchive;
+
+    @Transactional(readOnly = true, label = DataSourceRoute.PRIMARY_LABEL)
+    public Optional<MemberDashboardService.Entry> load(Long memberId) {
+        Optional<Member> member = memberRepository.findById(memberId);
+        if (member.isEmpty()) {
+            return Optional.empty();
+        }
+        List<Loan> loans = loanRepository.findByMemberId(memberId);
+        MemberDashboardService.Entry entry = new MemberDashboardService.Entry(
+                memberId, member.get().getName(), member.get().getEmail());
+        Set<Long> seen = new HashSet<>();
+        for (Loan loan : loans) {
+            seen.add(loan.getId());
+            if (loan.getReturnDate() == null) {
+                entry = entry.withCheckout(loan.getId(), loan.getBook().getId(), loan.getBook().getTitle(),
+                        loan.getLoanDate());
+            } else {
+                entry = entry.withHistoricalReturn(loan.getLoanDate());
+            }
+        }
+        // Prêts archivés, tous rendus ; ceux encore dans la table (archivage interrompu) comptés une fois
+        for (ArchivedLoan loan : archived(memberId)) {
+            if (seen.add(loan.getId())) {
+                entry = entry.withHistoricalReturn(loan.getLoanDate());
+            }
+        }
+        return Optional.of(entry);
+    }
+
+    private List<ArchivedLoan> archived(Long memberId) {
+        try {
+            return loanArchive.findByMemberId(memberId);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Lecture de l'archive des prêts impossible", e);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.ensam.library.service;
+
+import com.ensam.library.audit.AuditLog;
+import com.ensam.library.dto.MemberDashboardDTO;
+import com.ensam.library.event.LoanEvent;
+import com.ensam.library.event.MemberEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Modèle de lecture dénormalisé du tableau de bord des membres (membre, prêts en cours,
+ * retards et historique résumé), servi depuis la mémoire.
+ * <p>
+ * Une entrée est construite depuis la base au premier accès puis tenue à jour par les
+ * événements de prêt et de membre après validation. Les entrées sont immuables et chaque
+ * mise à jour est idempotente (indexée par identifiant de prêt), de sorte qu'un événement
+ * déjà reflété par le chargement initial ne soit pas compté deux fois.
+ * <p>
+ * Le chargement se fait hors de la table des entrées, sans retenir son verrou. Chaque événement
+ * appliqué incrémente la génération du membre : une entrée chargée pendant que la génération a
+ * changé est servie une fois mais pas conservée, l'événement ayant pu la manquer.
+ */
+@Service
+public class MemberDashboardService {
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    // Événements de prêt et de membre appliqués par membre
+    private final Map<Long, Long> generations = new ConcurrentHashMap<>();
+
+    @Autowired
+    private MemberDashboardLoader memberDashboardLoader;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    public Optional<MemberDashboardDTO> getMemberDashboard(Long memberId) {
+        auditLog.read("member.dashboard", memberId);
+        Entry entry = entries.get(memberId);
+        if (entry == null) {
+            entry = load(memberId);
+        }
+        return Optional.ofNullable(entry).map(e -> e.toDto(LocalDate.now()));
+    }
+
+    private Entry load(Long memberId) {
+        long generation = generations.getOrDefault(memberId, 0L);
+        Entry loaded = memberDashboardLoader.load(memberId).orElse(null);
+        if (loaded == null) {
+            return null;
+        }
+        Entry existing = entries.putIfAbsent(memberId, loaded);
+        if (existing != null) {
+            return existing;
+        }
+        // Un événement appliqué depuis la lecture a pu chercher l'entrée avant qu'elle n'existe
+        if (generations.getOrDefault(memberId, 0L) != generation) {
+            entries.remove(memberId, loaded);
+        }
+        return loaded;
+    }
+
+    @TransactionalEventListener
+    public void onLoanEvent(LoanEvent event) {
+        generations.merge(event.getMemberId(), 1L, Long::sum);
+        if (event.getType() == LoanEvent.Type.CHECKED_OUT) {
+            entries.computeIfPresent(event.getMemberId(), (id, entry) -> entry.withCheckout(
+                    event.getLoanId(), event.getBookId(), event.getBookTitle(), event.getLoanDate()));
+        } else if (event.getType() == LoanEvent.Type.RETURNED) {
+            entries.computeIfPresent(event.getMemberId(), (id, entry) -> entry.withReturn(event.getLoanId()));
+        }
+    }
+
+    @TransactionalEventListener
+    public void onMemberEvent(MemberEvent event) {
+        generations.merge(event.getMemberId(), 1L, Long::sum);
+        if (event.getType() == MemberEvent.Type.DELETED) {
+            entries.remove(event.getMemberId());
+        } else if (event.getType() == MemberEvent.Type.UPDATED) {
+            entries.computeIfPresent(event.getMemberId(),
+                    (id, entry) -> entry.withIdentity(event.getName(), event.getEmail()));
+        }
+    }
+
+    static final class Entry {
+        private final Long memberId;
+        private final String name;
+        private final String email;
+        private final Map<Long, MemberDashboardDTO.CurrentLoan> currentLoans;
+        private final long returnedCount;
+        private final LocalDate lastLoanDate;
+
+        Entry(Long memberId, String name, String email) {
+            this(memberId, name, email, Collections.emptyMap(), 0, null);
+        }
+
+        private Entry(Long memberId, String name, String email,
+                      Map<Long, MemberDashboardDTO.CurrentLoan> currentLoans,
+                      long returnedCount, LocalDate lastLoanDate) {
+            this.memberId = memberId;
+            this.name = name;
+            this.email = email;
+            this.currentLoans = currentLoans;
+            this.returnedCount = returnedCount;
+            this.lastLoanDate = lastLoanDate;
+        }
+
+        Entry withCheckout(Long loanId, Long bookId, String bookTitle, LocalDate loanDate) {
+            if (currentLoans.containsKey(loanId)) {
+                return this;
+            }
+            Map<Long, MemberDashboardDTO.CurrentLoan> loans = new LinkedHashMap<>(currentLoans);
+            loans.put(loanId, new MemberDashboardDTO.CurrentLoan(loanId, bookId, bookTitle, loanDate, false));
+            return new Entry(memberId, name, email, Collections.unmodifiableMap(loans),
+                    returnedCount, latest(lastLoanDate, loanDate));
+        }
+
+        Entry withReturn(Long loanId) {
+            if (!currentLoans.containsKey(loanId)) {
+                return this;
+            }
+            Map<Long, MemberDashboardDTO.CurrentLoan> loans = new LinkedHashMap<>(currentLoans);
+            loans.remove(loanId);
+            return new Entry(memberId, name, email, Collections.unmodifiableMap(loans),
+                    returnedCount + 1, lastLoanDate);
+        }
+
+        Entry withHistoricalReturn(LocalDate loanDate) {
+            return new Entry(memberId, name, email, currentLoans, returnedCount + 1,
+                    latest(lastLoanDate, loanDate));
+        }
+
+        Entry withIdentity(String newName, String newEmail) {
+            return new Entry(memberId, newName, newEmail, currentLoans, returnedCount, lastLoanDate);
+        }
+
+        MemberDashboardDTO toDto(LocalDate today) {
+            LocalDate overdueBefore = today.minusDays(LoanService.LOAN_PERIOD_DAYS);
+            List<MemberDashboardDTO.CurrentLoan> loans = new ArrayList<>(currentLoans.size());
+            int overdue = 0;
+            for (MemberDashboardDTO.CurrentLoan loan : currentLoans.values()) {
+                boolean late = loan.getLoanDate().isBefore(overdueBefore);
+                if (late) {
+                    overdue++;
+                }
+                loans.add(new MemberDashboardDTO.CurrentLoan(loan.getLoanId(), loan.getBookId(),
+                        loan.getBookTitle(), loan.getLoanDate(), late));
+            }
+            return new MemberDashboardDTO(memberId, name, email, loans, loans.size(), overdue,
+                    returnedCount + loans.size(), lastLoanDate);
+        }
+
+        private static LocalDate latest(LocalDate current, LocalDate candidate) {
+            return current == null || candidate.isAfter(current) ? candidate : current;
+        }
+    }
+}
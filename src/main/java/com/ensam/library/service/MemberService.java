@@ -1,37 +1,65 @@
 package com.ensam.library.service;
 
+import com.ensam.library.audit.AuditLog;
+import com.ensam.library.concurrent.SingleFlight;
+import com.ensam.library.dto.CoalescingStatsDTO;
 import com.ensam.library.dto.MemberDTO;
+import com.ensam.library.event.MemberEvent;
 import com.ensam.library.model.Member;
+import com.ensam.library.model.Tombstone;
 import com.ensam.library.repository.MemberRepository;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
-@Slf4j
 public class MemberService {
 
     @Autowired
     private MemberRepository memberRepository;
 
+    @Autowired
+    private ChangeTracker changeTracker;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Value("${library.coalescing.enabled:true}")
+    private boolean coalescing = true;
+
+    private final SingleFlight<Map.Entry<Long, Long>, Optional<Member>> memberByIdFlight =
+            new SingleFlight<>("member-by-id");
+    private final SingleFlight<Map.Entry<String, Long>, Optional<Member>> memberByEmailFlight =
+            new SingleFlight<>("member-by-email");
+
+    @Transactional(readOnly = true)
     public List<Member> getAllMembers() {
-        log.info("Récupération de tous les membres");
+        auditLog.read("member.list", null);
         return memberRepository.findAll();
     }
 
     public Optional<Member> getMemberById(Long id) {
-        log.info("Récupération du membre avec ID: {}", id);
-        return memberRepository.findById(id);
+        auditLog.read("member.get", id);
+        return ReadCoalescing.read(memberByIdFlight, coalescing, id,
+                () -> ReadCoalescing.inReadTransaction(transactionManager, () -> memberRepository.findById(id)));
     }
 
     @Transactional
     public Member createMember(MemberDTO memberDTO) {
-        log.info("Création d'un nouveau membre: {}", memberDTO.getName());
-
         // Vérifier si l'email existe déjà
         if (memberRepository.findByEmail(memberDTO.getEmail()).isPresent()) {
             throw new IllegalArgumentException("Un membre avec cet email existe déjà");
@@ -42,14 +70,17 @@ public class MemberService {
         member.setAddress(memberDTO.getAddress());
         member.setEmail(memberDTO.getEmail());
         member.setPhoneNumber(memberDTO.getPhoneNumber());
+        member.setChangeSeq(changeTracker.next());
 
-        return memberRepository.save(member);
+        Member savedMember = memberRepository.save(member);
+        eventPublisher.publishEvent(new MemberEvent(MemberEvent.Type.CREATED, savedMember.getId(),
+                savedMember.getName(), savedMember.getEmail()));
+        auditLog.writeOnCommit("member.create", savedMember.getId());
+        return savedMember;
     }
 
     @Transactional
     public Optional<Member> updateMember(Long id, MemberDTO memberDTO) {
-        log.info("Mise à jour du membre avec ID: {}", id);
-
         return memberRepository.findById(id).map(existingMember -> {
             // Vérifier si le nouvel email n'est pas utilisé par un autre membre
             if (!existingMember.getEmail().equals(memberDTO.getEmail())) {
@@ -63,23 +94,42 @@ public class MemberService {
             existingMember.setAddress(memberDTO.getAddress());
             existingMember.setEmail(memberDTO.getEmail());
             existingMember.setPhoneNumber(memberDTO.getPhoneNumber());
+            existingMember.setChangeSeq(changeTracker.next());
 
-            return memberRepository.save(existingMember);
+            Member savedMember = memberRepository.save(existingMember);
+            eventPublisher.publishEvent(new MemberEvent(MemberEvent.Type.UPDATED, id,
+                    existingMember.getName(), existingMember.getEmail()));
+            auditLog.writeOnCommit("member.update", id);
+            return savedMember;
         });
     }
 
     @Transactional
     public boolean deleteMember(Long id) {
-        log.info("Suppression du membre avec ID: {}", id);
         if (memberRepository.existsById(id)) {
             memberRepository.deleteById(id);
+            changeTracker.recordDeletion(Tombstone.EntityType.MEMBER, id);
+            eventPublisher.publishEvent(new MemberEvent(MemberEvent.Type.DELETED, id, null, null));
+            auditLog.writeOnCommit("member.delete", id);
             return true;
         }
         return false;
     }
 
     public Optional<Member> getMemberByEmail(String email) {
-        log.info("Recherche du membre par email: {}", email);
-        return memberRepository.findByEmail(email);
+        auditLog.read("member.email", null, email);
+        return ReadCoalescing.read(memberByEmailFlight, coalescing, email,
+                () -> ReadCoalescing.inReadTransaction(transactionManager, () -> memberRepository.findByEmail(email)));
+    }
+
+    public List<CoalescingStatsDTO> getCoalescingStatistics() {
+        return List.of(ReadCoalescing.statistics(memberByIdFlight), ReadCoalescing.statistics(memberByEmailFlight));
+    }
+
+    // Une fois la modification validée, les lectures suivantes ne rejoignent plus un chargement commencé avant
+    @TransactionalEventListener
+    public void onMemberEvent(MemberEvent event) {
+        memberByIdFlight.forgetAll();
+        memberByEmailFlight.forgetAll();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,223 @@
+package com.ensam.library.service;
+
+import com.ensam.library.dto.OutboxStatsDTO;
+import com.ensam.library.event.HoldFulfilledEvent;
+import com.ensam.library.event.LoanEvent;
+import com.ensam.library.outbox.OutboxEvent;
+import com.ensam.library.outbox.OutboxSink;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Boîte d'envoi transactionnelle des événements de circulation : chaque {@link LoanEvent} est
+ * écrit dans la table {@code loan_outbox} par la transaction qui emprunte ou rend le livre, et
+ * n'existe donc que si elle est validée ; de même pour l'attribution d'un retour à un
+ * réservataire ({@link HoldFulfilledEvent}), notification destinée au membre. Un drainage périodique livre ensuite les événements
+ * par lots aux {@link OutboxSink}, hors du chemin de l'emprunt.
+ * <p>
+ * H2 ne connaît pas {@code SELECT ... FOR UPDATE SKIP LOCKED} : un lot est réservé par une mise
+ * à jour conditionnelle qui pose un bail sur les lignes libres ou dont le bail a expiré, si bien
+ * que plusieurs instances se partagent la boîte sans se bloquer. Livraison au moins une fois,
+ * ordonnée par identifiant au sein d'un lot.
+ * <p>
+ * Un lot refusé par un destinataire n'est retenté qu'après un délai doublé à chaque échec
+ * (plafonné), sans retenir les lignes suivantes ; au-delà de {@code maxAttempts} échecs, ses
+ * événements sont écartés dans {@code loan_outbox_dead}. Désactivé par défaut ; avec le profil
+ * {@code memory}, la boîte reste dans H2 et n'est pas écrite dans la transaction du prêt.
+ */
+@Service
+@Slf4j
+public class OutboxService {
+
+    // Lots livrés au plus par passage, pour ne pas monopoliser le planificateur
+    private static final int MAX_BATCHES_PER_POLL = 16;
+
+    private static final String COLUMNS =
+            "id, event_type, loan_id, book_id, member_id, book_title, loan_date, return_date, created_at";
+
+    @Value("${library.outbox.enabled:false}")
+    private boolean enabled;
+
+    @Value("${library.outbox.batch-size:100}")
+    private int batchSize = 100;
+
+    @Value("${library.outbox.claim-timeout-ms:30000}")
+    private long claimTimeoutMs = 30000;
+
+    @Value("${library.outbox.max-attempts:10}")
+    private int maxAttempts = 10;
+
+    @Value("${library.outbox.retry-backoff-ms:1000}")
+    private long retryBackoffMs = 1000;
+
+    @Value("${library.outbox.max-retry-backoff-ms:300000}")
+    private long maxRetryBackoffMs = 300000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private List<OutboxSink> sinks;
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicLong claims = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private volatile long lastDeliveryLagMs;
+
+    /**
+     * Appelé de façon synchrone par {@code LoanService} : l'écriture rejoint sa transaction.
+     */
+    @EventListener
+    public void onLoanEvent(LoanEvent event) {
+        if (enabled) {
+            insert(event.getType(), event.getLoanId(), event.getBookId(), event.getMemberId(), event.getBookTitle(),
+                    event.getLoanDate(), event.getReturnDate());
+        }
+    }
+
+    /**
+     * Appelé dans la transaction du retour qui attribue l'exemplaire au réservataire.
+     */
+    @EventListener
+    public void onHoldFulfilled(HoldFulfilledEvent event) {
+        if (enabled) {
+            insert(LoanEvent.Type.HOLD_FULFILLED, event.getLoanId(), event.getBookId(), event.getMemberId(),
+                    event.getBookTitle(), event.getLoanDate(), null);
+        }
+    }
+
+    private void insert(LoanEvent.Type type, Long loanId, Long bookId, Long memberId, String bookTitle,
+                        LocalDate loanDate, LocalDate returnDate) {
+        jdbcTemplate.update("INSERT INTO loan_outbox (event_type, loan_id, book_id, member_id, book_title, "
+                        + "loan_date, return_date, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                type.name(), loanId, bookId, memberId, bookTitle, Date.valueOf(loanDate),
+                returnDate != null ? Date.valueOf(returnDate) : null, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    @Scheduled(fixedDelayString = "${library.outbox.poll-interval-ms:500}",
+            initialDelayString = "${library.outbox.poll-interval-ms:500}")
+    public void scheduledDrain() {
+        if (enabled) {
+            try {
+                drain();
+            } catch (RuntimeException e) {
+                log.warn("Échec du drainage de la boîte d'envoi: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Livre les lots disponibles jusqu'à vider la boîte, au premier échec ou après
+     * {@value #MAX_BATCHES_PER_POLL} lots. Renvoie le nombre d'événements livrés.
+     */
+    public int drain() {
+        int total = 0;
+        for (int i = 0; i < MAX_BATCHES_PER_POLL; i++) {
+            String token = instanceId + ":" + claims.incrementAndGet();
+            List<OutboxEvent> batch = claim(token);
+            if (batch.isEmpty() || !deliver(token, batch)) {
+                break;
+            }
+            total += batch.size();
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    public OutboxStatsDTO getStatistics() {
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT COUNT(*) AS pending, MIN(created_at) AS oldest FROM loan_outbox");
+        Timestamp oldest = (Timestamp) row.get("oldest");
+        long oldestAgeMs = oldest != null
+                ? Math.max(0, Duration.between(oldest.toLocalDateTime(), LocalDateTime.now()).toMillis())
+                : 0;
+        return new OutboxStatsDTO(enabled, sinks.stream().map(OutboxSink::name).collect(Collectors.toList()),
+                ((Number) row.get("pending")).longValue(), oldestAgeMs, lastDeliveryLagMs,
+                delivered.get(), failedBatches.get(),
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM loan_outbox_dead", Long.class));
+    }
+
+    // Bail posé en une instruction validée aussitôt ; la condition répétée hors de la sous-requête
+    // écarte les lignes réservées entre-temps par une autre instance
+    private List<OutboxEvent> claim(String token) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp nowTimestamp = Timestamp.valueOf(now);
+        jdbcTemplate.update("UPDATE loan_outbox SET claimed_by = ?, claim_expires_at = ? WHERE id IN ("
+                        + "SELECT id FROM loan_outbox WHERE claim_expires_at IS NULL OR claim_expires_at < ? "
+                        + "ORDER BY id FETCH FIRST ? ROWS ONLY) AND (claim_expires_at IS NULL OR claim_expires_at < ?)",
+                token, Timestamp.valueOf(now.plusNanos(claimTimeoutMs * 1_000_000)), nowTimestamp, batchSize,
+                nowTimestamp);
+        return jdbcTemplate.query("SELECT " + COLUMNS + " FROM loan_outbox WHERE claimed_by = ? ORDER BY id",
+                (resultSet, rowNum) -> new OutboxEvent(resultSet.getLong(1),
+                        LoanEvent.Type.valueOf(resultSet.getString(2)), resultSet.getLong(3), resultSet.getLong(4),
+                        resultSet.getLong(5), resultSet.getString(6), resultSet.getDate(7).toLocalDate(),
+                        resultSet.getDate(8) != null ? resultSet.getDate(8).toLocalDate() : null,
+                        resultSet.getTimestamp(9).toLocalDateTime()),
+                token);
+    }
+
+    // Le lot repartira vers tous les destinataires ; un arrêt entre deux instructions laisse
+    // simplement le bail expirer
+    private void release(String token, String error) {
+        jdbcTemplate.update("UPDATE loan_outbox SET attempts = attempts + 1 WHERE claimed_by = ?", token);
+        String lastError = error.length() > 255 ? error.substring(0, 255) : error;
+        int parkedNow = jdbcTemplate.update("INSERT INTO loan_outbox_dead (" + COLUMNS + ", attempts, last_error, "
+                        + "parked_at) SELECT " + COLUMNS + ", attempts, ?, ? FROM loan_outbox "
+                        + "WHERE claimed_by = ? AND attempts >= ?",
+                lastError, Timestamp.valueOf(LocalDateTime.now()), token, maxAttempts);
+        if (parkedNow > 0) {
+            jdbcTemplate.update("DELETE FROM loan_outbox WHERE claimed_by = ? AND attempts >= ?", token, maxAttempts);
+            log.error("{} événement(s) écarté(s) dans loan_outbox_dead après {} échec(s): {}",
+                    parkedNow, maxAttempts, lastError);
+        }
+        Integer attempts = jdbcTemplate.queryForObject(
+                "SELECT MAX(attempts) FROM loan_outbox WHERE claimed_by = ?", Integer.class, token);
+        if (attempts != null) {
+            // Le bail devient le délai d'attente : aucune instance ne reprend le lot avant
+            jdbcTemplate.update("UPDATE loan_outbox SET claimed_by = NULL, claim_expires_at = ? WHERE claimed_by = ?",
+                    Timestamp.valueOf(LocalDateTime.now().plusNanos(backoffMs(attempts) * 1_000_000)), token);
+        }
+    }
+
+    private long backoffMs(int attempts) {
+        long backoff = retryBackoffMs << Math.min(attempts - 1, 30);
+        return backoff < 0 ? maxRetryBackoffMs : Math.min(backoff, maxRetryBackoffMs);
+    }
+
+    private boolean deliver(String token, List<OutboxEvent> batch) {
+        for (OutboxSink sink : sinks) {
+            try {
+                sink.deliver(batch);
+            } catch (IOException | RuntimeException e) {
+                failedBatches.incrementAndGet();
+                log.warn("Échec de la livraison de {} événement(s) à {}: {}", batch.size(), sink.name(), e.getMessage());
+                release(token, sink.name() + ": " + e);
+                return false;
+            }
+        }
+        jdbcTemplate.update("DELETE FROM loan_outbox WHERE claimed_by = ?", token);
+        delivered.addAndGet(batch.size());
+        lastDeliveryLagMs = Math.max(0, Duration.between(batch.get(0).getCreatedAt(), LocalDateTime.now()).toMillis());
+        log.debug("Boîte d'envoi: {} événement(s) livré(s), retard {} ms", batch.size(), lastDeliveryLagMs);
+        return true;
+    }
+}
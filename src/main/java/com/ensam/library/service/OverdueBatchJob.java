@@ -0,0 +1,154 @@
+package com.ensam.library.service;
+
+import com.ensam.library.batch.CheckpointStore;
+import com.ensam.library.batch.Partition;
+import com.ensam.library.batch.PartitionedReader;
+import com.ensam.library.batch.PartitionedStep;
+import com.ensam.library.batch.StepResult;
+import com.ensam.library.dto.OverdueNoticeDTO;
+import com.ensam.library.fines.FinePolicy;
+import com.ensam.library.model.Loan;
+import com.ensam.library.repository.LoanRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Traitement nocturne des retards : chaque prêt en retard à la date d'exécution donne un avis
+ * (table {@code overdue_notices}) portant le nombre de jours de retard et l'amende due selon le
+ * {@link FinePolicy}.
+ * <p>
+ * Les prêts en cours sont découpés en tranches d'identifiants traitées en parallèle par lots
+ * ({@link PartitionedStep}). Une exécution interrompue reprend, relancée à la même date, après
+ * le dernier lot validé ; l'écriture d'un avis est idempotente par (date, prêt).
+ */
+@Service
+@Slf4j
+public class OverdueBatchJob {
+
+    static final String STEP = "overdue-notices";
+
+    @Value("${library.batch.overdue.grid-size:4}")
+    private int gridSize = 4;
+
+    @Value("${library.batch.overdue.chunk-size:500}")
+    private int chunkSize = 500;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private FinePolicy finePolicy;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CheckpointStore checkpointStore;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile StepResult lastResult;
+
+    @Scheduled(cron = "${library.batch.overdue.cron:0 0 2 * * *}")
+    public void nightly() {
+        run(LocalDate.now());
+    }
+
+    /**
+     * Exécute (ou reprend) le traitement pour la date donnée ; vide si une exécution est déjà en cours.
+     */
+    public Optional<StepResult> run(LocalDate runDate) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Traitement des retards déjà en cours, exécution du {} ignorée", runDate);
+            return Optional.empty();
+        }
+        try {
+            log.info("Traitement des retards au {}", runDate);
+            StepResult result = step(runDate).execute(runDate.toString());
+            lastResult = result;
+            return Optional.of(result);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public Optional<StepResult> getLastResult() {
+        return Optional.ofNullable(lastResult);
+    }
+
+    private PartitionedStep<Loan, OverdueNoticeDTO> step(LocalDate runDate) {
+        LocalDate overdueBefore = runDate.minusDays(LoanService.LOAN_PERIOD_DAYS);
+        return PartitionedStep.<Loan, OverdueNoticeDTO>builder(STEP)
+                .reader(new OverdueLoanReader(overdueBefore))
+                .processor(loan -> notice(loan, runDate))
+                .writer(this::write)
+                .checkpointStore(checkpointStore)
+                .transactions(new TransactionTemplate(transactionManager))
+                .gridSize(gridSize)
+                .chunkSize(chunkSize)
+                .build();
+    }
+
+    private OverdueNoticeDTO notice(Loan loan, LocalDate runDate) {
+        LocalDate dueDate = loan.getLoanDate().plusDays(finePolicy.loanPeriodDays());
+        return new OverdueNoticeDTO(loan.getId(), loan.getMember().getId(), loan.getBook().getId(), runDate, dueDate,
+                finePolicy.daysOverdue(loan.getLoanDate(), runDate),
+                finePolicy.fine(loan.getBook().getGenre(), loan.getLoanDate(), runDate));
+    }
+
+    private void write(List<OverdueNoticeDTO> notices) {
+        jdbcTemplate.batchUpdate("MERGE INTO overdue_notices (run_date, loan_id, member_id, book_id, due_date, "
+                        + "days_overdue, fine_cents) KEY (run_date, loan_id) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                notices, notices.size(), (statement, notice) -> {
+                    statement.setDate(1, Date.valueOf(notice.getRunDate()));
+                    statement.setLong(2, notice.getLoanId());
+                    statement.setLong(3, notice.getMemberId());
+                    statement.setLong(4, notice.getBookId());
+                    statement.setDate(5, Date.valueOf(notice.getDueDate()));
+                    statement.setInt(6, notice.getDaysOverdue());
+                    statement.setLong(7, notice.getFineCents());
+                });
+    }
+
+    private final class OverdueLoanReader implements PartitionedReader<Loan> {
+        private final LocalDate overdueBefore;
+
+        private OverdueLoanReader(LocalDate overdueBefore) {
+            this.overdueBefore = overdueBefore;
+        }
+
+        @Override
+        public List<Partition> partition(int gridSize) {
+            Long minId = loanRepository.findMinActiveLoanId();
+            Long maxId = loanRepository.findMaxActiveLoanId();
+            return minId != null ? Partition.split(minId, maxId, gridSize) : Collections.emptyList();
+        }
+
+        @Override
+        public List<Loan> read(Partition partition, long afterId, int chunkSize) {
+            return loanRepository.findOverdueChunk(overdueBefore, afterId, partition.getMaxId(),
+                    PageRequest.of(0, chunkSize));
+        }
+
+        @Override
+        public long idOf(Loan loan) {
+            return loan.getId();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.ensam.library.service;
+
+import com.ensam.library.concurrent.SingleFlight;
+import com.ensam.library.datasource.SessionConsistency;
+import com.ensam.library.dto.CoalescingStatsDTO;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Lectures des services regroupées par {@link SingleFlight}. Un appel fait au sein d'une
+ * transaction d'écriture n'est jamais regroupé : il doit voir ses propres modifications non
+ * validées. La position de réplication exigée par la session fait partie de la clé, pour qu'une
+ * lecture après écriture ne reçoive pas le résultat d'un appel servi par un réplica en retard.
+ * <p>
+ * Les méthodes regroupées ne sont pas transactionnelles : seul le chargement ouvre sa transaction
+ * ({@link #inReadTransaction}), et les appels qui attendent son résultat ne retiennent pas de
+ * connexion du pool.
+ */
+final class ReadCoalescing {
+
+    private ReadCoalescing() {
+    }
+
+    static <K, V> V read(SingleFlight<Map.Entry<K, Long>, V> flight, boolean enabled, K key, Supplier<V> loader) {
+        if (!enabled || key == null || (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly())) {
+            return loader.get();
+        }
+        return flight.execute(Map.entry(key, SessionConsistency.requiredPosition()), loader);
+    }
+
+    /**
+     * Chargement en lecture seule ; rejoint la transaction de l'appelant s'il en a une.
+     */
+    static <V> V inReadTransaction(PlatformTransactionManager transactionManager, Supplier<V> loader) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> loader.get());
+    }
+
+    static CoalescingStatsDTO statistics(SingleFlight<?, ?> flight) {
+        long calls = flight.getCalls();
+        long coalesced = calls - flight.getExecutions();
+        return new CoalescingStatsDTO(flight.getName(), calls, flight.getExecutions(), coalesced,
+                calls > 0 ? (double) coalesced / calls : 0.0);
+    }
+}
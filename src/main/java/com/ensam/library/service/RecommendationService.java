@@ -0,0 +1,162 @@
+package com.ensam.library.service;
+
+import com.ensam.library.audit.AuditLog;
+import com.ensam.library.dto.RelatedBookDTO;
+import com.ensam.library.event.LoanEvent;
+import com.ensam.library.model.Book;
+import com.ensam.library.recommend.CoBorrowingMatrix;
+import com.ensam.library.repository.BookRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Recommandations « les lecteurs de ce livre ont aussi emprunté », servies depuis une
+ * {@link CoBorrowingMatrix} en mémoire tenue à jour à chaque emprunt validé.
+ * <p>
+ * Au démarrage, la matrice est relue depuis son dernier instantané s'il existe, puis
+ * l'historique des prêts est rejoué par-dessus : les emprunts déjà comptés sont ignorés,
+ * seuls ceux postérieurs à l'instantané coûtent un calcul. L'instantané est désactivé par
+ * défaut : avec la base H2 en mémoire, il ne correspondrait plus aux données au redémarrage.
+ */
+@Service
+@Slf4j
+public class RecommendationService {
+
+    @Value("${library.recommendations.neighbors:50}")
+    private int neighbors = 50;
+
+    @Value("${library.recommendations.persist:false}")
+    private boolean persist;
+
+    @Value("${library.recommendations.snapshot-file:${java.io.tmpdir}/library-recommendations.bin}")
+    private String snapshotFile;
+
+    @Autowired
+    private CoBorrowingLoader coBorrowingLoader;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    private volatile CoBorrowingMatrix matrix;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void warmUp() {
+        long start = System.nanoTime();
+        CoBorrowingMatrix loaded = persist ? readSnapshot() : null;
+        if (loaded == null) {
+            loaded = new CoBorrowingMatrix(neighbors);
+        }
+        long replayed = coBorrowingLoader.load(loaded);
+        matrix = loaded;
+        log.info("Matrice de co-emprunts prête: {} livre(s), {} emprunt(s) dont {} rejoué(s), en {} ms",
+                loaded.books(), loaded.borrowings(), replayed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener
+    public void onLoanEvent(LoanEvent event) {
+        if (event.getType() == LoanEvent.Type.CHECKED_OUT) {
+            matrix().record(event.getMemberId(), event.getBookId());
+        }
+    }
+
+    public Optional<List<RelatedBookDTO>> getRelatedBooks(Long bookId, int limit) {
+        auditLog.read("recommendation.book", bookId);
+        if (!bookRepository.existsById(bookId)) {
+            return Optional.empty();
+        }
+        List<RelatedBookDTO> related = new ArrayList<>();
+        // Voisins supprimés du catalogue depuis : ignorés, d'où la marge demandée
+        for (CoBorrowingMatrix.Neighbor neighbor : matrix().neighbors(bookId, Math.max(1, limit) * 2)) {
+            Optional<Book> book = bookRepository.findById(neighbor.getBookId());
+            if (book.isPresent()) {
+                related.add(new RelatedBookDTO(neighbor.getBookId(), book.get().getTitle(), book.get().getAuthor(),
+                        neighbor.getCount()));
+            }
+            if (related.size() == limit) {
+                break;
+            }
+        }
+        return Optional.of(related);
+    }
+
+    @Scheduled(fixedDelayString = "${library.recommendations.snapshot-interval-ms:300000}",
+            initialDelayString = "${library.recommendations.snapshot-interval-ms:300000}")
+    public void scheduledSnapshot() {
+        if (persist && matrix != null) {
+            try {
+                writeSnapshot();
+            } catch (IOException e) {
+                log.warn("Échec de l'instantané des co-emprunts: {}", e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        scheduledSnapshot();
+    }
+
+    void writeSnapshot() throws IOException {
+        Path target = Paths.get(snapshotFile);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        try (OutputStream file = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            matrix.write(out);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        log.debug("Instantané des co-emprunts écrit dans {}", target);
+    }
+
+    private CoBorrowingMatrix readSnapshot() {
+        Path path = Paths.get(snapshotFile);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (InputStream file = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(file))) {
+            return CoBorrowingMatrix.read(in);
+        } catch (IOException e) {
+            log.warn("Instantané des co-emprunts illisible, reconstruction complète: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private CoBorrowingMatrix matrix() {
+        if (matrix == null) {
+            synchronized (this) {
+                if (matrix == null) {
+                    warmUp();
+                }
+            }
+        }
+        return matrix;
+    }
+}
@@ -0,0 +1,271 @@
+package com.ensam.library.service;
+
+import com.ensam.library.catalog.CatalogImage;
+import com.ensam.library.datasource.DataSourceRoute;
+import com.ensam.library.datasource.SessionConsistency;
+import com.ensam.library.event.CatalogEvent;
+import com.ensam.library.event.LoanEvent;
+import com.ensam.library.model.Book;
+import com.ensam.library.model.Tombstone;
+import com.ensam.library.repository.BookRepository;
+import com.ensam.library.repository.TombstoneRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.interceptor.DefaultTransactionAttribute;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Catalogue partagé entre les instances d'un même hôte par un répertoire commun : l'instance
+ * désignée comme éditrice y publie des générations successives de {@link CatalogImage}, et
+ * chaque instance projette la dernière en mémoire puis la substitue d'un bloc à la précédente.
+ * <p>
+ * Le fichier {@code current} désigne la génération publiée ; il n'est remplacé (par renommage
+ * atomique) qu'une fois l'image complète sur disque. Les lectures servies par l'image ont au
+ * plus un intervalle de publication plus un intervalle de scrutation de retard sur la base.
+ * <p>
+ * Deux exceptions à ce retard : une session qui exige ses propres écritures
+ * ({@link SessionConsistency}) n'est jamais servie par l'image, et un livre supprimé depuis la
+ * lecture de l'image n'y est plus trouvé. Les suppressions de numéro supérieur à
+ * {@link CatalogImage#completeSeq()} sont relues à chaque scrutation ; celles de l'instance sont
+ * prises en compte dès leur validation. Désactivé par défaut.
+ */
+@Service
+@Slf4j
+public class SharedCatalogService {
+
+    private static final String CURRENT = "current";
+
+    @Value("${library.catalog.shared.enabled:false}")
+    private boolean enabled;
+
+    @Value("${library.catalog.shared.publisher:false}")
+    private boolean publisher;
+
+    @Value("${library.catalog.shared.directory:${java.io.tmpdir}/library-catalog}")
+    private String directory;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private ChangeTracker changeTracker;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private volatile CatalogImage image;
+    // Livres de l'image servie supprimés depuis sa lecture en base
+    private volatile Set<Long> deleted = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+
+    /**
+     * Image projetée courante, vide tant qu'aucune génération n'est disponible.
+     */
+    public Optional<CatalogImage> current() {
+        return enabled ? Optional.ofNullable(image) : Optional.empty();
+    }
+
+    /**
+     * Livre de l'image ; vide sans image, pour une session qui exige ses écritures, ou si le
+     * livre a été supprimé depuis : l'appelant relit alors la base.
+     */
+    public Optional<Book> find(long id) {
+        return servable().filter(served -> !deleted.contains(id)).flatMap(served -> served.find(id));
+    }
+
+    /**
+     * Livres disponibles de l'image, vide dans les mêmes cas que {@link #find}.
+     */
+    public Optional<List<Book>> available() {
+        return servable().map(served -> withoutDeleted(served.available()));
+    }
+
+    public Optional<List<Book>> searchTitle(String text) {
+        return servable().map(served -> withoutDeleted(served.searchTitle(text)));
+    }
+
+    private Optional<CatalogImage> servable() {
+        return SessionConsistency.requiredPosition() > 0 ? Optional.empty() : current();
+    }
+
+    private List<Book> withoutDeleted(List<Book> books) {
+        Set<Long> removed = deleted;
+        if (removed.isEmpty()) {
+            return books;
+        }
+        return books.stream().filter(book -> !removed.contains(book.getId())).collect(Collectors.toList());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduledPublish();
+        scheduledRefresh();
+    }
+
+    @TransactionalEventListener
+    public void onCatalogEvent(CatalogEvent event) {
+        dirty.set(true);
+        if (event.getType() == CatalogEvent.Type.DELETED) {
+            deleted.add(event.getBookId());
+        }
+    }
+
+    @TransactionalEventListener
+    public void onLoanEvent(LoanEvent event) {
+        dirty.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${library.catalog.shared.publish-interval-ms:5000}",
+            initialDelayString = "${library.catalog.shared.publish-interval-ms:5000}")
+    public void scheduledPublish() {
+        // Marque levée avant la lecture : une modification concurrente déclenchera la publication suivante
+        if (enabled && publisher && dirty.getAndSet(false)) {
+            try {
+                publish();
+            } catch (IOException | RuntimeException e) {
+                dirty.set(true);
+                log.warn("Échec de la publication du catalogue partagé: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${library.catalog.shared.poll-interval-ms:1000}",
+            initialDelayString = "${library.catalog.shared.poll-interval-ms:1000}")
+    public void scheduledRefresh() {
+        if (enabled) {
+            try {
+                if (!refresh()) {
+                    refreshDeletions();
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Échec du chargement du catalogue partagé: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Écrit une nouvelle génération depuis la base, la désigne comme courante et la projette.
+     */
+    synchronized long publish() throws IOException {
+        long start = System.nanoTime();
+        Path root = Paths.get(directory);
+        Files.createDirectories(root);
+        long snapshotAt = System.currentTimeMillis();
+        // Relevé avant la lecture : toute modification de numéro inférieur est validée (ou annulée)
+        long completeSeq = changeTracker.safeWatermark();
+        List<Book> books = readAllBooks();
+        long generation = readCurrent(root) + 1;
+
+        Path file = root.resolve(fileName(generation));
+        Path temp = root.resolve(fileName(generation) + ".tmp");
+        CatalogImage.write(temp, generation, snapshotAt, completeSeq, books);
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        Path pointer = root.resolve(CURRENT + ".tmp");
+        Files.write(pointer, Long.toString(generation).getBytes(StandardCharsets.US_ASCII));
+        Files.move(pointer, root.resolve(CURRENT), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        deleteBefore(root, generation - 1);
+        refresh();
+        log.info("Catalogue partagé publié: génération {}, {} livre(s), {} octet(s), en {} ms",
+                generation, books.size(), Files.size(file), (System.nanoTime() - start) / 1_000_000);
+        return generation;
+    }
+
+    /**
+     * Projette la génération courante si elle est plus récente que l'image servie.
+     */
+    synchronized boolean refresh() throws IOException {
+        Path root = Paths.get(directory);
+        long generation = readCurrent(root);
+        CatalogImage served = image;
+        if (generation == 0 || (served != null && served.generation() >= generation)) {
+            return false;
+        }
+        CatalogImage opened = CatalogImage.open(root.resolve(fileName(generation)));
+        // Suppressions relues avant la substitution : l'image ne sert jamais un livre déjà supprimé
+        deleted = deletedSince(opened);
+        image = opened;
+        log.debug("Catalogue partagé: génération {} projetée ({} livre(s))", generation, image.size());
+        return true;
+    }
+
+    /**
+     * Relit les suppressions postérieures à l'image servie.
+     */
+    synchronized void refreshDeletions() {
+        CatalogImage served = image;
+        if (served != null) {
+            Set<Long> fresh = deletedSince(served);
+            fresh.addAll(deleted);
+            deleted = fresh;
+        }
+    }
+
+    private Set<Long> deletedSince(CatalogImage served) {
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        tombstoneRepository.findByEntityTypeAndChangeSeqGreaterThan(Tombstone.EntityType.BOOK, served.completeSeq())
+                .forEach(tombstone -> ids.add(tombstone.getEntityId()));
+        return ids;
+    }
+
+    // Lue sur le primaire : l'image doit contenir tout ce qui est validé jusqu'au filigrane relevé
+    private List<Book> readAllBooks() {
+        DefaultTransactionAttribute definition = new DefaultTransactionAttribute();
+        definition.setReadOnly(true);
+        definition.setLabels(List.of(DataSourceRoute.PRIMARY_LABEL));
+        return new TransactionTemplate(transactionManager, definition).execute(status -> bookRepository.findAll());
+    }
+
+    private long readCurrent(Path root) throws IOException {
+        try {
+            return Long.parseLong(new String(Files.readAllBytes(root.resolve(CURRENT)), StandardCharsets.US_ASCII).trim());
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+    }
+
+    // La génération précédente reste sur disque pour une instance qui l'ouvrirait encore
+    private void deleteBefore(Path root, long generation) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(root, "catalog-*.bin")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long fileGeneration = Long.parseLong(name.substring("catalog-".length(), name.length() - ".bin".length()));
+                if (fileGeneration < generation) {
+                    try {
+                        Files.delete(file);
+                    } catch (IOException e) {
+                        log.debug("Génération {} non supprimée: {}", fileGeneration, e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    private static String fileName(long generation) {
+        return "catalog-" + generation + ".bin";
+    }
+}
@@ -0,0 +1,328 @@
+package com.ensam.library.service;
+
+import com.ensam.library.archive.LoanArchive;
+import com.ensam.library.datasource.DataSourceRoute;
+import com.ensam.library.snapshot.ColumnType;
+import com.ensam.library.snapshot.SnapshotReader;
+import com.ensam.library.snapshot.SnapshotTable;
+import com.ensam.library.snapshot.SnapshotWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.interceptor.DefaultTransactionAttribute;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Instantané de la base H2 en mémoire (livres, membres, prêts, réservations, pierres tombales,
+ * événements non livrés de la boîte d'envoi) dans un fichier compressé, écrit périodiquement
+ * et à l'arrêt, relu au démarrage à la place des données de démonstration.
+ * <p>
+ * La restauration a lieu à l'initialisation du bean, après Flyway et {@code data.sql} et avant
+ * l'ouverture du serveur et les préchauffages sur {@code ApplicationReadyEvent}. Les lignes sont
+ * insérées par lots d'un bloc, validés un par un ; les index secondaires sont supprimés avant le
+ * chargement puis reconstruits en une passe, et les compteurs d'identité repositionnés.
+ * Désactivé par défaut ; sans objet avec le profil {@code memory}, qui a son propre journal.
+ */
+@Service
+@Profile("!memory")
+@Slf4j
+public class SnapshotService {
+
+    // Ordre des clés étrangères : les tables référencées d'abord
+    static final List<String> TABLES = List.of("books", "members", "loans", "holds", "tombstones",
+            "loan_outbox", "loan_outbox_dead");
+
+    @Value("${library.snapshot.enabled:false}")
+    private boolean enabled;
+
+    @Value("${library.snapshot.file:${java.io.tmpdir}/library-snapshot.bin}")
+    private String snapshotFile;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private LoanArchive loanArchive;
+
+    // Faux si la restauration a échoué : ne pas écraser l'instantané par une base incomplète
+    private volatile boolean restored;
+
+    @PostConstruct
+    public void restoreOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        if (Files.exists(Paths.get(snapshotFile))) {
+            try {
+                restore();
+            } catch (IOException e) {
+                throw new IllegalStateException("Restauration de l'instantané " + snapshotFile + " impossible", e);
+            }
+        }
+        restored = true;
+    }
+
+    @Scheduled(fixedDelayString = "${library.snapshot.interval-ms:600000}",
+            initialDelayString = "${library.snapshot.interval-ms:600000}")
+    public void scheduledSnapshot() {
+        if (enabled && restored) {
+            try {
+                dump();
+            } catch (IOException | RuntimeException e) {
+                log.warn("Échec de l'instantané de la base: {}", e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        scheduledSnapshot();
+    }
+
+    /**
+     * Écrit l'instantané dans un fichier temporaire renommé ensuite : un arrêt brutal laisse
+     * l'instantané précédent intact. Les tables sont lues dans une même transaction.
+     */
+    public synchronized long dump() throws IOException {
+        long start = System.nanoTime();
+        Path target = Paths.get(snapshotFile);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        DefaultTransactionAttribute definition = new DefaultTransactionAttribute();
+        definition.setReadOnly(true);
+        definition.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        definition.setLabels(List.of(DataSourceRoute.PRIMARY_LABEL));
+
+        long rows;
+        try (OutputStream file = Files.newOutputStream(temp);
+             SnapshotWriter writer = new SnapshotWriter(file)) {
+            new TransactionTemplate(transactionManager, definition).executeWithoutResult(status -> {
+                for (String table : TABLES) {
+                    jdbcTemplate.query("SELECT * FROM " + table + " ORDER BY id", dumpTable(table, writer));
+                }
+            });
+            rows = writer.rowsWritten();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        log.info("Instantané de la base écrit dans {}: {} ligne(s), {} octet(s), en {} ms",
+                target, rows, Files.size(target), (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+
+    /**
+     * Remplace le contenu des tables par celui de l'instantané. À n'appeler qu'au démarrage :
+     * les états en mémoire déjà préchauffés ne seraient pas reconstruits.
+     */
+    synchronized long restore() throws IOException {
+        long start = System.nanoTime();
+        long rows;
+        try (InputStream file = Files.newInputStream(Paths.get(snapshotFile));
+             SnapshotReader reader = new SnapshotReader(file)) {
+            rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+                try {
+                    return restore(connection, reader);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        // Écritures faites hors d'Hibernate : le cache de second niveau ne les a pas vues
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        log.info("Instantané {} restauré: {} ligne(s) en {} ms", snapshotFile, rows,
+                (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+
+    private ResultSetExtractor<Void> dumpTable(String table, SnapshotWriter writer) {
+        return resultSet -> {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            List<String> columns = new ArrayList<>();
+            List<ColumnType> types = new ArrayList<>();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                columns.add(metaData.getColumnLabel(i).toLowerCase(Locale.ROOT));
+                types.add(ColumnType.of(metaData.getColumnType(i)));
+            }
+            try {
+                writer.beginTable(new SnapshotTable(table, columns, types));
+                Object[] values = new Object[columns.size()];
+                while (resultSet.next()) {
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = resultSet.getObject(i + 1, types.get(i).javaType());
+                    }
+                    writer.row(values);
+                }
+                writer.endTable();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        };
+    }
+
+    private long restore(Connection connection, SnapshotReader reader) throws SQLException, IOException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        List<String> indexes = dropSecondaryIndexes(connection);
+        long rows = 0;
+        try (Statement statement = connection.createStatement()) {
+            for (int i = TABLES.size() - 1; i >= 0; i--) {
+                statement.executeUpdate("DELETE FROM " + TABLES.get(i));
+            }
+            connection.commit();
+
+            Optional<SnapshotTable> table;
+            while ((table = reader.nextTable()).isPresent()) {
+                rows += insertTable(connection, reader, table.get());
+                long maxId = maxId(statement, table.get().getName());
+                if ("loans".equals(table.get().getName())) {
+                    // Les derniers prêts peuvent avoir quitté la table pour l'archive : leurs identifiants restent pris
+                    maxId = Math.max(maxId, loanArchive.maxId());
+                }
+                statement.execute("ALTER TABLE " + table.get().getName() + " ALTER COLUMN id RESTART WITH " + (maxId + 1));
+            }
+        } catch (SQLException | IOException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            // Index reconstruits même après un échec, pour ne pas laisser un schéma dégradé
+            try (Statement statement = connection.createStatement()) {
+                for (String index : indexes) {
+                    statement.execute(index);
+                }
+            }
+            connection.setAutoCommit(autoCommit);
+        }
+        return rows;
+    }
+
+    private long insertTable(Connection connection, SnapshotReader reader, SnapshotTable table)
+            throws SQLException, IOException {
+        if (!TABLES.contains(table.getName())) {
+            throw new IOException("Table inconnue dans l'instantané: " + table.getName());
+        }
+        List<String> known = columnsOf(connection, table.getName());
+        for (String column : table.getColumns()) {
+            if (!known.contains(column)) {
+                throw new IOException("Colonne " + column + " absente de la table " + table.getName());
+            }
+        }
+        String sql = "INSERT INTO " + table.getName() + " (" + String.join(", ", table.getColumns()) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(table.width(), "?")) + ")";
+        long rows = 0;
+        try (PreparedStatement insert = connection.prepareStatement(sql)) {
+            List<Object[]> block;
+            while (!(block = reader.nextBlock()).isEmpty()) {
+                for (Object[] row : block) {
+                    for (int i = 0; i < row.length; i++) {
+                        insert.setObject(i + 1, row[i]);
+                    }
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+                connection.commit();
+                rows += block.size();
+            }
+        }
+        log.debug("Table {} restaurée: {} ligne(s)", table.getName(), rows);
+        return rows;
+    }
+
+    /**
+     * Supprime les index non uniques déclarés par les migrations (hors index générés pour les
+     * contraintes) et renvoie les ordres qui les recréent.
+     */
+    private List<String> dropSecondaryIndexes(Connection connection) throws SQLException {
+        List<String> creates = new ArrayList<>();
+        String tables = TABLES.stream().map(table -> "'" + table.toUpperCase(Locale.ROOT) + "'")
+                .collect(Collectors.joining(", "));
+        try (Statement statement = connection.createStatement()) {
+            List<String[]> indexes = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery("SELECT INDEX_NAME, TABLE_NAME "
+                    + "FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_SCHEMA = CURRENT_SCHEMA "
+                    + "AND INDEX_TYPE_NAME = 'INDEX' AND IS_GENERATED = FALSE AND TABLE_NAME IN (" + tables + ")")) {
+                while (resultSet.next()) {
+                    indexes.add(new String[]{resultSet.getString(1), resultSet.getString(2)});
+                }
+            }
+            for (String[] index : indexes) {
+                List<String> columns = new ArrayList<>();
+                try (ResultSet resultSet = statement.executeQuery("SELECT COLUMN_NAME, ORDERING_SPECIFICATION "
+                        + "FROM INFORMATION_SCHEMA.INDEX_COLUMNS WHERE TABLE_SCHEMA = CURRENT_SCHEMA "
+                        + "AND INDEX_NAME = '" + index[0] + "' ORDER BY ORDINAL_POSITION")) {
+                    while (resultSet.next()) {
+                        columns.add(resultSet.getString(1) + " " + resultSet.getString(2));
+                    }
+                }
+                creates.add("CREATE INDEX " + index[0] + " ON " + index[1] + "(" + String.join(", ", columns) + ")");
+            }
+            for (String[] index : indexes) {
+                statement.execute("DROP INDEX " + index[0]);
+            }
+        }
+        return creates;
+    }
+
+    private List<String> columnsOf(Connection connection, String table) throws SQLException {
+        List<String> columns = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT * FROM " + table + " WHERE 1 = 0")) {
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                columns.add(metaData.getColumnLabel(i).toLowerCase(Locale.ROOT));
+            }
+        }
+        return columns;
+    }
+
+    private long maxId(Statement statement, String table) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
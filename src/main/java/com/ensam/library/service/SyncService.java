@@ -0,0 +1,120 @@
+package com.ensam.library.service;
+
+import com.ensam.library.audit.AuditLog;
+import com.ensam.library.datasource.DataSourceRoute;
+import com.ensam.library.dto.ChangeSetDTO;
+import com.ensam.library.model.Book;
+import com.ensam.library.model.Member;
+import com.ensam.library.model.Tombstone;
+import com.ensam.library.repository.BookRepository;
+import com.ensam.library.repository.MemberRepository;
+import com.ensam.library.repository.TombstoneRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Synchronisation incrémentale : les modifications de numéro compris entre {@code since} exclu et
+ * le filigrane sûr. La première synchronisation ({@code since} = {@link #FULL_SYNC}) renvoie
+ * d'abord les lignes jamais modifiées depuis leur insertion hors de l'application, toutes de
+ * numéro 0, puis se poursuit depuis 0.
+ */
+@Service
+public class SyncService {
+
+    static final int MAX_LIMIT = 1000;
+
+    public static final long FULL_SYNC = -1;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private ChangeTracker changeTracker;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Transactional(readOnly = true, label = DataSourceRoute.PRIMARY_LABEL)
+    public ChangeSetDTO<Book> getBookChanges(long since, int limit) {
+        auditLog.read("sync.books", null, "since=" + since);
+        long watermark = changeTracker.safeWatermark();
+        if (since <= FULL_SYNC) {
+            return unnumbered(bookRepository.findByChangeSeqBetweenOrderByChangeSeqAsc(0L, 0L, Pageable.unpaged()),
+                    watermark);
+        }
+        if (since >= watermark) {
+            return new ChangeSetDTO<>(Collections.emptyList(), Collections.emptyList(), since, false);
+        }
+        Pageable page = PageRequest.of(0, clamp(limit));
+        List<Book> books = bookRepository.findByChangeSeqBetweenOrderByChangeSeqAsc(since + 1, watermark, page);
+        List<Tombstone> tombstones = tombstoneRepository.findByEntityTypeAndChangeSeqBetweenOrderByChangeSeqAsc(
+                Tombstone.EntityType.BOOK, since + 1, watermark, page);
+        return merge(books, Book::getChangeSeq, tombstones, clamp(limit), watermark);
+    }
+
+    @Transactional(readOnly = true, label = DataSourceRoute.PRIMARY_LABEL)
+    public ChangeSetDTO<Member> getMemberChanges(long since, int limit) {
+        auditLog.read("sync.members", null, "since=" + since);
+        long watermark = changeTracker.safeWatermark();
+        if (since <= FULL_SYNC) {
+            return unnumbered(memberRepository.findByChangeSeqBetweenOrderByChangeSeqAsc(0L, 0L, Pageable.unpaged()),
+                    watermark);
+        }
+        if (since >= watermark) {
+            return new ChangeSetDTO<>(Collections.emptyList(), Collections.emptyList(), since, false);
+        }
+        Pageable page = PageRequest.of(0, clamp(limit));
+        List<Member> members = memberRepository.findByChangeSeqBetweenOrderByChangeSeqAsc(since + 1, watermark, page);
+        List<Tombstone> tombstones = tombstoneRepository.findByEntityTypeAndChangeSeqBetweenOrderByChangeSeqAsc(
+                Tombstone.EntityType.MEMBER, since + 1, watermark, page);
+        return merge(members, Member::getChangeSeq, tombstones, clamp(limit), watermark);
+    }
+
+    // Lignes de numéro 0 en une seule page : de numéro égal, elles ne se découpent pas en pages
+    private <T> ChangeSetDTO<T> unnumbered(List<T> rows, long watermark) {
+        return new ChangeSetDTO<>(rows, Collections.emptyList(), 0L, watermark > 0);
+    }
+
+    // Fusion des deux listes triées par numéro, en s'arrêtant à « limit » éléments
+    private <T> ChangeSetDTO<T> merge(List<T> rows, Function<T, Long> seqOf,
+                                      List<Tombstone> tombstones, int limit, long watermark) {
+        List<T> items = new ArrayList<>();
+        List<Long> deletedIds = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        long lastSeq = 0;
+        while (items.size() + deletedIds.size() < limit && (i < rows.size() || j < tombstones.size())) {
+            boolean takeRow = j >= tombstones.size()
+                    || (i < rows.size() && seqOf.apply(rows.get(i)) < tombstones.get(j).getChangeSeq());
+            if (takeRow) {
+                T row = rows.get(i++);
+                lastSeq = seqOf.apply(row);
+                items.add(row);
+            } else {
+                Tombstone tombstone = tombstones.get(j++);
+                lastSeq = tombstone.getChangeSeq();
+                deletedIds.add(tombstone.getEntityId());
+            }
+        }
+        boolean hasMore = items.size() + deletedIds.size() == limit && lastSeq < watermark;
+        return new ChangeSetDTO<>(items, deletedIds, hasMore ? lastSeq : watermark, hasMore);
+    }
+
+    private int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+}
@@ -0,0 +1,229 @@
+package com.ensam.library.snapshot;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Type d'une colonne d'instantané et son codage par bloc. Les valeurs d'un bloc sont
+ * écrites colonne par colonne, sans les nulls (portés par un masque à part) : identifiants,
+ * dates et horodatages en écarts successifs, textes par dictionnaire local au bloc.
+ */
+public enum ColumnType {
+
+    LONG(Long.class) {
+        @Override
+        void encode(List<Object> values, DataOutput out) throws IOException {
+            long previous = 0;
+            for (Object value : values) {
+                long current = (Long) value;
+                Varints.writeSigned(out, current - previous);
+                previous = current;
+            }
+        }
+
+        @Override
+        List<Object> decode(DataInput in, int count) throws IOException {
+            List<Object> values = new ArrayList<>(count);
+            long previous = 0;
+            for (int i = 0; i < count; i++) {
+                previous += Varints.readSigned(in);
+                values.add(previous);
+            }
+            return values;
+        }
+    },
+
+    INT(Integer.class) {
+        @Override
+        void encode(List<Object> values, DataOutput out) throws IOException {
+            for (Object value : values) {
+                Varints.writeSigned(out, (Integer) value);
+            }
+        }
+
+        @Override
+        List<Object> decode(DataInput in, int count) throws IOException {
+            List<Object> values = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                values.add((int) Varints.readSigned(in));
+            }
+            return values;
+        }
+    },
+
+    BOOLEAN(Boolean.class) {
+        @Override
+        void encode(List<Object> values, DataOutput out) throws IOException {
+            boolean[] bits = new boolean[values.size()];
+            for (int i = 0; i < bits.length; i++) {
+                bits[i] = (Boolean) values.get(i);
+            }
+            writeBits(out, bits);
+        }
+
+        @Override
+        List<Object> decode(DataInput in, int count) throws IOException {
+            List<Object> values = new ArrayList<>(count);
+            for (boolean bit : readBits(in, count)) {
+                values.add(bit);
+            }
+            return values;
+        }
+    },
+
+    STRING(String.class) {
+        @Override
+        void encode(List<Object> values, DataOutput out) throws IOException {
+            Map<Object, Integer> codes = new HashMap<>();
+            List<Object> dictionary = new ArrayList<>();
+            int[] encoded = new int[values.size()];
+            for (int i = 0; i < encoded.length; i++) {
+                encoded[i] = codes.computeIfAbsent(values.get(i), value -> {
+                    dictionary.add(value);
+                    return dictionary.size() - 1;
+                });
+            }
+            Varints.writeUnsigned(out, dictionary.size());
+            for (Object value : dictionary) {
+                out.writeUTF((String) value);
+            }
+            for (int code : encoded) {
+                Varints.writeUnsigned(out, code);
+            }
+        }
+
+        @Override
+        List<Object> decode(DataInput in, int count) throws IOException {
+            String[] dictionary = new String[(int) Varints.readUnsigned(in)];
+            for (int i = 0; i < dictionary.length; i++) {
+                dictionary[i] = in.readUTF();
+            }
+            List<Object> values = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                values.add(dictionary[(int) Varints.readUnsigned(in)]);
+            }
+            return values;
+        }
+    },
+
+    DATE(LocalDate.class) {
+        @Override
+        void encode(List<Object> values, DataOutput out) throws IOException {
+            long previous = 0;
+            for (Object value : values) {
+                long day = ((LocalDate) value).toEpochDay();
+                Varints.writeSigned(out, day - previous);
+                previous = day;
+            }
+        }
+
+        @Override
+        List<Object> decode(DataInput in, int count) throws IOException {
+            List<Object> values = new ArrayList<>(count);
+            long previous = 0;
+            for (int i = 0; i < count; i++) {
+                previous += Varints.readSigned(in);
+                values.add(LocalDate.ofEpochDay(previous));
+            }
+            return values;
+        }
+    },
+
+    TIMESTAMP(LocalDateTime.class) {
+        @Override
+        void encode(List<Object> values, DataOutput out) throws IOException {
+            long previous = 0;
+            for (Object value : values) {
+                LocalDateTime timestamp = (LocalDateTime) value;
+                long second = timestamp.toEpochSecond(ZoneOffset.UTC);
+                Varints.writeSigned(out, second - previous);
+                Varints.writeUnsigned(out, timestamp.getNano());
+                previous = second;
+            }
+        }
+
+        @Override
+        List<Object> decode(DataInput in, int count) throws IOException {
+            List<Object> values = new ArrayList<>(count);
+            long previous = 0;
+            for (int i = 0; i < count; i++) {
+                previous += Varints.readSigned(in);
+                values.add(LocalDateTime.ofEpochSecond(previous, (int) Varints.readUnsigned(in), ZoneOffset.UTC));
+            }
+            return values;
+        }
+    };
+
+    private final Class<?> javaType;
+
+    ColumnType(Class<?> javaType) {
+        this.javaType = javaType;
+    }
+
+    /**
+     * Classe Java des valeurs, à passer à {@code ResultSet.getObject(int, Class)}.
+     */
+    public Class<?> javaType() {
+        return javaType;
+    }
+
+    public static ColumnType of(int sqlType) {
+        switch (sqlType) {
+            case Types.BIGINT:
+                return LONG;
+            case Types.INTEGER:
+            case Types.SMALLINT:
+            case Types.TINYINT:
+                return INT;
+            case Types.BOOLEAN:
+            case Types.BIT:
+                return BOOLEAN;
+            case Types.VARCHAR:
+            case Types.CHAR:
+            case Types.LONGVARCHAR:
+                return STRING;
+            case Types.DATE:
+                return DATE;
+            case Types.TIMESTAMP:
+                return TIMESTAMP;
+            default:
+                throw new IllegalArgumentException("Type SQL non pris en charge par l'instantané: " + sqlType);
+        }
+    }
+
+    abstract void encode(List<Object> values, DataOutput out) throws IOException;
+
+    abstract List<Object> decode(DataInput in, int count) throws IOException;
+
+    static void writeBits(DataOutput out, boolean[] bits) throws IOException {
+        for (int from = 0; from < bits.length; from += 8) {
+            int packed = 0;
+            for (int i = from; i < Math.min(from + 8, bits.length); i++) {
+                if (bits[i]) {
+                    packed |= 1 << (i - from);
+                }
+            }
+            out.writeByte(packed);
+        }
+    }
+
+    static boolean[] readBits(DataInput in, int count) throws IOException {
+        boolean[] bits = new boolean[count];
+        for (int from = 0; from < count; from += 8) {
+            int packed = in.readUnsignedByte();
+            for (int i = from; i < Math.min(from + 8, count); i++) {
+                bits[i] = (packed & (1 << (i - from))) != 0;
+            }
+        }
+        return bits;
+    }
+}
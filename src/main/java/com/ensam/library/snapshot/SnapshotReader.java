@@ -0,0 +1,105 @@
+package com.ensam.library.snapshot;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Relit un instantané écrit par {@link SnapshotWriter}, table par table puis bloc par bloc.
+ */
+public class SnapshotReader implements Closeable {
+
+    private final DataInputStream in;
+    private SnapshotTable table;
+
+    public SnapshotReader(InputStream input) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(input, 1 << 16), 1 << 16));
+        if (in.readInt() != SnapshotWriter.MAGIC) {
+            throw new IOException("Fichier d'instantané non reconnu");
+        }
+        int version = in.readInt();
+        if (version != SnapshotWriter.VERSION) {
+            throw new IOException("Version d'instantané non prise en charge: " + version);
+        }
+    }
+
+    /**
+     * Passe à la table suivante ; les blocs non lus de la table courante doivent avoir été consommés.
+     */
+    public Optional<SnapshotTable> nextTable() throws IOException {
+        if (table != null) {
+            throw new IllegalStateException("Blocs de la table " + table.getName() + " non lus");
+        }
+        byte marker = in.readByte();
+        if (marker == SnapshotWriter.END) {
+            return Optional.empty();
+        }
+        if (marker != SnapshotWriter.TABLE) {
+            throw new IOException("Marqueur de table invalide: " + marker);
+        }
+        String name = in.readUTF();
+        int width = (int) Varints.readUnsigned(in);
+        List<String> columns = new ArrayList<>(width);
+        List<ColumnType> types = new ArrayList<>(width);
+        ColumnType[] known = ColumnType.values();
+        for (int i = 0; i < width; i++) {
+            columns.add(in.readUTF());
+            int type = in.readUnsignedByte();
+            if (type >= known.length) {
+                throw new IOException("Type de colonne inconnu: " + type);
+            }
+            types.add(known[type]);
+        }
+        table = new SnapshotTable(name, columns, types);
+        return Optional.of(table);
+    }
+
+    /**
+     * Lignes du bloc suivant de la table courante, ou liste vide à la fin de la table.
+     */
+    public List<Object[]> nextBlock() throws IOException {
+        if (table == null) {
+            throw new IllegalStateException("Aucune table en cours de lecture");
+        }
+        int rows = (int) Varints.readUnsigned(in);
+        if (rows == 0) {
+            table = null;
+            return Collections.emptyList();
+        }
+        List<Object[]> block = new ArrayList<>(rows);
+        for (int row = 0; row < rows; row++) {
+            block.add(new Object[table.width()]);
+        }
+        for (int column = 0; column < table.width(); column++) {
+            boolean[] present = null;
+            int count = rows;
+            if (in.readBoolean()) {
+                present = ColumnType.readBits(in, rows);
+                count = 0;
+                for (boolean p : present) {
+                    count += p ? 1 : 0;
+                }
+            }
+            List<Object> values = table.getTypes().get(column).decode(in, count);
+            int next = 0;
+            for (int row = 0; row < rows; row++) {
+                if (present == null || present[row]) {
+                    block.get(row)[column] = values.get(next++);
+                }
+            }
+        }
+        return block;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,19 @@
+package com.ensam.library.snapshot;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * En-tête d'une table dans un instantané : nom et colonnes, dans l'ordre des valeurs de chaque ligne.
+ */
+@Value
+public class SnapshotTable {
+    String name;
+    List<String> columns;
+    List<ColumnType> types;
+
+    public int width() {
+        return columns.size();
+    }
+}
@@ -0,0 +1,113 @@
+package com.ensam.library.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Écrit un instantané compressé de tables : pour chaque table, son en-tête puis des blocs
+ * d'au plus {@link #BLOCK_ROWS} lignes rangées colonne par colonne (voir {@link ColumnType}).
+ * <p>
+ * Format : {@code MAGIC VERSION (TABLE en-tête bloc* 0)* END}, le tout compressé en GZIP.
+ */
+public class SnapshotWriter implements Closeable {
+
+    static final int MAGIC = 0x4C534E50;
+    static final int VERSION = 1;
+    static final byte TABLE = 1;
+    static final byte END = 0;
+    public static final int BLOCK_ROWS = 4096;
+
+    private final DataOutputStream out;
+    private SnapshotTable table;
+    private Object[][] columns;
+    private int rows;
+    private long rowsWritten;
+
+    public SnapshotWriter(OutputStream output) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(output, 1 << 16), 1 << 16));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+    }
+
+    public void beginTable(SnapshotTable table) throws IOException {
+        if (this.table != null) {
+            throw new IllegalStateException("Table " + this.table.getName() + " non terminée");
+        }
+        this.table = table;
+        this.columns = new Object[table.width()][BLOCK_ROWS];
+        this.rows = 0;
+        out.writeByte(TABLE);
+        out.writeUTF(table.getName());
+        Varints.writeUnsigned(out, table.width());
+        for (int i = 0; i < table.width(); i++) {
+            out.writeUTF(table.getColumns().get(i));
+            out.writeByte(table.getTypes().get(i).ordinal());
+        }
+    }
+
+    public void row(Object[] values) throws IOException {
+        if (values.length != table.width()) {
+            throw new IllegalArgumentException("Ligne de " + values.length + " valeur(s) pour "
+                    + table.width() + " colonne(s)");
+        }
+        for (int i = 0; i < values.length; i++) {
+            columns[i][rows] = values[i];
+        }
+        if (++rows == BLOCK_ROWS) {
+            flushBlock();
+        }
+    }
+
+    public void endTable() throws IOException {
+        flushBlock();
+        Varints.writeUnsigned(out, 0);
+        table = null;
+        columns = null;
+    }
+
+    public long rowsWritten() {
+        return rowsWritten;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (table != null) {
+            endTable();
+        }
+        out.writeByte(END);
+        out.close();
+    }
+
+    private void flushBlock() throws IOException {
+        if (rows == 0) {
+            return;
+        }
+        Varints.writeUnsigned(out, rows);
+        for (int column = 0; column < columns.length; column++) {
+            boolean[] present = new boolean[rows];
+            List<Object> values = new ArrayList<>(rows);
+            for (int row = 0; row < rows; row++) {
+                Object value = columns[column][row];
+                present[row] = value != null;
+                if (value != null) {
+                    values.add(value);
+                }
+                columns[column][row] = null;
+            }
+            boolean hasNulls = values.size() < rows;
+            out.writeBoolean(hasNulls);
+            if (hasNulls) {
+                ColumnType.writeBits(out, present);
+            }
+            table.getTypes().get(column).encode(values, out);
+        }
+        rowsWritten += rows;
+        rows = 0;
+    }
+}
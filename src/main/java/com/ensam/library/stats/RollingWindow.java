@@ -0,0 +1,74 @@
+package com.ensam.library.stats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Fenêtre glissante de {@code days} jours : un seau par jour dans un anneau, remplacé par un
+ * seau neuf (compare-and-set) quand son emplacement est réutilisé par un jour plus récent.
+ */
+public class RollingWindow<T> {
+
+    private final int days;
+    private final Supplier<T> factory;
+    private final AtomicReferenceArray<Bucket<T>> buckets;
+
+    public RollingWindow(int days, Supplier<T> factory) {
+        if (days < 1) {
+            throw new IllegalArgumentException("La fenêtre doit couvrir au moins un jour");
+        }
+        this.days = days;
+        this.factory = factory;
+        this.buckets = new AtomicReferenceArray<>(days);
+    }
+
+    public int days() {
+        return days;
+    }
+
+    /**
+     * Seau du jour {@code epochDay}, ou {@code null} si ce jour est déjà sorti de la fenêtre.
+     */
+    public T bucket(long epochDay) {
+        int slot = (int) Math.floorMod(epochDay, (long) days);
+        while (true) {
+            Bucket<T> current = buckets.get(slot);
+            if (current != null && current.day == epochDay) {
+                return current.value;
+            }
+            if (current != null && current.day > epochDay) {
+                return null;
+            }
+            Bucket<T> fresh = new Bucket<>(epochDay, factory.get());
+            if (buckets.compareAndSet(slot, current, fresh)) {
+                return fresh.value;
+            }
+        }
+    }
+
+    /**
+     * Seaux des {@code days} derniers jours jusqu'à {@code today} inclus.
+     */
+    public List<T> buckets(long today) {
+        List<T> result = new ArrayList<>(days);
+        for (int slot = 0; slot < days; slot++) {
+            Bucket<T> bucket = buckets.get(slot);
+            if (bucket != null && bucket.day <= today && bucket.day > today - days) {
+                result.add(bucket.value);
+            }
+        }
+        return result;
+    }
+
+    private static final class Bucket<T> {
+        private final long day;
+        private final T value;
+
+        private Bucket(long day, T value) {
+            this.day = day;
+            this.value = value;
+        }
+    }
+}
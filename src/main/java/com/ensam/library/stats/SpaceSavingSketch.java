@@ -0,0 +1,60 @@
+package com.ensam.library.stats;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Résumé « Space-Saving » des éléments les plus fréquents en mémoire bornée : au plus
+ * {@code capacity} compteurs ; un nouvel élément remplace le moins compté et hérite de son
+ * compte. Tout élément de fréquence supérieure à {@code n / capacity} est garanti présent,
+ * avec un compte surestimé d'au plus {@code n / capacity}.
+ */
+public class SpaceSavingSketch<K> {
+
+    private final int capacity;
+    private final Map<K, Long> counts;
+
+    public SpaceSavingSketch(int capacity) {
+        this.capacity = capacity;
+        this.counts = new HashMap<>(capacity * 2);
+    }
+
+    public synchronized void offer(K key) {
+        Long count = counts.get(key);
+        if (count != null) {
+            counts.put(key, count + 1);
+            return;
+        }
+        if (counts.size() < capacity) {
+            counts.put(key, 1L);
+            return;
+        }
+        // Capacité réduite (quelques dizaines) : un parcours linéaire suffit à trouver le minimum
+        Map.Entry<K, Long> minimum = counts.entrySet().stream()
+                .min(Map.Entry.comparingByValue())
+                .orElseThrow();
+        counts.remove(minimum.getKey());
+        counts.put(key, minimum.getValue() + 1);
+    }
+
+    public synchronized Map<K, Long> snapshot() {
+        return new HashMap<>(counts);
+    }
+
+    /**
+     * Fusionne des résumés (un par jour de la fenêtre) et renvoie les {@code k} plus fréquents,
+     * par compte décroissant.
+     */
+    public static <K> List<Map.Entry<K, Long>> top(Collection<SpaceSavingSketch<K>> sketches, int k) {
+        Map<K, Long> merged = new HashMap<>();
+        sketches.forEach(sketch -> sketch.snapshot().forEach((key, count) -> merged.merge(key, count, Long::sum)));
+        return merged.entrySet().stream()
+                .sorted(Map.Entry.<K, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(k)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,52 @@
+package com.ensam.library.stats;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs par clé sans verrou : un {@link LongAdder} (réparti en cellules) par clé.
+ */
+public class StripedCounters<K> {
+
+    private final Map<K, LongAdder> counters = new ConcurrentHashMap<>();
+
+    public void add(K key, long delta) {
+        if (key != null) {
+            counters.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+        }
+    }
+
+    public void increment(K key) {
+        add(key, 1);
+    }
+
+    public void decrement(K key) {
+        add(key, -1);
+    }
+
+    public long get(K key) {
+        LongAdder counter = counters.get(key);
+        return counter != null ? counter.sum() : 0L;
+    }
+
+    // Les compteurs nuls ou négatifs (retours non précédés de leur emprunt) sont omis
+    public Map<K, Long> snapshot() {
+        Map<K, Long> snapshot = new HashMap<>();
+        counters.forEach((key, counter) -> {
+            long value = counter.sum();
+            if (value > 0) {
+                snapshot.put(key, value);
+            }
+        });
+        return snapshot;
+    }
+
+    public static <K> Map<K, Long> sum(Collection<StripedCounters<K>> counters) {
+        Map<K, Long> total = new HashMap<>();
+        counters.forEach(counter -> counter.snapshot().forEach((key, value) -> total.merge(key, value, Long::sum)));
+        return total;
+    }
+}
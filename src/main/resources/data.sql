@@ -1,3 +1,3 @@
-INSERT INTO books (title, author, genre, available) VALUES
-                                                        ('Clean Code', 'Robert C. Martin', 'Programming', true),
-                                                        ('Design Patterns', 'Gang of Four', 'Programming', true);
+INSERT INTO books (title, author, genre, available, change_seq) VALUES
+                                                        ('Clean Code', 'Robert C. Martin', 'Programming', true, 1),
+                                                        ('Design Patterns', 'Gang of Four', 'Programming', true, 2);
@@ -0,0 +1,55 @@
+-- Schéma de référence, aligné sur le mapping JPA (validé au démarrage par Hibernate)
+
+CREATE TABLE books (
+                       id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                       title VARCHAR(100) NOT NULL,
+                       author VARCHAR(100) NOT NULL,
+                       genre VARCHAR(50) NOT NULL,
+                       available BOOLEAN DEFAULT TRUE NOT NULL,
+                       total_copies INT DEFAULT 1 NOT NULL CHECK (total_copies >= 1),
+                       available_copies INT DEFAULT 1 NOT NULL CHECK (available_copies >= 0),
+                       change_seq BIGINT DEFAULT 0 NOT NULL
+);
+
+CREATE TABLE members (
+                         id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                         name VARCHAR(100) NOT NULL,
+                         address VARCHAR(200) NOT NULL,
+                         email VARCHAR(255) NOT NULL,
+                         phone_number VARCHAR(255) NOT NULL,
+                         change_seq BIGINT DEFAULT 0 NOT NULL,
+                         CONSTRAINT uk_members_email UNIQUE (email)
+);
+
+CREATE TABLE loans (
+                       id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                       book_id BIGINT NOT NULL,
+                       member_id BIGINT NOT NULL,
+                       loan_date DATE NOT NULL,
+                       return_date DATE,
+                       CONSTRAINT fk_loans_book FOREIGN KEY (book_id) REFERENCES books(id),
+                       CONSTRAINT fk_loans_member FOREIGN KEY (member_id) REFERENCES members(id)
+);
+
+CREATE TABLE holds (
+                       id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                       book_id BIGINT NOT NULL,
+                       member_id BIGINT NOT NULL,
+                       created_at TIMESTAMP NOT NULL,
+                       status VARCHAR(20) NOT NULL,
+                       fulfilled_at DATE,
+                       CONSTRAINT fk_holds_book FOREIGN KEY (book_id) REFERENCES books(id),
+                       CONSTRAINT fk_holds_member FOREIGN KEY (member_id) REFERENCES members(id)
+);
+
+CREATE TABLE tombstones (
+                            id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                            entity_type VARCHAR(20) NOT NULL,
+                            entity_id BIGINT NOT NULL,
+                            change_seq BIGINT NOT NULL,
+                            deleted_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_books_change_seq ON books(change_seq);
+CREATE INDEX idx_members_change_seq ON members(change_seq);
+CREATE INDEX idx_tombstones_type_seq ON tombstones(entity_type, change_seq);
@@ -0,0 +1,22 @@
+-- Index couvrant les requêtes dérivées des repositories (voir RepositoryQueryPlanTest)
+
+-- LoanRepository : findByBookId, findByBookIdAndReturnDateIsNull, existsByBookIdAndMemberIdAndReturnDateIsNull
+CREATE INDEX idx_loans_book_return ON loans(book_id, return_date);
+-- LoanRepository : findByMemberId (historique trié par date)
+CREATE INDEX idx_loans_member_date ON loans(member_id, loan_date);
+-- LoanRepository : findByReturnDateIsNull, findByReturnDateIsNullAndLoanDateBefore (retards)
+CREATE INDEX idx_loans_return_date ON loans(return_date, loan_date);
+-- LoanRepository : findByLoanDateBetween
+CREATE INDEX idx_loans_loan_date ON loans(loan_date);
+
+-- BookRepository : findByAuthor, findByGenre, findByAvailableTrue
+CREATE INDEX idx_books_author ON books(author);
+CREATE INDEX idx_books_genre ON books(genre);
+CREATE INDEX idx_books_available ON books(available);
+
+-- MemberRepository : findByPhoneNumber (findByEmail utilise la contrainte d'unicité)
+CREATE INDEX idx_members_phone ON members(phone_number);
+
+-- HoldRepository : findByBookIdAndStatusOrderByIdAsc, existsByBookIdAndMemberIdAndStatus, findByMemberId
+CREATE INDEX idx_holds_book_status ON holds(book_id, status, id);
+CREATE INDEX idx_holds_member ON holds(member_id);
@@ -0,0 +1,29 @@
+-- Traitements par lots : points de contrôle des étapes et avis de retard produits
+
+CREATE TABLE batch_checkpoints (
+                                   step_name VARCHAR(50) NOT NULL,
+                                   run_key VARCHAR(50) NOT NULL,
+                                   partition_index INT NOT NULL,
+                                   min_id BIGINT NOT NULL,
+                                   max_id BIGINT NOT NULL,
+                                   last_id BIGINT NOT NULL,
+                                   completed BOOLEAN NOT NULL,
+                                   items_read BIGINT NOT NULL,
+                                   items_written BIGINT NOT NULL,
+                                   updated_at TIMESTAMP NOT NULL,
+                                   PRIMARY KEY (step_name, run_key, partition_index)
+);
+
+-- Sans clé étrangère : un avis reste consultable une fois le prêt rendu ou archivé
+CREATE TABLE overdue_notices (
+                                 run_date DATE NOT NULL,
+                                 loan_id BIGINT NOT NULL,
+                                 member_id BIGINT NOT NULL,
+                                 book_id BIGINT NOT NULL,
+                                 due_date DATE NOT NULL,
+                                 days_overdue INT NOT NULL,
+                                 fine_cents BIGINT NOT NULL,
+                                 PRIMARY KEY (run_date, loan_id)
+);
+
+CREATE INDEX idx_overdue_notices_member ON overdue_notices(member_id, run_date);
@@ -0,0 +1,19 @@
+-- Boîte d'envoi des événements de circulation, écrite dans la transaction du prêt ou du retour
+
+-- Sans clé étrangère : l'événement doit partir même si le prêt est archivé entre-temps.
+-- Une ligne est supprimée une fois livrée ; claimed_by / claim_expires_at forment le bail
+-- de l'instance qui la livre, repris par une autre à son expiration
+CREATE TABLE loan_outbox (
+                             id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                             event_type VARCHAR(20) NOT NULL,
+                             loan_id BIGINT NOT NULL,
+                             book_id BIGINT NOT NULL,
+                             member_id BIGINT NOT NULL,
+                             book_title VARCHAR(100) NOT NULL,
+                             loan_date DATE NOT NULL,
+                             return_date DATE,
+                             created_at TIMESTAMP NOT NULL,
+                             claimed_by VARCHAR(64),
+                             claim_expires_at TIMESTAMP,
+                             attempts INT DEFAULT 0 NOT NULL
+);
@@ -0,0 +1,24 @@
+-- Réservation et relivraison des lots de la boîte d'envoi
+
+-- OutboxService.claim : lignes libres ou dont le bail a expiré, dans l'ordre des identifiants
+CREATE INDEX idx_loan_outbox_claim ON loan_outbox(claim_expires_at, id);
+-- OutboxService : relecture, suppression et libération d'un lot par son jeton
+CREATE INDEX idx_loan_outbox_claimed_by ON loan_outbox(claimed_by);
+
+-- Événements écartés après library.outbox.max-attempts échecs de livraison, à examiner et
+-- réinjecter à la main ; mêmes colonnes que loan_outbox, sans le bail. L'identifiant d'origine
+-- est conservé (identité par défaut seulement, comme les autres tables de l'instantané)
+CREATE TABLE loan_outbox_dead (
+                                  id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                                  event_type VARCHAR(20) NOT NULL,
+                                  loan_id BIGINT NOT NULL,
+                                  book_id BIGINT NOT NULL,
+                                  member_id BIGINT NOT NULL,
+                                  book_title VARCHAR(100) NOT NULL,
+                                  loan_date DATE NOT NULL,
+                                  return_date DATE,
+                                  created_at TIMESTAMP NOT NULL,
+                                  attempts INT NOT NULL,
+                                  last_error VARCHAR(255),
+                                  parked_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,98 @@
+package com.ensam.library.analytics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Loan Columns Tests")
+class LoanColumnsTest {
+
+    private static final String[] GENRES = {"Fiction", "Science", "History"};
+    private static final String[] AUTHORS = {"Author A", "Author B"};
+
+    private final LocalDate start = LocalDate.of(2024, 1, 1);
+
+    // Plusieurs tranches fork/join : le résultat doit égaler le calcul ligne à ligne
+    private LoanColumns columns(int rows) {
+        LoanColumns.Builder builder = LoanColumns.builder();
+        for (int i = 0; i < rows; i++) {
+            LocalDate loanDate = start.plusDays(i % 90);
+            LocalDate returnDate = i % 4 == 0 ? null : loanDate.plusDays(i % 40);
+            builder.add(loanDate, returnDate, GENRES[i % 3], AUTHORS[i % 2]);
+        }
+        return builder.build();
+    }
+
+    @Test
+    @DisplayName("Should count loans by month and genre")
+    void testCountByMonthAndGenre() {
+        // Given
+        int rows = LoanColumns.LEAF_ROWS * 5 + 17;
+        LoanColumns columns = columns(rows);
+        LocalDate from = LocalDate.of(2024, 2, 1);
+        LocalDate to = LocalDate.of(2024, 3, 15);
+
+        // When
+        long[] counts = columns.countByMonthAndGenre(from, to);
+
+        // Then
+        long[] expected = new long[2 * 3];
+        for (int i = 0; i < rows; i++) {
+            LocalDate loanDate = start.plusDays(i % 90);
+            if (!loanDate.isBefore(from) && !loanDate.isAfter(to)) {
+                expected[(loanDate.getMonthValue() - 2) * 3 + i % 3]++;
+            }
+        }
+        assertArrayEquals(expected, counts);
+        assertEquals("Science", columns.genre(1));
+    }
+
+    @Test
+    @DisplayName("Should sum loan durations per author for returned loans")
+    void testLoanDurationByAuthor() {
+        // Given
+        int rows = LoanColumns.LEAF_ROWS * 3;
+        LoanColumns columns = columns(rows);
+
+        // When
+        long[] totals = columns.loanDurationByAuthor();
+
+        // Then
+        long[] expected = new long[4];
+        for (int i = 0; i < rows; i++) {
+            if (i % 4 != 0) {
+                expected[2 * (i % 2)] += i % 40;
+                expected[2 * (i % 2) + 1]++;
+            }
+        }
+        assertArrayEquals(expected, totals);
+    }
+
+    @Test
+    @DisplayName("Should build a return latency histogram with an open last bucket")
+    void testReturnLatencyHistogram() {
+        // Given
+        LoanColumns columns = LoanColumns.builder()
+                .add(start, start.plusDays(2), "Fiction", "Author A")
+                .add(start, start.plusDays(9), "Fiction", "Author A")
+                .add(start, start.plusDays(100), "Fiction", "Author A")
+                .add(start, null, "Fiction", "Author A")
+                .build();
+
+        // When
+        long[] histogram = columns.returnLatencyHistogram(7, 3);
+
+        // Then
+        assertArrayEquals(new long[]{1, 1, 1}, histogram);
+    }
+
+    @Test
+    @DisplayName("Should number months continuously across years")
+    void testMonth() {
+        assertEquals(LoanColumns.month(LocalDate.of(2023, 12, 31)) + 1, LoanColumns.month(LocalDate.of(2024, 1, 1)));
+        assertEquals(LocalDate.of(2024, 1, 1), LoanColumns.monthStart(LoanColumns.month(LocalDate.of(2024, 1, 20))));
+    }
+}
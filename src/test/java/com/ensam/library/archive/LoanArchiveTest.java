@@ -0,0 +1,81 @@
+package com.ensam.library.archive;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Loan Archive Tests")
+class LoanArchiveTest {
+
+    private List<ArchivedLoan> loans(long firstId, int count) {
+        List<ArchivedLoan> loans = new ArrayList<>();
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        for (long id = firstId; id < firstId + count; id++) {
+            LocalDate loanDate = start.plusDays(id % 700);
+            loans.add(new ArchivedLoan(id, 1 + id % 40, 100 + id % 25, loanDate, loanDate.plusDays(id % 30)));
+        }
+        return loans;
+    }
+
+    @Test
+    @DisplayName("Should find archived loans by member and book across segments and after reopening")
+    void testAppendAndFind(@TempDir Path directory) throws Exception {
+        // Given
+        LoanArchive archive = new LoanArchive(directory);
+        archive.open();
+        List<ArchivedLoan> first = loans(1, 10_000);
+        List<ArchivedLoan> second = loans(10_001, 300);
+
+        // When
+        archive.append(first);
+        archive.append(second);
+        LoanArchive reopened = new LoanArchive(directory);
+        reopened.open();
+
+        // Then
+        List<ArchivedLoan> all = new ArrayList<>(first);
+        all.addAll(second);
+        for (LoanArchive candidate : List.of(archive, reopened)) {
+            assertEquals(2, candidate.segmentCount());
+            assertEquals(10_300, candidate.size());
+            assertEquals(10_300, candidate.maxId());
+            assertEquals(all.stream().filter(loan -> loan.getMemberId() == 107).collect(Collectors.toList()),
+                    candidate.findByMemberId(107));
+            assertEquals(all.stream().filter(loan -> loan.getBookId() == 3).collect(Collectors.toList()),
+                    candidate.findByBookId(3));
+            assertTrue(candidate.findByMemberId(99).isEmpty());
+        }
+        // Compressé en colonnes : bien moins de 8 octets par valeur
+        long bytes = Files.size(directory.resolve("loans-0000000001.seg"));
+        assertTrue(bytes < 10_000 * 5 * 2, "Segment de " + bytes + " octets");
+    }
+
+    @Test
+    @DisplayName("Should continue numbering after reopening and discard unfinished segments")
+    void testReopenDiscardsTemporaryFiles(@TempDir Path directory) throws Exception {
+        // Given
+        LoanArchive archive = new LoanArchive(directory);
+        archive.open();
+        archive.append(loans(1, 10));
+        Files.write(directory.resolve("loans-0000000002.seg.tmp"), new byte[]{1, 2, 3});
+
+        // When
+        LoanArchive reopened = new LoanArchive(directory);
+        reopened.open();
+        Path next = reopened.append(loans(11, 10));
+
+        // Then
+        assertFalse(Files.exists(directory.resolve("loans-0000000002.seg.tmp")));
+        assertEquals("loans-0000000002.seg", next.getFileName().toString());
+        assertEquals(20, reopened.size());
+    }
+}
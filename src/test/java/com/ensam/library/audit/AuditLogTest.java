@@ -0,0 +1,221 @@
+package com.ensam.library.audit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Audit Log Tests")
+class AuditLogTest {
+
+    private List<String> lines(Path directory) throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<String> lines = new ArrayList<>();
+            for (Path file : files.sorted().collect(Collectors.toList())) {
+                lines.addAll(Files.readAllLines(file));
+            }
+            return lines;
+        }
+    }
+
+    @Test
+    @DisplayName("Should hand every event to the consumer once, in order per producer")
+    void testRingBufferConcurrentProducers() throws Exception {
+        // Given
+        AuditRingBuffer buffer = new AuditRingBuffer(1024);
+        int producers = 4;
+        int perProducer = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+
+        // When : producteurs concurrents, file pleine la plupart du temps
+        List<Future<?>> futures = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    AuditEvent event = new AuditEvent(i, AuditEvent.Kind.WRITE, "test", producer, null);
+                    while (!buffer.offer(event)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            }));
+        }
+        long[] next = new long[producers];
+        List<AuditEvent> batch = new ArrayList<>();
+        int received = 0;
+        while (received < producers * perProducer) {
+            buffer.drainTo(batch, 256);
+            for (AuditEvent event : batch) {
+                int producer = event.getEntityId().intValue();
+                assertEquals(next[producer]++, event.getTimestamp());
+            }
+            received += batch.size();
+            batch.clear();
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals(0, buffer.drainTo(batch, 256));
+        for (long count : next) {
+            assertEquals(perProducer, count);
+        }
+    }
+
+    @Test
+    @DisplayName("Should write every write event and only the sampled reads")
+    void testCapturesWritesAndSamplesReads(@TempDir Path directory) throws Exception {
+        // Given : aucune lecture retenue
+        AuditLog auditLog = new AuditLog(true, directory, 64, 0.0, 1 << 20, 3, 16);
+        auditLog.start();
+
+        // When : bien plus d'écritures que de cases dans la file
+        for (long id = 1; id <= 1_000; id++) {
+            auditLog.write("book.update", id);
+            auditLog.read("book.get", id);
+        }
+        auditLog.write("book.create", 1_001L, "Titre \"cité\"\n");
+        auditLog.close();
+
+        // Then
+        List<String> lines = lines(directory);
+        assertEquals(1_001, lines.size());
+        assertEquals(1_001, auditLog.getWritten());
+        assertEquals(1_000, auditLog.getSampledOut());
+        assertEquals(0, auditLog.getDropped());
+        assertTrue(lines.get(0).contains("\"kind\":\"WRITE\",\"action\":\"book.update\",\"id\":1}"), lines.get(0));
+        assertTrue(lines.get(1_000).endsWith("\"id\":1001,\"detail\":\"Titre \\\"cité\\\"\\u000a\"}"), lines.get(1_000));
+    }
+
+    @Test
+    @DisplayName("Should drop reads rather than wait when the buffer is full")
+    void testDropsReadsWhenFull(@TempDir Path directory) {
+        // Given : thread d'écriture non démarré, la file ne se vide pas
+        AuditLog auditLog = new AuditLog(true, directory, 2, 1.0, 1 << 20, 3, 16);
+
+        // When
+        for (long id = 1; id <= 5; id++) {
+            auditLog.read("book.get", id);
+        }
+        auditLog.write("book.delete", 9L);
+
+        // Then
+        assertEquals(2, auditLog.getCaptured());
+        assertEquals(4, auditLog.getDropped());
+    }
+
+    @Test
+    @DisplayName("Should roll the file past the size limit and keep a bounded number of files")
+    void testRollsFiles(@TempDir Path directory) throws Exception {
+        // Given
+        AuditLog auditLog = new AuditLog(true, directory, 256, 1.0, 2_000, 2, 8);
+        auditLog.start();
+
+        // When : des écritures, jamais abandonnées, pour que la dernière soit bien dans le fichier
+        for (long id = 1; id <= 500; id++) {
+            auditLog.write("member.update", id);
+        }
+        auditLog.close();
+
+        // Then
+        assertTrue(Files.exists(directory.resolve(AuditLog.FILE_NAME)));
+        assertTrue(Files.exists(directory.resolve(AuditLog.rolledName(1))));
+        assertTrue(Files.exists(directory.resolve(AuditLog.rolledName(2))));
+        assertFalse(Files.exists(directory.resolve(AuditLog.rolledName(3))));
+        for (Path file : List.of(directory.resolve(AuditLog.FILE_NAME), directory.resolve(AuditLog.rolledName(1)))) {
+            assertTrue(Files.size(file) <= 2_000, file + " : " + Files.size(file));
+        }
+        List<String> lines = Files.readAllLines(directory.resolve(AuditLog.FILE_NAME));
+        assertTrue(lines.get(lines.size() - 1).contains("\"id\":500}"), lines.get(lines.size() - 1));
+    }
+
+    @Test
+    @DisplayName("Should keep writing after a batch fails to serialize")
+    void testSurvivesFailedBatch(@TempDir Path directory) throws Exception {
+        // Given : un événement sans action fait échouer la sérialisation de son lot
+        AuditLog auditLog = new AuditLog(true, directory, 64, 1.0, 1 << 20, 3, 16);
+        auditLog.start();
+        auditLog.write(null, 1L);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (auditLog.getFailed() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        // When : la file est ensuite remplie bien au-delà de sa capacité
+        for (long id = 2; id <= 200; id++) {
+            auditLog.write("book.update", id);
+        }
+        auditLog.close();
+
+        // Then : le thread d'écriture a tout écrit, sans bloquer les producteurs
+        assertEquals(1, auditLog.getFailed());
+        assertEquals(199, auditLog.getWritten());
+        assertEquals(199, lines(directory).size());
+    }
+
+    @Test
+    @DisplayName("Should reopen the file and keep writing when a roll fails")
+    void testRecoversFromFailedRoll(@TempDir Path directory) throws Exception {
+        // Given : le fichier le plus ancien est un répertoire non vide, impossible à supprimer
+        Files.createDirectories(directory.resolve(AuditLog.rolledName(1)));
+        Files.createFile(directory.resolve(AuditLog.rolledName(1)).resolve("bloque"));
+        AuditLog auditLog = new AuditLog(true, directory, 256, 1.0, 500, 1, 4);
+        auditLog.start();
+
+        // When
+        for (long id = 1; id <= 100; id++) {
+            auditLog.write("member.update", id);
+        }
+        auditLog.close();
+
+        // Then : rien n'est perdu, tout reste dans le fichier courant
+        assertEquals(100, auditLog.getWritten());
+        assertEquals(0, auditLog.getFailed());
+        List<String> lines = Files.readAllLines(directory.resolve(AuditLog.FILE_NAME));
+        assertEquals(100, lines.size());
+        assertTrue(lines.get(99).contains("\"id\":100}"));
+    }
+
+    @Test
+    @DisplayName("Should capture a transactional write only once it commits")
+    void testWriteOnCommit(@TempDir Path directory) {
+        // Given : thread d'écriture non démarré, seules les captures sont comptées
+        AuditLog auditLog = new AuditLog(true, directory, 16, 1.0, 1 << 20, 3, 16);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            auditLog.writeOnCommit("member.update", 1L);
+            assertEquals(0, auditLog.getCaptured());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            auditLog.writeOnCommit("member.delete", 2L);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then : seule l'écriture validée est capturée
+        assertEquals(1, auditLog.getCaptured());
+    }
+}
@@ -0,0 +1,127 @@
+package com.ensam.library.batch;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Partitioned Step Tests")
+class PartitionedStepTest {
+
+    private final List<Long> ids = LongStream.rangeClosed(1, 1000).boxed().collect(Collectors.toList());
+    private final List<Long> written = Collections.synchronizedList(new ArrayList<>());
+    private final MapCheckpointStore checkpointStore = new MapCheckpointStore();
+
+    private final PartitionedReader<Long> reader = new PartitionedReader<>() {
+        @Override
+        public List<Partition> partition(int gridSize) {
+            return Partition.split(ids.get(0), ids.get(ids.size() - 1), gridSize);
+        }
+
+        @Override
+        public List<Long> read(Partition partition, long afterId, int chunkSize) {
+            return ids.stream()
+                    .filter(id -> id > afterId && id <= partition.getMaxId())
+                    .limit(chunkSize)
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public long idOf(Long item) {
+            return item;
+        }
+    };
+
+    private PartitionedStep<Long, Long> step(ItemWriter<Long> writer) {
+        return PartitionedStep.<Long, Long>builder("test")
+                .reader(reader)
+                .processor(id -> id % 2 == 0 ? id : null)
+                .writer(writer)
+                .checkpointStore(checkpointStore)
+                .gridSize(4)
+                .chunkSize(64)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should split an id range into contiguous partitions")
+    void testSplit() {
+        assertEquals(List.of(new Partition(0, 1, 4), new Partition(1, 5, 8), new Partition(2, 9, 10)),
+                Partition.split(1, 10, 3));
+        assertEquals(List.of(new Partition(0, 7, 7)), Partition.split(7, 7, 4));
+        assertTrue(Partition.split(5, 4, 4).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should process every partition in chunks and report throughput")
+    void testExecute() {
+        // When
+        StepResult result = step(written::addAll).execute("run-1");
+
+        // Then
+        assertEquals(StepResult.Status.COMPLETED, result.getStatus());
+        assertEquals(4, result.getPartitions());
+        assertEquals(1000, result.getItemsRead());
+        assertEquals(500, result.getItemsWritten());
+        assertEquals(LongStream.rangeClosed(1, 500).map(i -> i * 2).boxed().collect(Collectors.toList()),
+                written.stream().sorted().collect(Collectors.toList()));
+        assertTrue(result.getChunks() >= 4 * (250 / 64));
+        assertTrue(result.getItemsPerSecond() > 0);
+        assertTrue(checkpointStore.load("test", "run-1").stream().allMatch(Checkpoint::isCompleted));
+    }
+
+    @Test
+    @DisplayName("Should resume a failed partition after its last committed chunk")
+    void testRestart() {
+        // Given : le lot contenant 600 échoue une fois
+        AtomicBoolean failed = new AtomicBoolean();
+        StepResult first = step(items -> {
+            if (items.contains(600L) && failed.compareAndSet(false, true)) {
+                throw new IllegalStateException("Panne simulée");
+            }
+            written.addAll(items);
+        }).execute("run-2");
+        assertEquals(StepResult.Status.FAILED, first.getStatus());
+        assertEquals(1, first.getFailedPartitions());
+        int writtenBefore = written.size();
+
+        // When
+        StepResult second = step(written::addAll).execute("run-2");
+
+        // Then : seule la tranche en échec est reprise, sans réécrire ses lots validés
+        assertEquals(StepResult.Status.COMPLETED, second.getStatus());
+        assertEquals(1, second.getResumedPartitions());
+        assertEquals(500, second.getItemsWritten());
+        assertEquals(500, written.size());
+        assertTrue(written.size() > writtenBefore);
+        assertEquals(500, written.stream().distinct().count());
+
+        StepResult third = step(written::addAll).execute("run-2");
+        assertEquals(0, third.getChunks());
+        assertEquals(500, written.size());
+    }
+
+    private static final class MapCheckpointStore implements CheckpointStore {
+        private final Map<String, Map<Integer, Checkpoint>> checkpoints = new ConcurrentHashMap<>();
+
+        @Override
+        public List<Checkpoint> load(String step, String runKey) {
+            return new ArrayList<>(checkpoints.getOrDefault(step + "/" + runKey, Map.of()).values());
+        }
+
+        @Override
+        public void save(String step, String runKey, Checkpoint checkpoint) {
+            checkpoints.computeIfAbsent(step + "/" + runKey, key -> new ConcurrentHashMap<>())
+                    .put(checkpoint.getPartition().getIndex(), checkpoint);
+        }
+    }
+}
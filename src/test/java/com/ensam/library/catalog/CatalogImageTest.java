@@ -0,0 +1,103 @@
+package com.ensam.library.catalog;
+
+import com.ensam.library.model.Book;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Catalog Image Tests")
+class CatalogImageTest {
+
+    private final List<Book> books = List.of(
+            new Book(7L, "Le Petit Prince", "Saint-Exupéry", "Roman", true, 3, 2, 11L),
+            new Book(2L, "Éléments de programmation", "Stepanov", "Programming", false, 1, 0, 4L),
+            new Book(5L, "Programming Pearls", "Bentley", "Programming", true, 2, 1, 9L));
+
+    private List<Long> ids(List<Book> found) {
+        return found.stream().map(Book::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Should read back every book written to the mapped file")
+    void testWriteAndOpen(@TempDir Path directory) throws IOException {
+        // Given
+        Path file = directory.resolve("catalog-3.bin");
+        CatalogImage.write(file, 3, 1_700_000_000_000L, 42L, books);
+
+        // When
+        CatalogImage image = CatalogImage.open(file);
+
+        // Then
+        assertEquals(3, image.generation());
+        assertEquals(1_700_000_000_000L, image.snapshotAt());
+        assertEquals(42L, image.completeSeq());
+        assertEquals(3, image.size());
+        for (Book book : books) {
+            assertEquals(Optional.of(book), image.find(book.getId()));
+        }
+        assertTrue(image.find(1L).isEmpty());
+        assertTrue(image.find(99L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should list available books and search titles ignoring case")
+    void testQueries() throws IOException {
+        // Given
+        CatalogImage image = CatalogImage.wrap(CatalogImage.encode(1, 0, 0, books));
+
+        // When / Then
+        assertEquals(List.of(5L, 7L), ids(image.available()));
+        assertEquals(List.of(2L, 5L), ids(image.searchTitle("PROGRAMM")));
+        assertEquals(List.of(2L), ids(image.searchTitle("éLÉments")));
+        assertEquals(List.of(7L), ids(image.searchTitle("prince")));
+        assertTrue(image.searchTitle("absent").isEmpty());
+        assertEquals(List.of(2L, 5L, 7L), ids(image.searchTitle("")));
+    }
+
+    @Test
+    @DisplayName("Should store repeated authors and genres once in the string pool")
+    void testStringPoolDeduplication() throws IOException {
+        // Given : mille livres d'un même auteur et d'un même genre
+        List<Book> many = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            many.add(new Book(id, "T" + id, "A very long and repeated author name", "Repeated genre", true));
+        }
+
+        // When
+        ByteBuffer encoded = CatalogImage.encode(1, 0, 0, many);
+
+        // Then : en-tête, enregistrements, titres (deux copies, dont la minuscule) et une seule copie du reste
+        int titles = many.stream().mapToInt(book -> book.getTitle().length() * 2).sum();
+        int expected = CatalogImage.HEADER_BYTES + 1000 * CatalogImage.RECORD_BYTES + titles
+                + "A very long and repeated author name".length() + "Repeated genre".length();
+        assertEquals(expected, encoded.remaining());
+    }
+
+    @Test
+    @DisplayName("Should reject a truncated or foreign file")
+    void testRejectsInvalidFile(@TempDir Path directory) throws IOException {
+        // Given
+        ByteBuffer encoded = CatalogImage.encode(1, 0, 0, books);
+        byte[] truncated = new byte[encoded.remaining() - 1];
+        encoded.get(truncated);
+        Path file = directory.resolve("truncated.bin");
+        Files.write(file, truncated);
+        Path foreign = directory.resolve("foreign.bin");
+        Files.write(foreign, new byte[64]);
+
+        // When / Then
+        assertThrows(IOException.class, () -> CatalogImage.open(file));
+        assertThrows(IOException.class, () -> CatalogImage.open(foreign));
+    }
+}
@@ -0,0 +1,95 @@
+package com.ensam.library.catalog;
+
+import com.ensam.library.model.Book;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Occupation mémoire par livre : entités {@link Book} (chaînes, {@code Long} et {@code Integer}
+ * propres à chaque livre, comme dans le cache d'entités) contre {@link CompactCatalog}. Les deux
+ * tailles sont calculées, pas mesurées sur le tas : le résultat ne dépend ni du ramasse-miettes
+ * ni des autres tests.
+ */
+@DisplayName("Compact Catalog Footprint Tests")
+class CompactCatalogFootprintTest {
+
+    private static final int BOOKS = 100_000;
+    private static final String[] GENRES = {"Roman", "Essai", "Programming", "Poésie", "Histoire", "Science"};
+
+    // Tailles d'une JVM 64 bits à références compressées, arrondies à 8 octets
+    private static final int OBJECT_HEADER = 12;
+    private static final int REFERENCE = 4;
+    private static final int BOXED = 16;
+
+    private Book book(long id) {
+        return new Book(id, "Title of book number " + id, "Author " + (id % 500),
+                GENRES[(int) (id % GENRES.length)], id % 4 != 0, 2, (int) (id % 3), 1000 + id);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) / 8 * 8;
+    }
+
+    // String : en-tête, référence au tableau, hash, coder et indicateur ; tableau : en-tête et longueur
+    private static long stringBytes(String value) {
+        return align(OBJECT_HEADER + REFERENCE + Integer.BYTES + 2)
+                + align(OBJECT_HEADER + Integer.BYTES + value.getBytes(StandardCharsets.ISO_8859_1).length);
+    }
+
+    // Livre : huit références, deux Long et deux Integer propres, trois chaînes distinctes ; le
+    // Boolean est partagé
+    private static long entityBytes(Book book) {
+        return align(OBJECT_HEADER + 8L * REFERENCE)
+                + 4L * BOXED
+                + stringBytes(book.getTitle()) + stringBytes(book.getAuthor()) + stringBytes(book.getGenre())
+                + REFERENCE;
+    }
+
+    @Test
+    @DisplayName("Should take a fraction of the bytes per book of the entity representation")
+    void testBytesPerBook() {
+        // Given
+        CompactCatalog catalog = new CompactCatalog();
+        long entityBytes = 0;
+
+        // When
+        for (long id = 1; id <= BOOKS; id++) {
+            Book book = book(id);
+            catalog.put(book);
+            entityBytes += entityBytes(book);
+        }
+
+        // Then
+        long compactPerBook = catalog.footprintBytes() / BOOKS;
+        long entityPerBook = entityBytes / BOOKS;
+        assertEquals(BOOKS, catalog.size());
+        assertTrue(compactPerBook * 2 < entityPerBook,
+                "Compact " + compactPerBook + " o/livre, entités " + entityPerBook + " o/livre");
+    }
+
+    @Test
+    @DisplayName("Should count each author once, whatever the number of books")
+    void testSharedAuthorsCountedOnce() {
+        // Given : mêmes livres, un seul auteur d'un côté, un auteur par livre de l'autre
+        CompactCatalog shared = new CompactCatalog();
+        CompactCatalog distinct = new CompactCatalog();
+        long extraAuthorBytes = 0;
+
+        // When
+        for (long id = 1; id <= 1_000; id++) {
+            Book book = book(id);
+            book.setAuthor("Author 0");
+            shared.put(book);
+            book.setAuthor("Author " + id);
+            distinct.put(book);
+            extraAuthorBytes += book.getAuthor().length();
+        }
+
+        // Then : l'écart se limite aux noms d'auteurs du dictionnaire, chacun compté une fois
+        assertEquals(extraAuthorBytes - "Author 0".length(), distinct.footprintBytes() - shared.footprintBytes());
+    }
+}
@@ -0,0 +1,122 @@
+package com.ensam.library.catalog;
+
+import com.ensam.library.model.Book;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Compact Catalog Tests")
+class CompactCatalogTest {
+
+    private Book book(long id, String title, String genre, int available, long changeSeq) {
+        return new Book(id, title, "Author " + (id % 3), genre, available > 0, 3, available, changeSeq);
+    }
+
+    private List<Long> ids(List<Book> books) {
+        return books.stream().map(Book::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Should read back books exactly as they were put")
+    void testPutAndFind() {
+        // Given
+        CompactCatalog catalog = new CompactCatalog();
+        Book prince = book(7, "Le Petit Prince – édition illustrée", "Roman", 2, 11);
+        Book pearls = book(2, "Programming Pearls", "Programming", 0, 4);
+
+        // When
+        catalog.put(prince);
+        catalog.put(pearls);
+
+        // Then
+        assertEquals(2, catalog.size());
+        assertEquals(Optional.of(prince), catalog.find(7));
+        assertEquals(Optional.of(pearls), catalog.find(2));
+        assertTrue(catalog.find(5).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should replace a book with a newer version only")
+    void testVersioning() {
+        // Given
+        CompactCatalog catalog = new CompactCatalog();
+        catalog.put(book(1, "Original", "Roman", 1, 5));
+
+        // When : une relecture plus ancienne arrive après la plus récente
+        catalog.put(book(1, "Renamed", "Essai", 0, 8));
+        catalog.put(book(1, "Stale", "Roman", 3, 6));
+
+        // Then
+        assertEquals("Renamed", catalog.find(1).orElseThrow().getTitle());
+        assertEquals(List.of(1L), ids(catalog.byGenre("Essai")));
+        assertTrue(catalog.byGenre("Roman").isEmpty());
+        assertTrue(catalog.available().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should match a map of entities through random puts and removals")
+    void testAgainstEntities() {
+        // Given
+        Random random = new Random(11);
+        CompactCatalog catalog = new CompactCatalog();
+        Map<Long, Book> expected = new HashMap<>();
+        String[] genres = {"Roman", "Essai", "Programming", "Poésie"};
+
+        // When : insertions dans le désordre, titres réécrits (réserve recompactée) et suppressions
+        for (int i = 0; i < 20_000; i++) {
+            long id = 1 + random.nextInt(2_000);
+            if (random.nextInt(5) == 0) {
+                assertEquals(expected.remove(id) != null, catalog.remove(id));
+            } else {
+                Book book = book(id, "Title " + random.nextInt(1_000_000), genres[random.nextInt(genres.length)],
+                        random.nextInt(3), i);
+                catalog.put(book);
+                expected.put(id, book);
+            }
+        }
+
+        // Then
+        assertEquals(expected.size(), catalog.size());
+        for (Book book : expected.values()) {
+            assertEquals(Optional.of(book), catalog.find(book.getId()));
+        }
+        List<Long> available = expected.values().stream().filter(Book::getAvailable).map(Book::getId).sorted()
+                .collect(Collectors.toList());
+        assertEquals(available, ids(catalog.available()));
+        for (String genre : genres) {
+            List<Long> inGenre = expected.values().stream().filter(book -> book.getGenre().equals(genre))
+                    .map(Book::getId).sorted().collect(Collectors.toList());
+            assertEquals(inGenre, ids(catalog.byGenre(genre)));
+        }
+        assertTrue(catalog.byGenre("Inconnu").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should empty the catalog on clear")
+    void testClear() {
+        // Given
+        CompactCatalog catalog = new CompactCatalog();
+        List<Book> books = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            books.add(book(id, "Title " + id, "Roman", 1, id));
+        }
+        books.forEach(catalog::put);
+
+        // When
+        catalog.clear();
+
+        // Then
+        assertEquals(0, catalog.size());
+        assertTrue(catalog.available().isEmpty());
+        assertTrue(catalog.find(1).isEmpty());
+    }
+}
@@ -0,0 +1,200 @@
+package com.ensam.library.catalog;
+
+import com.ensam.library.model.Book;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Search Result Cache Tests")
+class SearchResultCacheTest {
+
+    private static final long TTL_MS = 60_000;
+    private static final long MAX_STALE_MS = 10_000;
+
+    private final AtomicLong clock = new AtomicLong(1_000);
+    // Rechargements en attente, exécutés par le test
+    private final List<Runnable> refreshes = new ArrayList<>();
+
+    private SearchResultCache cache(boolean enabled, int maxEntries) {
+        return new SearchResultCache(enabled, maxEntries, TTL_MS, MAX_STALE_MS, refreshes::add, clock::get);
+    }
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    // Chaque chargement renvoie un livre dont le titre porte son numéro
+    private Supplier<List<Book>> loader(String title) {
+        return () -> List.of(new Book((long) loads.incrementAndGet(), title + " #" + loads.get(), "Author", "Roman", true));
+    }
+
+    private String title(List<Book> books) {
+        return books.get(0).getTitle();
+    }
+
+    private void runRefreshes() {
+        List<Runnable> pending = new ArrayList<>(refreshes);
+        refreshes.clear();
+        pending.forEach(Runnable::run);
+    }
+
+    @Test
+    @DisplayName("Should serve repeated searches, whatever their case, from a single load")
+    void testHit() {
+        // Given
+        SearchResultCache cache = cache(true, 100);
+
+        // When
+        List<Book> first = cache.get("Clean", loader("Clean"));
+        List<Book> second = cache.get("clean", loader("Clean"));
+        List<Book> third = cache.get("CLEAN", loader("Clean"));
+
+        // Then
+        assertSame(first, second);
+        assertSame(first, third);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getMisses());
+        assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    @DisplayName("Should serve the previous result once invalidated, then the refreshed one")
+    void testStaleWhileRevalidate() {
+        // Given
+        SearchResultCache cache = cache(true, 100);
+        cache.get("Clean", loader("Clean"));
+
+        // When : modification validée, deux recherches avant la fin du rechargement
+        clock.addAndGet(1_000);
+        cache.invalidate();
+        clock.addAndGet(2_000);
+        List<Book> during = cache.get("Clean", loader("Clean"));
+        cache.get("Clean", loader("Clean"));
+        assertEquals(1, refreshes.size());
+        runRefreshes();
+        List<Book> after = cache.get("Clean", loader("Clean"));
+
+        // Then
+        assertEquals("Clean #1", title(during));
+        assertEquals("Clean #2", title(after));
+        assertEquals(1, cache.getGeneration());
+        assertEquals(2, cache.getStaleHits());
+        assertEquals(1, cache.getRefreshes());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    @DisplayName("Should load again when the result has been stale for longer than the limit")
+    void testTooStale() {
+        // Given
+        SearchResultCache cache = cache(true, 100);
+        cache.get("Clean", loader("Clean"));
+        cache.invalidate();
+
+        // When
+        clock.addAndGet(MAX_STALE_MS + 1);
+        List<Book> result = cache.get("Clean", loader("Clean"));
+
+        // Then
+        assertEquals("Clean #2", title(result));
+        assertTrue(refreshes.isEmpty());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    @DisplayName("Should refresh a result of the current generation older than its lifetime")
+    void testTimeToLive() {
+        // Given
+        SearchResultCache cache = cache(true, 100);
+        cache.get("Clean", loader("Clean"));
+
+        // When
+        clock.addAndGet(TTL_MS + 1);
+        List<Book> expired = cache.get("Clean", loader("Clean"));
+        runRefreshes();
+
+        // Then
+        assertEquals("Clean #1", title(expired));
+        assertEquals("Clean #2", title(cache.get("Clean", loader("Clean"))));
+        assertEquals(0, cache.getGeneration());
+    }
+
+    @Test
+    @DisplayName("Should keep a result loaded during a modification in the previous generation")
+    void testLoadDuringModification() {
+        // Given
+        SearchResultCache cache = cache(true, 100);
+
+        // When : la modification est validée pendant la lecture
+        cache.get("Clean", () -> {
+            List<Book> books = loader("Clean").get();
+            cache.invalidate();
+            return books;
+        });
+        List<Book> next = cache.get("Clean", loader("Clean"));
+
+        // Then : servi périmé et rechargé
+        assertEquals("Clean #1", title(next));
+        assertEquals(1, cache.getStaleHits());
+        assertEquals(1, refreshes.size());
+    }
+
+    @Test
+    @DisplayName("Should keep serving the stale result when the refresh fails")
+    void testRefreshFailure() {
+        // Given
+        SearchResultCache cache = cache(true, 100);
+        cache.get("Clean", loader("Clean"));
+        cache.invalidate();
+
+        // When
+        cache.get("Clean", () -> {
+            throw new IllegalStateException("Base indisponible");
+        });
+        runRefreshes();
+        List<Book> result = cache.get("Clean", loader("Clean"));
+
+        // Then
+        assertEquals("Clean #1", title(result));
+        assertEquals(1, cache.getRefreshFailures());
+        assertEquals(1, refreshes.size());
+    }
+
+    @Test
+    @DisplayName("Should stay within its maximum number of entries")
+    void testEviction() {
+        // Given
+        SearchResultCache cache = cache(true, 10);
+
+        // When
+        for (int i = 0; i < 25; i++) {
+            clock.incrementAndGet();
+            cache.get("Title " + i, loader("Title " + i));
+        }
+
+        // Then : les dernières recherches restent en cache
+        assertTrue(cache.size() <= 10);
+        cache.get("Title 24", loader("Title 24"));
+        assertEquals(25, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should load every search when disabled")
+    void testDisabled() {
+        // Given
+        SearchResultCache cache = cache(false, 100);
+
+        // When
+        cache.get("Clean", loader("Clean"));
+        cache.get("Clean", loader("Clean"));
+
+        // Then
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,143 @@
+package com.ensam.library.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Single Flight Tests")
+class SingleFlightTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(16);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    // Attend que tous les appels soient entrés (meneur bloqué, les autres en attente de son résultat)
+    private void awaitCalls(SingleFlight<?, ?> flight, long calls) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (flight.getCalls() < calls) {
+            assertTrue(System.nanoTime() < deadline, "Appels entrés: " + flight.getCalls());
+            Thread.sleep(1);
+        }
+        // Les suiveurs incrémentent le compteur juste avant de rejoindre le meneur
+        Thread.sleep(20);
+    }
+
+    @Test
+    @DisplayName("Should run one load for concurrent identical calls and share its result")
+    void testCoalescesIdenticalCalls() throws Exception {
+        // Given
+        SingleFlight<Long, String> flight = new SingleFlight<>("test");
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            results.add(executor.submit(() -> flight.execute(7L, () -> {
+                loads.incrementAndGet();
+                awaitQuietly(release);
+                return "livre 7";
+            })));
+        }
+        awaitCalls(flight, 16);
+        release.countDown();
+
+        // Then
+        for (Future<String> result : results) {
+            assertEquals("livre 7", result.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(16, flight.getCalls());
+        assertEquals(1, flight.getExecutions());
+    }
+
+    @Test
+    @DisplayName("Should not coalesce different keys nor calls made after the load completed")
+    void testDistinctKeysAndSequentialCalls() {
+        // Given
+        SingleFlight<String, Integer> flight = new SingleFlight<>("test");
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        flight.execute("prince", loads::incrementAndGet);
+        flight.execute("pearls", loads::incrementAndGet);
+        int third = flight.execute("prince", loads::incrementAndGet);
+
+        // Then
+        assertEquals(3, third);
+        assertEquals(3, flight.getExecutions());
+    }
+
+    @Test
+    @DisplayName("Should rethrow the load failure to every waiter, then load again")
+    void testPropagatesFailure() throws Exception {
+        // Given
+        SingleFlight<Long, String> flight = new SingleFlight<>("test");
+        CountDownLatch release = new CountDownLatch(1);
+
+        // When
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(executor.submit(() -> flight.execute(1L, () -> {
+                awaitQuietly(release);
+                throw new IllegalStateException("Base indisponible");
+            })));
+        }
+        awaitCalls(flight, 4);
+        release.countDown();
+
+        // Then
+        for (Future<String> result : results) {
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, failure.getCause());
+        }
+        assertEquals(1, flight.getExecutions());
+        assertEquals("rétabli", flight.execute(1L, () -> "rétabli"));
+    }
+
+    @Test
+    @DisplayName("Should start a new load for calls made after forgetAll")
+    void testForgetAll() throws Exception {
+        // Given : un chargement en cours
+        SingleFlight<Long, String> flight = new SingleFlight<>("test");
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> before = executor.submit(() -> flight.execute(1L, () -> {
+            awaitQuietly(release);
+            return "avant";
+        }));
+        awaitCalls(flight, 1);
+
+        // When
+        flight.forgetAll();
+        String after = flight.execute(1L, () -> "après");
+        release.countDown();
+
+        // Then
+        assertEquals("après", after);
+        assertEquals("avant", before.get(10, TimeUnit.SECONDS));
+        assertEquals(2, flight.getExecutions());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
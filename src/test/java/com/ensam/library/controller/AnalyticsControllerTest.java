@@ -0,0 +1,101 @@
+package com.ensam.library.controller;
+
+import com.ensam.library.dto.AuthorLoanDurationDTO;
+import com.ensam.library.dto.MonthlyGenreLoansDTO;
+import com.ensam.library.dto.ReturnLatencyBucketDTO;
+import com.ensam.library.service.LoanAnalyticsService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AnalyticsController.class)
+@DisplayName("Analytics Controller Tests")
+class AnalyticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private LoanAnalyticsService loanAnalyticsService;
+
+    @Test
+    @DisplayName("GET /api/analytics/loans-by-month-genre - Should return monthly counts")
+    void testLoansByMonthAndGenre() throws Exception {
+        when(loanAnalyticsService.getLoansByMonthAndGenre(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31)))
+                .thenReturn(List.of(new MonthlyGenreLoansDTO("2024-01", "Fiction", 4)));
+
+        mockMvc.perform(get("/api/analytics/loans-by-month-genre")
+                        .param("from", "2024-01-01").param("to", "2024-03-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].month").value("2024-01"))
+                .andExpect(jsonPath("$[0].loans").value(4));
+    }
+
+    @Test
+    @DisplayName("GET /api/analytics/loans-by-month-genre - Should reject an inverted range")
+    void testInvertedRange() throws Exception {
+        mockMvc.perform(get("/api/analytics/loans-by-month-genre")
+                        .param("from", "2024-03-01").param("to", "2024-01-01"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(loanAnalyticsService);
+    }
+
+    @Test
+    @DisplayName("GET /api/analytics/loans-by-month-genre - Should reject a span longer than the cap")
+    void testRangeTooWide() throws Exception {
+        mockMvc.perform(get("/api/analytics/loans-by-month-genre")
+                        .param("from", "0001-01-01").param("to", "2024-01-01"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/analytics/loans-by-month-genre")
+                        .param("from", "2014-01-01").param("to", "2024-01-31"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(loanAnalyticsService);
+    }
+
+    @Test
+    @DisplayName("GET /api/analytics/loans-by-month-genre - Should accept a span of exactly the cap")
+    void testRangeAtCap() throws Exception {
+        when(loanAnalyticsService.getLoansByMonthAndGenre(LocalDate.of(2014, 2, 1), LocalDate.of(2024, 1, 31)))
+                .thenReturn(List.of());
+
+        mockMvc.perform(get("/api/analytics/loans-by-month-genre")
+                        .param("from", "2014-02-01").param("to", "2024-01-31"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("GET /api/analytics/loan-duration-by-author - Should return averages")
+    void testLoanDurationByAuthor() throws Exception {
+        when(loanAnalyticsService.getLoanDurationByAuthor())
+                .thenReturn(List.of(new AuthorLoanDurationDTO("Author A", 3, 12.5)));
+
+        mockMvc.perform(get("/api/analytics/loan-duration-by-author"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].averageDays").value(12.5));
+    }
+
+    @Test
+    @DisplayName("GET /api/analytics/return-latency - Should return the histogram")
+    void testReturnLatency() throws Exception {
+        when(loanAnalyticsService.getReturnLatency(14, 4))
+                .thenReturn(List.of(new ReturnLatencyBucketDTO(0, 13, 2)));
+
+        mockMvc.perform(get("/api/analytics/return-latency").param("bucketDays", "14").param("buckets", "4"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].toDays").value(13));
+    }
+}
@@ -0,0 +1,62 @@
+package com.ensam.library.controller;
+
+import com.ensam.library.batch.StepResult;
+import com.ensam.library.service.OverdueBatchJob;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(BatchController.class)
+@DisplayName("Batch Controller Tests")
+class BatchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private OverdueBatchJob overdueBatchJob;
+
+    private final StepResult result = new StepResult("overdue-notices", "2024-03-01", StepResult.Status.COMPLETED,
+            4, 0, 0, 120, 37, 8, 15, 8000.0);
+
+    @Test
+    @DisplayName("POST /api/batch/overdue - Should run the job for the given date")
+    void testRun() throws Exception {
+        when(overdueBatchJob.run(LocalDate.of(2024, 3, 1))).thenReturn(Optional.of(result));
+
+        mockMvc.perform(post("/api/batch/overdue").param("date", "2024-03-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.itemsWritten").value(37))
+                .andExpect(jsonPath("$.itemsPerSecond").value(8000.0));
+    }
+
+    @Test
+    @DisplayName("POST /api/batch/overdue - Should return 409 while a run is in progress")
+    void testConflict() throws Exception {
+        when(overdueBatchJob.run(any())).thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/api/batch/overdue"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("GET /api/batch/overdue - Should return 404 before the first run")
+    void testNoRun() throws Exception {
+        when(overdueBatchJob.getLastResult()).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/batch/overdue"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,48 @@
+package com.ensam.library.controller;
+
+import com.ensam.library.service.AvailabilityStreamService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(BookStreamController.class)
+@DisplayName("Book Stream Controller Tests")
+class BookStreamControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AvailabilityStreamService availabilityStreamService;
+
+    @Test
+    @DisplayName("GET /api/books/stream - Should open an event stream")
+    void testStream() throws Exception {
+        when(availabilityStreamService.subscribe(isNull())).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/books/stream"))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    @DisplayName("GET /api/books/stream - Should resume from Last-Event-ID")
+    void testStream_Resume() throws Exception {
+        when(availabilityStreamService.subscribe(17L)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/books/stream").header("Last-Event-ID", "17"))
+                .andExpect(request().asyncStarted());
+
+        verify(availabilityStreamService).subscribe(17L);
+    }
+}
@@ -0,0 +1,58 @@
+package com.ensam.library.controller;
+
+import com.ensam.library.dto.CacheRegionStatsDTO;
+import com.ensam.library.dto.SearchCacheStatsDTO;
+import com.ensam.library.service.CacheStatisticsService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Arrays;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.hamcrest.Matchers.*;
+
+@WebMvcTest(CacheStatisticsController.class)
+@DisplayName("Cache Statistics Controller Tests")
+class CacheStatisticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CacheStatisticsService cacheStatisticsService;
+
+    @Test
+    @DisplayName("GET /api/cache/stats - Should return region statistics")
+    void testGetRegionStatistics() throws Exception {
+        when(cacheStatisticsService.getRegionStatistics()).thenReturn(Arrays.asList(
+                new CacheRegionStatsDTO("book", 10, 2, 3, 3L),
+                new CacheRegionStatsDTO("query.availableBooks", 5, 1, 1, null)));
+
+        mockMvc.perform(get("/api/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].region").value("book"))
+                .andExpect(jsonPath("$[0].hitCount").value(10))
+                .andExpect(jsonPath("$[1].elementCountInMemory").isEmpty());
+    }
+
+    @Test
+    @DisplayName("GET /api/cache/search/stats - Should return search result cache statistics")
+    void testGetSearchCacheStatistics() throws Exception {
+        when(cacheStatisticsService.getSearchCacheStatistics())
+                .thenReturn(new SearchCacheStatsDTO(true, 4, 120, 900, 35, 150, 30, 1));
+
+        mockMvc.perform(get("/api/cache/search/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.generation").value(4))
+                .andExpect(jsonPath("$.entries").value(120))
+                .andExpect(jsonPath("$.staleHits").value(35))
+                .andExpect(jsonPath("$.refreshFailures").value(1));
+    }
+}
@@ -0,0 +1,48 @@
+package com.ensam.library.controller;
+
+import com.ensam.library.dto.CoalescingStatsDTO;
+import com.ensam.library.service.BookService;
+import com.ensam.library.service.MemberService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(CoalescingController.class)
+@DisplayName("Coalescing Controller Tests")
+class CoalescingControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BookService bookService;
+
+    @MockBean
+    private MemberService memberService;
+
+    @Test
+    @DisplayName("GET /api/coalescing/stats - Should list book then member read statistics")
+    void testStatistics() throws Exception {
+        when(bookService.getCoalescingStatistics())
+                .thenReturn(List.of(new CoalescingStatsDTO("book-by-id", 100, 40, 60, 0.6)));
+        when(memberService.getCoalescingStatistics())
+                .thenReturn(List.of(new CoalescingStatsDTO("member-by-id", 10, 10, 0, 0.0)));
+
+        mockMvc.perform(get("/api/coalescing/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("book-by-id"))
+                .andExpect(jsonPath("$[0].coalesced").value(60))
+                .andExpect(jsonPath("$[0].coalescingRatio").value(0.6))
+                .andExpect(jsonPath("$[1].name").value("member-by-id"));
+    }
+}
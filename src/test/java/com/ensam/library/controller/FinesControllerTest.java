@@ -0,0 +1,68 @@
+package com.ensam.library.controller;
+
+import com.ensam.library.dto.FineBalanceDTO;
+import com.ensam.library.dto.FineBalancesDTO;
+import com.ensam.library.dto.MemberFinesDTO;
+import com.ensam.library.service.FinesService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(FinesController.class)
+@DisplayName("Fines Controller Tests")
+class FinesControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private FinesService finesService;
+
+    private final LocalDate today = LocalDate.of(2024, 6, 1);
+
+    @Test
+    @DisplayName("GET /api/fines/balances - Should return member balances")
+    void testBalances() throws Exception {
+        when(finesService.getBalances(5)).thenReturn(new FineBalancesDTO(today, 1000, 2_000_000, 1, 150,
+                List.of(new FineBalanceDTO(10L, 2, 150))));
+
+        mockMvc.perform(get("/api/fines/balances").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.loansPerSecond").value(2_000_000))
+                .andExpect(jsonPath("$.balances", hasSize(1)))
+                .andExpect(jsonPath("$.balances[0].balanceCents").value(150));
+    }
+
+    @Test
+    @DisplayName("GET /api/members/{id}/fines - Should return the member's fines")
+    void testMemberFines() throws Exception {
+        when(finesService.getMemberFines(10L)).thenReturn(Optional.of(new MemberFinesDTO(10L, today, 70,
+                List.of(new MemberFinesDTO.LoanFine(1L, 2L, "Late Book", today.minusDays(10), null, 10, 70)))));
+
+        mockMvc.perform(get("/api/members/10/fines"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balanceCents").value(70))
+                .andExpect(jsonPath("$.loans[0].bookTitle").value("Late Book"));
+    }
+
+    @Test
+    @DisplayName("GET /api/members/{id}/fines - Should return 404 for an unknown member")
+    void testUnknownMember() throws Exception {
+        when(finesService.getMemberFines(99L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/members/99/fines"))
+                .andExpect(status().isNotFound());
+    }
+}
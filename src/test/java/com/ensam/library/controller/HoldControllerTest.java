@@ -0,0 +1,92 @@
+package com.ensam.library.controller;
+
+import com.ensam.library.dto.HoldDTO;
+import com.ensam.library.model.Book;
+import com.ensam.library.model.Hold;
+import com.ensam.library.model.Member;
+import com.ensam.library.service.HoldService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.hamcrest.Matchers.*;
+
+@WebMvcTest(HoldController.class)
+@DisplayName("Hold Controller Tests")
+class HoldControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private HoldService holdService;
+
+    private Hold testHold;
+
+    @BeforeEach
+    void setUp() {
+        Book book = new Book(1L, "Test Book", "Test Author", "Fiction", false);
+        Member member = new Member(1L, "John Doe", "123 Main St", "john@test.com", "+1234567890");
+        testHold = new Hold(1L, book, member, LocalDateTime.now(), Hold.Status.WAITING, null);
+    }
+
+    @Test
+    @DisplayName("POST /api/holds - Should place hold")
+    void testPlaceHold() throws Exception {
+        when(holdService.placeHold(any(HoldDTO.class))).thenReturn(testHold);
+
+        mockMvc.perform(post("/api/holds")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new HoldDTO(null, 1L, 1L))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("WAITING"))
+                .andExpect(jsonPath("$.book.title").value("Test Book"));
+    }
+
+    @Test
+    @DisplayName("POST /api/holds - Should return 400 when memberId is null")
+    void testPlaceHold_NullMemberId() throws Exception {
+        mockMvc.perform(post("/api/holds")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new HoldDTO(null, 1L, null))))
+                .andExpect(status().isBadRequest());
+
+        verify(holdService, never()).placeHold(any(HoldDTO.class));
+    }
+
+    @Test
+    @DisplayName("GET /api/holds/book/{bookId} - Should return waiting queue")
+    void testGetBookHolds() throws Exception {
+        when(holdService.getBookHolds(1L)).thenReturn(Arrays.asList(testHold));
+
+        mockMvc.perform(get("/api/holds/book/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].member.name").value("John Doe"));
+    }
+
+    @Test
+    @DisplayName("DELETE /api/holds/{id} - Should return 404 when hold is not waiting")
+    void testCancelHold_NotFound() throws Exception {
+        when(holdService.cancelHold(99L)).thenReturn(false);
+
+        mockMvc.perform(delete("/api/holds/99"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -144,4 +144,32 @@ class LoanControllerTest {
 
         verify(loanService, times(1)).getActiveLoans();
     }
+
+    @Test
+    @DisplayName("GET /api/loans/member/{id} - Should include archived loans when history is requested")
+    void testGetMemberLoans_History() throws Exception {
+        // Given
+        when(loanService.getMemberLoans(1L, true)).thenReturn(Arrays.asList(testLoan, testLoan));
+
+        // When & Then
+        mockMvc.perform(get("/api/loans/member/1").param("history", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+
+        verify(loanService, times(1)).getMemberLoans(1L, true);
+    }
+
+    @Test
+    @DisplayName("GET /api/loans/book/{id} - Should return hot loans only by default")
+    void testGetBookLoans() throws Exception {
+        // Given
+        when(loanService.getBookLoans(1L, false)).thenReturn(Arrays.asList(testLoan));
+
+        // When & Then
+        mockMvc.perform(get("/api/loans/book/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        verify(loanService, times(1)).getBookLoans(1L, false);
+    }
 }
@@ -0,0 +1,76 @@
+package com.ensam.library.controller;
+
+import com.ensam.library.dto.LoanIntervalDTO;
+import com.ensam.library.dto.OutstandingLoansDTO;
+import com.ensam.library.service.LoanTimelineService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(LoanTimelineController.class)
+@DisplayName("Loan Timeline Controller Tests")
+class LoanTimelineControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private LoanTimelineService loanTimelineService;
+
+    private final LocalDate day = LocalDate.of(2024, 3, 1);
+
+    @Test
+    @DisplayName("GET /api/books/{id}/holders - Should return the loans open on that date")
+    void testHolders() throws Exception {
+        when(loanTimelineService.getHolders(5L, day))
+                .thenReturn(List.of(new LoanIntervalDTO(1L, 5L, 10L, day.minusDays(2), null)));
+
+        mockMvc.perform(get("/api/books/5/holders").param("date", "2024-03-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].memberId").value(10))
+                .andExpect(jsonPath("$[0].loanDate").value("2024-02-28"));
+    }
+
+    @Test
+    @DisplayName("GET /api/loans/outstanding - Should return the count for that date")
+    void testOutstanding() throws Exception {
+        when(loanTimelineService.getOutstanding(day)).thenReturn(new OutstandingLoansDTO(day, 42));
+
+        mockMvc.perform(get("/api/loans/outstanding").param("date", "2024-03-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.loans").value(42));
+    }
+
+    @Test
+    @DisplayName("GET /api/loans/overlapping - Should reject an inverted range")
+    void testInvertedRange() throws Exception {
+        mockMvc.perform(get("/api/loans/overlapping").param("from", "2024-03-10").param("to", "2024-03-01"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(loanTimelineService);
+    }
+
+    @Test
+    @DisplayName("GET /api/loans/overlapping - Should filter by book when requested")
+    void testOverlapping() throws Exception {
+        when(loanTimelineService.getOverlapping(5L, day, day.plusDays(9)))
+                .thenReturn(List.of(new LoanIntervalDTO(1L, 5L, 10L, day, day.plusDays(3))));
+
+        mockMvc.perform(get("/api/loans/overlapping")
+                        .param("from", "2024-03-01").param("to", "2024-03-10").param("bookId", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].returnDate").value("2024-03-04"));
+    }
+}
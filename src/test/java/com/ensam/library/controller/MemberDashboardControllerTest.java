@@ -0,0 +1,57 @@
+package com.ensam.library.controller;
+
+import com.ensam.library.dto.MemberDashboardDTO;
+import com.ensam.library.service.MemberDashboardService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.hamcrest.Matchers.*;
+
+@WebMvcTest(MemberDashboardController.class)
+@DisplayName("Member Dashboard Controller Tests")
+class MemberDashboardControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private MemberDashboardService memberDashboardService;
+
+    @Test
+    @DisplayName("GET /api/members/{id}/dashboard - Should return dashboard")
+    void testGetMemberDashboard() throws Exception {
+        MemberDashboardDTO.CurrentLoan loan = new MemberDashboardDTO.CurrentLoan(
+                10L, 1L, "Test Book", LocalDate.of(2024, 1, 1), true);
+        when(memberDashboardService.getMemberDashboard(1L)).thenReturn(Optional.of(new MemberDashboardDTO(
+                1L, "John Doe", "john.doe@email.com", Collections.singletonList(loan), 1, 1, 4L,
+                LocalDate.of(2024, 1, 1))));
+
+        mockMvc.perform(get("/api/members/1/dashboard"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("John Doe"))
+                .andExpect(jsonPath("$.currentLoans", hasSize(1)))
+                .andExpect(jsonPath("$.currentLoans[0].overdue").value(true))
+                .andExpect(jsonPath("$.overdueCount").value(1))
+                .andExpect(jsonPath("$.totalLoans").value(4));
+    }
+
+    @Test
+    @DisplayName("GET /api/members/{id}/dashboard - Should return 404 for unknown member")
+    void testGetMemberDashboard_NotFound() throws Exception {
+        when(memberDashboardService.getMemberDashboard(999L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/members/999/dashboard"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,42 @@
+package com.ensam.library.controller;
+
+import com.ensam.library.dto.OutboxStatsDTO;
+import com.ensam.library.service.OutboxService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(OutboxController.class)
+@DisplayName("Outbox Controller Tests")
+class OutboxControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private OutboxService outboxService;
+
+    @Test
+    @DisplayName("GET /api/outbox/stats - Should return the backlog and delivery lag")
+    void testStatistics() throws Exception {
+        when(outboxService.getStatistics())
+                .thenReturn(new OutboxStatsDTO(true, List.of("listener", "file"), 12, 840, 95, 1500, 1, 0));
+
+        mockMvc.perform(get("/api/outbox/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sinks[1]").value("file"))
+                .andExpect(jsonPath("$.pending").value(12))
+                .andExpect(jsonPath("$.oldestPendingAgeMs").value(840))
+                .andExpect(jsonPath("$.lastDeliveryLagMs").value(95))
+                .andExpect(jsonPath("$.failedBatches").value(1));
+    }
+}
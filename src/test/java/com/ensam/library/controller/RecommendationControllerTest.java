@@ -0,0 +1,60 @@
+package com.ensam.library.controller;
+
+import com.ensam.library.dto.RelatedBookDTO;
+import com.ensam.library.service.RecommendationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(RecommendationController.class)
+@DisplayName("Recommendation Controller Tests")
+class RecommendationControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private RecommendationService recommendationService;
+
+    @Test
+    @DisplayName("GET /api/books/{id}/related - Should return co-borrowed books")
+    void testRelatedBooks() throws Exception {
+        when(recommendationService.getRelatedBooks(1L, 3))
+                .thenReturn(Optional.of(List.of(new RelatedBookDTO(2L, "Book 2", "Author 2", 7))));
+
+        mockMvc.perform(get("/api/books/1/related").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].bookId").value(2))
+                .andExpect(jsonPath("$[0].coBorrowers").value(7));
+    }
+
+    @Test
+    @DisplayName("GET /api/books/{id}/related - Should return 404 for an unknown book")
+    void testUnknownBook() throws Exception {
+        when(recommendationService.getRelatedBooks(99L, 10)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/books/99/related"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("GET /api/books/{id}/related - Should reject a non-positive limit")
+    void testInvalidLimit() throws Exception {
+        mockMvc.perform(get("/api/books/1/related").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(recommendationService);
+    }
+}
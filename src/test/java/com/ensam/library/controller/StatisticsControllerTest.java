@@ -0,0 +1,44 @@
+package com.ensam.library.controller;
+
+import com.ensam.library.dto.CirculationStatsDTO;
+import com.ensam.library.service.CirculationStatisticsService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(StatisticsController.class)
+@DisplayName("Statistics Controller Tests")
+class StatisticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CirculationStatisticsService circulationStatisticsService;
+
+    @Test
+    @DisplayName("GET /api/stats - Should return circulation statistics")
+    void testGetStatistics() throws Exception {
+        when(circulationStatisticsService.getStatistics()).thenReturn(new CirculationStatsDTO(30, 5, 2,
+                Map.of("Fiction", 5L), Map.of(1L, 2L),
+                List.of(new CirculationStatsDTO.TopBook(3L, "Popular Book", 4))));
+
+        mockMvc.perform(get("/api/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.windowDays").value(30))
+                .andExpect(jsonPath("$.checkoutsByGenre.Fiction").value(5))
+                .andExpect(jsonPath("$.topBooks", hasSize(1)))
+                .andExpect(jsonPath("$.topBooks[0].title").value("Popular Book"));
+    }
+}
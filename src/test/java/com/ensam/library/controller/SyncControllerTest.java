@@ -0,0 +1,58 @@
+package com.ensam.library.controller;
+
+import com.ensam.library.dto.ChangeSetDTO;
+import com.ensam.library.model.Book;
+import com.ensam.library.model.Member;
+import com.ensam.library.service.SyncService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.hamcrest.Matchers.*;
+
+@WebMvcTest(SyncController.class)
+@DisplayName("Sync Controller Tests")
+class SyncControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SyncService syncService;
+
+    @Test
+    @DisplayName("GET /api/books/changes - Should return changes since watermark")
+    void testGetBookChanges() throws Exception {
+        Book book = new Book(1L, "Test Book", "Test Author", "Fiction", true);
+        when(syncService.getBookChanges(5L, 500)).thenReturn(
+                new ChangeSetDTO<>(Collections.singletonList(book), Collections.singletonList(2L), 9L, false));
+
+        mockMvc.perform(get("/api/books/changes").param("since", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].title").value("Test Book"))
+                .andExpect(jsonPath("$.deletedIds[0]").value(2))
+                .andExpect(jsonPath("$.nextSince").value(9));
+    }
+
+    @Test
+    @DisplayName("GET /api/members/changes - Should use default watermark and limit")
+    void testGetMemberChanges() throws Exception {
+        when(syncService.getMemberChanges(-1L, 500)).thenReturn(
+                new ChangeSetDTO<Member>(Collections.emptyList(), Collections.emptyList(), 0L, false));
+
+        mockMvc.perform(get("/api/members/changes"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+        verify(syncService).getMemberChanges(-1L, 500);
+    }
+}
@@ -0,0 +1,85 @@
+package com.ensam.library.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routingprimary;DB_CLOSE_DELAY=-1",
+        "library.datasource.replica.enabled=true",
+        "library.datasource.replica.url=jdbc:h2:mem:routingreplica;DB_CLOSE_DELAY=-1",
+        "library.datasource.replica.max-lag=2",
+        "library.datasource.replica.sync-interval-ms=3600000",
+        // Chaque recherche doit atteindre la base pour observer le routage
+        "library.search-cache.enabled=false"
+})
+@DisplayName("Replica Routing Tests")
+class ReplicaRoutingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private H2ReplicaSynchronizer synchronizer;
+
+    @BeforeEach
+    void setUp() {
+        synchronizer.synchronize();
+    }
+
+    private String createBook(String title) throws Exception {
+        String json = "{\"title\":\"" + title + "\",\"author\":\"Replica Author\",\"genre\":\"Replica\"}";
+        return mockMvc.perform(post("/api/books").contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isCreated())
+                .andExpect(header().exists(ReadYourWritesFilter.HEADER))
+                .andReturn().getResponse().getHeader(ReadYourWritesFilter.HEADER);
+    }
+
+    @Test
+    @DisplayName("Should read from the replica, except for the writer's own session")
+    void testReadYourWrites() throws Exception {
+        String position = createBook("Routed Book");
+
+        // Given - le réplica n'a pas encore reçu l'écriture : une autre session lit l'ancien état
+        mockMvc.perform(get("/api/books/search").param("title", "Routed Book"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        // When - la session de l'auteur renvoie son jeton : lecture sur le primaire
+        mockMvc.perform(get("/api/books/search").param("title", "Routed Book")
+                        .header(ReadYourWritesFilter.HEADER, position))
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        // Then - après synchronisation, le réplica sert tout le monde
+        synchronizer.synchronize();
+        mockMvc.perform(get("/api/books/search").param("title", "Routed Book"))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the primary when replica lag exceeds the limit")
+    void testMaxLagFallback() throws Exception {
+        createBook("Lagging Book 1");
+        createBook("Lagging Book 2");
+        mockMvc.perform(get("/api/books/search").param("title", "Lagging Book"))
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        createBook("Lagging Book 3");
+
+        mockMvc.perform(get("/api/books/search").param("title", "Lagging Book"))
+                .andExpect(jsonPath("$", hasSize(3)));
+    }
+}
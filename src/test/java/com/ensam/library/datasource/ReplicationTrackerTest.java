@@ -0,0 +1,61 @@
+package com.ensam.library.datasource;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Replication Tracker Tests")
+class ReplicationTrackerTest {
+
+    @Test
+    @DisplayName("Should not serve reads before the first synchronization")
+    void testReplicaNeverSynced() {
+        ReplicationTracker tracker = new ReplicationTracker(10);
+
+        assertFalse(tracker.replicaCanServe(0));
+
+        tracker.replicaSynced(0);
+        assertTrue(tracker.replicaCanServe(0));
+    }
+
+    @Test
+    @DisplayName("Should require the session position for read-your-writes")
+    void testReadYourWrites() {
+        ReplicationTracker tracker = new ReplicationTracker(10);
+        tracker.replicaSynced(0);
+
+        long position = tracker.recordWrite();
+
+        assertTrue(tracker.replicaCanServe(0));
+        assertFalse(tracker.replicaCanServe(position));
+
+        tracker.replicaSynced(position);
+        assertTrue(tracker.replicaCanServe(position));
+    }
+
+    @Test
+    @DisplayName("Should stop serving reads when lag exceeds the limit")
+    void testMaxLag() {
+        ReplicationTracker tracker = new ReplicationTracker(2);
+        tracker.replicaSynced(0);
+
+        tracker.recordWrite();
+        tracker.recordWrite();
+        assertTrue(tracker.replicaCanServe(0));
+
+        tracker.recordWrite();
+        assertFalse(tracker.replicaCanServe(0));
+    }
+
+    @Test
+    @DisplayName("Should never move the replica position backwards")
+    void testReplicaPositionMonotonic() {
+        ReplicationTracker tracker = new ReplicationTracker(10);
+
+        tracker.replicaSynced(5);
+        tracker.replicaSynced(3);
+
+        assertEquals(5, tracker.replicaPosition());
+    }
+}
@@ -0,0 +1,106 @@
+package com.ensam.library.fines;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Active Loan Columns Tests")
+class ActiveLoanColumnsTest {
+
+    private static final String[] GENRES = {"Fiction", "Reference", "Science"};
+
+    private final FinePolicy policy = FinePolicy.builder()
+            .loanPeriodDays(30)
+            .graceDays(3)
+            .tiers("1:10,8:25,29:50")
+            .capCents(2000)
+            .genreRates("Reference:200")
+            .build();
+
+    private final LocalDate asOf = LocalDate.of(2024, 6, 1);
+
+    @Test
+    @DisplayName("Should match per-loan evaluation across fork/join slices")
+    void testEvaluate() {
+        // Given : plusieurs tranches, des membres sans aucun retard
+        int rows = ActiveLoanColumns.LEAF_ROWS * 4 + 123;
+        ActiveLoanColumns.Builder builder = ActiveLoanColumns.builder(policy);
+        Map<Long, long[]> expected = new TreeMap<>();
+        for (int i = 0; i < rows; i++) {
+            long member = 1 + i / 7;
+            LocalDate loanDate = asOf.minusDays(i % 90);
+            String genre = GENRES[i % 3];
+            builder.add(member, loanDate, genre);
+            long fine = policy.fine(genre, loanDate, asOf);
+            if (fine > 0) {
+                long[] totals = expected.computeIfAbsent(member, id -> new long[2]);
+                totals[0] += fine;
+                totals[1]++;
+            }
+        }
+
+        // When
+        FineBalances balances = builder.build().evaluate(asOf);
+
+        // Then
+        assertEquals(rows, balances.loansEvaluated());
+        assertEquals(expected.size(), balances.members());
+        int index = 0;
+        long total = 0;
+        for (Map.Entry<Long, long[]> entry : expected.entrySet()) {
+            assertEquals(entry.getKey(), balances.memberId(index));
+            assertEquals(entry.getValue()[0], balances.balance(index));
+            assertEquals(entry.getValue()[1], balances.overdueLoans(index));
+            assertEquals(index, balances.indexOf(entry.getKey()));
+            total += entry.getValue()[0];
+            index++;
+        }
+        assertEquals(total, balances.total());
+        assertTrue(balances.loansPerSecond() > 0);
+    }
+
+    @Test
+    @DisplayName("Should report no balance when nothing is overdue")
+    void testNothingOverdue() {
+        FineBalances balances = ActiveLoanColumns.builder(policy)
+                .add(1, asOf.minusDays(5), "Fiction")
+                .add(2, asOf.minusDays(31), "Fiction")
+                .build()
+                .evaluate(asOf);
+
+        assertEquals(0, balances.members());
+        assertTrue(balances.indexOf(1) < 0);
+    }
+
+    @Test
+    @DisplayName("Should keep the fine of a late return, frozen at the return date")
+    void testReturnedLoans() {
+        // Given : rendu 10 jours après l'échéance il y a 20 jours, rendu à temps, en cours
+        LocalDate borrowed = asOf.minusDays(60);
+        FineBalances balances = ActiveLoanColumns.builder(policy)
+                .add(1, borrowed, borrowed.plusDays(40), "Fiction")
+                .add(1, borrowed, borrowed.plusDays(20), "Fiction")
+                .add(2, borrowed, "Fiction")
+                .build()
+                .evaluate(asOf);
+
+        // Then : le prêt rendu à temps n'est pas retenu
+        assertEquals(2, balances.loansEvaluated());
+        assertEquals(policy.fine("Fiction", borrowed, borrowed.plusDays(40)), balances.balance(balances.indexOf(1)));
+        assertEquals(1, balances.overdueLoans(balances.indexOf(1)));
+        assertEquals(policy.fine("Fiction", borrowed, asOf), balances.balance(balances.indexOf(2)));
+        assertTrue(balances.balance(balances.indexOf(1)) < balances.balance(balances.indexOf(2)));
+    }
+
+    @Test
+    @DisplayName("Should require loans grouped by member")
+    void testUnsortedMembers() {
+        ActiveLoanColumns.Builder builder = ActiveLoanColumns.builder(policy).add(5, asOf, "Fiction");
+        assertThrows(IllegalArgumentException.class, () -> builder.add(4, asOf, "Fiction"));
+    }
+}
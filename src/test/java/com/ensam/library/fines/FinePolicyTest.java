@@ -0,0 +1,73 @@
+package com.ensam.library.fines;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Fine Policy Tests")
+class FinePolicyTest {
+
+    private final FinePolicy policy = FinePolicy.builder()
+            .loanPeriodDays(30)
+            .graceDays(3)
+            .tiers("1:10,8:25,29:50")
+            .capCents(2000)
+            .genreRates("Reference:200,Children:50")
+            .genreCaps("Reference:5000")
+            .build();
+
+    // Calcul jour par jour, sans table
+    private long expected(int daysOverdue, int percent, long cap) {
+        long amount = 0;
+        for (int day = 1; day <= daysOverdue - 3; day++) {
+            long rate = day >= 29 ? 50 : day >= 8 ? 25 : 10;
+            amount = Math.min(amount + Math.round(rate * percent / 100.0), cap);
+        }
+        return amount;
+    }
+
+    @Test
+    @DisplayName("Should apply the grace period and graduated daily rates")
+    void testGraduatedRates() {
+        int general = policy.rule("Fiction");
+        assertEquals(FinePolicy.DEFAULT_RULE, general);
+        assertEquals(0, policy.fine(general, -5));
+        assertEquals(0, policy.fine(general, 3));
+        assertEquals(10, policy.fine(general, 4));
+        assertEquals(70, policy.fine(general, 10));
+        assertEquals(7 * 10 + 5 * 25, policy.fine(general, 15));
+        for (int days = 0; days < 200; days++) {
+            assertEquals(expected(days, 100, 2000), policy.fine(general, days), "Retard de " + days + " jour(s)");
+        }
+        assertEquals(2000, policy.fine(general, 100_000));
+    }
+
+    @Test
+    @DisplayName("Should apply genre-specific rates and caps")
+    void testGenreRules() {
+        for (int days = 0; days < 300; days++) {
+            assertEquals(expected(days, 200, 5000), policy.fine(policy.rule("Reference"), days));
+            assertEquals(expected(days, 50, 2000), policy.fine(policy.rule("Children"), days));
+        }
+    }
+
+    @Test
+    @DisplayName("Should count overdue days from the due date")
+    void testDates() {
+        LocalDate loanDate = LocalDate.of(2024, 1, 1);
+        assertEquals(0, policy.daysOverdue(loanDate, loanDate.plusDays(30)));
+        assertEquals(10, policy.daysOverdue(loanDate, loanDate.plusDays(40)));
+        assertEquals(70, policy.fine("Fiction", loanDate, loanDate.plusDays(40)));
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed schedule")
+    void testInvalidSchedule() {
+        assertThrows(IllegalArgumentException.class, () -> FinePolicy.builder().tiers("5:10").build());
+        assertThrows(IllegalArgumentException.class, () -> FinePolicy.builder().tiers("1:10,1:20"));
+        assertThrows(IllegalArgumentException.class, () -> FinePolicy.builder().tiers("1-10"));
+    }
+}
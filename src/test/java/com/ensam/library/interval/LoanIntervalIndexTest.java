@@ -0,0 +1,113 @@
+package com.ensam.library.interval;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Loan Interval Index Tests")
+class LoanIntervalIndexTest {
+
+    private final LocalDate start = LocalDate.of(2024, 1, 1);
+
+    private LoanInterval loan(long id, long bookId, int fromDay, Integer toDay) {
+        return LoanInterval.of(id, bookId, 100 + id, start.plusDays(fromDay), toDay != null ? start.plusDays(toDay) : null);
+    }
+
+    private List<Long> ids(List<LoanInterval> intervals) {
+        return intervals.stream().map(LoanInterval::getLoanId).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Should answer point-in-time queries with half-open periods")
+    void testHoldersAndOutstanding() {
+        // Given
+        LoanIntervalIndex index = new LoanIntervalIndex();
+        index.put(loan(1, 1, 0, 10));
+        index.put(loan(2, 1, 10, null));
+        index.put(loan(3, 2, 5, 5));
+        index.put(loan(4, 2, 3, 20));
+
+        // When / Then : rendu le jour 10, le prêt 1 n'est plus en cours ce jour-là
+        assertEquals(List.of(1L), ids(index.holders(1L, start.plusDays(9))));
+        assertEquals(List.of(2L), ids(index.holders(1L, start.plusDays(10))));
+        assertTrue(index.holders(3L, start).isEmpty());
+        assertEquals(0, index.outstanding(start.minusDays(1)));
+        assertEquals(2, index.outstanding(start.plusDays(5)));
+        assertEquals(2, index.outstanding(start.plusDays(10)));
+        assertEquals(1, index.outstanding(start.plusDays(400)));
+        assertEquals(List.of(4L, 2L), ids(index.overlapping(null, start.plusDays(10), start.plusDays(12))));
+    }
+
+    @Test
+    @DisplayName("Should replace the period of a returned loan without reopening it")
+    void testPutIsIdempotent() {
+        // Given
+        LoanIntervalIndex index = new LoanIntervalIndex();
+        index.put(loan(1, 1, 0, null));
+        index.put(loan(1, 1, 0, null));
+        assertEquals(1, index.outstanding(start.plusDays(30)));
+
+        // When
+        index.put(loan(1, 1, 0, 7));
+        index.put(loan(1, 1, 0, null));
+
+        // Then
+        assertEquals(1, index.size());
+        assertEquals(0, index.outstanding(start.plusDays(30)));
+        assertEquals(1, index.outstanding(start.plusDays(6)));
+        assertEquals(start.plusDays(7), index.holders(1L, start).get(0).returnDate());
+    }
+
+    @Test
+    @DisplayName("Should match a linear scan on random loans")
+    void testAgainstLinearScan() {
+        // Given
+        Random random = new Random(42);
+        LoanIntervalIndex index = new LoanIntervalIndex();
+        List<LoanInterval> loans = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            int from = random.nextInt(1000);
+            LoanInterval loan = loan(id, random.nextInt(20), from, random.nextInt(5) == 0 ? null : from + random.nextInt(60));
+            loans.add(loan);
+            index.put(loan);
+        }
+        // Retours de prêts ouverts, comme à la réception des événements
+        for (int i = 0; i < loans.size(); i++) {
+            LoanInterval loan = loans.get(i);
+            if (loan.getEndDay() == LoanInterval.OPEN && random.nextBoolean()) {
+                LoanInterval returned = new LoanInterval(loan.getLoanId(), loan.getBookId(), loan.getMemberId(),
+                        loan.getStartDay(), loan.getStartDay() + random.nextInt(90));
+                loans.set(i, returned);
+                index.put(returned);
+            }
+        }
+
+        // When / Then
+        for (int query = 0; query < 300; query++) {
+            int from = random.nextInt(1100) - 50;
+            int to = from + random.nextInt(30);
+            Long bookId = query % 3 == 0 ? null : (long) random.nextInt(20);
+            List<Long> expected = loans.stream()
+                    .filter(loan -> bookId == null || loan.getBookId().equals(bookId))
+                    .filter(loan -> loan.getStartDay() <= start.toEpochDay() + to
+                            && loan.getEndDay() > start.toEpochDay() + from)
+                    .sorted((a, b) -> a.getStartDay() != b.getStartDay()
+                            ? Integer.compare(a.getStartDay(), b.getStartDay())
+                            : Long.compare(a.getLoanId(), b.getLoanId()))
+                    .map(LoanInterval::getLoanId)
+                    .collect(Collectors.toList());
+            assertEquals(expected, ids(index.overlapping(bookId, start.plusDays(from), start.plusDays(to))));
+
+            long day = start.toEpochDay() + from;
+            long outstanding = loans.stream().filter(loan -> loan.getStartDay() <= day && loan.getEndDay() > day).count();
+            assertEquals(outstanding, index.outstanding(start.plusDays(from)));
+        }
+    }
+}
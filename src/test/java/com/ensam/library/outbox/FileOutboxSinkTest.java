@@ -0,0 +1,54 @@
+package com.ensam.library.outbox;
+
+import com.ensam.library.event.LoanEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("File Outbox Sink Tests")
+class FileOutboxSinkTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private OutboxEvent event(long id, LoanEvent.Type type, LocalDate returnDate) {
+        return new OutboxEvent(id, type, 10 + id, 3, 7, "Le Petit Prince", LocalDate.of(2024, 3, 1), returnDate,
+                LocalDateTime.of(2024, 3, 1, 9, 30));
+    }
+
+    @Test
+    @DisplayName("Should append one JSON line per event, batch after batch")
+    void testAppendsJsonLines(@TempDir Path directory) throws Exception {
+        // Given
+        Path file = directory.resolve("out").resolve("outbox.jsonl");
+        FileOutboxSink sink = new FileOutboxSink(file, objectMapper);
+
+        // When
+        sink.deliver(List.of(event(1, LoanEvent.Type.CHECKED_OUT, null), event(2, LoanEvent.Type.CHECKED_OUT, null)));
+        sink.deliver(List.of(event(3, LoanEvent.Type.RETURNED, LocalDate.of(2024, 3, 9))));
+
+        // Then
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(3, lines.size());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals(1, first.get("id").asLong());
+        assertEquals("CHECKED_OUT", first.get("type").asText());
+        assertEquals("2024-03-01", first.get("loanDate").asText());
+        assertTrue(first.get("returnDate").isNull());
+        JsonNode last = objectMapper.readTree(lines.get(2));
+        assertEquals("RETURNED", last.get("type").asText());
+        assertEquals(13, last.get("loanId").asLong());
+        assertEquals("2024-03-09", last.get("returnDate").asText());
+    }
+}
@@ -0,0 +1,130 @@
+package com.ensam.library.recommend;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Co-Borrowing Matrix Tests")
+class CoBorrowingMatrixTest {
+
+    private List<Long> ids(List<CoBorrowingMatrix.Neighbor> neighbors) {
+        return neighbors.stream().map(CoBorrowingMatrix.Neighbor::getBookId).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Should count each member once per pair of books")
+    void testRecord() {
+        // Given
+        CoBorrowingMatrix matrix = new CoBorrowingMatrix(10);
+        matrix.record(1, 100);
+        matrix.record(1, 200);
+        matrix.record(1, 300);
+        matrix.record(2, 100);
+        matrix.record(2, 200);
+
+        // When
+        boolean again = matrix.record(2, 100);
+
+        // Then
+        assertFalse(again);
+        assertEquals(5, matrix.borrowings());
+        assertEquals(List.of(200L, 300L), ids(matrix.neighbors(100, 10)));
+        assertEquals(2, matrix.neighbors(100, 10).get(0).getCount());
+        assertEquals(List.of(100L), ids(matrix.neighbors(200, 1)));
+        assertTrue(matrix.neighbors(999, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should match a self-join on loans when no row is pruned")
+    void testAgainstSelfJoin() {
+        // Given
+        Random random = new Random(7);
+        CoBorrowingMatrix matrix = new CoBorrowingMatrix(1000);
+        Map<Long, Set<Long>> booksByMember = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            long member = 1 + random.nextInt(300);
+            long book = 1 + random.nextInt(150);
+            matrix.record(member, book);
+            booksByMember.computeIfAbsent(member, id -> new HashSet<>()).add(book);
+        }
+
+        // When / Then
+        for (long book = 1; book <= 150; book++) {
+            Map<Long, Integer> expected = new HashMap<>();
+            for (Set<Long> books : booksByMember.values()) {
+                if (books.contains(book)) {
+                    for (Long other : books) {
+                        if (other != book) {
+                            expected.merge(other, 1, Integer::sum);
+                        }
+                    }
+                }
+            }
+            Map<Long, Integer> actual = matrix.neighbors(book, Integer.MAX_VALUE).stream()
+                    .collect(Collectors.toMap(CoBorrowingMatrix.Neighbor::getBookId, CoBorrowingMatrix.Neighbor::getCount));
+            assertEquals(expected, actual, "Voisins du livre " + book);
+        }
+    }
+
+    @Test
+    @DisplayName("Should prune rows to the most frequent neighbors")
+    void testPrune() {
+        // Given : le livre 1 est co-emprunté avec 2 par cinq membres, avec 3 par deux membres
+        CoBorrowingMatrix matrix = new CoBorrowingMatrix(2);
+        for (long member = 1; member <= 5; member++) {
+            matrix.record(member, 1);
+            matrix.record(member, 2);
+        }
+        for (long member = 1; member <= 2; member++) {
+            matrix.record(member, 3);
+        }
+
+        // When : trois voisins rares de plus dépassent deux fois la limite
+        matrix.record(6, 1);
+        for (long book = 10; book <= 12; book++) {
+            matrix.record(6, book);
+        }
+
+        // Then
+        List<CoBorrowingMatrix.Neighbor> neighbors = matrix.neighbors(1, 10);
+        assertEquals(2, neighbors.size());
+        assertEquals(List.of(2L, 3L), ids(neighbors));
+        assertEquals(5, neighbors.get(0).getCount());
+    }
+
+    @Test
+    @DisplayName("Should restore a snapshot and ignore replayed borrowings")
+    void testSnapshot() throws IOException {
+        // Given
+        CoBorrowingMatrix matrix = new CoBorrowingMatrix(10);
+        matrix.record(1, 100);
+        matrix.record(1, 200);
+        matrix.record(2, 200);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        matrix.write(new DataOutputStream(bytes));
+
+        // When
+        CoBorrowingMatrix restored = CoBorrowingMatrix.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        restored.record(1, 100);
+        restored.record(2, 100);
+
+        // Then
+        assertEquals(4, restored.borrowings());
+        assertEquals(2, restored.neighbors(100, 10).get(0).getCount());
+        assertEquals(1, restored.neighbors(200, 10).size());
+    }
+}
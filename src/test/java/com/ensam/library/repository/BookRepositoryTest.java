@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 
 import java.util.List;
 
@@ -73,4 +74,92 @@ class BookRepositoryTest {
 
         assertThat(books).hasSize(2);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCheckoutCopyDecrementsUntilNoCopyLeft() {
+        Book textbook = new Book();
+        textbook.setTitle("Algorithms");
+        textbook.setAuthor("Cormen");
+        textbook.setGenre("Programming");
+        textbook.setAvailable(true);
+        textbook.setTotalCopies(2);
+        textbook.setAvailableCopies(2);
+        entityManager.persistAndFlush(textbook);
+
+        assertThat(bookRepository.checkoutCopy(textbook.getId(), 1L)).isEqualTo(1);
+        assertThat(bookRepository.checkoutCopy(textbook.getId(), 1L)).isEqualTo(1);
+        assertThat(bookRepository.checkoutCopy(textbook.getId(), 1L)).isZero();
+
+        Book reloaded = bookRepository.findById(textbook.getId()).orElseThrow();
+        assertThat(reloaded.getAvailableCopies()).isZero();
+        assertThat(reloaded.getAvailable()).isFalse();
+    }
+
+    @Test
+    void testReturnCopyNeverExceedsTotal() {
+        assertThat(bookRepository.returnCopy(book1.getId(), 1L)).isZero();
+
+        assertThat(bookRepository.checkoutCopy(book1.getId(), 1L)).isEqualTo(1);
+        assertThat(bookRepository.returnCopy(book1.getId(), 1L)).isEqualTo(1);
+
+        Book reloaded = bookRepository.findById(book1.getId()).orElseThrow();
+        assertThat(reloaded.getAvailableCopies()).isEqualTo(1);
+        assertThat(reloaded.getAvailable()).isTrue();
+    }
+
+    @Test
+    void testFindByChangeSeqBetween() {
+        book1.setChangeSeq(5L);
+        book2.setChangeSeq(9L);
+        entityManager.flush();
+
+        List<Book> changed = bookRepository.findByChangeSeqBetweenOrderByChangeSeqAsc(6L, 20L, PageRequest.of(0, 10));
+
+        assertThat(changed).hasSize(1);
+        assertThat(changed.get(0).getTitle()).isEqualTo("Design Patterns");
+        assertThat(bookRepository.findMaxChangeSeq()).isEqualTo(9L);
+    }
+
+    @Test
+    void testSaveKeepsCopiesCommittedSinceRead() {
+        // Entité lue avant un emprunt, enregistrée après avec un nouveau titre
+        Book stale = bookRepository.findById(book1.getId()).orElseThrow();
+        entityManager.detach(stale);
+        assertThat(bookRepository.checkoutCopy(book1.getId(), 1L)).isEqualTo(1);
+
+        stale.setTitle("Clean Code, 2nd Edition");
+        bookRepository.saveAndFlush(stale);
+        entityManager.clear();
+
+        Book reloaded = bookRepository.findById(book1.getId()).orElseThrow();
+        assertThat(reloaded.getTitle()).isEqualTo("Clean Code, 2nd Edition");
+        assertThat(reloaded.getAvailableCopies()).isZero();
+        assertThat(reloaded.getAvailable()).isFalse();
+    }
+
+    @Test
+    void testUpdateTotalCopiesKeepsLoanedCopies() {
+        Book textbook = new Book();
+        textbook.setTitle("Algorithms");
+        textbook.setAuthor("Cormen");
+        textbook.setGenre("Programming");
+        textbook.setAvailable(true);
+        textbook.setTotalCopies(3);
+        textbook.setAvailableCopies(3);
+        entityManager.persistAndFlush(textbook);
+        bookRepository.checkoutCopy(textbook.getId(), 1L);
+        bookRepository.checkoutCopy(textbook.getId(), 1L);
+
+        assertThat(bookRepository.updateTotalCopies(textbook.getId(), 1, 2L)).isZero();
+        assertThat(bookRepository.updateTotalCopies(textbook.getId(), 2, 2L)).isEqualTo(1);
+        Book reloaded = bookRepository.findById(textbook.getId()).orElseThrow();
+        assertThat(reloaded.getTotalCopies()).isEqualTo(2);
+        assertThat(reloaded.getAvailableCopies()).isZero();
+        assertThat(reloaded.getAvailable()).isFalse();
+
+        assertThat(bookRepository.updateTotalCopies(textbook.getId(), 5, 3L)).isEqualTo(1);
+        reloaded = bookRepository.findById(textbook.getId()).orElseThrow();
+        assertThat(reloaded.getAvailableCopies()).isEqualTo(3);
+        assertThat(reloaded.getAvailable()).isTrue();
+    }
+}
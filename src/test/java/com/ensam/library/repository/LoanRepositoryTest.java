@@ -12,6 +12,8 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -88,10 +90,25 @@ class LoanRepositoryTest {
     }
 
     @Test
-    void testFindByBookIdAndReturnDateIsNull() {
-        Optional<Loan> activeLoan = loanRepository.findByBookIdAndReturnDateIsNull(book.getId());
+    void testExistsByBookIdAndMemberIdAndReturnDateIsNull() {
+        assertThat(loanRepository.existsByBookIdAndMemberIdAndReturnDateIsNull(book.getId(), member.getId())).isTrue();
+        assertThat(loanRepository.existsByBookIdAndMemberIdAndReturnDateIsNull(book.getId(), member.getId() + 1))
+                .isFalse();
+    }
 
-        assertThat(activeLoan).isPresent();
-        assertThat(activeLoan.get().getBook().getTitle()).isEqualTo("Test Book");
+    @Test
+    void testStreamLoanFacts() {
+        try (Stream<LoanFact> facts = loanRepository.streamLoanFacts()) {
+            List<LoanFact> all = facts.collect(Collectors.toList());
+
+            assertThat(all).hasSize(1);
+            assertThat(all.get(0).getLoanId()).isEqualTo(loan.getId());
+            assertThat(all.get(0).getBookId()).isEqualTo(book.getId());
+            assertThat(all.get(0).getMemberId()).isEqualTo(member.getId());
+            assertThat(all.get(0).getGenre()).isEqualTo("Fiction");
+            assertThat(all.get(0).getAuthor()).isEqualTo("Test Author");
+            assertThat(all.get(0).getLoanDate()).isEqualTo(LocalDate.now());
+            assertThat(all.get(0).getReturnDate()).isNull();
+        }
     }
 }
@@ -0,0 +1,183 @@
+package com.ensam.library.repository;
+
+import com.ensam.library.model.Hold;
+import com.ensam.library.model.Tombstone;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.sql.Date;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie, par {@code EXPLAIN}, que chaque requête des repositories est servie par un index
+ * (clé primaire ou index des migrations Flyway) et non par un parcours complet de table.
+ * Le SQL examiné est celui réellement généré par Hibernate, capturé au passage.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.ensam.library.repository.RepositoryQueryPlanTest$SqlRecorder")
+@DisplayName("Repository Query Plan Tests")
+class RepositoryQueryPlanTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private HoldRepository holdRepository;
+
+    @Autowired
+    private TombstoneRepository tombstoneRepository;
+
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        // Un résultat servi par le cache de requêtes n'atteindrait pas la base
+        entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getCache().evictQueryRegions();
+    }
+
+    @Test
+    @DisplayName("LoanRepository queries should use an index")
+    void testLoanRepositoryPlans() {
+        assertUsesIndex(() -> loanRepository.findByMemberId(1L));
+        assertUsesIndex(() -> loanRepository.findByBookId(1L));
+        assertUsesIndex(() -> loanRepository.findByReturnDateIsNull());
+        assertUsesIndex(() -> loanRepository.findByReturnDateIsNullAndLoanDateBefore(today));
+        assertUsesIndex(() -> loanRepository.existsByBookIdAndMemberIdAndReturnDateIsNull(1L, 1L));
+        assertUsesIndex(() -> loanRepository.findByLoanDateBetween(today.minusDays(7), today));
+        assertUsesIndex(() -> loanRepository.findMinActiveLoanId());
+        assertUsesIndex(() -> loanRepository.findMaxActiveLoanId());
+        assertUsesIndex(() -> loanRepository.findOverdueChunk(today, 0L, 100L, PageRequest.of(0, 10)));
+        assertUsesIndex(() -> loanRepository.findReturnedChunk(today, 0L, PageRequest.of(0, 10)));
+        // streamLoanFacts, streamLoanFactsByMember : tout l'historique de la table (analyse, amendes),
+        // parcours complet attendu
+    }
+
+    @Test
+    @DisplayName("BookRepository queries should use an index")
+    void testBookRepositoryPlans() {
+        assertUsesIndex(() -> bookRepository.findByAuthor("Plan Author"));
+        assertUsesIndex(() -> bookRepository.findByGenre("Plan Genre"));
+        assertUsesIndex(() -> bookRepository.findByAvailableTrue());
+        assertUsesIndex(() -> bookRepository.findByChangeSeqBetweenOrderByChangeSeqAsc(1L, 10L, PageRequest.of(0, 10)));
+        assertUsesIndex(() -> bookRepository.findMaxChangeSeq());
+        assertUsesIndex(() -> bookRepository.findAvailableCopiesById(1L));
+        assertUsesIndex(() -> bookRepository.checkoutCopy(1L, 1L));
+        assertUsesIndex(() -> bookRepository.returnCopy(1L, 1L));
+        // findByTitleContainingIgnoreCase : recherche « contient », aucun index B-tree ne peut la servir
+    }
+
+    @Test
+    @DisplayName("MemberRepository queries should use an index")
+    void testMemberRepositoryPlans() {
+        assertUsesIndex(() -> memberRepository.findByEmail("plan@test.com"));
+        assertUsesIndex(() -> memberRepository.findByPhoneNumber("+1234567890"));
+        assertUsesIndex(() -> memberRepository.findByChangeSeqBetweenOrderByChangeSeqAsc(1L, 10L, PageRequest.of(0, 10)));
+        assertUsesIndex(() -> memberRepository.findMaxChangeSeq());
+    }
+
+    @Test
+    @DisplayName("HoldRepository and TombstoneRepository queries should use an index")
+    void testHoldAndTombstoneRepositoryPlans() {
+        assertUsesIndex(() -> holdRepository.findByBookIdAndStatusOrderByIdAsc(1L, Hold.Status.WAITING));
+        assertUsesIndex(() -> holdRepository.findByMemberId(1L));
+        assertUsesIndex(() -> holdRepository.existsByBookIdAndMemberIdAndStatus(1L, 1L, Hold.Status.WAITING));
+        assertUsesIndex(() -> holdRepository.fulfill(1L, today));
+        assertUsesIndex(() -> holdRepository.cancel(1L));
+        assertUsesIndex(() -> tombstoneRepository.findByEntityTypeAndChangeSeqBetweenOrderByChangeSeqAsc(
+                Tombstone.EntityType.BOOK, 1L, 10L, PageRequest.of(0, 10)));
+        assertUsesIndex(() -> tombstoneRepository.findMaxChangeSeq());
+    }
+
+    private void assertUsesIndex(Runnable query) {
+        SqlRecorder.clear();
+        query.run();
+        List<String> statements = SqlRecorder.statements();
+        assertThat(statements).as("SQL capturé").isNotEmpty();
+
+        for (String sql : statements) {
+            String plan = explain(sql);
+            assertThat(plan).as("Plan de : %s", sql).doesNotContainIgnoringCase("tableScan");
+        }
+    }
+
+    private String explain(String sql) {
+        Session session = entityManager.getEntityManager().unwrap(Session.class);
+        return session.doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                ParameterMetaData parameters = statement.getParameterMetaData();
+                for (int i = 1; i <= parameters.getParameterCount(); i++) {
+                    statement.setObject(i, sampleValue(parameters.getParameterType(i)));
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+    }
+
+    // La valeur importe peu : H2 choisit l'index d'après la forme de la condition
+    private Object sampleValue(int sqlType) {
+        switch (sqlType) {
+            case Types.DATE:
+                return Date.valueOf(today);
+            case Types.TIMESTAMP:
+                return Timestamp.valueOf(LocalDateTime.now());
+            case Types.BOOLEAN:
+                return true;
+            case Types.VARCHAR:
+            case Types.CHAR:
+                return "x";
+            default:
+                return 1L;
+        }
+    }
+
+    public static class SqlRecorder implements StatementInspector {
+
+        private static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+        static void clear() {
+            STATEMENTS.clear();
+        }
+
+        static List<String> statements() {
+            return new ArrayList<>(STATEMENTS);
+        }
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
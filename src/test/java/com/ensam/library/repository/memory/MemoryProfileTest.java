@@ -0,0 +1,92 @@
+package com.ensam.library.repository.memory;
+
+import com.ensam.library.repository.BookRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("memory")
+@DisplayName("Memory Profile Tests")
+class MemoryProfileTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) throws IOException {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:memoryprofile;DB_CLOSE_DELAY=-1");
+        String directory = Files.createTempDirectory("library-memory").toString();
+        registry.add("library.memory.directory", () -> directory);
+    }
+
+    @Test
+    @DisplayName("Should serve the circulation workflow from the in-memory store")
+    void testCirculationWorkflow() throws Exception {
+        assertInstanceOf(MemoryBookRepository.class, bookRepository);
+
+        // Given
+        long bookId = create("/api/books",
+                "{\"title\":\"Memory Book\",\"author\":\"Memory Author\",\"genre\":\"Memory\",\"totalCopies\":1}");
+        long memberId = create("/api/members",
+                "{\"name\":\"Memory Member\",\"address\":\"123 Main Street\",\"email\":\"memory@test.com\","
+                        + "\"phoneNumber\":\"+1234567890\"}");
+
+        // When
+        long loanId = create("/api/loans", "{\"bookId\":" + bookId + ",\"memberId\":" + memberId + "}");
+
+        // Then
+        mockMvc.perform(get("/api/books/available"))
+                .andExpect(jsonPath("$[?(@.id == " + bookId + ")]", hasSize(0)));
+        mockMvc.perform(get("/api/loans/active"))
+                .andExpect(jsonPath("$", hasSize(1)));
+        mockMvc.perform(put("/api/books/" + bookId).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Memory Book II\",\"author\":\"Memory Author\",\"genre\":\"Memory\","
+                                + "\"totalCopies\":3}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Memory Book II"))
+                .andExpect(jsonPath("$.availableCopies").value(2));
+
+        mockMvc.perform(put("/api/loans/" + loanId + "/return"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/books/genre/Memory"))
+                .andExpect(jsonPath("$[0].available").value(true));
+        mockMvc.perform(get("/api/loans/active"))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    private long create(String path, String json) throws Exception {
+        String body = mockMvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().is2xxSuccessful())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode node = objectMapper.readTree(body);
+        return node.get("id").asLong();
+    }
+}
@@ -0,0 +1,266 @@
+package com.ensam.library.repository.memory;
+
+import com.ensam.library.model.Book;
+import com.ensam.library.model.Loan;
+import com.ensam.library.model.Member;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Memory Store Tests")
+class MemoryStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private MemoryStore store;
+    private MemoryBookRepository bookRepository;
+    private MemoryMemberRepository memberRepository;
+    private MemoryLoanRepository loanRepository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    @DisplayName("Should serve finders from secondary indexes")
+    void testSecondaryIndexes() {
+        // Given
+        Book first = bookRepository.save(book("Clean Code", "Robert Martin", "Programming", 1));
+        bookRepository.save(book("Clean Architecture", "Robert Martin", "Architecture", 2));
+
+        // When
+        bookRepository.checkoutCopy(first.getId(), 5L);
+
+        // Then
+        assertEquals(2, bookRepository.findByAuthor("Robert Martin").size());
+        assertEquals(1, bookRepository.findByGenre("Programming").size());
+        assertEquals(List.of("Clean Architecture"),
+                bookRepository.findByAvailableTrue().stream().map(Book::getTitle).collect(Collectors.toList()));
+        assertEquals(2, bookRepository.findByTitleContainingIgnoreCase("clean").size());
+        assertEquals(5L, bookRepository.findMaxChangeSeq());
+    }
+
+    @Test
+    @DisplayName("Should apply conditional copy updates")
+    void testCheckoutAndReturnCopy() {
+        // Given
+        Book book = bookRepository.save(book("Refactoring", "Martin Fowler", "Programming", 1));
+
+        // When & Then
+        assertEquals(0, bookRepository.returnCopy(book.getId(), 1L));
+        assertEquals(1, bookRepository.checkoutCopy(book.getId(), 2L));
+        assertEquals(0, bookRepository.checkoutCopy(book.getId(), 3L));
+        assertFalse(bookRepository.findById(book.getId()).orElseThrow().getAvailable());
+        assertEquals(1, bookRepository.returnCopy(book.getId(), 4L));
+        assertEquals(1, bookRepository.findAvailableCopiesById(book.getId()).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Should never expose stored rows")
+    void testDefensiveCopies() {
+        // Given
+        Book book = bookRepository.save(book("Domain-Driven Design", "Eric Evans", "Architecture", 1));
+
+        // When
+        bookRepository.findById(book.getId()).orElseThrow().setAuthor("Someone Else");
+        book.setGenre("Changed");
+
+        // Then
+        assertEquals(1, bookRepository.findByAuthor("Eric Evans").size());
+        assertEquals(1, bookRepository.findByGenre("Architecture").size());
+    }
+
+    @Test
+    @DisplayName("Should track active loans by book and member")
+    void testActiveLoanIndexes() {
+        // Given
+        Book book = bookRepository.save(book("The Pragmatic Programmer", "Andrew Hunt", "Programming", 2));
+        Member member = memberRepository.save(member("ann@test.com"));
+        Loan loan = loanRepository.save(loan(book, member, LocalDate.now().minusDays(40)));
+
+        // When & Then
+        assertTrue(loanRepository.existsByBookIdAndMemberIdAndReturnDateIsNull(book.getId(), member.getId()));
+        assertEquals(1, loanRepository.findByReturnDateIsNullAndLoanDateBefore(LocalDate.now().minusDays(30)).size());
+        assertEquals("The Pragmatic Programmer", loanRepository.findByMemberId(member.getId()).get(0).getBook().getTitle());
+
+        loan.setReturnDate(LocalDate.now());
+        loanRepository.save(loan);
+
+        assertFalse(loanRepository.existsByBookIdAndMemberIdAndReturnDateIsNull(book.getId(), member.getId()));
+        assertTrue(loanRepository.findByReturnDateIsNull().isEmpty());
+        assertEquals(1, loanRepository.findByBookId(book.getId()).size());
+    }
+
+    @Test
+    @DisplayName("Should answer queries by example, including on associations")
+    void testQueryByExample() {
+        // Given
+        Book first = bookRepository.save(book("Clean Code", "Robert Martin", "Programming", 1));
+        bookRepository.save(book("Clean Architecture", "Robert Martin", "Architecture", 2));
+        bookRepository.save(book("Refactoring", "Martin Fowler", "Programming", 1));
+        Member member = memberRepository.save(member("bob@test.com"));
+        loanRepository.save(loan(first, member, LocalDate.now()));
+        ExampleMatcher byTitle = ExampleMatcher.matching()
+                .withIgnorePaths("available", "totalCopies", "availableCopies", "changeSeq")
+                .withStringMatcher(ExampleMatcher.StringMatcher.STARTING)
+                .withIgnoreCase();
+        Book probe = new Book();
+        probe.setTitle("clean");
+
+        // When & Then
+        assertEquals(List.of("Clean Code", "Clean Architecture"), bookRepository.findAll(Example.of(probe, byTitle))
+                .stream().map(Book::getTitle).collect(Collectors.toList()));
+        assertEquals(List.of("Clean Architecture", "Clean Code"),
+                bookRepository.findAll(Example.of(probe, byTitle), Sort.by("title")).stream()
+                        .map(Book::getTitle).collect(Collectors.toList()));
+        assertEquals(2, bookRepository.count(Example.of(probe, byTitle)));
+        assertThrows(IncorrectResultSizeDataAccessException.class,
+                () -> bookRepository.findOne(Example.of(probe, byTitle)));
+
+        Book either = new Book();
+        either.setAuthor("Martin Fowler");
+        either.setGenre("Architecture");
+        assertEquals(3, bookRepository.findAll(Example.of(either, ExampleMatcher.matchingAny())).size());
+        assertEquals("Clean Architecture", bookRepository.findBy(Example.of(either, ExampleMatcher.matchingAll()
+                        .withIgnorePaths("author", "available", "totalCopies", "availableCopies", "changeSeq")),
+                query -> query.firstValue()).getTitle());
+
+        Loan loanProbe = new Loan();
+        loanProbe.setBook(new Book());
+        loanProbe.getBook().setTitle("Clean Code");
+        ExampleMatcher byBook = ExampleMatcher.matching()
+                .withIgnorePaths("book.available", "book.totalCopies", "book.availableCopies", "book.changeSeq");
+        assertTrue(loanRepository.exists(Example.of(loanProbe, byBook)));
+        loanProbe.getBook().setTitle("Refactoring");
+        assertFalse(loanRepository.exists(Example.of(loanProbe, byBook)));
+    }
+
+    @Test
+    @DisplayName("Should enforce unique emails and foreign keys")
+    void testConstraints() {
+        // Given
+        Book book = bookRepository.save(book("Patterns", "Gang of Four", "Programming", 1));
+        Member member = memberRepository.save(member("dup@test.com"));
+        loanRepository.save(loan(book, member, LocalDate.now()));
+
+        // When & Then
+        assertThrows(DataIntegrityViolationException.class, () -> memberRepository.save(member("dup@test.com")));
+        assertThrows(DataIntegrityViolationException.class, () -> bookRepository.deleteById(book.getId()));
+        Member unknown = member("ghost@test.com");
+        unknown.setId(999L);
+        assertThrows(DataIntegrityViolationException.class, () -> loanRepository.save(loan(book, unknown, LocalDate.now())));
+    }
+
+    @Test
+    @DisplayName("Should undo writes of a rolled back transaction")
+    void testRollback() {
+        // Given
+        Book book = bookRepository.save(book("Working Effectively", "Michael Feathers", "Programming", 1));
+
+        // When
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            bookRepository.checkoutCopy(book.getId(), 10L);
+            bookRepository.save(book("Uncommitted", "Nobody", "Programming", 1));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        assertEquals(1, bookRepository.findAvailableCopiesById(book.getId()).orElseThrow());
+        assertEquals(1, bookRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should rebuild tables and indexes from the write-ahead log")
+    void testReopen() throws IOException {
+        // Given
+        Book book = bookRepository.save(book("Effective Java", "Joshua Bloch", "Programming", 1));
+        Member member = memberRepository.save(member("bloch@test.com"));
+        loanRepository.save(loan(book, member, LocalDate.now()));
+        bookRepository.checkoutCopy(book.getId(), 3L);
+        Book removed = bookRepository.save(book("Removed", "Nobody", "Programming", 1));
+        bookRepository.deleteById(removed.getId());
+
+        // When
+        store.close();
+        open();
+
+        // Then
+        assertEquals(1, bookRepository.count());
+        assertEquals(0, bookRepository.findAvailableCopiesById(book.getId()).orElseThrow());
+        assertTrue(memberRepository.findByEmail("bloch@test.com").isPresent());
+        assertTrue(loanRepository.existsByBookIdAndMemberIdAndReturnDateIsNull(book.getId(), member.getId()));
+        assertEquals(removed.getId() + 1, bookRepository.save(book("Next", "Nobody", "Programming", 1)).getId());
+    }
+
+    @Test
+    @DisplayName("Should ignore a torn record at the end of the log")
+    void testTornTail() throws IOException {
+        // Given
+        bookRepository.save(book("Kept", "Author One", "Programming", 1));
+        store.close();
+        try (FileChannel channel = FileChannel.open(directory.resolve("store.wal"), StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 40, 1, 2, 3}));
+        }
+
+        // When
+        open();
+
+        // Then
+        assertEquals(1, bookRepository.count());
+        bookRepository.save(book("Added", "Author Two", "Programming", 1));
+        store.close();
+        open();
+        assertEquals(2, bookRepository.count());
+    }
+
+    private void open() throws IOException {
+        store = new MemoryStore(directory, true);
+        store.open();
+        bookRepository = new MemoryBookRepository(store);
+        memberRepository = new MemoryMemberRepository(store);
+        loanRepository = new MemoryLoanRepository(store);
+    }
+
+    private static Book book(String title, String author, String genre, int copies) {
+        return new Book(null, title, author, genre, true, copies, copies, 0L);
+    }
+
+    private static Member member(String email) {
+        return new Member(null, "Member", "123 Main Street", email, "+1234567890");
+    }
+
+    private static Loan loan(Book book, Member member, LocalDate loanDate) {
+        return new Loan(null, loanDate, null, book, member);
+    }
+}
@@ -0,0 +1,218 @@
+package com.ensam.library.service;
+
+import com.ensam.library.dto.AvailabilityEventDTO;
+import com.ensam.library.event.CatalogEvent;
+import com.ensam.library.event.LoanEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Availability Stream Service Tests")
+class AvailabilityStreamServiceTest {
+
+    @Mock
+    private CopyAvailabilityCounter copyAvailabilityCounter;
+
+    @InjectMocks
+    private AvailabilityStreamService streamService;
+
+    /** Émetteur de test qui conserve les données envoyées au lieu d'écrire une réponse HTTP. */
+    static class RecordingEmitter extends SseEmitter {
+        final List<Object> data = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            builder.build().forEach(part -> data.add(part.getData()));
+        }
+
+        List<AvailabilityEventDTO> events() {
+            List<AvailabilityEventDTO> events = new ArrayList<>();
+            data.stream().filter(AvailabilityEventDTO.class::isInstance)
+                    .forEach(item -> events.add((AvailabilityEventDTO) item));
+            return events;
+        }
+
+        boolean receivedResync() {
+            return data.stream().anyMatch(item -> item.toString().contains("event:resync"));
+        }
+    }
+
+    /** Émetteur dont l'envoi reste bloqué, comme un client qui ne lit plus sa connexion. */
+    static class BlockedEmitter extends SseEmitter {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        // Envois exécutés dans le thread appelant : flush() rend la main une fois tout envoyé
+        streamService.sender = Runnable::run;
+    }
+
+    private LoanEvent loanEvent(Long bookId) {
+        return new LoanEvent(LoanEvent.Type.CHECKED_OUT, 1L, bookId, "Test Book", "Fiction", 1L, LocalDate.now(), null);
+    }
+
+    @Test
+    @DisplayName("Should coalesce bursts on the same book into one event")
+    void testCoalescing() {
+        when(copyAvailabilityCounter.getAvailableCopies(1L)).thenReturn(Optional.of(3L));
+        RecordingEmitter emitter = new RecordingEmitter();
+        streamService.register(emitter, null);
+
+        for (int i = 0; i < 10; i++) {
+            streamService.onLoanEvent(loanEvent(1L));
+        }
+        streamService.flush();
+
+        List<AvailabilityEventDTO> events = emitter.events();
+        assertEquals(1, events.size());
+        assertEquals(10L, events.get(0).getEventId());
+        assertEquals(3L, events.get(0).getAvailableCopies());
+        verify(copyAvailabilityCounter, times(1)).getAvailableCopies(1L);
+    }
+
+    @Test
+    @DisplayName("Should replay missed events after Last-Event-ID")
+    void testResume() {
+        when(copyAvailabilityCounter.getAvailableCopies(anyLong())).thenReturn(Optional.of(1L));
+        streamService.onLoanEvent(loanEvent(1L));
+        streamService.onLoanEvent(loanEvent(2L));
+        streamService.onCatalogEvent(new CatalogEvent(CatalogEvent.Type.DELETED, 3L));
+
+        RecordingEmitter emitter = new RecordingEmitter();
+        streamService.register(emitter, 1L);
+        streamService.flush();
+
+        List<AvailabilityEventDTO> events = emitter.events();
+        assertEquals(2, events.size());
+        assertEquals(2L, events.get(0).getBookId());
+        assertEquals("DELETED", events.get(1).getType());
+        assertNull(events.get(1).getAvailableCopies());
+        assertFalse(emitter.receivedResync());
+    }
+
+    @Test
+    @DisplayName("Should emit changes in id order whatever the publishing threads")
+    void testOrderedDelivery() throws Exception {
+        // Given
+        when(copyAvailabilityCounter.getAvailableCopies(anyLong())).thenReturn(Optional.of(1L));
+        RecordingEmitter emitter = new RecordingEmitter();
+        AvailabilityStreamService.Subscriber subscriber = streamService.register(emitter, null);
+        ExecutorService publishers = Executors.newFixedThreadPool(8);
+
+        // When : validations concurrentes sur des livres distincts
+        List<Future<?>> published = new ArrayList<>();
+        for (long bookId = 1; bookId <= 200; bookId++) {
+            long id = bookId;
+            published.add(publishers.submit(() -> streamService.onLoanEvent(loanEvent(id))));
+        }
+        for (Future<?> future : published) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        publishers.shutdown();
+
+        // Then : rien n'est réparti par les threads qui valident ; l'envoi suit les identifiants
+        assertFalse(subscriber.hasPending());
+        streamService.flush();
+        List<AvailabilityEventDTO> events = emitter.events();
+        assertEquals(200, events.size());
+        for (int i = 0; i < events.size(); i++) {
+            assertEquals(i + 1L, events.get(i).getEventId());
+        }
+    }
+
+    @Test
+    @DisplayName("Should ask for resync when resuming from an unknown event")
+    void testResumeTooOld() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        streamService.register(emitter, 42L);
+        streamService.flush();
+
+        assertTrue(emitter.receivedResync());
+        assertTrue(emitter.events().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should ask slow subscriber to resync when its buffer overflows")
+    void testBoundedBuffer() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        streamService.register(emitter, null);
+
+        for (long bookId = 1; bookId <= 300; bookId++) {
+            streamService.onLoanEvent(loanEvent(bookId));
+        }
+        streamService.flush();
+
+        assertTrue(emitter.receivedResync());
+        assertTrue(emitter.events().isEmpty());
+        verifyNoInteractions(copyAvailabilityCounter);
+    }
+
+    @Test
+    @DisplayName("Should keep flushing other subscribers while one send is blocked")
+    void testBlockedSubscriberDoesNotStallOthers() throws Exception {
+        ExecutorService sender = Executors.newFixedThreadPool(2);
+        streamService.sender = sender;
+        BlockedEmitter blocked = new BlockedEmitter();
+        try {
+            when(copyAvailabilityCounter.getAvailableCopies(anyLong())).thenReturn(Optional.of(1L));
+            RecordingEmitter healthy = new RecordingEmitter();
+            streamService.register(blocked, null);
+            streamService.register(healthy, null);
+
+            // Given: l'envoi vers le premier abonné est bloqué
+            streamService.onLoanEvent(loanEvent(1L));
+            streamService.flush();
+            assertTrue(blocked.entered.await(5, TimeUnit.SECONDS));
+
+            // When: d'autres changements arrivent et les cycles suivants s'exécutent
+            streamService.onLoanEvent(loanEvent(2L));
+            streamService.flush();
+            streamService.heartbeat();
+            streamService.flush();
+
+            // Then: le second abonné reçoit tout pendant que le premier reste bloqué
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (healthy.events().size() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(2, healthy.events().size());
+            assertEquals(2, streamService.getSubscriberCount());
+        } finally {
+            blocked.release.countDown();
+            sender.shutdownNow();
+        }
+    }
+}
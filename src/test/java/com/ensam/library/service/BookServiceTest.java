@@ -1,24 +1,45 @@
 // ============================================================================
 package com.ensam.library.service;
 
+import com.ensam.library.audit.AuditLog;
+import com.ensam.library.catalog.CatalogImage;
+import com.ensam.library.catalog.SearchResultCache;
+import com.ensam.library.datasource.SessionConsistency;
+import com.ensam.library.dto.BookAvailabilityDTO;
 import com.ensam.library.dto.BookDTO;
+import com.ensam.library.event.CatalogEvent;
+import com.ensam.library.event.LoanEvent;
 import com.ensam.library.model.Book;
 import com.ensam.library.repository.BookRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +49,30 @@ class BookServiceTest {
     @Mock
     private BookRepository bookRepository;
 
+    @Mock
+    private CopyAvailabilityCounter copyAvailabilityCounter;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ChangeTracker changeTracker;
+
+    @Mock
+    private SharedCatalogService sharedCatalogService;
+
+    @Mock
+    private CompactCatalogService compactCatalogService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private AuditLog auditLog;
+
+    @Spy
+    private SearchResultCache searchResultCache = new SearchResultCache(true, 100, 60000, 10000, 1);
+
     @InjectMocks
     private BookService bookService;
 
@@ -90,6 +135,44 @@ class BookServiceTest {
         verify(bookRepository, times(1)).findById(999L);
     }
 
+    @Test
+    @DisplayName("Should query the repository once, in one transaction, for concurrent reads of the same book")
+    void testGetBookById_CoalescesConcurrentReads() throws Exception {
+        // Given : la première lecture reste bloquée en base
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookRepository.findById(1L)).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return Optional.of(testBook1);
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        List<Future<Optional<Book>>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> bookService.getBookById(1L)));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (bookService.getCoalescingStatistics().get(0).getCalls() < 8 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            Thread.sleep(20);
+            // Seul le chargement a ouvert une transaction : les appels en attente ne retiennent pas de connexion
+            verify(transactionManager, times(1)).getTransaction(any());
+            release.countDown();
+            for (Future<Optional<Book>> result : results) {
+                assertEquals(Optional.of(testBook1), result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Then
+        verify(bookRepository, times(1)).findById(1L);
+        assertEquals(1, bookService.getCoalescingStatistics().get(0).getExecutions());
+        assertEquals(7, bookService.getCoalescingStatistics().get(0).getCoalesced());
+    }
+
     @Test
     @DisplayName("Should create a new book successfully")
     void testCreateBook() {
@@ -107,6 +190,7 @@ class BookServiceTest {
         assertEquals("Fiction", result.getGenre());
         assertTrue(result.getAvailable());
         verify(bookRepository, times(1)).save(any(Book.class));
+        verify(auditLog, times(1)).writeOnCommit("book.create", 1L, "Test Book");
     }
 
     @Test
@@ -159,6 +243,8 @@ class BookServiceTest {
         assertTrue(result);
         verify(bookRepository, times(1)).existsById(1L);
         verify(bookRepository, times(1)).deleteById(1L);
+        verify(eventPublisher).publishEvent(new CatalogEvent(CatalogEvent.Type.DELETED, 1L));
+        verify(auditLog).writeOnCommit("book.delete", 1L);
     }
 
     @Test
@@ -174,6 +260,7 @@ class BookServiceTest {
         assertFalse(result);
         verify(bookRepository, times(1)).existsById(999L);
         verify(bookRepository, never()).deleteById(anyLong());
+        verifyNoInteractions(auditLog);
     }
 
     @Test
@@ -211,6 +298,46 @@ class BookServiceTest {
         verify(bookRepository, times(1)).findByTitleContainingIgnoreCase(searchTerm);
     }
 
+    @Test
+    @DisplayName("Should serve a repeated title search from the cache until a change is committed")
+    void testSearchBooksByTitle_Cached() {
+        // Given
+        when(bookRepository.findByTitleContainingIgnoreCase("clean")).thenReturn(List.of(testBook1));
+
+        // When
+        List<Book> first = bookService.searchBooksByTitle("clean");
+        List<Book> second = bookService.searchBooksByTitle("Clean");
+        bookService.onLoanEvent(new LoanEvent(LoanEvent.Type.CHECKED_OUT, 1L, 1L, "Clean Code", "Programming",
+                1L, LocalDate.now(), null));
+
+        // Then
+        assertEquals(List.of(testBook1), second);
+        assertSame(first, second);
+        verify(bookRepository, times(1)).findByTitleContainingIgnoreCase("clean");
+        verify(searchResultCache).invalidate();
+        assertEquals(1, searchResultCache.getGeneration());
+    }
+
+    @Test
+    @DisplayName("Should bypass the search cache for a session that requires its own writes")
+    void testSearchBooksByTitle_ReadYourWrites() {
+        // Given
+        when(bookRepository.findByTitleContainingIgnoreCase("clean")).thenReturn(List.of(testBook1));
+        SessionConsistency.bind(42, null);
+
+        // When
+        try {
+            bookService.searchBooksByTitle("clean");
+            bookService.searchBooksByTitle("clean");
+        } finally {
+            SessionConsistency.clear();
+        }
+
+        // Then
+        verify(bookRepository, times(2)).findByTitleContainingIgnoreCase("clean");
+        assertEquals(0, searchResultCache.size());
+    }
+
     @Test
     @DisplayName("Should return empty list when no books match search")
     void testSearchBooksByTitle_NoResults() {
@@ -226,4 +353,115 @@ class BookServiceTest {
         assertTrue(result.isEmpty());
         verify(bookRepository, times(1)).findByTitleContainingIgnoreCase(searchTerm);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should create a book with several copies")
+    void testCreateBook_WithCopies() {
+        // Given
+        BookDTO multiCopyDTO = new BookDTO(null, "Algorithms", "Cormen", "Programming", 20);
+        when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        Book result = bookService.createBook(multiCopyDTO);
+
+        // Then
+        assertEquals(20, result.getTotalCopies());
+        assertEquals(20, result.getAvailableCopies());
+        assertTrue(result.getAvailable());
+    }
+
+    @Test
+    @DisplayName("Should keep loaned copies when changing the number of copies")
+    void testUpdateBook_ChangeCopies() {
+        // Given
+        Book multiCopyBook = new Book(1L, "Algorithms", "Cormen", "Programming", true, 5, 2, 0L);
+        Book updatedBook = new Book(1L, "Algorithms", "Cormen", "Programming", true, 4, 1, 7L);
+        BookDTO updateDTO = new BookDTO(1L, "Algorithms", "Cormen", "Programming", 4);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(multiCopyBook)).thenReturn(Optional.of(updatedBook));
+        when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(changeTracker.next()).thenReturn(7L);
+        when(bookRepository.updateTotalCopies(1L, 4, 7L)).thenReturn(1);
+
+        // When
+        Optional<Book> result = bookService.updateBook(1L, updateDTO);
+
+        // Then : l'écart de stock est appliqué par la base, pas par l'enregistrement de l'entité
+        assertTrue(result.isPresent());
+        assertEquals(4, result.get().getTotalCopies());
+        assertEquals(1, result.get().getAvailableCopies());
+        verify(bookRepository, times(1)).updateTotalCopies(1L, 4, 7L);
+        verify(copyAvailabilityCounter, times(1)).evict(1L);
+    }
+
+    @Test
+    @DisplayName("Should reject fewer copies than the loans committed since the book was read")
+    void testUpdateBook_ConcurrentCheckout() {
+        // Given : la lecture voit 2 prêts, la base en compte davantage
+        Book multiCopyBook = new Book(1L, "Algorithms", "Cormen", "Programming", true, 5, 3, 0L);
+        BookDTO updateDTO = new BookDTO(1L, "Algorithms", "Cormen", "Programming", 2);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(multiCopyBook));
+        when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(bookRepository.updateTotalCopies(eq(1L), eq(2), anyLong())).thenReturn(0);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> bookService.updateBook(1L, updateDTO));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Should reject fewer copies than active loans")
+    void testUpdateBook_TooFewCopies() {
+        // Given
+        Book multiCopyBook = new Book(1L, "Algorithms", "Cormen", "Programming", true, 5, 2, 0L);
+        BookDTO updateDTO = new BookDTO(1L, "Algorithms", "Cormen", "Programming", 2);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(multiCopyBook));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> bookService.updateBook(1L, updateDTO));
+        verify(bookRepository, never()).save(any(Book.class));
+    }
+
+    @Test
+    @DisplayName("Should read availability from the in-memory counter")
+    void testGetBookAvailability() {
+        // Given
+        when(copyAvailabilityCounter.getAvailableCopies(1L)).thenReturn(Optional.of(3L));
+
+        // When
+        Optional<BookAvailabilityDTO> result = bookService.getBookAvailability(1L);
+
+        // Then
+        assertTrue(result.isPresent());
+        assertEquals(3L, result.get().getAvailableCopies());
+        verify(bookRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should serve reads from the shared catalog when one is mapped")
+    void testReadsFromSharedCatalog(@TempDir Path directory) throws IOException {
+        // Given : une image projetée sans le livre 3, créé depuis
+        Path file = directory.resolve("catalog-1.bin");
+        CatalogImage.write(file, 1, System.currentTimeMillis(), 0L, List.of(testBook1, testBook2));
+        CatalogImage image = CatalogImage.open(file);
+        when(sharedCatalogService.find(anyLong())).thenAnswer(invocation -> image.find(invocation.getArgument(0)));
+        when(sharedCatalogService.available()).thenReturn(Optional.of(image.available()));
+        when(sharedCatalogService.searchTitle("PATTERN")).thenReturn(Optional.of(image.searchTitle("PATTERN")));
+        Book created = new Book(3L, "Refactoring", "Martin Fowler", "Programming", true);
+        when(bookRepository.findById(3L)).thenReturn(Optional.of(created));
+
+        // When
+        List<Book> available = bookService.getAvailableBooks();
+        List<Book> found = bookService.searchBooksByTitle("PATTERN");
+        Optional<Book> mapped = bookService.getBookById(2L);
+        Optional<Book> missing = bookService.getBookById(3L);
+
+        // Then
+        assertEquals(List.of(testBook1), available);
+        assertEquals(List.of(testBook2), found);
+        assertEquals(Optional.of(testBook2), mapped);
+        assertEquals(Optional.of(created), missing);
+        verify(bookRepository, never()).findByAvailableTrue();
+        verify(bookRepository, never()).findByTitleContainingIgnoreCase(any());
+        verify(bookRepository, never()).findById(2L);
+    }
+}
@@ -0,0 +1,83 @@
+package com.ensam.library.service;
+
+import com.ensam.library.model.Tombstone;
+import com.ensam.library.repository.BookRepository;
+import com.ensam.library.repository.MemberRepository;
+import com.ensam.library.repository.TombstoneRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Change Tracker Tests")
+class ChangeTrackerTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private MemberRepository memberRepository;
+
+    @Mock
+    private TombstoneRepository tombstoneRepository;
+
+    @InjectMocks
+    private ChangeTracker changeTracker;
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.findMaxChangeSeq()).thenReturn(10L);
+        when(memberRepository.findMaxChangeSeq()).thenReturn(4L);
+        when(tombstoneRepository.findMaxChangeSeq()).thenReturn(12L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should continue after the highest stored number")
+    void testNextStartsAfterMax() {
+        assertEquals(13L, changeTracker.next());
+        assertEquals(14L, changeTracker.next());
+        assertEquals(14L, changeTracker.safeWatermark());
+    }
+
+    @Test
+    @DisplayName("Should hold the watermark below numbers whose transaction is still open")
+    void testWatermarkWaitsForOpenTransactions() {
+        TransactionSynchronizationManager.initSynchronization();
+        long first = changeTracker.next();
+        long second = changeTracker.next();
+
+        assertEquals(first - 1, changeTracker.safeWatermark());
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertEquals(second, changeTracker.safeWatermark());
+    }
+
+    @Test
+    @DisplayName("Should save a tombstone with a new change number")
+    void testRecordDeletion() {
+        changeTracker.recordDeletion(Tombstone.EntityType.BOOK, 7L);
+
+        verify(tombstoneRepository).save(argThat(tombstone -> tombstone.getEntityId() == 7L
+                && tombstone.getChangeSeq() == 13L
+                && tombstone.getEntityType() == Tombstone.EntityType.BOOK));
+    }
+}
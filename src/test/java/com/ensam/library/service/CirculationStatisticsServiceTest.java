@@ -0,0 +1,98 @@
+package com.ensam.library.service;
+
+import com.ensam.library.dto.CirculationStatsDTO;
+import com.ensam.library.event.LoanEvent;
+import com.ensam.library.model.Book;
+import com.ensam.library.model.Loan;
+import com.ensam.library.model.Member;
+import com.ensam.library.repository.LoanRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Circulation Statistics Service Tests")
+class CirculationStatisticsServiceTest {
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @InjectMocks
+    private CirculationStatisticsService statisticsService;
+
+    private LoanEvent event(LoanEvent.Type type, Long bookId, String genre, Long memberId, LocalDate loanDate) {
+        return new LoanEvent(type, 1L, bookId, "Book " + bookId, genre, memberId, loanDate, null);
+    }
+
+    @Test
+    @DisplayName("Should update counters from loan events")
+    void testLoanEvents() {
+        // Given
+        LocalDate today = LocalDate.now();
+        statisticsService.onLoanEvent(event(LoanEvent.Type.CHECKED_OUT, 1L, "Fiction", 10L, today));
+        statisticsService.onLoanEvent(event(LoanEvent.Type.CHECKED_OUT, 1L, "Fiction", 11L, today.minusDays(3)));
+        statisticsService.onLoanEvent(event(LoanEvent.Type.CHECKED_OUT, 2L, "Science", 10L, today));
+
+        // When
+        statisticsService.onLoanEvent(event(LoanEvent.Type.RETURNED, 1L, "Fiction", 11L, today.minusDays(3)));
+        CirculationStatsDTO stats = statisticsService.getStatistics();
+
+        // Then
+        assertEquals(3, stats.getCheckouts());
+        assertEquals(Map.of("Fiction", 2L, "Science", 1L), stats.getCheckoutsByGenre());
+        assertEquals(Map.of(10L, 2L), stats.getActiveLoansByMember());
+        assertEquals(2, stats.getActiveLoans());
+        assertEquals(1L, stats.getTopBooks().get(0).getBookId());
+        assertEquals("Book 1", stats.getTopBooks().get(0).getTitle());
+        assertEquals(2, stats.getTopBooks().get(0).getCheckouts());
+        verifyNoInteractions(loanRepository);
+    }
+
+    @Test
+    @DisplayName("Should ignore checkouts older than the window")
+    void testOutsideWindow() {
+        // Given
+        statisticsService.onLoanEvent(event(LoanEvent.Type.CHECKED_OUT, 1L, "Fiction", 10L,
+                LocalDate.now().minusDays(45)));
+
+        // When
+        CirculationStatsDTO stats = statisticsService.getStatistics();
+
+        // Then
+        assertEquals(0, stats.getCheckouts());
+        assertTrue(stats.getTopBooks().isEmpty());
+        assertEquals(1, stats.getActiveLoans());
+    }
+
+    @Test
+    @DisplayName("Should seed counters from the loans table once at startup")
+    void testWarmUp() {
+        // Given
+        Book book = new Book(1L, "Seeded Book", "Author", "History", true);
+        Member member = new Member(7L, "Member", "123 Main Street", "m@test.com", "+1234567890");
+        Loan loan = new Loan(1L, LocalDate.now().minusDays(1), null, book, member);
+        when(loanRepository.findByLoanDateBetween(any(LocalDate.class), any(LocalDate.class))).thenReturn(List.of(loan));
+        when(loanRepository.findByReturnDateIsNull()).thenReturn(Collections.singletonList(loan));
+
+        // When
+        statisticsService.afterSingletonsInstantiated();
+        CirculationStatsDTO stats = statisticsService.getStatistics();
+
+        // Then
+        assertEquals(Map.of("History", 1L), stats.getCheckoutsByGenre());
+        assertEquals(Map.of(7L, 1L), stats.getActiveLoansByMember());
+        assertEquals("Seeded Book", stats.getTopBooks().get(0).getTitle());
+    }
+}
@@ -0,0 +1,120 @@
+package com.ensam.library.service;
+
+import com.ensam.library.catalog.CompactCatalog;
+import com.ensam.library.dto.BookDTO;
+import com.ensam.library.dto.LoanDTO;
+import com.ensam.library.dto.MemberDTO;
+import com.ensam.library.model.Book;
+import com.ensam.library.model.Member;
+import com.ensam.library.repository.BookRepository;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.persistence.EntityManagerFactory;
+
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:compactdb;DB_CLOSE_DELAY=-1",
+        "library.catalog.compact.enabled=true"
+})
+@DisplayName("Compact Catalog Service Tests")
+class CompactCatalogServiceTest {
+
+    @Autowired
+    private CompactCatalogService compactCatalogService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        // Le cache de second niveau est partagé entre les contextes de test : un livre de même
+        // identifiant laissé par une autre base serait lu à la place du nôtre
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    @Test
+    @DisplayName("Should mirror the database through creations, loans, updates and deletions")
+    void testFollowsCommittedChanges() {
+        // Given : catalogue amorcé au démarrage
+        CompactCatalog catalog = compactCatalogService.current().orElseThrow();
+        Member member = memberService.createMember(new MemberDTO(null, "Compact Member", "1 Compact Street",
+                "compact" + System.nanoTime() + "@test.com", "+1234567890"));
+
+        // When
+        Book book = bookService.createBook(new BookDTO(null, "Compact Book", "Compact Author", "Compact", 1));
+        loanService.createLoan(new LoanDTO(null, book.getId(), member.getId(), null, null));
+        Book other = bookService.createBook(new BookDTO(null, "Deleted Book", "Compact Author", "Compact", 1));
+        bookService.updateBook(other.getId(), new BookDTO(null, "Renamed Book", "Compact Author", "Compact", 2));
+
+        // Then
+        assertThat(catalog.find(book.getId())).isEqualTo(bookRepository.findById(book.getId()));
+        assertThat(catalog.find(book.getId()).orElseThrow().getAvailable()).isFalse();
+        assertThat(catalog.find(other.getId())).isEqualTo(bookRepository.findById(other.getId()));
+        assertThat(bookService.getBooksByGenre("Compact")).extracting(Book::getTitle)
+                .containsExactly("Compact Book", "Renamed Book");
+        assertThat(bookService.getAvailableBooks()).extracting(Book::getId)
+                .contains(other.getId()).doesNotContain(book.getId());
+        assertThat(catalog.size()).isEqualTo(bookRepository.count());
+
+        bookService.deleteBook(other.getId());
+        assertThat(catalog.find(other.getId())).isEmpty();
+        assertThat(catalog.available().stream().map(Book::getId).collect(Collectors.toList()))
+                .isEqualTo(bookRepository.findByAvailableTrue().stream().map(Book::getId).sorted()
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("Should catch up with books written by another instance")
+    void testCatchesUpWithOtherInstances() {
+        // Given : écritures faites hors de cette instance, sans événement local
+        CompactCatalog catalog = compactCatalogService.current().orElseThrow();
+        Book changed = bookService.createBook(new BookDTO(null, "Shared Book", "Shared Author", "Shared", 1));
+        Book deleted = bookService.createBook(new BookDTO(null, "Gone Book", "Shared Author", "Shared", 1));
+        String title = "Remote Book " + System.nanoTime();
+        jdbcTemplate.update("INSERT INTO books (title, author, genre, available, total_copies, available_copies, "
+                + "change_seq) VALUES (?, 'Remote Author', 'Shared', TRUE, 1, 1, 1)", title);
+        Long remoteId = jdbcTemplate.queryForObject("SELECT id FROM books WHERE title = ?", Long.class, title);
+        jdbcTemplate.update("UPDATE books SET title = 'Shared Book 2', change_seq = change_seq + 1 WHERE id = ?",
+                changed.getId());
+        jdbcTemplate.update("DELETE FROM books WHERE id = ?", deleted.getId());
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+
+        // When : un livre absent est relu en base
+        assertThat(catalog.find(remoteId)).isEmpty();
+        assertThat(bookService.getBookById(remoteId)).map(Book::getTitle).contains(title);
+
+        // Then : il reste dans le catalogue, et la resynchronisation rattrape le reste
+        assertThat(catalog.find(remoteId)).isPresent();
+        assertThat(bookService.getBookById(-1L)).isEmpty();
+        compactCatalogService.resync();
+        assertThat(catalog.find(changed.getId())).map(Book::getTitle).contains("Shared Book 2");
+        assertThat(catalog.find(deleted.getId())).isEmpty();
+        assertThat(catalog.size()).isEqualTo(bookRepository.count());
+    }
+}
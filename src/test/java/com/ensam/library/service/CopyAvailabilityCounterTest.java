@@ -0,0 +1,132 @@
+package com.ensam.library.service;
+
+import com.ensam.library.event.LoanEvent;
+import com.ensam.library.repository.BookRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Copy Availability Counter Tests")
+class CopyAvailabilityCounterTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @InjectMocks
+    private CopyAvailabilityCounter counter;
+
+    private LoanEvent event(LoanEvent.Type type) {
+        return new LoanEvent(type, 1L, 1L, "Test Book", "Fiction", 1L, LocalDate.now(), null);
+    }
+
+    @Test
+    @DisplayName("Should load the counter once and serve later reads from memory")
+    void testLoadsOnce() {
+        when(bookRepository.findAvailableCopiesById(1L)).thenReturn(Optional.of(20));
+
+        assertEquals(Optional.of(20L), counter.getAvailableCopies(1L));
+        assertEquals(Optional.of(20L), counter.getAvailableCopies(1L));
+        verify(bookRepository, times(1)).findAvailableCopiesById(1L);
+    }
+
+    @Test
+    @DisplayName("Should return empty for unknown book")
+    void testUnknownBook() {
+        when(bookRepository.findAvailableCopiesById(999L)).thenReturn(Optional.empty());
+
+        assertFalse(counter.getAvailableCopies(999L).isPresent());
+    }
+
+    @Test
+    @DisplayName("Should apply concurrent checkouts and returns")
+    void testConcurrentEvents() throws InterruptedException {
+        when(bookRepository.findAvailableCopiesById(1L)).thenReturn(Optional.of(500));
+        counter.getAvailableCopies(1L);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 400; i++) {
+            executor.submit(() -> counter.onLoanEvent(event(LoanEvent.Type.CHECKED_OUT)));
+        }
+        for (int i = 0; i < 100; i++) {
+            executor.submit(() -> counter.onLoanEvent(event(LoanEvent.Type.RETURNED)));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(Optional.of(200L), counter.getAvailableCopies(1L));
+    }
+
+    @Test
+    @DisplayName("Should reload from database after eviction")
+    void testEvict() {
+        when(bookRepository.findAvailableCopiesById(1L)).thenReturn(Optional.of(2)).thenReturn(Optional.of(5));
+
+        counter.getAvailableCopies(1L);
+        counter.evict(1L);
+
+        assertEquals(Optional.of(5L), counter.getAvailableCopies(1L));
+    }
+
+    @Test
+    @DisplayName("Should not keep a value that an event committed during the load missed")
+    void testEventDuringLoad() throws Exception {
+        // Given : le chargement lit la base avant la validation de l'emprunt
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch committed = new CountDownLatch(1);
+        when(bookRepository.findAvailableCopiesById(1L)).thenAnswer(invocation -> {
+            reading.countDown();
+            committed.await(10, TimeUnit.SECONDS);
+            return Optional.of(3);
+        }).thenReturn(Optional.of(2));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // When
+        Future<Optional<Long>> load = executor.submit(() -> counter.getAvailableCopies(1L));
+        assertTrue(reading.await(10, TimeUnit.SECONDS));
+        // La lecture en cours ne retient aucun verrou : l'événement s'applique sans l'attendre
+        executor.submit(() -> counter.onLoanEvent(event(LoanEvent.Type.CHECKED_OUT))).get(10, TimeUnit.SECONDS);
+        committed.countDown();
+        Optional<Long> during = load.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // Then : la valeur lue avant l'emprunt est servie une fois, puis relue en base
+        assertEquals(Optional.of(3L), during);
+        assertEquals(Optional.of(2L), counter.getAvailableCopies(1L));
+        assertEquals(Optional.of(2L), counter.getAvailableCopies(1L));
+        verify(bookRepository, times(2)).findAvailableCopiesById(1L);
+    }
+
+    @Test
+    @DisplayName("Should not keep a value read while a loan of the title is committing")
+    void testLoadDuringCommit() {
+        // Given : la base reflète déjà l'emprunt, son événement n'est pas encore appliqué
+        when(bookRepository.findAvailableCopiesById(1L)).thenReturn(Optional.of(2)).thenReturn(Optional.of(2));
+        counter.onLoanEventCommitting(event(LoanEvent.Type.CHECKED_OUT));
+
+        // When
+        Optional<Long> during = counter.getAvailableCopies(1L);
+        counter.onLoanEvent(event(LoanEvent.Type.CHECKED_OUT));
+        counter.onLoanEventCompleted(event(LoanEvent.Type.CHECKED_OUT));
+
+        // Then : pas de double décompte
+        assertEquals(Optional.of(2L), during);
+        assertEquals(Optional.of(2L), counter.getAvailableCopies(1L));
+        assertEquals(Optional.of(2L), counter.getAvailableCopies(1L));
+        verify(bookRepository, times(2)).findAvailableCopiesById(1L);
+    }
+}
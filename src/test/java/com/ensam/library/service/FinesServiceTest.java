@@ -0,0 +1,134 @@
+package com.ensam.library.service;
+
+import com.ensam.library.audit.AuditLog;
+import com.ensam.library.dto.FineBalancesDTO;
+import com.ensam.library.dto.MemberFinesDTO;
+import com.ensam.library.fines.ActiveLoanColumns;
+import com.ensam.library.fines.FinePolicy;
+import com.ensam.library.model.Book;
+import com.ensam.library.model.Loan;
+import com.ensam.library.model.Member;
+import com.ensam.library.repository.LoanRepository;
+import com.ensam.library.repository.MemberRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Fines Service Tests")
+class FinesServiceTest {
+
+    private final FinePolicy finePolicy = FinePolicy.builder()
+            .loanPeriodDays(LoanService.LOAN_PERIOD_DAYS)
+            .graceDays(0)
+            .tiers("1:10")
+            .capCents(0)
+            .build();
+
+    @Mock
+    private ActiveLoanColumnsLoader activeLoanColumnsLoader;
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @Mock
+    private MemberRepository memberRepository;
+
+    @Mock
+    private AuditLog auditLog;
+
+    @InjectMocks
+    private FinesService finesService;
+
+    private final LocalDate today = LocalDate.now();
+
+    private Book book;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(finesService, "finePolicy", finePolicy);
+        book = new Book();
+        book.setId(1L);
+        book.setTitle("Late Book");
+        book.setGenre("Fiction");
+    }
+
+    private LocalDate daysOverdue(int days) {
+        return today.minusDays(LoanService.LOAN_PERIOD_DAYS + (long) days);
+    }
+
+    @Test
+    @DisplayName("Should report balances with the largest first")
+    void testBalances() {
+        // Given
+        when(activeLoanColumnsLoader.load(finePolicy)).thenReturn(ActiveLoanColumns.builder(finePolicy)
+                .add(10, daysOverdue(2), "Fiction")
+                .add(11, daysOverdue(5), "Fiction")
+                .add(11, daysOverdue(1), "Fiction")
+                .add(12, today, "Fiction")
+                .build());
+
+        // When
+        FineBalancesDTO balances = finesService.getBalances(10);
+
+        // Then
+        assertEquals(4, balances.getLoansEvaluated());
+        assertEquals(2, balances.getMembers());
+        assertEquals(80, balances.getTotalCents());
+        assertEquals(11L, balances.getBalances().get(0).getMemberId());
+        assertEquals(60, balances.getBalances().get(0).getBalanceCents());
+        assertEquals(2, balances.getBalances().get(0).getOverdueLoans());
+        assertEquals(1, finesService.getBalances(1).getBalances().size());
+        verify(activeLoanColumnsLoader, times(1)).load(finePolicy);
+    }
+
+    @Test
+    @DisplayName("Should itemize open loans and keep the fine of a late return")
+    void testMemberFines() {
+        // Given : rendu avec 3 jours de retard il y a 6 jours, rendu à temps, en cours
+        Member member = new Member();
+        member.setId(10L);
+        Loan late = new Loan(1L, daysOverdue(4), null, book, member);
+        Loan returnedLate = new Loan(2L, daysOverdue(9), today.minusDays(6), book, member);
+        Loan returnedOnTime = new Loan(3L, daysOverdue(9), daysOverdue(9).plusDays(2), book, member);
+        Loan onTime = new Loan(4L, today, null, book, member);
+        when(memberRepository.existsById(10L)).thenReturn(true);
+        when(loanRepository.findByMemberId(10L)).thenReturn(List.of(late, returnedLate, returnedOnTime, onTime));
+
+        // When
+        Optional<MemberFinesDTO> fines = finesService.getMemberFines(10L);
+
+        // Then
+        assertTrue(fines.isPresent());
+        assertEquals(70, fines.get().getBalanceCents());
+        assertEquals(2, fines.get().getLoans().size());
+        assertEquals(2L, fines.get().getLoans().get(0).getLoanId());
+        assertEquals(3, fines.get().getLoans().get(0).getDaysOverdue());
+        assertEquals(today.minusDays(6), fines.get().getLoans().get(0).getReturnDate());
+        assertEquals(4, fines.get().getLoans().get(1).getDaysOverdue());
+        assertNull(fines.get().getLoans().get(1).getReturnDate());
+        assertEquals("Late Book", fines.get().getLoans().get(1).getBookTitle());
+        verifyNoInteractions(activeLoanColumnsLoader);
+    }
+
+    @Test
+    @DisplayName("Should return empty for an unknown member")
+    void testUnknownMember() {
+        when(memberRepository.existsById(99L)).thenReturn(false);
+
+        assertTrue(finesService.getMemberFines(99L).isEmpty());
+        verifyNoInteractions(loanRepository);
+    }
+}
@@ -0,0 +1,202 @@
+package com.ensam.library.service;
+
+import com.ensam.library.audit.AuditLog;
+import com.ensam.library.dto.HoldDTO;
+import com.ensam.library.model.Book;
+import com.ensam.library.model.Hold;
+import com.ensam.library.model.Member;
+import com.ensam.library.repository.BookRepository;
+import com.ensam.library.repository.HoldRepository;
+import com.ensam.library.repository.LoanRepository;
+import com.ensam.library.repository.MemberRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Hold Service Tests")
+class HoldServiceTest {
+
+    @Mock
+    private HoldRepository holdRepository;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private MemberRepository memberRepository;
+
+    @Mock
+    private LoanRepository loanRepository;
+
+    @Mock
+    private HoldQueue holdQueue;
+
+    @Mock
+    private AuditLog auditLog;
+
+    @InjectMocks
+    private HoldService holdService;
+
+    private Book unavailableBook;
+    private Member testMember;
+    private HoldDTO testHoldDTO;
+
+    @BeforeEach
+    void setUp() {
+        unavailableBook = new Book(1L, "Clean Code", "Robert C. Martin", "Programming", false);
+        testMember = new Member(1L, "John Doe", "123 Main St", "john@test.com", "+1234567890");
+        testHoldDTO = new HoldDTO(null, 1L, 1L);
+    }
+
+    @Test
+    @DisplayName("Should place hold and enqueue it")
+    void testPlaceHold_Success() {
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(unavailableBook));
+        when(memberRepository.findById(1L)).thenReturn(Optional.of(testMember));
+        when(holdRepository.existsByBookIdAndMemberIdAndStatus(1L, 1L, Hold.Status.WAITING)).thenReturn(false);
+        when(holdRepository.save(any(Hold.class))).thenAnswer(invocation -> {
+            Hold hold = invocation.getArgument(0);
+            hold.setId(5L);
+            return hold;
+        });
+
+        Hold result = holdService.placeHold(testHoldDTO);
+
+        assertEquals(Hold.Status.WAITING, result.getStatus());
+        assertNotNull(result.getCreatedAt());
+        verify(holdQueue).offer(1L, 5L);
+        verify(auditLog).writeOnCommit("hold.create", 5L, "book=1 member=1");
+    }
+
+    @Test
+    @DisplayName("Should enqueue the hold only once its transaction commits")
+    void testPlaceHold_EnqueuedAfterCommit() {
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(unavailableBook));
+        when(memberRepository.findById(1L)).thenReturn(Optional.of(testMember));
+        when(holdRepository.existsByBookIdAndMemberIdAndStatus(1L, 1L, Hold.Status.WAITING)).thenReturn(false);
+        when(holdRepository.save(any(Hold.class))).thenAnswer(invocation -> {
+            Hold hold = invocation.getArgument(0);
+            hold.setId(5L);
+            return hold;
+        });
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Given: une réservation enregistrée dans une transaction encore ouverte
+            holdService.placeHold(testHoldDTO);
+            verify(holdQueue, never()).offer(anyLong(), anyLong());
+
+            // When: la transaction est validée
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            // Then: la réservation entre dans la file
+            verify(holdQueue).offer(1L, 5L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Should refuse hold when a copy is available")
+    void testPlaceHold_BookAvailable() {
+        Book availableBook = new Book(1L, "Clean Code", "Robert C. Martin", "Programming", true);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(availableBook));
+
+        assertThrows(IllegalStateException.class, () -> holdService.placeHold(testHoldDTO));
+        verify(holdRepository, never()).save(any(Hold.class));
+    }
+
+    @Test
+    @DisplayName("Should refuse a second hold by the same member")
+    void testPlaceHold_Duplicate() {
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(unavailableBook));
+        when(memberRepository.findById(1L)).thenReturn(Optional.of(testMember));
+        when(holdRepository.existsByBookIdAndMemberIdAndStatus(1L, 1L, Hold.Status.WAITING)).thenReturn(true);
+
+        IllegalStateException exception = assertThrows(
+                IllegalStateException.class,
+                () -> holdService.placeHold(testHoldDTO)
+        );
+
+        assertEquals("Ce membre a déjà une réservation pour ce livre", exception.getMessage());
+        verify(holdQueue, never()).offer(anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should skip cancelled holds when claiming the next one")
+    void testClaimNextHold_SkipsCancelled() {
+        Hold cancelled = new Hold(7L, unavailableBook, testMember, LocalDateTime.now(), Hold.Status.CANCELLED, null);
+        Hold next = new Hold(8L, unavailableBook, testMember, LocalDateTime.now(), Hold.Status.FULFILLED, LocalDate.now());
+        when(holdQueue.poll(1L)).thenReturn(7L, 8L);
+        when(holdRepository.findById(7L)).thenReturn(Optional.of(cancelled));
+        when(holdRepository.fulfill(eq(7L), any(LocalDate.class))).thenReturn(0);
+        when(holdRepository.fulfill(eq(8L), any(LocalDate.class))).thenReturn(1);
+        when(holdRepository.findById(8L)).thenReturn(Optional.of(next));
+
+        Optional<Hold> result = holdService.claimNextHold(1L);
+
+        assertTrue(result.isPresent());
+        assertEquals(8L, result.get().getId());
+    }
+
+    @Test
+    @DisplayName("Should cancel the hold of a member who already has the book on loan")
+    void testClaimNextHold_SkipsMemberWithActiveLoan() {
+        // Given : le premier réservataire a déjà un exemplaire du livre
+        Member other = new Member(2L, "Jane Doe", "456 Main St", "jane@test.com", "+1234567891");
+        Hold duplicate = new Hold(7L, unavailableBook, testMember, LocalDateTime.now(), Hold.Status.WAITING, null);
+        Hold next = new Hold(8L, unavailableBook, other, LocalDateTime.now(), Hold.Status.WAITING, null);
+        when(holdQueue.poll(1L)).thenReturn(7L, 8L);
+        when(holdRepository.findById(7L)).thenReturn(Optional.of(duplicate));
+        when(holdRepository.findById(8L)).thenReturn(Optional.of(next));
+        when(loanRepository.existsByBookIdAndMemberIdAndReturnDateIsNull(1L, 1L)).thenReturn(true);
+        when(loanRepository.existsByBookIdAndMemberIdAndReturnDateIsNull(1L, 2L)).thenReturn(false);
+        when(holdRepository.cancel(7L)).thenReturn(1);
+        when(holdRepository.fulfill(eq(8L), any(LocalDate.class))).thenReturn(1);
+
+        // When
+        Optional<Hold> result = holdService.claimNextHold(1L);
+
+        // Then
+        assertTrue(result.isPresent());
+        assertEquals(2L, result.get().getMember().getId());
+        verify(holdRepository, never()).fulfill(eq(7L), any(LocalDate.class));
+        verify(auditLog).writeOnCommit(eq("hold.cancel"), eq(7L), anyString());
+    }
+
+    @Test
+    @DisplayName("Should return empty when nobody is waiting")
+    void testClaimNextHold_EmptyQueue() {
+        when(holdQueue.poll(1L)).thenReturn(null);
+
+        assertFalse(holdService.claimNextHold(1L).isPresent());
+        verify(holdRepository, never()).fulfill(anyLong(), any(LocalDate.class));
+    }
+
+    @Test
+    @DisplayName("Should cancel waiting hold")
+    void testCancelHold() {
+        when(holdRepository.cancel(5L)).thenReturn(1);
+        when(holdRepository.cancel(6L)).thenReturn(0);
+
+        assertTrue(holdService.cancelHold(5L));
+        assertFalse(holdService.cancelHold(6L));
+    }
+}
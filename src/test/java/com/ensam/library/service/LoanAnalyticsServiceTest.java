@@ -0,0 +1,86 @@
+package com.ensam.library.service;
+
+import com.ensam.library.analytics.LoanColumns;
+import com.ensam.library.audit.AuditLog;
+import com.ensam.library.dto.AuthorLoanDurationDTO;
+import com.ensam.library.dto.MonthlyGenreLoansDTO;
+import com.ensam.library.dto.ReturnLatencyBucketDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Loan Analytics Service Tests")
+class LoanAnalyticsServiceTest {
+
+    @Mock
+    private LoanColumnsLoader loanColumnsLoader;
+
+    @Mock
+    private AuditLog auditLog;
+
+    @InjectMocks
+    private LoanAnalyticsService loanAnalyticsService;
+
+    private final LocalDate january = LocalDate.of(2024, 1, 10);
+
+    @BeforeEach
+    void setUp() {
+        LoanColumns columns = LoanColumns.builder()
+                .add(january, january.plusDays(10), "Fiction", "Author B")
+                .add(january.plusDays(5), january.plusDays(25), "Fiction", "Author A")
+                .add(january.plusMonths(1), null, "Science", "Author A")
+                .build();
+        when(loanColumnsLoader.load()).thenReturn(columns);
+    }
+
+    @Test
+    @DisplayName("Should report loans by month and genre")
+    void testLoansByMonthAndGenre() {
+        // When
+        List<MonthlyGenreLoansDTO> rows = loanAnalyticsService.getLoansByMonthAndGenre(
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 29));
+
+        // Then
+        assertEquals(List.of(
+                new MonthlyGenreLoansDTO("2024-01", "Fiction", 2),
+                new MonthlyGenreLoansDTO("2024-02", "Science", 1)), rows);
+    }
+
+    @Test
+    @DisplayName("Should report the average loan duration per author")
+    void testLoanDurationByAuthor() {
+        // When
+        List<AuthorLoanDurationDTO> rows = loanAnalyticsService.getLoanDurationByAuthor();
+
+        // Then
+        assertEquals(List.of(
+                new AuthorLoanDurationDTO("Author A", 1, 20.0),
+                new AuthorLoanDurationDTO("Author B", 1, 10.0)), rows);
+    }
+
+    @Test
+    @DisplayName("Should report the return latency distribution and load the snapshot once")
+    void testReturnLatency() {
+        // When
+        List<ReturnLatencyBucketDTO> rows = loanAnalyticsService.getReturnLatency(7, 3);
+        loanAnalyticsService.getReturnLatency(7, 3);
+
+        // Then
+        assertEquals(List.of(
+                new ReturnLatencyBucketDTO(0, 6, 0),
+                new ReturnLatencyBucketDTO(7, 13, 1),
+                new ReturnLatencyBucketDTO(14, null, 1)), rows);
+        verify(loanColumnsLoader, times(1)).load();
+    }
+}
@@ -0,0 +1,170 @@
+package com.ensam.library.service;
+
+import com.ensam.library.analytics.LoanColumns;
+import com.ensam.library.archive.LoanArchive;
+import com.ensam.library.dto.BookDTO;
+import com.ensam.library.dto.LoanDTO;
+import com.ensam.library.dto.MemberDTO;
+import com.ensam.library.interval.LoanInterval;
+import com.ensam.library.interval.LoanIntervalIndex;
+import com.ensam.library.model.Book;
+import com.ensam.library.model.Loan;
+import com.ensam.library.model.Member;
+import com.ensam.library.recommend.CoBorrowingMatrix;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.util.FileSystemUtils;
+
+import javax.persistence.EntityManagerFactory;
+import java.nio.file.Paths;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:archivedb;DB_CLOSE_DELAY=-1",
+        "library.archive.directory=target/archive-service-test",
+        "library.archive.retention-months=12",
+        "library.archive.chunk-size=2"
+})
+@DisplayName("Loan Archive Service Tests")
+class LoanArchiveServiceTest {
+
+    @Autowired
+    private LoanArchiveService loanArchiveService;
+
+    @Autowired
+    private LoanArchive loanArchive;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private LoanIntervalLoader loanIntervalLoader;
+
+    @Autowired
+    private CoBorrowingLoader coBorrowingLoader;
+
+    @Autowired
+    private LoanColumnsLoader loanColumnsLoader;
+
+    @Autowired
+    private MemberDashboardLoader memberDashboardLoader;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeAll
+    static void cleanArchive() {
+        FileSystemUtils.deleteRecursively(Paths.get("target/archive-service-test").toFile());
+    }
+
+    @BeforeEach
+    void setUp() {
+        // Cache de second niveau partagé entre les contextes de test (voir CompactCatalogServiceTest)
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    private Loan returnedLoan(Book book, Member member, LocalDate loanDate, LocalDate returnDate) {
+        Loan loan = loanService.createLoan(new LoanDTO(null, book.getId(), member.getId(), null, null));
+        loanService.returnBook(loan.getId());
+        jdbcTemplate.update("UPDATE loans SET loan_date = ?, return_date = ? WHERE id = ?",
+                Date.valueOf(loanDate), Date.valueOf(returnDate), loan.getId());
+        return loan;
+    }
+
+    @Test
+    @DisplayName("Should move old returned loans to the archive and still serve them as history")
+    void testArchivesOldReturnedLoans() throws Exception {
+        // Given
+        LocalDate today = LocalDate.now();
+        Member member = memberService.createMember(new MemberDTO(null, "Archive Member", "1 Archive Street",
+                "archive" + System.nanoTime() + "@test.com", "+1234567890"));
+        Book book = bookService.createBook(new BookDTO(null, "Archived Book", "Archive Author", "Archive", 1));
+        Book other = bookService.createBook(new BookDTO(null, "Other Book", "Archive Author", "Archive", 1));
+        Loan oldest = returnedLoan(book, member, today.minusYears(3), today.minusYears(3).plusDays(10));
+        Loan old = returnedLoan(other, member, today.minusMonths(14), today.minusMonths(13));
+        Loan older = returnedLoan(book, member, today.minusYears(2), today.minusYears(2).plusDays(5));
+        Loan recent = returnedLoan(book, member, today.minusMonths(2), today.minusMonths(1));
+        Loan active = loanService.createLoan(new LoanDTO(null, other.getId(), member.getId(), null, null));
+
+        // When
+        int archived = loanArchiveService.run(today);
+        int again = loanArchiveService.run(today);
+
+        // Then
+        assertThat(archived).isEqualTo(3);
+        assertThat(again).isZero();
+        assertThat(loanArchive.size()).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM loans WHERE member_id = ?", Integer.class,
+                member.getId())).isEqualTo(2);
+
+        assertThat(loanService.getMemberLoans(member.getId(), false)).extracting(Loan::getId)
+                .containsExactlyInAnyOrder(recent.getId(), active.getId());
+        List<Loan> history = loanService.getMemberLoans(member.getId(), true);
+        assertThat(history).extracting(Loan::getId).containsExactlyInAnyOrder(recent.getId(), active.getId(),
+                oldest.getId(), old.getId(), older.getId());
+        Loan archivedLoan = history.stream().filter(loan -> loan.getId().equals(older.getId())).findFirst().orElseThrow();
+        assertThat(archivedLoan.getBook().getTitle()).isEqualTo("Archived Book");
+        assertThat(archivedLoan.getMember().getId()).isEqualTo(member.getId());
+        assertThat(archivedLoan.getReturnDate()).isEqualTo(today.minusYears(2).plusDays(5));
+
+        assertThat(loanService.getBookLoans(book.getId(), true)).extracting(Loan::getId)
+                .containsExactlyInAnyOrder(recent.getId(), oldest.getId(), older.getId());
+        assertThat(loanService.getBookLoans(other.getId(), false)).extracting(Loan::getId)
+                .containsExactly(active.getId());
+    }
+
+    @Test
+    @DisplayName("Should seed the in-memory projections from archived loans too")
+    void testProjectionsIncludeArchivedLoans() throws Exception {
+        // Given : un prêt archivé, un prêt rendu récent et un prêt en cours
+        LocalDate today = LocalDate.now();
+        Member member = memberService.createMember(new MemberDTO(null, "Projection Member", "2 Archive Street",
+                "projection" + System.nanoTime() + "@test.com", "+1234567890"));
+        Book book = bookService.createBook(new BookDTO(null, "Projected Book", "Projection Author", "Projection", 1));
+        Book other = bookService.createBook(new BookDTO(null, "Projected Other", "Projection Author", "Projection", 1));
+        Loan archivedLoan = returnedLoan(book, member, today.minusYears(2), today.minusYears(2).plusDays(7));
+        returnedLoan(other, member, today.minusMonths(2), today.minusMonths(1));
+        loanService.createLoan(new LoanDTO(null, other.getId(), member.getId(), null, null));
+        long archivedBefore = loanArchive.size();
+
+        // When
+        loanArchiveService.run(today);
+        LoanIntervalIndex index = new LoanIntervalIndex();
+        loanIntervalLoader.load(index);
+        CoBorrowingMatrix matrix = new CoBorrowingMatrix(10);
+        coBorrowingLoader.load(matrix);
+        LoanColumns columns = loanColumnsLoader.load();
+
+        // Then
+        assertThat(loanArchive.size()).isEqualTo(archivedBefore + 1);
+        assertThat(index.holders(book.getId(), today.minusYears(2).plusDays(1))).extracting(LoanInterval::getLoanId)
+                .containsExactly(archivedLoan.getId());
+        assertThat(matrix.neighbors(book.getId(), 10)).extracting(CoBorrowingMatrix.Neighbor::getBookId)
+                .contains(other.getId());
+        assertThat(columns.size()).isEqualTo(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM loans", Integer.class)
+                + (int) loanArchive.size());
+        assertThat(memberDashboardLoader.load(member.getId()).orElseThrow().toDto(today).getTotalLoans())
+                .isEqualTo(3L);
+    }
+}
@@ -1,7 +1,11 @@
 package com.ensam.library.service;
 
+import com.ensam.library.audit.AuditLog;
 import com.ensam.library.dto.LoanDTO;
+import com.ensam.library.event.LoanEvent;
+import com.ensam.library.event.HoldFulfilledEvent;
 import com.ensam.library.model.Book;
+import com.ensam.library.model.Hold;
 import com.ensam.library.model.Loan;
 import com.ensam.library.model.Member;
 import com.ensam.library.repository.BookRepository;
@@ -14,6 +18,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDate;
 import java.util.Arrays;
@@ -22,6 +27,8 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +44,21 @@ class LoanServiceTest {
     @Mock
     private MemberRepository memberRepository;
 
+    @Mock
+    private HoldService holdService;
+
+    @Mock
+    private ChangeTracker changeTracker;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private AuditLog auditLog;
+
+    @Mock
+    private LoanArchiveService loanArchiveService;
+
     @InjectMocks
     private LoanService loanService;
 
@@ -60,9 +82,9 @@ class LoanServiceTest {
     void testCreateLoan_Success() {
         when(bookRepository.findById(1L)).thenReturn(Optional.of(availableBook));
         when(memberRepository.findById(1L)).thenReturn(Optional.of(testMember));
-        when(loanRepository.findByBookIdAndReturnDateIsNull(1L)).thenReturn(Optional.empty());
+        when(loanRepository.existsByBookIdAndMemberIdAndReturnDateIsNull(1L, 1L)).thenReturn(false);
+        when(bookRepository.checkoutCopy(eq(1L), anyLong())).thenReturn(1);
         when(loanRepository.save(any(Loan.class))).thenReturn(testLoan);
-        when(bookRepository.save(any(Book.class))).thenReturn(availableBook);
 
         Loan result = loanService.createLoan(testLoanDTO);
 
@@ -71,8 +93,11 @@ class LoanServiceTest {
         assertNull(result.getReturnDate());
         assertEquals(availableBook, result.getBook());
         assertEquals(testMember, result.getMember());
-        verify(bookRepository).save(argThat(book -> !book.getAvailable()));
+        verify(bookRepository, times(1)).checkoutCopy(eq(1L), anyLong());
+        verify(bookRepository, times(1)).evictFromCache(1L);
+        verify(bookRepository, never()).save(any(Book.class));
         verify(loanRepository, times(1)).save(any(Loan.class));
+        verify(eventPublisher).publishEvent(any(LoanEvent.class));
     }
 
     @Test
@@ -133,7 +158,7 @@ class LoanServiceTest {
     void testCreateLoan_BookAlreadyLoaned() {
         when(bookRepository.findById(1L)).thenReturn(Optional.of(availableBook));
         when(memberRepository.findById(1L)).thenReturn(Optional.of(testMember));
-        when(loanRepository.findByBookIdAndReturnDateIsNull(1L)).thenReturn(Optional.of(testLoan));
+        when(loanRepository.existsByBookIdAndMemberIdAndReturnDateIsNull(1L, 1L)).thenReturn(true);
 
         IllegalStateException exception = assertThrows(
                 IllegalStateException.class,
@@ -144,6 +169,24 @@ class LoanServiceTest {
         verify(loanRepository, never()).save(any(Loan.class));
     }
 
+    @Test
+    @DisplayName("Should throw exception when last copy is taken concurrently")
+    void testCreateLoan_NoCopyLeft() {
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(availableBook));
+        when(memberRepository.findById(1L)).thenReturn(Optional.of(testMember));
+        when(loanRepository.existsByBookIdAndMemberIdAndReturnDateIsNull(1L, 1L)).thenReturn(false);
+        when(bookRepository.checkoutCopy(eq(1L), anyLong())).thenReturn(0);
+
+        IllegalStateException exception = assertThrows(
+                IllegalStateException.class,
+                () -> loanService.createLoan(testLoanDTO)
+        );
+
+        assertEquals("Le livre n'est pas disponible", exception.getMessage());
+        verify(loanRepository, never()).save(any(Loan.class));
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
     @Test
     @DisplayName("Should use provided loan date")
     void testCreateLoan_WithCustomDate() {
@@ -152,7 +195,8 @@ class LoanServiceTest {
 
         when(bookRepository.findById(1L)).thenReturn(Optional.of(availableBook));
         when(memberRepository.findById(1L)).thenReturn(Optional.of(testMember));
-        when(loanRepository.findByBookIdAndReturnDateIsNull(1L)).thenReturn(Optional.empty());
+        when(loanRepository.existsByBookIdAndMemberIdAndReturnDateIsNull(1L, 1L)).thenReturn(false);
+        when(bookRepository.checkoutCopy(eq(1L), anyLong())).thenReturn(1);
         when(loanRepository.save(any(Loan.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         Loan result = loanService.createLoan(customDTO);
@@ -166,15 +210,38 @@ class LoanServiceTest {
     void testReturnBook_Success() {
         when(loanRepository.findById(1L)).thenReturn(Optional.of(testLoan));
         when(loanRepository.save(any(Loan.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(bookRepository.save(any(Book.class))).thenReturn(availableBook);
+        when(bookRepository.returnCopy(eq(1L), anyLong())).thenReturn(1);
 
         Optional<Loan> result = loanService.returnBook(1L);
 
         assertTrue(result.isPresent());
         assertNotNull(result.get().getReturnDate());
         assertEquals(LocalDate.now(), result.get().getReturnDate());
-        verify(bookRepository).save(argThat(book -> book.getAvailable()));
+        verify(bookRepository, times(1)).returnCopy(eq(1L), anyLong());
+        verify(bookRepository, times(1)).evictFromCache(1L);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof LoanEvent
+                && ((LoanEvent) event).getType() == LoanEvent.Type.RETURNED));
         verify(loanRepository, times(1)).save(any(Loan.class));
+        verify(auditLog).writeOnCommit("loan.return", 1L);
+    }
+
+    @Test
+    @DisplayName("Should hand returned copy to the next patron in the hold queue")
+    void testReturnBook_HandsOffToHold() {
+        Member nextMember = new Member(2L, "Jane Doe", "456 Oak Ave", "jane@test.com", "+0987654321");
+        Hold hold = new Hold(10L, availableBook, nextMember, java.time.LocalDateTime.now(),
+                Hold.Status.FULFILLED, LocalDate.now());
+        when(loanRepository.findById(1L)).thenReturn(Optional.of(testLoan));
+        when(holdService.claimNextHold(1L)).thenReturn(Optional.of(hold));
+        when(loanRepository.save(any(Loan.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        Optional<Loan> result = loanService.returnBook(1L);
+
+        assertTrue(result.isPresent());
+        assertEquals(LocalDate.now(), result.get().getReturnDate());
+        verify(bookRepository, never()).returnCopy(anyLong(), anyLong());
+        verify(loanRepository).save(argThat(loan -> loan.getMember() == nextMember && loan.getReturnDate() == null));
+        verify(eventPublisher).publishEvent(any(HoldFulfilledEvent.class));
     }
 
     @Test
@@ -202,6 +269,7 @@ class LoanServiceTest {
 
         verify(loanRepository, times(1)).findById(1L);
         verify(loanRepository, never()).save(any(Loan.class));
+        verify(auditLog, never()).writeOnCommit(anyString(), anyLong());
     }
 
     @Test
@@ -249,6 +317,24 @@ class LoanServiceTest {
         verify(loanRepository, times(1)).findByBookId(1L);
     }
 
+    @Test
+    @DisplayName("Should add archived loans only when history is requested")
+    void testGetMemberLoans_WithArchived() {
+        // Given
+        Loan archived = new Loan(9L, LocalDate.of(2020, 1, 5), LocalDate.of(2020, 1, 20), availableBook, testMember);
+        when(loanRepository.findByMemberId(1L)).thenReturn(List.of(testLoan));
+        when(loanArchiveService.withArchivedForMember(1L, List.of(testLoan))).thenReturn(List.of(testLoan, archived));
+
+        // When
+        List<Loan> hot = loanService.getMemberLoans(1L, false);
+        List<Loan> history = loanService.getMemberLoans(1L, true);
+
+        // Then
+        assertEquals(List.of(testLoan), hot);
+        assertEquals(List.of(testLoan, archived), history);
+        verify(loanArchiveService, times(1)).withArchivedForMember(eq(1L), any());
+    }
+
     @Test
     @DisplayName("Should return loan by ID")
     void testGetLoanById() {
@@ -0,0 +1,81 @@
+package com.ensam.library.service;
+
+import com.ensam.library.audit.AuditLog;
+import com.ensam.library.dto.LoanIntervalDTO;
+import com.ensam.library.event.LoanEvent;
+import com.ensam.library.interval.LoanInterval;
+import com.ensam.library.interval.LoanIntervalIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Loan Timeline Service Tests")
+class LoanTimelineServiceTest {
+
+    @Mock
+    private LoanIntervalLoader loanIntervalLoader;
+
+    @Mock
+    private AuditLog auditLog;
+
+    @InjectMocks
+    private LoanTimelineService loanTimelineService;
+
+    private final LocalDate day = LocalDate.of(2024, 3, 1);
+
+    private LoanEvent event(LoanEvent.Type type, Long loanId, Long bookId, LocalDate loanDate, LocalDate returnDate) {
+        return new LoanEvent(type, loanId, bookId, "Book " + bookId, "Fiction", 10L, loanDate, returnDate);
+    }
+
+    @Test
+    @DisplayName("Should seed the index from the loader at startup")
+    void testWarmUp() {
+        // Given
+        doAnswer(invocation -> {
+            LoanIntervalIndex index = invocation.getArgument(0);
+            index.put(LoanInterval.of(1L, 5L, 10L, day.minusDays(3), null));
+            return null;
+        }).when(loanIntervalLoader).load(any());
+
+        // When
+        loanTimelineService.warmUp();
+
+        // Then
+        List<LoanIntervalDTO> holders = loanTimelineService.getHolders(5L, day);
+        assertEquals(1, holders.size());
+        assertEquals(10L, holders.get(0).getMemberId());
+        assertNull(holders.get(0).getReturnDate());
+        assertEquals(1, loanTimelineService.getOutstanding(day).getLoans());
+    }
+
+    @Test
+    @DisplayName("Should close the period when the book is returned")
+    void testLoanEvents() {
+        // Given
+        loanTimelineService.onLoanEvent(event(LoanEvent.Type.CHECKED_OUT, 1L, 5L, day, null));
+        loanTimelineService.onLoanEvent(event(LoanEvent.Type.CHECKED_OUT, 2L, 6L, day.plusDays(2), null));
+
+        // When
+        loanTimelineService.onLoanEvent(event(LoanEvent.Type.RETURNED, 1L, 5L, day, day.plusDays(4)));
+
+        // Then
+        assertEquals(1, loanTimelineService.getHolders(5L, day.plusDays(3)).size());
+        assertTrue(loanTimelineService.getHolders(5L, day.plusDays(4)).isEmpty());
+        assertEquals(2, loanTimelineService.getOutstanding(day.plusDays(3)).getLoans());
+        assertEquals(1, loanTimelineService.getOutstanding(day.plusDays(4)).getLoans());
+        assertEquals(2, loanTimelineService.getOverlapping(null, day, day.plusDays(10)).size());
+        assertEquals(day.plusDays(4), loanTimelineService.getOverlapping(5L, day, day).get(0).getReturnDate());
+        verifyNoInteractions(loanIntervalLoader);
+    }
+}
@@ -0,0 +1,159 @@
+package com.ensam.library.service;
+
+import com.ensam.library.audit.AuditLog;
+import com.ensam.library.dto.MemberDashboardDTO;
+import com.ensam.library.event.LoanEvent;
+import com.ensam.library.event.MemberEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Member Dashboard Service Tests")
+class MemberDashboardServiceTest {
+
+    @Mock
+    private MemberDashboardLoader memberDashboardLoader;
+
+    @Mock
+    private AuditLog auditLog;
+
+    @InjectMocks
+    private MemberDashboardService memberDashboardService;
+
+    private MemberDashboardService.Entry entry() {
+        return new MemberDashboardService.Entry(1L, "John Doe", "john.doe@email.com")
+                .withCheckout(10L, 1L, "Test Book", LocalDate.now().minusDays(2))
+                .withHistoricalReturn(LocalDate.now().minusDays(60));
+    }
+
+    private LoanEvent event(LoanEvent.Type type, Long loanId, LocalDate loanDate) {
+        return new LoanEvent(type, loanId, 2L, "Other Book", "Fiction", 1L, loanDate, null);
+    }
+
+    @Test
+    @DisplayName("Should load dashboard once and serve it from memory")
+    void testGetMemberDashboard_LoadedOnce() {
+        when(memberDashboardLoader.load(1L)).thenReturn(Optional.of(entry()));
+
+        MemberDashboardDTO first = memberDashboardService.getMemberDashboard(1L).orElseThrow();
+        memberDashboardService.getMemberDashboard(1L);
+
+        assertEquals("John Doe", first.getName());
+        assertEquals(1, first.getActiveLoanCount());
+        assertEquals(2, first.getTotalLoans());
+        verify(memberDashboardLoader, times(1)).load(1L);
+    }
+
+    @Test
+    @DisplayName("Should not keep an entry that an event applied during the load missed")
+    void testGetMemberDashboard_EventDuringLoad() throws Exception {
+        // Given : le chargement lit la base avant la validation du retour du prêt 10
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch returned = new CountDownLatch(1);
+        MemberDashboardService.Entry afterReturn = entry().withReturn(10L);
+        when(memberDashboardLoader.load(1L)).thenAnswer(invocation -> {
+            reading.countDown();
+            returned.await(10, TimeUnit.SECONDS);
+            return Optional.of(entry());
+        }).thenReturn(Optional.of(afterReturn));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // When
+        Future<Optional<MemberDashboardDTO>> load = executor.submit(() -> memberDashboardService.getMemberDashboard(1L));
+        assertTrue(reading.await(10, TimeUnit.SECONDS));
+        // Le chargement ne retient aucun verrou : l'événement s'applique sans l'attendre
+        executor.submit(() -> memberDashboardService.onLoanEvent(event(LoanEvent.Type.RETURNED, 10L,
+                LocalDate.now().minusDays(2)))).get(10, TimeUnit.SECONDS);
+        returned.countDown();
+        MemberDashboardDTO during = load.get(10, TimeUnit.SECONDS).orElseThrow();
+        executor.shutdown();
+
+        // Then : l'état lu avant le retour est servi une fois, puis rechargé
+        assertEquals(1, during.getActiveLoanCount());
+        assertEquals(0, memberDashboardService.getMemberDashboard(1L).orElseThrow().getActiveLoanCount());
+        assertEquals(0, memberDashboardService.getMemberDashboard(1L).orElseThrow().getActiveLoanCount());
+        verify(memberDashboardLoader, times(2)).load(1L);
+    }
+
+    @Test
+    @DisplayName("Should return empty for unknown member")
+    void testGetMemberDashboard_NotFound() {
+        when(memberDashboardLoader.load(999L)).thenReturn(Optional.empty());
+
+        assertTrue(memberDashboardService.getMemberDashboard(999L).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should apply checkout and return events idempotently")
+    void testLoanEvents_Idempotent() {
+        when(memberDashboardLoader.load(1L)).thenReturn(Optional.of(entry()));
+        memberDashboardService.getMemberDashboard(1L);
+        LocalDate loanDate = LocalDate.now();
+
+        // Given - l'emprunt 10 est déjà reflété par le chargement initial
+        memberDashboardService.onLoanEvent(event(LoanEvent.Type.CHECKED_OUT, 10L, loanDate));
+        memberDashboardService.onLoanEvent(event(LoanEvent.Type.CHECKED_OUT, 11L, loanDate));
+        memberDashboardService.onLoanEvent(event(LoanEvent.Type.CHECKED_OUT, 11L, loanDate));
+        memberDashboardService.onLoanEvent(event(LoanEvent.Type.RETURNED, 10L, loanDate));
+        memberDashboardService.onLoanEvent(event(LoanEvent.Type.RETURNED, 10L, loanDate));
+
+        // Then
+        MemberDashboardDTO dashboard = memberDashboardService.getMemberDashboard(1L).orElseThrow();
+        assertEquals(1, dashboard.getActiveLoanCount());
+        assertEquals(11L, dashboard.getCurrentLoans().get(0).getLoanId());
+        assertEquals(3, dashboard.getTotalLoans());
+        assertEquals(loanDate, dashboard.getLastLoanDate());
+    }
+
+    @Test
+    @DisplayName("Should ignore events for members not yet loaded")
+    void testLoanEvent_MemberNotLoaded() {
+        memberDashboardService.onLoanEvent(event(LoanEvent.Type.CHECKED_OUT, 11L, LocalDate.now()));
+
+        verifyNoInteractions(memberDashboardLoader);
+    }
+
+    @Test
+    @DisplayName("Should count overdue loans at read time")
+    void testGetMemberDashboard_Overdue() {
+        MemberDashboardService.Entry lateEntry = entry().withCheckout(12L, 3L, "Late Book",
+                LocalDate.now().minusDays(LoanService.LOAN_PERIOD_DAYS + 1));
+        when(memberDashboardLoader.load(1L)).thenReturn(Optional.of(lateEntry));
+
+        MemberDashboardDTO dashboard = memberDashboardService.getMemberDashboard(1L).orElseThrow();
+
+        assertEquals(1, dashboard.getOverdueCount());
+        assertTrue(dashboard.getCurrentLoans().stream()
+                .anyMatch(loan -> loan.getLoanId().equals(12L) && loan.isOverdue()));
+    }
+
+    @Test
+    @DisplayName("Should refresh identity on update and drop entry on delete")
+    void testMemberEvents() {
+        when(memberDashboardLoader.load(1L)).thenReturn(Optional.of(entry()));
+        memberDashboardService.getMemberDashboard(1L);
+
+        memberDashboardService.onMemberEvent(
+                new MemberEvent(MemberEvent.Type.UPDATED, 1L, "John Updated", "john.updated@email.com"));
+        assertEquals("John Updated", memberDashboardService.getMemberDashboard(1L).orElseThrow().getName());
+
+        memberDashboardService.onMemberEvent(new MemberEvent(MemberEvent.Type.DELETED, 1L, null, null));
+        memberDashboardService.getMemberDashboard(1L);
+        verify(memberDashboardLoader, times(2)).load(1L);
+    }
+}
@@ -1,7 +1,10 @@
 package com.ensam.library.service;
 
+import com.ensam.library.audit.AuditLog;
 import com.ensam.library.dto.MemberDTO;
+import com.ensam.library.event.MemberEvent;
 import com.ensam.library.model.Member;
+import com.ensam.library.model.Tombstone;
 import com.ensam.library.repository.MemberRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,6 +13,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 
 import java.util.Arrays;
 import java.util.List;
@@ -27,6 +33,18 @@ class MemberServiceTest {
     @Mock
     private MemberRepository memberRepository;
 
+    @Mock
+    private ChangeTracker changeTracker;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private AuditLog auditLog;
+
     @InjectMocks
     private MemberService memberService;
 
@@ -93,6 +111,7 @@ class MemberServiceTest {
         assertEquals("John Doe", result.get().getName());
         assertEquals("john.doe@email.com", result.get().getEmail());
         verify(memberRepository, times(1)).findById(1L);
+        verify(transactionManager).getTransaction(argThat(TransactionDefinition::isReadOnly));
     }
 
     @Test
@@ -260,6 +279,9 @@ class MemberServiceTest {
         assertTrue(result);
         verify(memberRepository, times(1)).existsById(1L);
         verify(memberRepository, times(1)).deleteById(1L);
+        verify(changeTracker, times(1)).recordDeletion(Tombstone.EntityType.MEMBER, 1L);
+        verify(eventPublisher, times(1)).publishEvent(any(MemberEvent.class));
+        verify(auditLog).writeOnCommit("member.delete", 1L);
     }
 
     @Test
@@ -275,6 +297,7 @@ class MemberServiceTest {
         assertFalse(result);
         verify(memberRepository, times(1)).existsById(999L);
         verify(memberRepository, never()).deleteById(anyLong());
+        verifyNoInteractions(auditLog);
     }
 
     @Test
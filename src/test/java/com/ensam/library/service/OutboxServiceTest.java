@@ -0,0 +1,311 @@
+package com.ensam.library.service;
+
+import com.ensam.library.dto.BookDTO;
+import com.ensam.library.dto.HoldDTO;
+import com.ensam.library.dto.LoanDTO;
+import com.ensam.library.dto.MemberDTO;
+import com.ensam.library.event.LoanEvent;
+import com.ensam.library.model.Book;
+import com.ensam.library.model.Loan;
+import com.ensam.library.model.Member;
+import com.ensam.library.outbox.OutboxEvent;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outboxdb;DB_CLOSE_DELAY=-1",
+        "library.outbox.enabled=true",
+        "library.outbox.batch-size=50",
+        "library.outbox.max-attempts=3",
+        // Relivraison immédiate, sauf dans testBacksOffAfterFailure
+        "library.outbox.retry-backoff-ms=0",
+        // Drainage piloté par les tests uniquement
+        "library.outbox.poll-interval-ms=3600000"
+})
+@DisplayName("Outbox Service Tests")
+class OutboxServiceTest {
+
+    @TestConfiguration
+    static class RecorderConfig {
+
+        @Bean
+        Recorder recorder() {
+            return new Recorder();
+        }
+    }
+
+    static class Recorder {
+        final ConcurrentLinkedQueue<OutboxEvent> events = new ConcurrentLinkedQueue<>();
+        volatile boolean failing;
+
+        @EventListener
+        public void onOutboxEvent(OutboxEvent event) {
+            if (failing) {
+                throw new IllegalStateException("Destinataire indisponible");
+            }
+            events.add(event);
+        }
+    }
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private Recorder recorder;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private HoldService holdService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        // Cache de second niveau partagé entre les contextes de test (voir CompactCatalogServiceTest)
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        outboxService.drain();
+        recorder.events.clear();
+        recorder.failing = false;
+    }
+
+    private Member member() {
+        return memberService.createMember(new MemberDTO(null, "Outbox Member", "1 Outbox Street",
+                "outbox" + System.nanoTime() + "@test.com", "+1234567890"));
+    }
+
+    private int pending() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM loan_outbox", Integer.class);
+    }
+
+    private int parked() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM loan_outbox_dead", Integer.class);
+    }
+
+    @Test
+    @DisplayName("Should deliver checkouts and returns in order once committed")
+    void testDeliversCommittedEvents() {
+        // Given
+        Member member = member();
+        Book book = bookService.createBook(new BookDTO(null, "Outbox Book", "Outbox Author", "Outbox", 1));
+
+        // When
+        Loan loan = loanService.createLoan(new LoanDTO(null, book.getId(), member.getId(), null, null));
+        loanService.returnBook(loan.getId());
+        assertThat(pending()).isEqualTo(2);
+        int delivered = outboxService.drain();
+
+        // Then
+        assertThat(delivered).isEqualTo(2);
+        assertThat(pending()).isZero();
+        assertThat(recorder.events).extracting(OutboxEvent::getType)
+                .containsExactly(LoanEvent.Type.CHECKED_OUT, LoanEvent.Type.RETURNED);
+        OutboxEvent returned = new ArrayList<>(recorder.events).get(1);
+        assertThat(returned.getLoanId()).isEqualTo(loan.getId());
+        assertThat(returned.getBookTitle()).isEqualTo("Outbox Book");
+        assertThat(returned.getReturnDate()).isEqualTo(LocalDate.now());
+        assertThat(outboxService.getStatistics().getDelivered()).isGreaterThanOrEqualTo(2);
+        assertThat(outboxService.getStatistics().getPending()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should notify the member a returned copy is handed to")
+    void testDeliversHoldFulfilled() {
+        // Given : seul exemplaire prêté, un autre membre en attente
+        Member borrower = member();
+        Member waiting = member();
+        Book book = bookService.createBook(new BookDTO(null, "Held Outbox Book", "Outbox Author", "Outbox", 1));
+        Loan loan = loanService.createLoan(new LoanDTO(null, book.getId(), borrower.getId(), null, null));
+        holdService.placeHold(new HoldDTO(null, book.getId(), waiting.getId()));
+
+        // When
+        loanService.returnBook(loan.getId());
+        outboxService.drain();
+
+        // Then
+        assertThat(recorder.events).extracting(OutboxEvent::getType).containsExactly(LoanEvent.Type.CHECKED_OUT,
+                LoanEvent.Type.RETURNED, LoanEvent.Type.CHECKED_OUT, LoanEvent.Type.HOLD_FULFILLED);
+        OutboxEvent handOff = new ArrayList<>(recorder.events).get(2);
+        OutboxEvent notice = new ArrayList<>(recorder.events).get(3);
+        assertThat(notice.getMemberId()).isEqualTo(waiting.getId());
+        assertThat(notice.getLoanId()).isEqualTo(handOff.getLoanId());
+        assertThat(notice.getBookTitle()).isEqualTo("Held Outbox Book");
+        assertThat(notice.getLoanDate()).isEqualTo(LocalDate.now());
+    }
+
+    @Test
+    @DisplayName("Should write nothing when the loan transaction rolls back")
+    void testRollbackWritesNothing() {
+        // Given
+        Member member = member();
+        Book book = bookService.createBook(new BookDTO(null, "Rolled Back Book", "Outbox Author", "Outbox", 1));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // When
+        assertThatThrownBy(() -> transaction.executeWithoutResult(status -> {
+            loanService.createLoan(new LoanDTO(null, book.getId(), member.getId(), null, null));
+            throw new IllegalStateException("Annulation");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // Then
+        assertThat(pending()).isZero();
+        assertThat(outboxService.drain()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep a batch whose delivery failed and deliver it on the next drain")
+    void testRedeliversAfterFailure() {
+        // Given
+        Member member = member();
+        Book book = bookService.createBook(new BookDTO(null, "Failing Book", "Outbox Author", "Outbox", 1));
+        loanService.createLoan(new LoanDTO(null, book.getId(), member.getId(), null, null));
+        long failures = outboxService.getStatistics().getFailedBatches();
+
+        // When
+        recorder.failing = true;
+        int firstDrain = outboxService.drain();
+        recorder.failing = false;
+        int secondDrain = outboxService.drain();
+
+        // Then
+        assertThat(firstDrain).isZero();
+        assertThat(outboxService.getStatistics().getFailedBatches()).isEqualTo(failures + 1);
+        assertThat(secondDrain).isEqualTo(1);
+        assertThat(recorder.events).extracting(OutboxEvent::getBookId).containsExactly(book.getId());
+        assertThat(pending()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should hold a failed batch back without blocking later events")
+    void testBacksOffAfterFailure() {
+        // Given
+        Member member = member();
+        Book failing = bookService.createBook(new BookDTO(null, "Backoff Book", "Outbox Author", "Outbox", 1));
+        Book next = bookService.createBook(new BookDTO(null, "Next Book", "Outbox Author", "Outbox", 1));
+        ReflectionTestUtils.setField(outboxService, "retryBackoffMs", 60_000L);
+        try {
+            loanService.createLoan(new LoanDTO(null, failing.getId(), member.getId(), null, null));
+            recorder.failing = true;
+            outboxService.drain();
+            recorder.failing = false;
+
+            // When
+            loanService.createLoan(new LoanDTO(null, next.getId(), member.getId(), null, null));
+            int drained = outboxService.drain();
+
+            // Then : seul le nouvel événement part, le lot refusé attend la fin de son délai
+            assertThat(drained).isEqualTo(1);
+            assertThat(recorder.events).extracting(OutboxEvent::getBookId).containsExactly(next.getId());
+            assertThat(jdbcTemplate.queryForObject("SELECT attempts FROM loan_outbox WHERE book_id = ?",
+                    Integer.class, failing.getId())).isEqualTo(1);
+        } finally {
+            ReflectionTestUtils.setField(outboxService, "retryBackoffMs", 0L);
+            jdbcTemplate.update("UPDATE loan_outbox SET claim_expires_at = NULL");
+        }
+    }
+
+    @Test
+    @DisplayName("Should park events in the dead-letter table after too many failures")
+    void testParksAfterMaxAttempts() {
+        // Given
+        Member member = member();
+        Book book = bookService.createBook(new BookDTO(null, "Poison Book", "Outbox Author", "Outbox", 1));
+        loanService.createLoan(new LoanDTO(null, book.getId(), member.getId(), null, null));
+        int parkedBefore = parked();
+
+        // When : trois échecs, le maximum configuré
+        recorder.failing = true;
+        for (int i = 0; i < 3; i++) {
+            outboxService.drain();
+        }
+        recorder.failing = false;
+
+        // Then
+        assertThat(pending()).isZero();
+        assertThat(parked()).isEqualTo(parkedBefore + 1);
+        assertThat(jdbcTemplate.queryForObject("SELECT last_error FROM loan_outbox_dead WHERE book_id = ?",
+                String.class, book.getId())).contains("Destinataire indisponible");
+        assertThat(outboxService.getStatistics().getParked()).isEqualTo(parkedBefore + 1);
+        assertThat(outboxService.drain()).isZero();
+        assertThat(recorder.events).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should deliver each event exactly once to concurrent drainers")
+    void testConcurrentDrainers() throws Exception {
+        // Given : écritures hors transaction, validées une à une
+        int events = 1_000;
+        for (long i = 1; i <= events; i++) {
+            outboxService.onLoanEvent(new LoanEvent(LoanEvent.Type.CHECKED_OUT, i, 1L, "Concurrent", "Outbox", 1L,
+                    LocalDate.now(), null));
+        }
+
+        // When
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        int delivered = 0;
+        try {
+            List<Future<Integer>> drains = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                drains.add(executor.submit(() -> {
+                    int total = 0;
+                    for (int drained = outboxService.drain(); drained > 0; drained = outboxService.drain()) {
+                        total += drained;
+                    }
+                    return total;
+                }));
+            }
+            for (Future<Integer> drain : drains) {
+                delivered += drain.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Then
+        assertThat(delivered).isEqualTo(events);
+        assertThat(recorder.events.stream().map(OutboxEvent::getLoanId).sorted().collect(Collectors.toList()))
+                .isEqualTo(LongStream.rangeClosed(1, events).boxed().collect(Collectors.toList()));
+        assertThat(pending()).isZero();
+    }
+}
@@ -0,0 +1,100 @@
+package com.ensam.library.service;
+
+import com.ensam.library.batch.StepResult;
+import com.ensam.library.dto.BookDTO;
+import com.ensam.library.dto.LoanDTO;
+import com.ensam.library.dto.MemberDTO;
+import com.ensam.library.fines.FinePolicy;
+import com.ensam.library.model.Book;
+import com.ensam.library.model.Loan;
+import com.ensam.library.model.Member;
+import com.ensam.library.repository.LoanRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:batchdb;DB_CLOSE_DELAY=-1",
+        "library.batch.overdue.grid-size=3",
+        "library.batch.overdue.chunk-size=2"
+})
+@DisplayName("Overdue Batch Job Tests")
+class OverdueBatchJobTest {
+
+    @Autowired
+    private OverdueBatchJob overdueBatchJob;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private FinePolicy finePolicy;
+
+    @Test
+    @DisplayName("Should write one notice per overdue loan and skip a completed run")
+    void testRun() {
+        // Given : cinq prêts en retard de 10 jours à la date d'exécution, un prêt récent
+        LocalDate runDate = LocalDate.now();
+        Member member = memberService.createMember(new MemberDTO(null, "Batch Member", "1 Batch Street",
+                "batch" + System.nanoTime() + "@test.com", "+1234567890"));
+        List<Long> overdue = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            Book book = bookService.createBook(new BookDTO(null, "Batch Book " + i, "Batch Author", "Batch", 1));
+            Loan loan = loanService.createLoan(new LoanDTO(null, book.getId(), member.getId(), null, null));
+            if (i < 5) {
+                loan.setLoanDate(runDate.minusDays(LoanService.LOAN_PERIOD_DAYS + 10L));
+                loanRepository.save(loan);
+                overdue.add(loan.getId());
+            }
+        }
+        long expected = loanRepository.findByReturnDateIsNullAndLoanDateBefore(
+                runDate.minusDays(LoanService.LOAN_PERIOD_DAYS)).size();
+
+        // When
+        StepResult result = overdueBatchJob.run(runDate).orElseThrow();
+
+        // Then
+        assertThat(result.getStatus()).isEqualTo(StepResult.Status.COMPLETED);
+        assertThat(result.getItemsWritten()).isEqualTo(expected);
+        assertThat(result.getChunks()).isGreaterThan(result.getPartitions());
+        List<Map<String, Object>> notices = jdbcTemplate.queryForList(
+                "SELECT loan_id, days_overdue, fine_cents FROM overdue_notices WHERE run_date = ? AND member_id = ? "
+                        + "ORDER BY loan_id", Date.valueOf(runDate), member.getId());
+        assertThat(notices).extracting(row -> ((Number) row.get("LOAN_ID")).longValue()).isEqualTo(overdue);
+        assertThat(notices).allSatisfy(row -> {
+            assertThat(((Number) row.get("DAYS_OVERDUE")).intValue()).isEqualTo(10);
+            assertThat(((Number) row.get("FINE_CENTS")).longValue()).isEqualTo(finePolicy.fine("Batch",
+                    runDate.minusDays(LoanService.LOAN_PERIOD_DAYS + 10L), runDate)).isPositive();
+        });
+        assertThat(overdueBatchJob.getLastResult()).contains(result);
+
+        // Relancé à la même date : toutes les tranches sont terminées
+        StepResult again = overdueBatchJob.run(runDate).orElseThrow();
+        assertThat(again.getChunks()).isZero();
+        assertThat(again.getItemsWritten()).isEqualTo(expected);
+    }
+}
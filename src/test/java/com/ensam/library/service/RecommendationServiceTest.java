@@ -0,0 +1,116 @@
+package com.ensam.library.service;
+
+import com.ensam.library.audit.AuditLog;
+import com.ensam.library.dto.RelatedBookDTO;
+import com.ensam.library.event.LoanEvent;
+import com.ensam.library.model.Book;
+import com.ensam.library.recommend.CoBorrowingMatrix;
+import com.ensam.library.repository.BookRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Recommendation Service Tests")
+class RecommendationServiceTest {
+
+    @Mock
+    private CoBorrowingLoader coBorrowingLoader;
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private AuditLog auditLog;
+
+    @InjectMocks
+    private RecommendationService recommendationService;
+
+    private LoanEvent checkout(Long memberId, Long bookId) {
+        return new LoanEvent(LoanEvent.Type.CHECKED_OUT, 1L, bookId, "Book " + bookId, "Fiction", memberId,
+                LocalDate.now(), null);
+    }
+
+    private Book book(Long id) {
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle("Book " + id);
+        book.setAuthor("Author " + id);
+        return book;
+    }
+
+    @Test
+    @DisplayName("Should recommend books co-borrowed with the requested one")
+    void testRelatedBooks() {
+        // Given
+        recommendationService.onLoanEvent(checkout(10L, 1L));
+        recommendationService.onLoanEvent(checkout(10L, 2L));
+        recommendationService.onLoanEvent(checkout(11L, 1L));
+        recommendationService.onLoanEvent(checkout(11L, 2L));
+        recommendationService.onLoanEvent(checkout(11L, 3L));
+        when(bookRepository.existsById(1L)).thenReturn(true);
+        when(bookRepository.findById(2L)).thenReturn(Optional.of(book(2L)));
+        when(bookRepository.findById(3L)).thenReturn(Optional.empty());
+
+        // When
+        Optional<List<RelatedBookDTO>> related = recommendationService.getRelatedBooks(1L, 5);
+
+        // Then : le livre 3, supprimé du catalogue, est écarté
+        assertTrue(related.isPresent());
+        assertEquals(1, related.get().size());
+        assertEquals("Book 2", related.get().get(0).getTitle());
+        assertEquals(2, related.get().get(0).getCoBorrowers());
+        verify(coBorrowingLoader).load(any());
+    }
+
+    @Test
+    @DisplayName("Should return empty for an unknown book")
+    void testUnknownBook() {
+        // Given
+        when(bookRepository.existsById(99L)).thenReturn(false);
+
+        // When / Then
+        assertTrue(recommendationService.getRelatedBooks(99L, 5).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reload the snapshot at startup and replay the history over it")
+    void testSnapshot(@TempDir Path directory) throws Exception {
+        // Given
+        ReflectionTestUtils.setField(recommendationService, "persist", true);
+        ReflectionTestUtils.setField(recommendationService, "snapshotFile", directory.resolve("matrix.bin").toString());
+        recommendationService.warmUp();
+        recommendationService.onLoanEvent(checkout(10L, 1L));
+        recommendationService.onLoanEvent(checkout(10L, 2L));
+        recommendationService.writeSnapshot();
+
+        // When
+        doAnswer(invocation -> {
+            CoBorrowingMatrix matrix = invocation.getArgument(0);
+            matrix.record(10L, 1L);
+            matrix.record(11L, 1L);
+            matrix.record(11L, 2L);
+            return 1L;
+        }).when(coBorrowingLoader).load(any());
+        recommendationService.warmUp();
+        when(bookRepository.existsById(1L)).thenReturn(true);
+        when(bookRepository.findById(2L)).thenReturn(Optional.of(book(2L)));
+
+        // Then
+        assertEquals(2, recommendationService.getRelatedBooks(1L, 5).get().get(0).getCoBorrowers());
+    }
+}
@@ -0,0 +1,128 @@
+package com.ensam.library.service;
+
+import com.ensam.library.dto.BookDTO;
+import com.ensam.library.dto.CacheRegionStatsDTO;
+import com.ensam.library.dto.LoanDTO;
+import com.ensam.library.dto.MemberDTO;
+import com.ensam.library.model.Book;
+import com.ensam.library.model.Loan;
+import com.ensam.library.model.Member;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = {"spring.datasource.url=jdbc:h2:mem:cachedb;DB_CLOSE_DELAY=-1",
+        "library.cache.statistics=true"})
+@DisplayName("Second Level Cache Tests")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private CacheStatisticsService cacheStatisticsService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Book book;
+    private Member member;
+
+    @BeforeEach
+    void setUp() {
+        long suffix = System.nanoTime();
+        book = bookService.createBook(new BookDTO(null, "Cached Book " + suffix, "Cache Author", "Cache" + suffix, 1));
+        member = memberService.createMember(new MemberDTO(null, "Cache Member", "1 Cache Street",
+                "cache" + suffix + "@test.com", "+1234567890"));
+        entityManagerFactory.unwrap(SessionFactory.class).getStatistics().clear();
+    }
+
+    private CacheRegionStatsDTO region(String name) {
+        return cacheStatisticsService.getRegionStatistics().stream()
+                .filter(stats -> stats.getRegion().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Should serve repeated entity loads from the second level cache")
+    void testEntityCacheHit() {
+        bookService.getBookById(book.getId());
+        memberService.getMemberById(member.getId());
+        long bookHits = region("book").getHitCount();
+        long memberHits = region("member").getHitCount();
+
+        bookService.getBookById(book.getId());
+        memberService.getMemberById(member.getId());
+
+        assertThat(region("book").getHitCount()).isEqualTo(bookHits + 1);
+        assertThat(region("member").getHitCount()).isEqualTo(memberHits + 1);
+        // Pas de nombre d'entrées sous JCache plutôt qu'une valeur négative
+        assertThat(region("book").getElementCountInMemory()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should invalidate cached availability after a loan and a return")
+    void testInvalidationAfterLoanAndReturn() {
+        assertThat(bookService.getAvailableBooks()).extracting(Book::getId).contains(book.getId());
+        assertThat(bookService.getAvailableBooks()).extracting(Book::getId).contains(book.getId());
+        assertThat(region("query.availableBooks").getHitCount()).isEqualTo(1);
+
+        Loan loan = loanService.createLoan(new LoanDTO(null, book.getId(), member.getId(), null, null));
+
+        assertThat(bookService.getAvailableBooks()).extracting(Book::getId).doesNotContain(book.getId());
+        assertThat(bookService.getBookById(book.getId()).orElseThrow().getAvailable()).isFalse();
+        assertThat(bookService.getBookById(book.getId()).orElseThrow().getAvailableCopies()).isZero();
+
+        loanService.returnBook(loan.getId());
+
+        assertThat(bookService.getAvailableBooks()).extracting(Book::getId).contains(book.getId());
+        Book returned = bookService.getBookById(book.getId()).orElseThrow();
+        assertThat(returned.getAvailable()).isTrue();
+        assertThat(returned.getAvailableCopies()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should invalidate genre query after a catalog update")
+    void testGenreQueryInvalidation() {
+        String genre = book.getGenre();
+        List<Book> before = bookService.getBooksByGenre(genre);
+        assertThat(before).hasSize(1);
+
+        bookService.updateBook(book.getId(), new BookDTO(book.getId(), book.getTitle(), book.getAuthor(), "Other"));
+
+        assertThat(bookService.getBooksByGenre(genre)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should return fresh copy counts from loan and return when the book is cached")
+    void testFreshCopiesWithinTransaction() {
+        // Given - le livre est présent dans le cache de second niveau
+        bookService.getBookById(book.getId());
+
+        Loan loan = loanService.createLoan(new LoanDTO(null, book.getId(), member.getId(), null, null));
+        assertThat(loan.getBook().getAvailableCopies()).isZero();
+        assertThat(loan.getBook().getAvailable()).isFalse();
+
+        bookService.getBookById(book.getId());
+        Loan returned = loanService.returnBook(loan.getId()).orElseThrow();
+        assertThat(returned.getBook().getAvailableCopies()).isEqualTo(1);
+        assertThat(returned.getBook().getAvailable()).isTrue();
+    }
+}
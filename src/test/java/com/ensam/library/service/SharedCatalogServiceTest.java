@@ -0,0 +1,193 @@
+package com.ensam.library.service;
+
+import com.ensam.library.catalog.CatalogImage;
+import com.ensam.library.datasource.SessionConsistency;
+import com.ensam.library.event.CatalogEvent;
+import com.ensam.library.model.Book;
+import com.ensam.library.model.Tombstone;
+import com.ensam.library.repository.BookRepository;
+import com.ensam.library.repository.TombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Shared Catalog Service Tests")
+class SharedCatalogServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private TombstoneRepository tombstoneRepository;
+
+    @Mock
+    private ChangeTracker changeTracker;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private SharedCatalogService publisher;
+
+    @TempDir
+    Path directory;
+
+    // Seconde instance du même hôte, en simple lecture du répertoire partagé
+    private SharedCatalogService reader;
+
+    private final Book book = new Book(1L, "Clean Code", "Robert C. Martin", "Programming", true);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(publisher, "enabled", true);
+        ReflectionTestUtils.setField(publisher, "publisher", true);
+        ReflectionTestUtils.setField(publisher, "directory", directory.toString());
+        reader = new SharedCatalogService();
+        ReflectionTestUtils.setField(reader, "enabled", true);
+        ReflectionTestUtils.setField(reader, "directory", directory.toString());
+        ReflectionTestUtils.setField(reader, "tombstoneRepository", tombstoneRepository);
+    }
+
+    private List<String> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    @DisplayName("Should serve nothing before the first generation is published")
+    void testNothingPublished() throws IOException {
+        // When
+        boolean refreshed = reader.refresh();
+
+        // Then
+        assertFalse(refreshed);
+        assertTrue(reader.current().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should swap every instance to each newly published generation")
+    void testPublishAndSwap() throws IOException {
+        // Given
+        when(bookRepository.findAll()).thenReturn(List.of(book));
+        publisher.start();
+        assertTrue(reader.refresh());
+        CatalogImage first = reader.current().orElseThrow();
+
+        // When : un livre modifié puis une nouvelle publication
+        Book renamed = new Book(1L, "Clean Code (2nd edition)", "Robert C. Martin", "Programming", false);
+        when(bookRepository.findAll()).thenReturn(List.of(renamed));
+        publisher.onCatalogEvent(new CatalogEvent(CatalogEvent.Type.UPDATED, 1L));
+        publisher.scheduledPublish();
+        boolean refreshed = reader.refresh();
+
+        // Then
+        assertTrue(refreshed);
+        assertFalse(reader.refresh());
+        assertEquals(1, first.generation());
+        assertEquals(2, reader.current().orElseThrow().generation());
+        assertEquals(Optional.of(renamed), reader.current().orElseThrow().find(1L));
+        // L'image précédente reste lisible par qui la projette encore
+        assertEquals(Optional.of(book), first.find(1L));
+        assertEquals(2, publisher.current().orElseThrow().generation());
+    }
+
+    @Test
+    @DisplayName("Should publish only after a change and keep a single previous generation")
+    void testPublishOnlyWhenDirty() throws IOException {
+        // Given
+        when(bookRepository.findAll()).thenReturn(List.of(book));
+        publisher.start();
+
+        // When : aucune modification, puis trois modifications publiées une à une
+        publisher.scheduledPublish();
+        for (int i = 0; i < 3; i++) {
+            publisher.onLoanEvent(null);
+            publisher.scheduledPublish();
+        }
+
+        // Then
+        verify(bookRepository, times(4)).findAll();
+        assertEquals(List.of("catalog-3.bin", "catalog-4.bin", "current"), files());
+    }
+
+    @Test
+    @DisplayName("Should stop serving books deleted since the image was read")
+    void testDeletedBooksAreMisses() throws IOException {
+        // Given : image complète jusqu'au numéro 7
+        Book other = new Book(2L, "Refactoring", "Martin Fowler", "Programming", true);
+        when(changeTracker.safeWatermark()).thenReturn(7L);
+        when(bookRepository.findAll()).thenReturn(List.of(book, other));
+        publisher.start();
+        assertTrue(reader.refresh());
+
+        // When : livre 1 supprimé par cette instance, livre 2 par une autre
+        publisher.onCatalogEvent(new CatalogEvent(CatalogEvent.Type.DELETED, 1L));
+        when(tombstoneRepository.findByEntityTypeAndChangeSeqGreaterThan(Tombstone.EntityType.BOOK, 7L))
+                .thenReturn(List.of(new Tombstone(1L, Tombstone.EntityType.BOOK, 2L, 8L, LocalDateTime.now())));
+        reader.scheduledRefresh();
+
+        // Then
+        assertTrue(publisher.find(1L).isEmpty());
+        assertEquals(Optional.of(other), publisher.find(2L));
+        assertEquals(Optional.of(book), reader.find(1L));
+        assertTrue(reader.find(2L).isEmpty());
+        assertEquals(Optional.of(List.of(book)), reader.available());
+        assertEquals(Optional.of(List.of()), reader.searchTitle("refactor"));
+    }
+
+    @Test
+    @DisplayName("Should not serve a session that requires its own writes")
+    void testReadYourWritesBypassesImage() throws IOException {
+        // Given
+        when(bookRepository.findAll()).thenReturn(List.of(book));
+        publisher.start();
+
+        // When
+        SessionConsistency.bind(3L, null);
+        try {
+            // Then
+            assertTrue(publisher.find(1L).isEmpty());
+            assertTrue(publisher.available().isEmpty());
+            assertTrue(publisher.searchTitle("clean").isEmpty());
+        } finally {
+            SessionConsistency.clear();
+        }
+        assertEquals(Optional.of(book), publisher.find(1L));
+    }
+
+    @Test
+    @DisplayName("Should stay silent when disabled")
+    void testDisabled() throws IOException {
+        // Given
+        ReflectionTestUtils.setField(publisher, "enabled", false);
+
+        // When
+        publisher.start();
+
+        // Then
+        verifyNoInteractions(bookRepository);
+        assertTrue(publisher.current().isEmpty());
+        assertTrue(files().isEmpty());
+    }
+}
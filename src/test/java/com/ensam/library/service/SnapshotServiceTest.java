@@ -0,0 +1,121 @@
+package com.ensam.library.service;
+
+import com.ensam.library.archive.ArchivedLoan;
+import com.ensam.library.archive.LoanArchive;
+import com.ensam.library.dto.BookDTO;
+import com.ensam.library.dto.LoanDTO;
+import com.ensam.library.dto.MemberDTO;
+import com.ensam.library.model.Book;
+import com.ensam.library.model.Loan;
+import com.ensam.library.model.Member;
+import com.ensam.library.repository.BookRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:snapshotdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "library.snapshot.enabled=true",
+        "library.snapshot.file=target/snapshot-test/library-snapshot.bin",
+        "library.archive.directory=target/snapshot-test/archive"
+})
+@DisplayName("Snapshot Service Tests")
+class SnapshotServiceTest {
+
+    private static final String INDEXES = "SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES "
+            + "WHERE TABLE_SCHEMA = CURRENT_SCHEMA ORDER BY INDEX_NAME";
+
+    @Autowired
+    private SnapshotService snapshotService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private LoanArchive loanArchive;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<Map<String, Object>> rows(String table) {
+        return jdbcTemplate.queryForList("SELECT * FROM " + table + " ORDER BY id");
+    }
+
+    @Test
+    @DisplayName("Should restore the tables as dumped, with their indexes and identity counters")
+    void testDumpAndRestore() throws Exception {
+        // Given : un prêt en cours et un prêt rendu, puis un instantané
+        Member member = memberService.createMember(new MemberDTO(null, "Snapshot Member", "1 Snapshot Street",
+                "snapshot" + System.nanoTime() + "@test.com", "+1234567890"));
+        Book first = bookService.createBook(new BookDTO(null, "Snapshot Book", "Snapshot Author", "Snapshot", 2));
+        Book second = bookService.createBook(new BookDTO(null, "Other Book", "Snapshot Author", "Snapshot", 1));
+        loanService.createLoan(new LoanDTO(null, first.getId(), member.getId(), null, null));
+        loanService.returnBook(loanService.createLoan(new LoanDTO(null, second.getId(), member.getId(), null, null)).getId());
+        List<Map<String, Object>> books = rows("books");
+        List<Map<String, Object>> members = rows("members");
+        List<Map<String, Object>> loans = rows("loans");
+        List<String> indexes = jdbcTemplate.queryForList(INDEXES, String.class);
+
+        long dumped = snapshotService.dump();
+        // Modifications postérieures à l'instantané, perdues à la restauration
+        bookService.createBook(new BookDTO(null, "Late Book", "Late Author", "Late", 1));
+        jdbcTemplate.update("UPDATE members SET name = 'Renamed' WHERE id = ?", member.getId());
+
+        // When
+        long restored = snapshotService.restore();
+
+        // Then
+        assertThat(restored).isEqualTo(dumped);
+        assertThat(rows("books")).isEqualTo(books);
+        assertThat(rows("members")).isEqualTo(members);
+        assertThat(rows("loans")).isEqualTo(loans);
+        assertThat(jdbcTemplate.queryForList(INDEXES, String.class)).isEqualTo(indexes);
+        assertThat(bookRepository.findById(first.getId())).isPresent();
+        assertThat(memberService.getMemberById(member.getId()).orElseThrow().getName()).isEqualTo("Snapshot Member");
+
+        Book created = bookService.createBook(new BookDTO(null, "After Restore", "Snapshot Author", "Snapshot", 1));
+        // Compteur d'identité repositionné après la dernière ligne restaurée, et non après « Late Book »
+        assertThat(created.getId()).isEqualTo(second.getId() + 1);
+    }
+
+    @Test
+    @DisplayName("Should not hand out the ids of archived loans after a restore")
+    void testRestoreSkipsArchivedLoanIds() throws Exception {
+        // Given : le dernier prêt rendu puis archivé, absent de la table à l'instantané
+        Member member = memberService.createMember(new MemberDTO(null, "Archive Member", "1 Archive Street",
+                "archive" + System.nanoTime() + "@test.com", "+1234567890"));
+        Book book = bookService.createBook(new BookDTO(null, "Archived Book", "Archive Author", "Archive", 1));
+        Loan archived = loanService.createLoan(new LoanDTO(null, book.getId(), member.getId(), null, null));
+        loanService.returnBook(archived.getId());
+        loanArchive.append(List.of(new ArchivedLoan(archived.getId(), book.getId(), member.getId(),
+                LocalDate.now(), LocalDate.now())));
+        jdbcTemplate.update("DELETE FROM loans WHERE id = ?", archived.getId());
+        snapshotService.dump();
+
+        // When
+        snapshotService.restore();
+        Loan created = loanService.createLoan(new LoanDTO(null, book.getId(), member.getId(), null, null));
+
+        // Then
+        assertThat(created.getId()).isGreaterThan(archived.getId());
+    }
+}
@@ -0,0 +1,52 @@
+package com.ensam.library.service;
+
+import com.ensam.library.dto.ChangeSetDTO;
+import com.ensam.library.model.Book;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:syncdb;DB_CLOSE_DELAY=-1")
+@Sql("classpath:data.sql")
+@DisplayName("Sync Integration Tests")
+class SyncIntegrationTest {
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should return seeded and never modified rows on the first sync, page by page")
+    void testFirstSyncIncludesSeededRows() {
+        // Given : livres de data.sql, et deux livres insérés hors de l'application (numéro 0)
+        jdbcTemplate.update("INSERT INTO books (title, author, genre, available) "
+                + "VALUES ('Legacy Book', 'Legacy Author', 'Legacy', TRUE), "
+                + "('Other Legacy Book', 'Legacy Author', 'Legacy', TRUE)");
+
+        // When : synchronisation complète, un livre par page
+        List<String> titles = new ArrayList<>();
+        long since = SyncService.FULL_SYNC;
+        ChangeSetDTO<Book> changes;
+        do {
+            changes = syncService.getBookChanges(since, 1);
+            changes.getItems().forEach(book -> titles.add(book.getTitle()));
+            since = changes.getNextSince();
+        } while (changes.isHasMore());
+
+        // Then
+        assertThat(titles).containsExactly("Legacy Book", "Other Legacy Book", "Clean Code", "Design Patterns");
+        assertThat(syncService.getBookChanges(since, 100).getItems()).isEmpty();
+    }
+}
@@ -0,0 +1,106 @@
+package com.ensam.library.service;
+
+import com.ensam.library.audit.AuditLog;
+import com.ensam.library.dto.ChangeSetDTO;
+import com.ensam.library.model.Book;
+import com.ensam.library.model.Tombstone;
+import com.ensam.library.repository.BookRepository;
+import com.ensam.library.repository.MemberRepository;
+import com.ensam.library.repository.TombstoneRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Sync Service Tests")
+class SyncServiceTest {
+
+    @Mock
+    private BookRepository bookRepository;
+
+    @Mock
+    private MemberRepository memberRepository;
+
+    @Mock
+    private TombstoneRepository tombstoneRepository;
+
+    @Mock
+    private ChangeTracker changeTracker;
+
+    @Mock
+    private AuditLog auditLog;
+
+    @InjectMocks
+    private SyncService syncService;
+
+    private Book bookWithSeq(long id, long seq) {
+        Book book = new Book(id, "Book " + id, "Author", "Fiction", true);
+        book.setChangeSeq(seq);
+        return book;
+    }
+
+    private Tombstone tombstone(long bookId, long seq) {
+        return new Tombstone(null, Tombstone.EntityType.BOOK, bookId, seq, LocalDateTime.now());
+    }
+
+    @Test
+    @DisplayName("Should merge updated rows and tombstones in change order")
+    void testGetBookChanges() {
+        when(changeTracker.safeWatermark()).thenReturn(20L);
+        when(bookRepository.findByChangeSeqBetweenOrderByChangeSeqAsc(eq(11L), eq(20L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(bookWithSeq(1L, 12L), bookWithSeq(2L, 15L)));
+        when(tombstoneRepository.findByEntityTypeAndChangeSeqBetweenOrderByChangeSeqAsc(
+                eq(Tombstone.EntityType.BOOK), eq(11L), eq(20L), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(tombstone(3L, 13L)));
+
+        ChangeSetDTO<Book> result = syncService.getBookChanges(10L, 100);
+
+        assertEquals(2, result.getItems().size());
+        assertEquals(Collections.singletonList(3L), result.getDeletedIds());
+        assertEquals(20L, result.getNextSince());
+        assertFalse(result.isHasMore());
+    }
+
+    @Test
+    @DisplayName("Should page through changes and return the last delivered number")
+    void testGetBookChanges_Paginated() {
+        when(changeTracker.safeWatermark()).thenReturn(20L);
+        when(bookRepository.findByChangeSeqBetweenOrderByChangeSeqAsc(eq(1L), eq(20L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(bookWithSeq(1L, 2L), bookWithSeq(2L, 5L)));
+        when(tombstoneRepository.findByEntityTypeAndChangeSeqBetweenOrderByChangeSeqAsc(
+                eq(Tombstone.EntityType.BOOK), eq(1L), eq(20L), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(tombstone(3L, 4L)));
+
+        ChangeSetDTO<Book> result = syncService.getBookChanges(0L, 2);
+
+        assertEquals(1, result.getItems().size());
+        assertEquals(Collections.singletonList(3L), result.getDeletedIds());
+        assertEquals(4L, result.getNextSince());
+        assertTrue(result.isHasMore());
+    }
+
+    @Test
+    @DisplayName("Should not query when client is already up to date")
+    void testGetBookChanges_UpToDate() {
+        when(changeTracker.safeWatermark()).thenReturn(20L);
+
+        ChangeSetDTO<Book> result = syncService.getBookChanges(20L, 100);
+
+        assertTrue(result.getItems().isEmpty());
+        assertEquals(20L, result.getNextSince());
+        verify(bookRepository, never()).findByChangeSeqBetweenOrderByChangeSeqAsc(anyLong(), anyLong(), any());
+    }
+}
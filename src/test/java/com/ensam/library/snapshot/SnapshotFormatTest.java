@@ -0,0 +1,119 @@
+package com.ensam.library.snapshot;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Snapshot Format Tests")
+class SnapshotFormatTest {
+
+    private final SnapshotTable books = new SnapshotTable("books",
+            List.of("id", "title", "copies", "available", "added", "updated_at"),
+            List.of(ColumnType.LONG, ColumnType.STRING, ColumnType.INT, ColumnType.BOOLEAN, ColumnType.DATE,
+                    ColumnType.TIMESTAMP));
+
+    private Object[] book(long id) {
+        return new Object[]{id, "Genre " + (id % 7), (int) (id % 5) - 2, id % 3 == 0,
+                id % 4 == 0 ? null : LocalDate.of(2024, 1, 1).plusDays(id),
+                LocalDateTime.of(2024, 1, 1, 12, 0).plusSeconds(id * 37).plusNanos(id * 1000)};
+    }
+
+    private List<Object[]> readAll(SnapshotReader reader) throws IOException {
+        List<Object[]> rows = new ArrayList<>();
+        List<Object[]> block;
+        while (!(block = reader.nextBlock()).isEmpty()) {
+            rows.addAll(block);
+        }
+        return rows;
+    }
+
+    @Test
+    @DisplayName("Should restore every value, nulls included, across several blocks and tables")
+    void testRoundTrip() throws IOException {
+        // Given : une table sur plusieurs blocs, puis une table vide
+        int count = SnapshotWriter.BLOCK_ROWS * 2 + 17;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (SnapshotWriter writer = new SnapshotWriter(bytes)) {
+            writer.beginTable(books);
+            for (long id = 1; id <= count; id++) {
+                writer.row(book(id));
+            }
+            writer.endTable();
+            writer.beginTable(new SnapshotTable("holds", List.of("id"), List.of(ColumnType.LONG)));
+            writer.endTable();
+            assertEquals(count, writer.rowsWritten());
+        }
+
+        // When
+        try (SnapshotReader reader = new SnapshotReader(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Optional<SnapshotTable> first = reader.nextTable();
+            List<Object[]> rows = readAll(reader);
+            Optional<SnapshotTable> second = reader.nextTable();
+            List<Object[]> empty = readAll(reader);
+
+            // Then
+            assertEquals(Optional.of(books), first);
+            assertEquals(count, rows.size());
+            for (int i = 0; i < count; i++) {
+                assertArrayEquals(book(i + 1), rows.get(i));
+            }
+            assertEquals("holds", second.orElseThrow().getName());
+            assertTrue(empty.isEmpty());
+            assertTrue(reader.nextTable().isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Should encode sequential rows in a few bytes each")
+    void testCompactness() throws IOException {
+        // Given : identifiants consécutifs et textes répétés, le cas des tables de la bibliothèque
+        int count = 50_000;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        // When
+        try (SnapshotWriter writer = new SnapshotWriter(bytes)) {
+            writer.beginTable(books);
+            for (long id = 1; id <= count; id++) {
+                writer.row(book(id));
+            }
+        }
+
+        // Then
+        assertTrue(bytes.size() < count * 8, "Taille: " + bytes.size());
+    }
+
+    @Test
+    @DisplayName("Should reject a file that is not a snapshot")
+    void testRejectsForeignFile() throws IOException {
+        // Given
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        }
+
+        // When / Then
+        assertThrows(IOException.class, () -> new SnapshotReader(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    @Test
+    @DisplayName("Should reject a row whose width does not match the table")
+    void testRejectsWrongWidth() throws IOException {
+        // Given
+        SnapshotWriter writer = new SnapshotWriter(new ByteArrayOutputStream());
+        writer.beginTable(books);
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> writer.row(new Object[]{1L}));
+    }
+}
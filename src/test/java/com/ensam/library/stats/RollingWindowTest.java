@@ -0,0 +1,43 @@
+package com.ensam.library.stats;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Rolling Window Tests")
+class RollingWindowTest {
+
+    @Test
+    @DisplayName("Should only sum buckets inside the window")
+    void testWindowBounds() {
+        // Given
+        RollingWindow<StripedCounters<String>> window = new RollingWindow<>(3, StripedCounters::new);
+
+        // When
+        window.bucket(10).increment("Fiction");
+        window.bucket(11).increment("Fiction");
+        window.bucket(12).increment("Science");
+
+        // Then
+        assertEquals(Map.of("Fiction", 2L, "Science", 1L), StripedCounters.sum(window.buckets(12)));
+        assertEquals(Map.of("Fiction", 1L, "Science", 1L), StripedCounters.sum(window.buckets(13)));
+    }
+
+    @Test
+    @DisplayName("Should recycle a slot for a newer day and reject older days")
+    void testSlotRecycling() {
+        // Given
+        RollingWindow<StripedCounters<String>> window = new RollingWindow<>(2, StripedCounters::new);
+        window.bucket(4).increment("Old");
+
+        // When
+        window.bucket(6).increment("New");
+
+        // Then
+        assertNull(window.bucket(4));
+        assertEquals(Map.of("New", 1L), StripedCounters.sum(window.buckets(6)));
+    }
+}
@@ -0,0 +1,55 @@
+package com.ensam.library.stats;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Space-Saving Sketch Tests")
+class SpaceSavingSketchTest {
+
+    @Test
+    @DisplayName("Should keep heavy hitters within bounded memory")
+    void testHeavyHitters() {
+        // Given
+        SpaceSavingSketch<Long> sketch = new SpaceSavingSketch<>(4);
+
+        // When - deux titres populaires noyés dans un flux de titres rares
+        for (long i = 0; i < 200; i++) {
+            sketch.offer(1L);
+            if (i % 2 == 0) {
+                sketch.offer(2L);
+            }
+            sketch.offer(1000L + i);
+        }
+
+        // Then
+        assertEquals(4, sketch.snapshot().size());
+        List<Long> top = SpaceSavingSketch.top(List.of(sketch), 2).stream()
+                .map(Map.Entry::getKey).collect(Collectors.toList());
+        assertEquals(List.of(1L, 2L), top);
+    }
+
+    @Test
+    @DisplayName("Should merge daily sketches")
+    void testMerge() {
+        // Given
+        SpaceSavingSketch<Long> monday = new SpaceSavingSketch<>(10);
+        SpaceSavingSketch<Long> tuesday = new SpaceSavingSketch<>(10);
+        monday.offer(1L);
+        monday.offer(2L);
+        tuesday.offer(2L);
+
+        // When
+        List<Map.Entry<Long, Long>> top = SpaceSavingSketch.top(List.of(monday, tuesday), 1);
+
+        // Then
+        assertEquals(1, top.size());
+        assertEquals(2L, top.get(0).getKey());
+        assertEquals(2L, top.get(0).getValue());
+    }
+}